@@ -0,0 +1,71 @@
+package com.fleetops.bulkupload;
+
+import com.fleetops.bulkupload.dto.CreateOrderDto;
+import com.fleetops.bulkupload.service.IdempotencyService;
+import com.fleetops.bulkupload.util.IdempotencyKeyEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of the HASH-basis idempotency key.
+ * Run with -prof gc to compare gc.alloc.rate.norm between the two paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class IdempotencyKeyBenchmark {
+
+    private final IdempotencyService service = new IdempotencyService();
+    private final IdempotencyKeyEngine engine = new IdempotencyKeyEngine();
+    private final byte[] keyBuffer = new byte[IdempotencyKeyEngine.KEY_BYTES];
+    private CreateOrderDto order;
+
+    @Setup
+    public void setUp() {
+        order = new CreateOrderDto();
+        order.setSenderName("Ravi Kumar");
+        order.setSenderAddress("12 MG Road, Bengaluru");
+        order.setSenderContact("9876543210");
+        order.setSenderEmail("ravi@example.com");
+        order.setReceiverName("Anita Sharma");
+        order.setReceiverAddress("Flat 402, Sunrise Apartments, Andheri East, Mumbai");
+        order.setReceiverContact("9123456780");
+        order.setReceiverPincode("400069");
+        order.setReceiverCity("Mumbai");
+        order.setItemCount(3);
+        order.setTotalWeight(new BigDecimal("2.50"));
+        order.setItemDescription("Books and stationery");
+        order.setDeclaredValue(new BigDecimal("1499.00"));
+        order.setServiceType("express");
+        order.setCarrierName("BlueDart");
+        order.setCodAmount(new BigDecimal("0.00"));
+    }
+
+    /**
+     * Previous implementation: canonical String, getInstance per call, String.format per byte.
+     */
+    @Benchmark
+    public String legacyHexKey() throws NoSuchAlgorithmException {
+        String canonical = service.computeCanonicalRepresentation(order);
+        byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) sb.append(String.format("%02x", b));
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String engineHexKey() {
+        return engine.hexKey(order);
+    }
+
+    @Benchmark
+    public byte[] engineBinaryKeyIntoBuffer() {
+        engine.binaryKey(order, keyBuffer, 0);
+        return keyBuffer;
+    }
+}
@@ -0,0 +1,152 @@
+package com.fleetops.bulkupload.parser;
+
+import com.fleetops.bulkupload.dto.CreateOrderDto;
+import com.fleetops.excel.BoundColumns;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Row conversion cost of the order Excel parser: per-row header-name lookups with
+ * exception-driven cell reads (previous implementation) against precompiled column binders.
+ * Both variants convert the same in-memory 500-row workbook; workbook loading is excluded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class ExcelRowBindingBenchmark {
+
+    private static final String[] HEADERS = {
+            "clientReference", "senderName", "senderAddress", "senderContact", "senderEmail",
+            "receiverName", "receiverAddress", "receiverContact", "receiverPincode", "receiverCity",
+            "itemCount", "totalWeight", "itemDescription", "declaredValue",
+            "serviceType", "carrierName", "codAmount", "specialInstructions"
+    };
+
+    private XSSFWorkbook workbook;
+
+    @Setup
+    public void setUp() throws IOException {
+        workbook = new XSSFWorkbook();
+        Sheet sheet = workbook.createSheet("Orders");
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) header.createCell(i).setCellValue(HEADERS[i]);
+        for (int r = 1; r <= 500; r++) {
+            Row row = sheet.createRow(r);
+            row.createCell(0).setCellValue("REF" + r);
+            row.createCell(1).setCellValue("Sender " + r);
+            row.createCell(2).setCellValue("Sender Address " + r);
+            row.createCell(3).setCellValue(9876543210d);   // numeric contact, as users type it
+            row.createCell(4).setCellValue("sender" + r + "@example.com");
+            row.createCell(5).setCellValue("Receiver " + r);
+            row.createCell(6).setCellValue("Receiver Address " + r);
+            row.createCell(7).setCellValue(9123456780d);
+            row.createCell(8).setCellValue(560001);
+            row.createCell(9).setCellValue("Bengaluru");
+            row.createCell(10).setCellValue(1 + r % 5);
+            row.createCell(11).setCellValue(2.5);
+            row.createCell(12).setCellValue("Item " + r);
+            row.createCell(13).setCellValue(100.0);
+            row.createCell(14).setCellValue("express");
+            row.createCell(15).setCellValue("DHL");
+            row.createCell(16).setCellValue(50.0);
+            row.createCell(17).setCellValue("Handle with care");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    /**
+     * Row conversion only, precompiled binders used by ExcelParserService.
+     */
+    @Benchmark
+    public List<CreateOrderDto> convertRowsWithBinders() {
+        Sheet sheet = workbook.getSheetAt(0);
+        BoundColumns<CreateOrderDto> columns = ExcelParserService.ORDER_COLUMNS.bind(sheet.getRow(0));
+        List<CreateOrderDto> out = new ArrayList<>();
+        for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+            out.add(columns.read(sheet.getRow(r)));
+        }
+        return out;
+    }
+
+    /**
+     * Row conversion only, previous map-lookup implementation.
+     */
+    @Benchmark
+    public List<CreateOrderDto> convertRowsLegacy() {
+        Sheet sheet = workbook.getSheetAt(0);
+        Row header = sheet.getRow(0);
+        Map<String, Integer> idx = new HashMap<>();
+        for (int c = 0; c < header.getLastCellNum(); c++) idx.put(header.getCell(c).getStringCellValue().trim(), c);
+
+        List<CreateOrderDto> out = new ArrayList<>();
+        for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+            Row row = sheet.getRow(r);
+            CreateOrderDto dto = new CreateOrderDto();
+            dto.setClientReference(legacyString(row, idx.get("clientReference")));
+            dto.setClientId(legacyLong(row, idx.get("clientId")));
+            dto.setClientName(legacyString(row, idx.get("clientName")));
+            dto.setClientCompany(legacyString(row, idx.get("clientCompany")));
+            dto.setContactNumber(legacyString(row, idx.get("contactNumber")));
+            dto.setSenderName(legacyString(row, idx.get("senderName")));
+            dto.setSenderAddress(legacyString(row, idx.get("senderAddress")));
+            dto.setSenderContact(legacyString(row, idx.get("senderContact")));
+            dto.setSenderEmail(legacyString(row, idx.get("senderEmail")));
+            dto.setReceiverName(legacyString(row, idx.get("receiverName")));
+            dto.setReceiverAddress(legacyString(row, idx.get("receiverAddress")));
+            dto.setReceiverContact(legacyString(row, idx.get("receiverContact")));
+            dto.setReceiverEmail(legacyString(row, idx.get("receiverEmail")));
+            dto.setReceiverPincode(legacyString(row, idx.get("receiverPincode")));
+            dto.setReceiverCity(legacyString(row, idx.get("receiverCity")));
+            dto.setReceiverState(legacyString(row, idx.get("receiverState")));
+            dto.setItemCount(legacyInteger(row, idx.get("itemCount")));
+            dto.setTotalWeight(legacyDecimal(row, idx.get("totalWeight")));
+            dto.setLengthCm(legacyDecimal(row, idx.get("lengthCm")));
+            dto.setWidthCm(legacyDecimal(row, idx.get("widthCm")));
+            dto.setHeightCm(legacyDecimal(row, idx.get("heightCm")));
+            dto.setItemDescription(legacyString(row, idx.get("itemDescription")));
+            dto.setDeclaredValue(legacyDecimal(row, idx.get("declaredValue")));
+            dto.setServiceType(legacyString(row, idx.get("serviceType")));
+            dto.setCarrierName(legacyString(row, idx.get("carrierName")));
+            dto.setCarrierId(legacyString(row, idx.get("carrierId")));
+            dto.setCodAmount(legacyDecimal(row, idx.get("codAmount")));
+            dto.setSpecialInstructions(legacyString(row, idx.get("specialInstructions")));
+            out.add(dto);
+        }
+        return out;
+    }
+
+    private String legacyString(Row row, Integer idx) {
+        if (idx == null || row.getCell(idx) == null) return null;
+        try { return row.getCell(idx).getStringCellValue(); } catch (Exception e) { return String.valueOf(row.getCell(idx).getNumericCellValue()); }
+    }
+
+    private Integer legacyInteger(Row row, Integer idx) {
+        if (idx == null || row.getCell(idx) == null) return null;
+        try { return (int) Math.round(row.getCell(idx).getNumericCellValue()); } catch (Exception e) { return null; }
+    }
+
+    private Long legacyLong(Row row, Integer idx) {
+        if (idx == null || row.getCell(idx) == null) return null;
+        try { return Math.round(row.getCell(idx).getNumericCellValue()); } catch (Exception e) { return null; }
+    }
+
+    private BigDecimal legacyDecimal(Row row, Integer idx) {
+        if (idx == null || row.getCell(idx) == null) return null;
+        try { return BigDecimal.valueOf(row.getCell(idx).getNumericCellValue()).setScale(2, RoundingMode.HALF_UP); } catch (Exception e) { return null; }
+    }
+}
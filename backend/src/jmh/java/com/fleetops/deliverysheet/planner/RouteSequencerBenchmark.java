@@ -0,0 +1,55 @@
+package com.fleetops.deliverysheet.planner;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end cost of sequencing one delivery sheet: distance matrix plus optimization to
+ * convergence. The budget is set far above the expected time so the score reflects how long the
+ * optimizer actually needs; a 150-stop sheet should stay well under the 100 ms production budget.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+public class RouteSequencerBenchmark {
+
+    private static final long UNBOUNDED_BUDGET_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    @Param({"50", "150", "300"})
+    public int stops;
+
+    private double[] lat;
+    private double[] lng;
+    private double[] matrix;
+
+    @Setup
+    public void setUp() {
+        // Stops scattered over a ~20 km city area
+        Random random = new Random(42);
+        lat = new double[stops];
+        lng = new double[stops];
+        for (int i = 0; i < stops; i++) {
+            lat[i] = 19.0 + random.nextDouble() * 0.2;
+            lng[i] = 72.8 + random.nextDouble() * 0.2;
+        }
+        matrix = RouteSequencer.haversineMatrix(lat, lng);
+    }
+
+    @Benchmark
+    public double[] distanceMatrix() {
+        return RouteSequencer.haversineMatrix(lat, lng);
+    }
+
+    @Benchmark
+    public int[] optimizeRoute() {
+        return new RouteSequencer(matrix, stops, false).sequence(UNBOUNDED_BUDGET_NANOS);
+    }
+
+    @Benchmark
+    public int[] sequenceSheet() {
+        double[] distances = RouteSequencer.haversineMatrix(lat, lng);
+        return new RouteSequencer(distances, stops, false).sequence(UNBOUNDED_BUDGET_NANOS);
+    }
+}
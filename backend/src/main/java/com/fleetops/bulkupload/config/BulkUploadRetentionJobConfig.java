@@ -0,0 +1,37 @@
+package com.fleetops.bulkupload.config;
+
+import com.fleetops.bulkupload.job.BulkUploadRetentionJob;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the bulk upload retention job with the (JDBC-backed) Quartz scheduler.
+ */
+@Configuration
+public class BulkUploadRetentionJobConfig {
+
+    @Bean
+    public JobDetail bulkUploadRetentionJobDetail() {
+        return JobBuilder.newJob(BulkUploadRetentionJob.class)
+                .withIdentity("bulkUploadRetentionJob", "bulk-upload")
+                .withDescription("Purges expired bulk upload rows and batches")
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger bulkUploadRetentionTrigger(JobDetail bulkUploadRetentionJobDetail,
+                                              BulkUploadRetentionProperties properties) {
+        return TriggerBuilder.newTrigger()
+                .forJob(bulkUploadRetentionJobDetail)
+                .withIdentity("bulkUploadRetentionTrigger", "bulk-upload")
+                .withSchedule(CronScheduleBuilder.cronSchedule(properties.getCron())
+                        .withMisfireHandlingInstructionDoNothing())
+                .build();
+    }
+}
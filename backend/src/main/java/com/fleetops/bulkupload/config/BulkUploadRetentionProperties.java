@@ -0,0 +1,50 @@
+package com.fleetops.bulkupload.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Retention policy for bulk upload history (app.bulk-upload.retention.*)
+ * Rows are kept for 30 days and batches for 180 days by default
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.bulk-upload.retention")
+public class BulkUploadRetentionProperties {
+
+    /**
+     * Whether the scheduled purge runs at all
+     */
+    private boolean enabled = true;
+
+    /**
+     * Quartz cron expression for the purge job (default: daily at 03:00)
+     */
+    private String cron = "0 0 3 * * ?";
+
+    /**
+     * Age in days after which bulk_upload_row entries are purged
+     */
+    private int rowRetentionDays = 30;
+
+    /**
+     * Age in days after which bulk_upload_batch entries without rows are purged
+     */
+    private int batchRetentionDays = 180;
+
+    /**
+     * Rows deleted per transaction; small chunks keep locks short and WAL flat
+     */
+    private int deleteBatchSize = 500;
+
+    /**
+     * Write purged records as gzipped NDJSON before deleting them
+     */
+    private boolean archiveEnabled = false;
+
+    /**
+     * Local directory receiving the archive files
+     */
+    private String archiveDirectory = "./data/bulk-upload-archive";
+}
@@ -1,19 +1,30 @@
 package com.fleetops.bulkupload.controller;
 
+import com.fleetops.bulkupload.dto.BatchDetailDto;
+import com.fleetops.bulkupload.dto.BatchRowPageDto;
 import com.fleetops.bulkupload.dto.BulkUploadResponseDto;
+import com.fleetops.bulkupload.dto.ReprocessFailedRowsRequestDto;
 import com.fleetops.bulkupload.entity.BulkUploadBatch;
+import com.fleetops.bulkupload.entity.RowStatus;
+import com.fleetops.bulkupload.parser.BulkPayloadParseException;
 import com.fleetops.bulkupload.service.BulkUploadService;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/bulk")
@@ -26,11 +37,31 @@ public class BulkUploadController {
     }
 
     @PostMapping(value = "/orders", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<BulkUploadResponseDto> uploadOrders(@RequestPart("file") MultipartFile file) {
-        BulkUploadResponseDto response = service.process(file);
+    public ResponseEntity<BulkUploadResponseDto> uploadOrders(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(value = "force", defaultValue = "false") boolean force) {
+        BulkUploadResponseDto response = service.process(file, force);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * JSON array or NDJSON variant of the bulk upload, for programmatic integrations.
+     * The body is streamed; each element gets a row outcome in the response.
+     */
+    @PostMapping(value = "/orders", consumes = {
+            MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<?> uploadOrdersJson(HttpServletRequest request) throws IOException {
+        MediaType contentType = MediaType.parseMediaType(request.getContentType());
+        String sourceName = MediaType.APPLICATION_JSON.includes(contentType) ? "api-upload.json" : "api-upload.ndjson";
+        try {
+            BulkUploadResponseDto response = service.processJson(request.getInputStream(), sourceName);
+            return ResponseEntity.ok(response);
+        } catch (BulkPayloadParseException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Bad request", "message", e.getMessage()));
+        }
+    }
+
     @GetMapping("/orders/template")
     public ResponseEntity<byte[]> downloadTemplate() {
         byte[] template = service.generateTemplate();
@@ -50,4 +81,68 @@ public class BulkUploadController {
         Page<BulkUploadBatch> batches = service.listBatches(pageable);
         return ResponseEntity.ok(batches);
     }
+
+    @PostMapping("/orders/batches/{batchId}/reprocess-failed")
+    public ResponseEntity<?> reprocessFailedRows(
+            @PathVariable String batchId,
+            @RequestBody(required = false) ReprocessFailedRowsRequestDto request) {
+        try {
+            BulkUploadResponseDto response = service.reprocessFailedRows(
+                    batchId, request != null ? request.getOverrides() : null);
+            return ResponseEntity.ok(response);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Not found", "message", e.getMessage()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Bad request", "message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping("/orders/batches/{batchId}")
+    public ResponseEntity<?> getBatch(@PathVariable String batchId) {
+        try {
+            BatchDetailDto batch = service.getBatchDetail(batchId);
+            return ResponseEntity.ok(batch);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Not found", "message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/orders/batches/{batchId}/rows")
+    public ResponseEntity<?> listRows(
+            @PathVariable String batchId,
+            @RequestParam(value = "afterRowIndex", required = false) Integer afterRowIndex,
+            @RequestParam(value = "limit", defaultValue = "100") int limit,
+            @RequestParam(value = "status", required = false) RowStatus status,
+            @RequestParam(value = "errorCode", required = false) String errorCode) {
+        try {
+            BatchRowPageDto page = service.listRows(batchId, afterRowIndex, limit, status, errorCode);
+            return ResponseEntity.ok(page);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Not found", "message", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "Bad request", "message", String.valueOf(e.getMessage())));
+        }
+    }
+
+    @GetMapping("/orders/batches/{batchId}/errors.csv")
+    public ResponseEntity<?> downloadErrorReport(@PathVariable String batchId) {
+        BulkUploadBatch batch;
+        try {
+            batch = service.getBatch(batchId);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Not found", "message", e.getMessage()));
+        }
+
+        StreamingResponseBody body = out -> service.writeErrorReport(batch, out);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + batchId + "-errors.csv\"")
+            .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+            .body(body);
+    }
 }
@@ -0,0 +1,50 @@
+package com.fleetops.bulkupload.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Summary of one bulk upload batch
+ * Row outcomes are paged separately via the batch rows endpoint
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchDetailDto {
+
+    /**
+     * Batch identifier (e.g., BU202510040001)
+     */
+    private String batchId;
+
+    /**
+     * Original file name, or api-upload.json / api-upload.ndjson for JSON uploads
+     */
+    private String fileName;
+
+    private Long fileSizeBytes;
+
+    private String uploaderName;
+
+    /**
+     * Processing status: PROCESSING, COMPLETED, FAILED
+     */
+    private String status;
+
+    private Integer totalRows;
+
+    private Integer createdCount;
+
+    private Integer failedCount;
+
+    private Integer skippedDuplicateCount;
+
+    private LocalDateTime uploadedAt;
+
+    private LocalDateTime processingCompletedAt;
+
+    private Long processingDurationMs;
+}
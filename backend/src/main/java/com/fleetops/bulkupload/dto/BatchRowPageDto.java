@@ -0,0 +1,37 @@
+package com.fleetops.bulkupload.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of row outcomes for a bulk upload batch
+ * Pass nextAfterRowIndex back as afterRowIndex to fetch the following page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRowPageDto {
+
+    /**
+     * Batch identifier (e.g., BU202510040001)
+     */
+    private String batchId;
+
+    /**
+     * Row outcomes ordered by rowIndex
+     */
+    private List<RowOutcomeDto> rows;
+
+    /**
+     * Row index of the last row in this page (null if the page is empty)
+     */
+    private Integer nextAfterRowIndex;
+
+    /**
+     * Whether more rows exist after this page
+     */
+    private boolean hasMore;
+}
@@ -50,4 +50,10 @@ public class BulkUploadResponseDto {
      * Detailed outcome for each row
      */
     private List<RowOutcomeDto> rows;
+
+    /**
+     * True when the file matched an already completed batch by checksum and
+     * the stored outcomes of that batch were returned without reprocessing
+     */
+    private Boolean duplicateFile;
 }
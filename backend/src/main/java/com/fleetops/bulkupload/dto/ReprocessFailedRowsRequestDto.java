@@ -0,0 +1,23 @@
+package com.fleetops.bulkupload.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Request body for reprocessing the failed rows of a bulk upload batch
+ * Corrections are keyed by row index and merged over the row's stored raw data
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReprocessFailedRowsRequestDto {
+
+    /**
+     * Field overrides per row index, using CreateOrderDto property names
+     * Example: {"12": {"receiverPincode": "560001"}}
+     */
+    private Map<Integer, Map<String, Object>> overrides;
+}
@@ -51,10 +51,12 @@ public class BulkUploadRow {
     @Column(name = "order_id")
     private Long orderId; // Foreign key to orders(id) - SET NULL on delete
 
+    // [{"code": "...", "field": "...", "message": "..."}] - queried by code through the GIN index
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "error_messages", columnDefinition = "jsonb")
-    private List<String> errorMessages = new ArrayList<>();
+    private List<Map<String, Object>> errorMessages = new ArrayList<>();
 
+    // Parsed row payload, replayed by the reprocess-failed-rows endpoint
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "raw_data", columnDefinition = "jsonb")
     private Map<String, Object> rawData = new HashMap<>();
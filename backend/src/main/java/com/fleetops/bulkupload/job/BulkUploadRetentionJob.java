@@ -0,0 +1,41 @@
+package com.fleetops.bulkupload.job;
+
+import com.fleetops.bulkupload.config.BulkUploadRetentionProperties;
+import com.fleetops.bulkupload.service.BulkUploadRetentionService;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.quartz.QuartzJobBean;
+
+/**
+ * Quartz job applying the bulk upload retention policy.
+ * Dependencies are injected by Spring Boot's autowiring job factory.
+ */
+@DisallowConcurrentExecution
+public class BulkUploadRetentionJob extends QuartzJobBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUploadRetentionJob.class);
+
+    @Autowired
+    private BulkUploadRetentionService retentionService;
+
+    @Autowired
+    private BulkUploadRetentionProperties properties;
+
+    @Override
+    protected void executeInternal(JobExecutionContext context) throws JobExecutionException {
+        if (!properties.isEnabled()) {
+            logger.debug("Bulk upload retention is disabled, skipping purge");
+            return;
+        }
+        try {
+            retentionService.purgeExpired();
+        } catch (RuntimeException e) {
+            logger.error("Bulk upload retention purge failed", e);
+            throw new JobExecutionException(e);
+        }
+    }
+}
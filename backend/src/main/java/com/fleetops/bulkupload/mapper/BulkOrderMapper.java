@@ -1,13 +1,30 @@
 package com.fleetops.bulkupload.mapper;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Maps bulk upload CreateOrderDto to order module CreateOrderDto
  * Handles field transformation between bulk upload and order creation
  */
 @Component
 public class BulkOrderMapper {
+
+    private static final TypeReference<Map<String, Object>> RAW_DATA_TYPE = new TypeReference<>() {};
+
+    // BigDecimals are kept as strings so "2.50" survives the jsonb round trip with its scale,
+    // which keeps the idempotency hash of a replayed row identical to the original upload
+    private static final ObjectMapper RAW_DATA_MAPPER = new ObjectMapper();
+    static {
+        RAW_DATA_MAPPER.configOverride(BigDecimal.class)
+                .setFormat(JsonFormat.Value.forShape(JsonFormat.Shape.STRING));
+    }
     
     /**
      * Convert bulk upload DTO to order creation DTO
@@ -65,6 +82,30 @@ public class BulkOrderMapper {
         return orderDto;
     }
     
+    /**
+     * Convert a parsed row to the JSON payload stored in bulk_upload_row.raw_data
+     */
+    public Map<String, Object> toRawData(com.fleetops.bulkupload.dto.CreateOrderDto bulkDto) {
+        if (bulkDto == null) {
+            return new HashMap<>();
+        }
+        return RAW_DATA_MAPPER.convertValue(bulkDto, RAW_DATA_TYPE);
+    }
+
+    /**
+     * Rebuild a parsed row from its stored raw_data, applying field overrides on top.
+     *
+     * @throws IllegalArgumentException if an override names an unknown field or has the wrong type
+     */
+    public com.fleetops.bulkupload.dto.CreateOrderDto fromRawData(
+            Map<String, Object> rawData, Map<String, Object> overrides) {
+        Map<String, Object> merged = rawData != null ? new HashMap<>(rawData) : new HashMap<>();
+        if (overrides != null) {
+            merged.putAll(overrides);
+        }
+        return RAW_DATA_MAPPER.convertValue(merged, com.fleetops.bulkupload.dto.CreateOrderDto.class);
+    }
+    
     /**
      * Map service type string to enum
      */
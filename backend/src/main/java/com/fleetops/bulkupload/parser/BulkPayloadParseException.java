@@ -0,0 +1,9 @@
+package com.fleetops.bulkupload.parser;
+
+/**
+ * Indicates a JSON/NDJSON bulk payload that cannot be read as a sequence of orders.
+ */
+public class BulkPayloadParseException extends RuntimeException {
+    public BulkPayloadParseException(String message) { super(message); }
+    public BulkPayloadParseException(String message, Throwable cause) { super(message, cause); }
+}
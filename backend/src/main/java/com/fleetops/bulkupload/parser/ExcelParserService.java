@@ -1,6 +1,13 @@
 package com.fleetops.bulkupload.parser;
 
 import com.fleetops.bulkupload.dto.CreateOrderDto;
+import com.fleetops.excel.BoundColumns;
+import com.fleetops.excel.CellConverter;
+import com.fleetops.excel.CellConverters;
+import com.fleetops.excel.ColumnMapping;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -10,81 +17,67 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.*;
-import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 @Service
 public class ExcelParserService {
 
     private static final int MAX_ROWS = 500;
 
+    private static final CellConverter<BigDecimal> DECIMAL = CellConverters.decimal(2);
+
+    /**
+     * Excel columns of the bulk order template; senderName and receiverName are the minimal required headers.
+     */
+    static final ColumnMapping<CreateOrderDto> ORDER_COLUMNS = ColumnMapping.builder(CreateOrderDto::new)
+            // Client Information
+            .column("clientReference", CellConverters.STRING, CreateOrderDto::setClientReference)
+            .column("clientId", CellConverters.LONG, CreateOrderDto::setClientId)
+            .column("clientName", CellConverters.STRING, CreateOrderDto::setClientName)
+            .column("clientCompany", CellConverters.STRING, CreateOrderDto::setClientCompany)
+            .column("contactNumber", CellConverters.STRING, CreateOrderDto::setContactNumber)
+            // Sender Information
+            .required("senderName", CellConverters.STRING, CreateOrderDto::setSenderName)
+            .column("senderAddress", CellConverters.STRING, CreateOrderDto::setSenderAddress)
+            .column("senderContact", CellConverters.STRING, CreateOrderDto::setSenderContact)
+            .column("senderEmail", CellConverters.STRING, CreateOrderDto::setSenderEmail)
+            // Receiver Information
+            .required("receiverName", CellConverters.STRING, CreateOrderDto::setReceiverName)
+            .column("receiverAddress", CellConverters.STRING, CreateOrderDto::setReceiverAddress)
+            .column("receiverContact", CellConverters.STRING, CreateOrderDto::setReceiverContact)
+            .column("receiverEmail", CellConverters.STRING, CreateOrderDto::setReceiverEmail)
+            .column("receiverPincode", CellConverters.STRING, CreateOrderDto::setReceiverPincode)
+            .column("receiverCity", CellConverters.STRING, CreateOrderDto::setReceiverCity)
+            .column("receiverState", CellConverters.STRING, CreateOrderDto::setReceiverState)
+            // Package Details
+            .column("itemCount", CellConverters.INTEGER, CreateOrderDto::setItemCount)
+            .column("totalWeight", DECIMAL, CreateOrderDto::setTotalWeight)
+            .column("lengthCm", DECIMAL, CreateOrderDto::setLengthCm)
+            .column("widthCm", DECIMAL, CreateOrderDto::setWidthCm)
+            .column("heightCm", DECIMAL, CreateOrderDto::setHeightCm)
+            .column("itemDescription", CellConverters.STRING, CreateOrderDto::setItemDescription)
+            .column("declaredValue", DECIMAL, CreateOrderDto::setDeclaredValue)
+            // Service Details
+            .column("serviceType", CellConverters.STRING, CreateOrderDto::setServiceType)
+            .column("carrierName", CellConverters.STRING, CreateOrderDto::setCarrierName)
+            .column("carrierId", CellConverters.STRING, CreateOrderDto::setCarrierId)
+            // Financial Information
+            .column("codAmount", DECIMAL, CreateOrderDto::setCodAmount)
+            // Additional Fields
+            .column("specialInstructions", CellConverters.STRING, CreateOrderDto::setSpecialInstructions)
+            .build();
+
     public List<CreateOrderDto> parseExcel(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             return Collections.emptyList();
         }
 
         try (Workbook wb = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = wb.getNumberOfSheets() > 0 ? wb.getSheetAt(0) : null;
-            if (sheet == null) return Collections.emptyList();
-
-            Row header = sheet.getRow(0);
-            Map<String, Integer> idx = buildHeaderIndex(header);
-
-            // Minimal required headers per our test
-            requireHeaders(idx, "senderName", "receiverName");
-
-            int last = Math.min(sheet.getLastRowNum(), MAX_ROWS);
-            List<CreateOrderDto> out = new ArrayList<>();
-            for (int r = 1; r <= last; r++) {
-                Row row = sheet.getRow(r);
-                if (row == null) continue;
-                CreateOrderDto dto = new CreateOrderDto();
-                
-                // Client Information
-                dto.setClientReference(getString(row, idx.get("clientReference")));
-                dto.setClientId(getLong(row, idx.get("clientId")));
-                dto.setClientName(getString(row, idx.get("clientName")));
-                dto.setClientCompany(getString(row, idx.get("clientCompany")));
-                dto.setContactNumber(getString(row, idx.get("contactNumber")));
-                
-                // Sender Information
-                dto.setSenderName(getString(row, idx.get("senderName")));
-                dto.setSenderAddress(getString(row, idx.get("senderAddress")));
-                dto.setSenderContact(getString(row, idx.get("senderContact")));
-                dto.setSenderEmail(getString(row, idx.get("senderEmail")));
-                
-                // Receiver Information
-                dto.setReceiverName(getString(row, idx.get("receiverName")));
-                dto.setReceiverAddress(getString(row, idx.get("receiverAddress")));
-                dto.setReceiverContact(getString(row, idx.get("receiverContact")));
-                dto.setReceiverEmail(getString(row, idx.get("receiverEmail")));
-                dto.setReceiverPincode(getString(row, idx.get("receiverPincode")));
-                dto.setReceiverCity(getString(row, idx.get("receiverCity")));
-                dto.setReceiverState(getString(row, idx.get("receiverState")));
-                
-                // Package Details
-                dto.setItemCount(getInteger(row, idx.get("itemCount")));
-                dto.setTotalWeight(getBigDecimal(row, idx.get("totalWeight")));
-                dto.setLengthCm(getBigDecimal(row, idx.get("lengthCm")));
-                dto.setWidthCm(getBigDecimal(row, idx.get("widthCm")));
-                dto.setHeightCm(getBigDecimal(row, idx.get("heightCm")));
-                dto.setItemDescription(getString(row, idx.get("itemDescription")));
-                dto.setDeclaredValue(getBigDecimal(row, idx.get("declaredValue")));
-                
-                // Service Details
-                dto.setServiceType(getString(row, idx.get("serviceType")));
-                dto.setCarrierName(getString(row, idx.get("carrierName")));
-                dto.setCarrierId(getString(row, idx.get("carrierId")));
-                
-                // Financial Information
-                dto.setCodAmount(getBigDecimal(row, idx.get("codAmount")));
-                
-                // Additional Fields
-                dto.setSpecialInstructions(getString(row, idx.get("specialInstructions")));
-                
-                out.add(dto);
-            }
-            return out;
+            return parseWorkbook(wb);
         } catch (MissingHeadersException e) {
             throw e;
         } catch (IOException e) {
@@ -92,47 +85,46 @@ public class ExcelParserService {
         }
     }
 
-    private Map<String, Integer> buildHeaderIndex(Row header) {
-        if (header == null) return Collections.emptyMap();
-        Map<String, Integer> m = new HashMap<>();
-        short last = header.getLastCellNum();
-        for (int c = 0; c < last; c++) {
-            String name = header.getCell(c) != null ? header.getCell(c).getStringCellValue() : null;
-            if (name != null && !name.isBlank()) m.put(name.trim(), c);
+    /**
+     * Parses an upload that has already been spooled to disk. The package is opened
+     * read-only straight from the file instead of buffering the stream in memory.
+     */
+    public List<CreateOrderDto> parseSpooled(Path path) {
+        try {
+            if (path == null || Files.size(path) == 0) {
+                return Collections.emptyList();
+            }
+        } catch (IOException e) {
+            throw new ExcelParseException("Unable to read uploaded file", e);
         }
-        return m;
-    }
 
-    private void requireHeaders(Map<String, Integer> idx, String... names) {
-        List<String> missing = new ArrayList<>();
-        for (String n : names) if (!idx.containsKey(n)) missing.add(n);
-        if (!missing.isEmpty()) {
-            throw new MissingHeadersException("Missing required headers: " + String.join(", ", missing));
+        try (OPCPackage pkg = OPCPackage.open(path.toFile(), PackageAccess.READ);
+             Workbook wb = new XSSFWorkbook(pkg)) {
+            return parseWorkbook(wb);
+        } catch (MissingHeadersException e) {
+            throw e;
+        } catch (InvalidFormatException | IOException e) {
+            throw new ExcelParseException("Invalid Excel file format", e);
         }
     }
 
-    private String getString(Row row, Integer idx) {
-        if (idx == null || row.getCell(idx) == null) return null;
-        try { return row.getCell(idx).getStringCellValue(); } catch (Exception e) { return String.valueOf(getNumeric(row, idx)); }
-    }
-
-    private Integer getInteger(Row row, Integer idx) {
-        if (idx == null || row.getCell(idx) == null) return null;
-        try { return (int) Math.round(row.getCell(idx).getNumericCellValue()); } catch (Exception e) { return null; }
-    }
-    
-    private Long getLong(Row row, Integer idx) {
-        if (idx == null || row.getCell(idx) == null) return null;
-        try { return Math.round(row.getCell(idx).getNumericCellValue()); } catch (Exception e) { return null; }
-    }
+    private List<CreateOrderDto> parseWorkbook(Workbook wb) {
+        Sheet sheet = wb.getNumberOfSheets() > 0 ? wb.getSheetAt(0) : null;
+        if (sheet == null) return Collections.emptyList();
 
-    private BigDecimal getBigDecimal(Row row, Integer idx) {
-        if (idx == null || row.getCell(idx) == null) return null;
-    try { return BigDecimal.valueOf(row.getCell(idx).getNumericCellValue()).setScale(2, RoundingMode.HALF_UP); } catch (Exception e) { return null; }
-    }
+        // Header is resolved once; each row is then a flat walk over the bound columns
+        BoundColumns<CreateOrderDto> columns = ORDER_COLUMNS.bind(sheet.getRow(0));
+        if (!columns.missingRequired().isEmpty()) {
+            throw new MissingHeadersException("Missing required headers: " + String.join(", ", columns.missingRequired()));
+        }
 
-    private double getNumeric(Row row, Integer idx) {
-        try { return row.getCell(idx).getNumericCellValue(); } catch (Exception e) { return 0d; }
+        int last = Math.min(sheet.getLastRowNum(), MAX_ROWS);
+        List<CreateOrderDto> out = new ArrayList<>();
+        for (int r = 1; r <= last; r++) {
+            Row row = sheet.getRow(r);
+            if (row == null) continue;
+            out.add(columns.read(row));
+        }
+        return out;
     }
 }
-
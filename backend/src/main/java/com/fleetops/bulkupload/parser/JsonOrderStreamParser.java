@@ -0,0 +1,111 @@
+package com.fleetops.bulkupload.parser;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetops.bulkupload.dto.CreateOrderDto;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Streaming reader for bulk orders sent as a JSON array or as NDJSON.
+ *
+ * Only one element is held in memory at a time: the parser walks the token stream and binds
+ * each top-level object separately, so a large payload never becomes a single object graph.
+ * An element that does not bind to CreateOrderDto is reported to the handler as a row error;
+ * malformed JSON aborts the whole payload.
+ */
+@Service
+public class JsonOrderStreamParser {
+
+    public static final int MAX_ROWS = 50_000;
+
+    private final ObjectMapper objectMapper;
+
+    public JsonOrderStreamParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Receives each element of the payload in order.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowIndex 1-based position of the element in the payload
+         * @param dto      bound order, or null if the element could not be bound
+         * @param error    binding error message when {@code dto} is null
+         */
+        void onRow(int rowIndex, CreateOrderDto dto, String error);
+    }
+
+    /**
+     * Parses the stream, calling the handler per element, and returns the number of elements.
+     */
+    public int parse(InputStream in, RowHandler handler) {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return 0;
+            }
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+
+            int rowIndex = 0;
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                rowIndex++;
+                if (rowIndex > MAX_ROWS) {
+                    throw new BulkPayloadParseException("Payload exceeds maximum of " + MAX_ROWS + " orders");
+                }
+
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    handler.onRow(rowIndex, null, "Order must be a JSON object");
+                } else {
+                    JsonNode node = parser.readValueAsTree();
+                    bind(rowIndex, node, handler);
+                }
+                token = parser.nextToken();
+            }
+            return rowIndex;
+        } catch (JsonProcessingException e) {
+            throw new BulkPayloadParseException("Malformed JSON payload: " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new BulkPayloadParseException("Unable to read request body", e);
+        }
+    }
+
+    private void bind(int rowIndex, JsonNode node, RowHandler handler) {
+        CreateOrderDto dto;
+        try {
+            dto = objectMapper.treeToValue(node, CreateOrderDto.class);
+        } catch (JsonProcessingException e) {
+            handler.onRow(rowIndex, null, e.getOriginalMessage());
+            return;
+        }
+        normalizeDecimals(dto);
+        handler.onRow(rowIndex, dto, null);
+    }
+
+    // Same scale as ExcelParserService so a JSON row creates the same order as an Excel row
+    private void normalizeDecimals(CreateOrderDto dto) {
+        dto.setTotalWeight(scale(dto.getTotalWeight()));
+        dto.setLengthCm(scale(dto.getLengthCm()));
+        dto.setWidthCm(scale(dto.getWidthCm()));
+        dto.setHeightCm(scale(dto.getHeightCm()));
+        dto.setDeclaredValue(scale(dto.getDeclaredValue()));
+        dto.setCodAmount(scale(dto.getCodAmount()));
+    }
+
+    private BigDecimal scale(BigDecimal value) {
+        return value == null ? null : value.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -1,6 +1,8 @@
 package com.fleetops.bulkupload.repository;
 
 import com.fleetops.bulkupload.entity.BulkUploadBatch;
+import com.fleetops.bulkupload.entity.BulkUploadStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,7 +18,29 @@ public interface BulkUploadBatchRepository extends JpaRepository<BulkUploadBatch
 
     Optional<BulkUploadBatch> findByBatchId(String batchId);
 
+    // Served by idx_bulk_upload_batch_file_checksum
+    Optional<BulkUploadBatch> findFirstByFileChecksumAndStatusOrderByUploadedAtDesc(String fileChecksum, BulkUploadStatus status);
+
     @Modifying
     @Query("DELETE FROM BulkUploadBatch b WHERE b.createdAt < :cutoff AND NOT EXISTS (SELECT 1 FROM com.fleetops.bulkupload.entity.BulkUploadRow r WHERE r.batch = b)")
     int deleteEmptyBatchesCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Retention purge: expired batches whose rows are already gone, in (created_at, id) keyset order
+    @Query("SELECT b.id AS id, b.createdAt AS createdAt FROM BulkUploadBatch b " +
+           "WHERE b.createdAt < :cutoff AND (b.createdAt > :afterCreatedAt " +
+           "OR (b.createdAt = :afterCreatedAt AND b.id > :afterId)) " +
+           "AND NOT EXISTS (SELECT 1 FROM com.fleetops.bulkupload.entity.BulkUploadRow r WHERE r.batch = b) " +
+           "ORDER BY b.createdAt ASC, b.id ASC")
+    List<RetentionKey> findExpiredEmptyKeys(@Param("cutoff") LocalDateTime cutoff,
+                                            @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                            @Param("afterId") long afterId,
+                                            Pageable pageable);
+
+    @Query(value = "SELECT CAST(row_to_json(b) AS text) FROM bulk_upload_batch b WHERE b.id IN (:ids) ORDER BY b.id",
+           nativeQuery = true)
+    List<String> findJsonByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM BulkUploadBatch b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
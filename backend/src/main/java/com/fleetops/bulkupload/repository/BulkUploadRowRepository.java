@@ -1,6 +1,8 @@
 package com.fleetops.bulkupload.repository;
 
 import com.fleetops.bulkupload.entity.BulkUploadRow;
+import com.fleetops.bulkupload.entity.RowStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -16,9 +18,67 @@ public interface BulkUploadRowRepository extends JpaRepository<BulkUploadRow, Lo
 
     List<BulkUploadRow> findByBatch_IdOrderByRowIndexAsc(Long batchId);
 
+    boolean existsByBatch_Id(Long batchId);
+
     @Modifying
     @Query("DELETE FROM BulkUploadRow r WHERE r.createdAt < :cutoff")
     int deleteByCreatedAtBefore(@Param("cutoff") LocalDateTime cutoff);
 
     Optional<BulkUploadRow> findByIdempotencyKey(String idempotencyKey);
+
+    // Status is a literal (not a bind parameter) so the predicate matches the partial index idx_bulk_upload_row_failed
+    @Query("SELECT r FROM BulkUploadRow r WHERE r.batch.id = :batchId " +
+           "AND r.status = com.fleetops.bulkupload.entity.RowStatus.FAILED_VALIDATION " +
+           "ORDER BY r.rowIndex ASC")
+    List<BulkUploadRow> findFailedValidationRows(@Param("batchId") Long batchId);
+
+    // Keyset pages over idx_bulk_upload_row_batch_row_index; pass Pageable for the LIMIT only
+    @Query("SELECT r FROM BulkUploadRow r WHERE r.batch.id = :batchId AND r.rowIndex > :afterRowIndex " +
+           "ORDER BY r.rowIndex ASC")
+    List<BulkUploadRow> findPageAfter(@Param("batchId") Long batchId,
+                                      @Param("afterRowIndex") int afterRowIndex,
+                                      Pageable pageable);
+
+    @Query("SELECT r FROM BulkUploadRow r WHERE r.batch.id = :batchId AND r.status = :status " +
+           "AND r.rowIndex > :afterRowIndex ORDER BY r.rowIndex ASC")
+    List<BulkUploadRow> findPageAfterByStatus(@Param("batchId") Long batchId,
+                                              @Param("status") RowStatus status,
+                                              @Param("afterRowIndex") int afterRowIndex,
+                                              Pageable pageable);
+
+    // Failed-only pages use the literal status so the planner can pick idx_bulk_upload_row_failed
+    @Query("SELECT r FROM BulkUploadRow r WHERE r.batch.id = :batchId " +
+           "AND r.status = com.fleetops.bulkupload.entity.RowStatus.FAILED_VALIDATION " +
+           "AND r.rowIndex > :afterRowIndex ORDER BY r.rowIndex ASC")
+    List<BulkUploadRow> findFailedPageAfter(@Param("batchId") Long batchId,
+                                            @Param("afterRowIndex") int afterRowIndex,
+                                            Pageable pageable);
+
+    // Containment (@>) is what the GIN index idx_bulk_upload_row_error_messages supports
+    @Query(value = "SELECT * FROM bulk_upload_row WHERE batch_id = :batchId " +
+                   "AND error_messages @> CAST(:errorFilter AS jsonb) " +
+                   "AND row_index > :afterRowIndex ORDER BY row_index ASC LIMIT :limit",
+           nativeQuery = true)
+    List<BulkUploadRow> findPageAfterByErrorFilter(@Param("batchId") Long batchId,
+                                                   @Param("errorFilter") String errorFilter,
+                                                   @Param("afterRowIndex") int afterRowIndex,
+                                                   @Param("limit") int limit);
+
+    // Retention purge: walks idx_bulk_upload_row_created_at in (created_at, id) keyset order; Pageable is the LIMIT
+    @Query("SELECT r.id AS id, r.createdAt AS createdAt FROM BulkUploadRow r " +
+           "WHERE r.createdAt < :cutoff AND (r.createdAt > :afterCreatedAt " +
+           "OR (r.createdAt = :afterCreatedAt AND r.id > :afterId)) " +
+           "ORDER BY r.createdAt ASC, r.id ASC")
+    List<RetentionKey> findExpiredKeys(@Param("cutoff") LocalDateTime cutoff,
+                                       @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                       @Param("afterId") long afterId,
+                                       Pageable pageable);
+
+    @Query(value = "SELECT CAST(row_to_json(r) AS text) FROM bulk_upload_row r WHERE r.id IN (:ids) ORDER BY r.id",
+           nativeQuery = true)
+    List<String> findJsonByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM BulkUploadRow r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,13 @@
+package com.fleetops.bulkupload.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keyset position (created_at, id) used when walking expired records in retention order
+ */
+public interface RetentionKey {
+
+    Long getId();
+
+    LocalDateTime getCreatedAt();
+}
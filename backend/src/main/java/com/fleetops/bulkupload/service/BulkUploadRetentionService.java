@@ -0,0 +1,213 @@
+package com.fleetops.bulkupload.service;
+
+import com.fleetops.bulkupload.config.BulkUploadRetentionProperties;
+import com.fleetops.bulkupload.repository.BulkUploadBatchRepository;
+import com.fleetops.bulkupload.repository.BulkUploadRowRepository;
+import com.fleetops.bulkupload.repository.RetentionKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Purges expired bulk upload rows and batches.
+ *
+ * Expired records are walked in (created_at, id) keyset order and deleted in small chunks,
+ * each in its own transaction, so no long-running lock or large WAL burst is produced.
+ * When archiving is enabled each chunk is first appended to a gzipped NDJSON file.
+ * Purged rows take their idempotency keys with them, so a re-upload of a purged batch's file
+ * is processed again rather than answered from the (now empty) stored outcomes.
+ */
+@Service
+public class BulkUploadRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkUploadRetentionService.class);
+
+    private static final LocalDateTime KEYSET_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final DateTimeFormatter ARCHIVE_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final BulkUploadRowRepository rowRepository;
+    private final BulkUploadBatchRepository batchRepository;
+    private final BulkUploadRetentionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter rowsPurged;
+    private final Counter batchesPurged;
+    private final Timer purgeTimer;
+
+    public BulkUploadRetentionService(BulkUploadRowRepository rowRepository,
+                                      BulkUploadBatchRepository batchRepository,
+                                      BulkUploadRetentionProperties properties,
+                                      PlatformTransactionManager transactionManager,
+                                      MeterRegistry meterRegistry) {
+        this.rowRepository = rowRepository;
+        this.batchRepository = batchRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rowsPurged = Counter.builder("bulkupload.retention.purged")
+                .description("Bulk upload records deleted by the retention job")
+                .tag("table", "bulk_upload_row")
+                .register(meterRegistry);
+        this.batchesPurged = Counter.builder("bulkupload.retention.purged")
+                .description("Bulk upload records deleted by the retention job")
+                .tag("table", "bulk_upload_batch")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("bulkupload.retention.duration")
+                .description("Time spent purging expired bulk upload records")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs one full purge pass: rows first, then batches left without rows.
+     */
+    public PurgeResult purgeExpired() {
+        return purgeTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            Pageable limit = PageRequest.of(0, properties.getDeleteBatchSize());
+            String suffix = now.format(ARCHIVE_SUFFIX);
+
+            int rows = purge("bulk_upload_row", now.minusDays(properties.getRowRetentionDays()), suffix,
+                    (cutoff, key) -> rowRepository.findExpiredKeys(
+                            cutoff, key.createdAt(), key.id(), limit),
+                    rowRepository::findJsonByIdIn,
+                    rowRepository::deleteByIdIn,
+                    rowsPurged);
+
+            int batches = purge("bulk_upload_batch", now.minusDays(properties.getBatchRetentionDays()), suffix,
+                    (cutoff, key) -> batchRepository.findExpiredEmptyKeys(
+                            cutoff, key.createdAt(), key.id(), limit),
+                    batchRepository::findJsonByIdIn,
+                    batchRepository::deleteByIdIn,
+                    batchesPurged);
+
+            logger.info("Bulk upload retention purge removed {} rows and {} batches", rows, batches);
+            return new PurgeResult(rows, batches);
+        });
+    }
+
+    private int purge(String table, LocalDateTime cutoff, String suffix,
+                      KeyFinder finder,
+                      Function<List<Long>, List<String>> jsonLoader,
+                      Function<List<Long>, Integer> deleter,
+                      Counter counter) {
+        ArchiveFile archive = properties.isArchiveEnabled() ? new ArchiveFile(table, suffix) : null;
+        Cursor cursor = new Cursor(KEYSET_START, 0L);
+        int total = 0;
+        try {
+            while (cursor != null) {
+                Cursor position = cursor;
+                ChunkResult chunk = transactionTemplate.execute(status -> {
+                    List<RetentionKey> keys = finder.find(cutoff, position);
+                    if (keys.isEmpty()) {
+                        return null;
+                    }
+                    List<Long> ids = keys.stream().map(RetentionKey::getId).collect(Collectors.toList());
+                    if (archive != null) {
+                        archive.append(jsonLoader.apply(ids));
+                    }
+                    int deleted = deleter.apply(ids);
+                    RetentionKey last = keys.get(keys.size() - 1);
+                    return new ChunkResult(deleted, new Cursor(last.getCreatedAt(), last.getId()));
+                });
+
+                if (chunk == null) {
+                    cursor = null;
+                } else {
+                    total += chunk.deleted();
+                    counter.increment(chunk.deleted());
+                    cursor = chunk.next();
+                }
+            }
+        } finally {
+            if (archive != null) {
+                archive.close();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Gzipped NDJSON archive for one table, created on the first chunk that has records.
+     */
+    private final class ArchiveFile {
+
+        private final String table;
+        private final String suffix;
+        private Writer writer;
+
+        ArchiveFile(String table, String suffix) {
+            this.table = table;
+            this.suffix = suffix;
+        }
+
+        void append(List<String> records) {
+            try {
+                if (writer == null) {
+                    Path dir = Paths.get(properties.getArchiveDirectory());
+                    Files.createDirectories(dir);
+                    Path file = dir.resolve(table + "-" + suffix + ".ndjson.gz");
+                    // syncFlush so every chunk is on disk before its delete commits
+                    writer = new BufferedWriter(new OutputStreamWriter(
+                            new GZIPOutputStream(Files.newOutputStream(file), true), StandardCharsets.UTF_8));
+                }
+                for (String record : records) {
+                    writer.write(record);
+                    writer.write('\n');
+                }
+                writer.flush();
+            } catch (IOException e) {
+                // Propagates out of the chunk transaction, so nothing is deleted unarchived
+                throw new UncheckedIOException("Failed to write retention archive for " + table, e);
+            }
+        }
+
+        void close() {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close retention archive for {}: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface KeyFinder {
+        List<RetentionKey> find(LocalDateTime cutoff, Cursor after);
+    }
+
+    private record Cursor(LocalDateTime createdAt, long id) {
+    }
+
+    private record ChunkResult(int deleted, Cursor next) {
+    }
+
+    /**
+     * Number of records removed by one purge pass.
+     */
+    public record PurgeResult(int rowsPurged, int batchesPurged) {
+    }
+}
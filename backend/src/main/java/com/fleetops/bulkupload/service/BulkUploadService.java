@@ -1,5 +1,7 @@
 package com.fleetops.bulkupload.service;
 
+import com.fleetops.bulkupload.dto.BatchDetailDto;
+import com.fleetops.bulkupload.dto.BatchRowPageDto;
 import com.fleetops.bulkupload.dto.BulkUploadResponseDto;
 import com.fleetops.bulkupload.dto.CreateOrderDto;
 import com.fleetops.bulkupload.dto.RowOutcomeDto;
@@ -7,42 +9,70 @@ import com.fleetops.bulkupload.dto.ValidationErrorDto;
 import com.fleetops.bulkupload.entity.*;
 import com.fleetops.bulkupload.mapper.BulkOrderMapper;
 import com.fleetops.bulkupload.parser.ExcelParserService;
+import com.fleetops.bulkupload.parser.JsonOrderStreamParser;
 import com.fleetops.bulkupload.repository.BulkUploadBatchRepository;
 import com.fleetops.bulkupload.repository.BulkUploadRowRepository;
 import com.fleetops.bulkupload.util.HashUtil;
 import com.fleetops.order.dto.OrderDto;
 import com.fleetops.order.service.OrderService;
+import jakarta.persistence.EntityNotFoundException;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedWriter;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 public class BulkUploadService {
     
     private static final Logger logger = LoggerFactory.getLogger(BulkUploadService.class);
 
+    private static final int MAX_ROW_PAGE_SIZE = 500;
+    private static final int ERROR_REPORT_CHUNK_SIZE = 1000;
+    private static final Pattern ERROR_CODE_PATTERN = Pattern.compile("[A-Z0-9_]{1,64}");
+    // Streamed JSON batches commit their rows in chunks of this size
+    private static final int JSON_CHUNK_SIZE = 500;
+
     private final ExcelParserService excelParserService;
     private final IdempotencyService idempotencyService;
     private final BulkUploadBatchRepository batchRepository;
     private final BulkUploadRowRepository rowRepository;
     private final OrderService orderService;
     private final BulkOrderMapper bulkOrderMapper;
+    private final JsonOrderStreamParser jsonOrderStreamParser;
+    private final TransactionTemplate transactionTemplate;
 
     public BulkUploadService(
             ExcelParserService excelParserService,
@@ -50,136 +80,506 @@ public class BulkUploadService {
             BulkUploadBatchRepository batchRepository,
             BulkUploadRowRepository rowRepository,
             OrderService orderService,
-            BulkOrderMapper bulkOrderMapper) {
+            BulkOrderMapper bulkOrderMapper,
+            JsonOrderStreamParser jsonOrderStreamParser,
+            PlatformTransactionManager transactionManager) {
         this.excelParserService = excelParserService;
         this.idempotencyService = idempotencyService;
         this.batchRepository = batchRepository;
         this.rowRepository = rowRepository;
         this.orderService = orderService;
         this.bulkOrderMapper = bulkOrderMapper;
+        this.jsonOrderStreamParser = jsonOrderStreamParser;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Transactional
     public BulkUploadResponseDto process(MultipartFile file) {
+        return process(file, false);
+    }
+
+    /**
+     * Processes an uploaded Excel file. The upload is spooled to disk once while its
+     * SHA-256 checksum is computed; if a completed batch with the same checksum already
+     * exists, its stored outcomes are returned instead of re-parsing the file, unless
+     * {@code force} is set or the retention job has since purged that batch's rows.
+     */
+    @Transactional
+    public BulkUploadResponseDto process(MultipartFile file, boolean force) {
         long startTime = System.currentTimeMillis();
         
-        // 1. Parse Excel file
-        List<CreateOrderDto> rows = excelParserService.parseExcel(file);
-        
-        // 2. Create batch record
-        BulkUploadBatch batch = createBatchRecord(file, rows.size(), startTime);
-        batch = batchRepository.save(batch);
-        
-        // 3. Process rows and persist outcomes
+        SpooledUpload upload = spool(file);
+        try {
+            // 1. Short-circuit identical re-uploads
+            if (!force) {
+                Optional<BulkUploadBatch> previous = batchRepository
+                        .findFirstByFileChecksumAndStatusOrderByUploadedAtDesc(upload.checksum(), BulkUploadStatus.COMPLETED)
+                        .filter(this::hasStoredOutcomes);
+                if (previous.isPresent()) {
+                    logger.info("File {} matches completed batch {} by checksum - returning stored outcomes",
+                            file.getOriginalFilename(), previous.get().getBatchId());
+                    return toStoredResponse(previous.get());
+                }
+            }
+
+            // 2. Parse Excel file
+            List<CreateOrderDto> rows = excelParserService.parseSpooled(upload.path());
+
+            // 3. Create batch record and process rows
+            return processRows(file, upload.checksum(), rows, startTime);
+        } finally {
+            deleteQuietly(upload.path());
+        }
+    }
+
+    /**
+     * Processes orders pushed as a JSON array or NDJSON stream. The body is read one element
+     * at a time and each element goes through the same row pipeline as an Excel row. Rows are
+     * committed in chunks, so a large body never holds one long transaction; a body that turns
+     * out to be malformed part-way leaves the batch FAILED with the chunks committed so far,
+     * whose keys make a corrected re-send skip them as duplicates.
+     */
+    public BulkUploadResponseDto processJson(InputStream body, String sourceName) {
+        long startTime = System.currentTimeMillis();
+
+        CountingInputStream counted = new CountingInputStream(body);
+        DigestInputStream in = new DigestInputStream(counted, HashUtil.newSha256());
+
+        // Checksum and size are only known once the body has been read; filled in below
+        BulkUploadBatch batch = batchRepository.save(createBatchRecord(sourceName, 0L, ""));
+
         List<RowOutcomeDto> outcomes = new ArrayList<>();
-        int created = 0;
-        int failed = 0;
-        int skipped = 0;
+        RowTally tally = new RowTally();
+        List<JsonRow> chunk = new ArrayList<>(JSON_CHUNK_SIZE);
+        int total;
+        try {
+            total = jsonOrderStreamParser.parse(in, (rowIndex, dto, error) -> {
+                chunk.add(new JsonRow(rowIndex, dto, error));
+                if (chunk.size() == JSON_CHUNK_SIZE) {
+                    processJsonChunk(batch, chunk, outcomes, tally);
+                }
+            });
+            processJsonChunk(batch, chunk, outcomes, tally);
+        } catch (RuntimeException e) {
+            batch.setTotalRows(tally.created + tally.failed + tally.skipped);
+            batch.setCreatedCount(tally.created);
+            batch.setFailedCount(tally.failed);
+            batch.setSkippedDuplicateCount(tally.skipped);
+            batch.setStatus(BulkUploadStatus.FAILED);
+            batch.setProcessingCompletedAt(LocalDateTime.now());
+            batch.setProcessingDurationMs(System.currentTimeMillis() - startTime);
+            batchRepository.save(batch);
+            throw e;
+        }
+
+        try {
+            // Drain anything after the last element so the checksum covers the whole body
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            logger.warn("Failed to drain bulk JSON body: {}", e.getMessage());
+        }
+
+        long duration = System.currentTimeMillis() - startTime;
+        batch.setFileChecksum(HashUtil.toHex(in.getMessageDigest().digest()));
+        batch.setFileSizeBytes(counted.count);
+        batch.setTotalRows(total);
+        batch.setCreatedCount(tally.created);
+        batch.setFailedCount(tally.failed);
+        batch.setSkippedDuplicateCount(tally.skipped);
+        batch.setStatus(BulkUploadStatus.COMPLETED);
+        batch.setProcessingCompletedAt(LocalDateTime.now());
+        batch.setProcessingDurationMs(duration);
+        batchRepository.save(batch);
+
+        logger.info("Processed JSON batch {}: {} orders, {} created, {} failed, {} skipped",
+                batch.getBatchId(), total, tally.created, tally.failed, tally.skipped);
+
+        return new BulkUploadResponseDto(
+                batch.getBatchId(),
+                total,
+                tally.created,
+                tally.failed,
+                tally.skipped,
+                duration,
+                outcomes,
+                false
+        );
+    }
+
+    /**
+     * Runs one chunk of parsed JSON elements in its own transaction. Outcomes and counts are
+     * only merged once the chunk has committed.
+     */
+    private void processJsonChunk(BulkUploadBatch batch, List<JsonRow> chunk,
+                                  List<RowOutcomeDto> outcomes, RowTally tally) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        RowTally chunkTally = new RowTally();
+        List<RowOutcomeDto> chunkOutcomes = transactionTemplate.execute(status -> {
+            List<RowOutcomeDto> results = new ArrayList<>(chunk.size());
+            for (JsonRow row : chunk) {
+                results.add(row.dto() != null
+                        ? processRow(batch, row.rowIndex(), row.dto(), chunkTally)
+                        : saveInvalidPayloadRow(batch, row.rowIndex(), row.error(), chunkTally));
+            }
+            return results;
+        });
+        outcomes.addAll(chunkOutcomes);
+        tally.add(chunkTally);
+        chunk.clear();
+    }
+
+    /**
+     * Persists a JSON element that could not be bound to an order. It has no fields to hash,
+     * so its key is derived from its position in the batch: unique, and never equal to the
+     * key of a real row. Reprocessing with overrides can still turn it into an order.
+     */
+    private RowOutcomeDto saveInvalidPayloadRow(BulkUploadBatch batch, int rowIndex, String error, RowTally tally) {
+        List<Map<String, Object>> errors = new ArrayList<>();
+        errors.add(errorEntry("INVALID_PAYLOAD", null, error));
+
+        BulkUploadRow rowEntity = new BulkUploadRow();
+        rowEntity.setBatch(batch);
+        rowEntity.setRowIndex(rowIndex);
+        rowEntity.setIdempotencyKey(HashUtil.sha256Hex("INVALID_PAYLOAD|" + batch.getBatchId() + "|" + rowIndex));
+        rowEntity.setIdempotencyBasis(IdempotencyBasis.HASH);
+        rowEntity.setStatus(RowStatus.FAILED_VALIDATION);
+        rowEntity.setErrorMessages(errors);
+        rowEntity.setRawData(new HashMap<>());
+        rowRepository.save(rowEntity);
+        tally.failed++;
+
+        return new RowOutcomeDto(
+                rowIndex,
+                RowStatus.FAILED_VALIDATION.name(),
+                IdempotencyBasis.HASH.name(),
+                null,
+                toErrorDtos(errors)
+        );
+    }
+
+    private record JsonRow(int rowIndex, CreateOrderDto dto, String error) {}
+
+    private BulkUploadResponseDto processRows(MultipartFile file, String checksum, List<CreateOrderDto> rows, long startTime) {
+        BulkUploadBatch batch = createBatchRecord(file, checksum);
+        batch = batchRepository.save(batch);
         
+        // Process rows and persist outcomes
+        List<RowOutcomeDto> outcomes = new ArrayList<>(rows.size());
+        RowTally tally = new RowTally();
         for (int i = 0; i < rows.size(); i++) {
-            CreateOrderDto dto = rows.get(i);
-            IdempotencyService.IdempotencyResult idem = idempotencyService.computeIdempotencyKey(dto);
-            
-            // Check for duplicates
-            Optional<BulkUploadRow> existing = rowRepository.findByIdempotencyKey(idem.getIdempotencyKey());
-            RowStatus status;
-            Long orderId = null;
-            
-            if (existing.isPresent()) {
-                // Duplicate found - don't create a new row, just count it
-                status = RowStatus.SKIPPED_DUPLICATE;
-                orderId = existing.get().getOrderId();
-                skipped++;
-                logger.debug("Row {} skipped - duplicate idempotency key: {}", i + 1, idem.getIdempotencyKey());
-                
-                // Build response DTO from existing row (no new DB entry)
-                RowOutcomeDto outcome = new RowOutcomeDto(
-                        i + 1,
-                        status.name(),
-                        idem.getBasis().name(),
-                        orderId,
-                        Collections.<ValidationErrorDto>emptyList()
-                );
-                outcomes.add(outcome);
-                continue; // Skip to next row
-            }
-            
-            // Not a duplicate - create new order
-            try {
-                com.fleetops.order.dto.CreateOrderDto orderDto = bulkOrderMapper.toOrderCreateDto(dto);
-                com.fleetops.order.dto.OrderDto createdOrder = orderService.createOrder(orderDto);
-                
-                status = RowStatus.CREATED;
-                orderId = createdOrder.getId();
-                created++;
-                logger.info("Row {} created order successfully - orderId: {}", i + 1, orderId);
-            } catch (Exception e) {
-                // If order creation fails, mark row as failed
-                status = RowStatus.FAILED_VALIDATION;
-                failed++;
-                logger.error("Row {} failed to create order: {}", i + 1, e.getMessage(), e);
-            }
-            
-            // Persist row outcome (only for non-duplicates)
-            BulkUploadRow rowEntity = new BulkUploadRow();
-            rowEntity.setBatch(batch);
-            rowEntity.setRowIndex(i + 1);
-            rowEntity.setIdempotencyKey(idem.getIdempotencyKey());
-            rowEntity.setIdempotencyBasis(idem.getBasis());
-            rowEntity.setStatus(status);
-            rowEntity.setOrderId(orderId);
-            rowEntity.setErrorMessages(new ArrayList<>()); // No validation errors in minimal impl
-            rowEntity.setRawData(new HashMap<>()); // TODO: Populate with row data if needed
-            rowRepository.save(rowEntity);
-            
-            // Build response DTO
-            RowOutcomeDto outcome = new RowOutcomeDto(
-                    i + 1,
-                    status.name(),
-                    idem.getBasis().name(),
-                    orderId,
-                    Collections.<ValidationErrorDto>emptyList()
-            );
-            outcomes.add(outcome);
+            outcomes.add(processRow(batch, i + 1, rows.get(i), tally));
         }
         
-        // 4. Update batch with final counts and mark completed
+        // Update batch with final counts and mark completed
         long duration = System.currentTimeMillis() - startTime;
         batch.setTotalRows(rows.size()); // Set total rows to satisfy constraint
-        batch.setCreatedCount(created);
-        batch.setFailedCount(failed);
-        batch.setSkippedDuplicateCount(skipped);
+        batch.setCreatedCount(tally.created);
+        batch.setFailedCount(tally.failed);
+        batch.setSkippedDuplicateCount(tally.skipped);
         batch.setStatus(BulkUploadStatus.COMPLETED);
         batch.setProcessingCompletedAt(LocalDateTime.now());
         batch.setProcessingDurationMs(duration);
         batchRepository.save(batch);
         
-        // 5. Return response
         return new BulkUploadResponseDto(
                 batch.getBatchId(),
                 rows.size(),
-                created,
-                failed,
-                skipped,
+                tally.created,
+                tally.failed,
+                tally.skipped,
                 duration,
-                outcomes
+                outcomes,
+                false
+        );
+    }
+
+    /**
+     * Replays the FAILED_VALIDATION rows of a completed batch from their stored raw_data
+     * through the normal row pipeline, applying corrected field values keyed by row index.
+     * Rows that now succeed (or turn out to be duplicates) move out of the batch's failed count.
+     */
+    @Transactional
+    public BulkUploadResponseDto reprocessFailedRows(String batchId, Map<Integer, Map<String, Object>> overrides) {
+        long startTime = System.currentTimeMillis();
+
+        BulkUploadBatch batch = batchRepository.findByBatchId(batchId)
+                .orElseThrow(() -> new EntityNotFoundException("Bulk upload batch not found: " + batchId));
+        if (batch.getStatus() != BulkUploadStatus.COMPLETED) {
+            throw new IllegalStateException("Batch " + batchId + " is not completed (status: " + batch.getStatus() + ")");
+        }
+
+        Map<Integer, Map<String, Object>> rowOverrides = overrides != null ? overrides : Collections.emptyMap();
+        List<BulkUploadRow> failedRows = rowRepository.findFailedValidationRows(batch.getId());
+
+        List<RowOutcomeDto> outcomes = new ArrayList<>(failedRows.size());
+        RowTally tally = new RowTally();
+        for (BulkUploadRow row : failedRows) {
+            Map<String, Object> override = rowOverrides.get(row.getRowIndex());
+            boolean hasRawData = row.getRawData() != null && !row.getRawData().isEmpty();
+            if (!hasRawData && override == null) {
+                // Rows stored before raw_data was captured cannot be rebuilt
+                tally.failed++;
+                outcomes.add(toOutcome(row));
+                continue;
+            }
+            CreateOrderDto dto = bulkOrderMapper.fromRawData(row.getRawData(), override);
+            // An unchanged row keeps the key it was stored under, so a re-upload of the file still finds it
+            IdempotencyService.IdempotencyResult idem = override == null
+                    ? new IdempotencyService.IdempotencyResult(row.getIdempotencyKey(), row.getIdempotencyBasis())
+                    : idempotencyService.computeIdempotencyKey(dto);
+            outcomes.add(processRow(batch, row.getRowIndex(), dto, idem, row, tally));
+        }
+
+        batch.setCreatedCount(batch.getCreatedCount() + tally.created);
+        batch.setSkippedDuplicateCount(batch.getSkippedDuplicateCount() + tally.skipped);
+        batch.setFailedCount(batch.getFailedCount() - tally.created - tally.skipped);
+        batchRepository.save(batch);
+
+        long duration = System.currentTimeMillis() - startTime;
+        logger.info("Reprocessed {} failed rows of batch {}: {} created, {} skipped, {} still failing",
+                failedRows.size(), batchId, tally.created, tally.skipped, tally.failed);
+
+        return new BulkUploadResponseDto(
+                batch.getBatchId(),
+                failedRows.size(),
+                tally.created,
+                tally.failed,
+                tally.skipped,
+                duration,
+                outcomes,
+                false
+        );
+    }
+
+    private RowOutcomeDto processRow(BulkUploadBatch batch, int rowIndex, CreateOrderDto dto, RowTally tally) {
+        return processRow(batch, rowIndex, dto, idempotencyService.computeIdempotencyKey(dto), null, tally);
+    }
+
+    /**
+     * Runs one row through the pipeline: duplicate probe, order creation and persistence of the
+     * outcome under {@code idem}. {@code rowEntity} is the stored row when a failed row is being
+     * replayed, or null for a freshly parsed row.
+     */
+    private RowOutcomeDto processRow(BulkUploadBatch batch, int rowIndex, CreateOrderDto dto,
+                                     IdempotencyService.IdempotencyResult idem,
+                                     BulkUploadRow rowEntity, RowTally tally) {
+        // Check for duplicates (a replayed row may find its own key)
+        Optional<BulkUploadRow> existing = rowRepository.findByIdempotencyKey(idem.getIdempotencyKey());
+        if (existing.isPresent() && (rowEntity == null || !existing.get().getId().equals(rowEntity.getId()))) {
+            Long orderId = existing.get().getOrderId();
+            tally.skipped++;
+            logger.debug("Row {} skipped - duplicate idempotency key: {}", rowIndex, idem.getIdempotencyKey());
+            
+            if (rowEntity != null) {
+                // Replayed row now duplicates another row; keep its own (unique) key
+                rowEntity.setStatus(RowStatus.SKIPPED_DUPLICATE);
+                rowEntity.setOrderId(orderId);
+                rowEntity.setErrorMessages(new ArrayList<>());
+                rowEntity.setRawData(bulkOrderMapper.toRawData(dto));
+                rowRepository.save(rowEntity);
+            }
+            
+            // Fresh duplicates are only counted, no new DB entry
+            return new RowOutcomeDto(
+                    rowIndex,
+                    RowStatus.SKIPPED_DUPLICATE.name(),
+                    idem.getBasis().name(),
+                    orderId,
+                    Collections.<ValidationErrorDto>emptyList()
+            );
+        }
+        
+        // Not a duplicate - create new order
+        RowStatus status;
+        Long orderId = null;
+        List<Map<String, Object>> errors = new ArrayList<>();
+        try {
+            com.fleetops.order.dto.CreateOrderDto orderDto = bulkOrderMapper.toOrderCreateDto(dto);
+            com.fleetops.order.dto.OrderDto createdOrder = orderService.createOrder(orderDto);
+            
+            status = RowStatus.CREATED;
+            orderId = createdOrder.getId();
+            tally.created++;
+            logger.info("Row {} created order successfully - orderId: {}", rowIndex, orderId);
+        } catch (Exception e) {
+            // If order creation fails, mark row as failed
+            status = RowStatus.FAILED_VALIDATION;
+            tally.failed++;
+            errors.add(errorEntry("ORDER_CREATION_FAILED", null,
+                    e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName()));
+            logger.error("Row {} failed to create order: {}", rowIndex, e.getMessage(), e);
+        }
+        
+        // Persist row outcome (only for non-duplicates)
+        if (rowEntity == null) {
+            rowEntity = new BulkUploadRow();
+            rowEntity.setBatch(batch);
+            rowEntity.setRowIndex(rowIndex);
+        }
+        rowEntity.setIdempotencyKey(idem.getIdempotencyKey());
+        rowEntity.setIdempotencyBasis(idem.getBasis());
+        rowEntity.setStatus(status);
+        rowEntity.setOrderId(orderId);
+        rowEntity.setErrorMessages(errors);
+        rowEntity.setRawData(bulkOrderMapper.toRawData(dto));
+        rowRepository.save(rowEntity);
+        
+        return new RowOutcomeDto(
+                rowIndex,
+                status.name(),
+                idem.getBasis().name(),
+                orderId,
+                toErrorDtos(errors)
         );
     }
+
+    private Map<String, Object> errorEntry(String code, String field, String message) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("code", code);
+        entry.put("field", field);
+        entry.put("message", message);
+        return entry;
+    }
+
+    private List<ValidationErrorDto> toErrorDtos(List<Map<String, Object>> errors) {
+        if (errors == null || errors.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return errors.stream()
+                .map(e -> new ValidationErrorDto(
+                        (String) e.get("code"),
+                        (String) e.get("field"),
+                        (String) e.get("message")))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Counts bytes read from a streamed request body.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Outcome counters for one processing pass.
+     */
+    private static final class RowTally {
+        int created;
+        int failed;
+        int skipped;
+
+        void add(RowTally other) {
+            created += other.created;
+            failed += other.failed;
+            skipped += other.skipped;
+        }
+    }
+
+    /**
+     * Rebuilds the response of a completed batch from its persisted rows.
+     * Rows skipped as duplicates were never persisted, so only created and failed rows are listed.
+     */
+    private BulkUploadResponseDto toStoredResponse(BulkUploadBatch batch) {
+        List<RowOutcomeDto> outcomes = rowRepository.findByBatch_IdOrderByRowIndexAsc(batch.getId()).stream()
+                .map(this::toOutcome)
+                .collect(Collectors.toList());
+        return new BulkUploadResponseDto(
+                batch.getBatchId(),
+                batch.getTotalRows(),
+                batch.getCreatedCount(),
+                batch.getFailedCount(),
+                batch.getSkippedDuplicateCount(),
+                batch.getProcessingDurationMs(),
+                outcomes,
+                true
+        );
+    }
+
+    /**
+     * Whether a completed batch can still answer a re-upload of its file. Created and failed rows
+     * are always persisted, so a batch that had some but has none left was purged by the retention
+     * job; its row keys are gone as well, and the file is processed again like a new upload.
+     */
+    private boolean hasStoredOutcomes(BulkUploadBatch batch) {
+        return batch.getCreatedCount() + batch.getFailedCount() == 0
+                || rowRepository.existsByBatch_Id(batch.getId());
+    }
+
+    private RowOutcomeDto toOutcome(BulkUploadRow row) {
+        return new RowOutcomeDto(
+                row.getRowIndex(),
+                row.getStatus().name(),
+                row.getIdempotencyBasis().name(),
+                row.getOrderId(),
+                toErrorDtos(row.getErrorMessages())
+        );
+    }
+
+    /**
+     * Copies the upload to a temp file, computing its SHA-256 in the same pass.
+     */
+    private SpooledUpload spool(MultipartFile file) {
+        MessageDigest digest = HashUtil.newSha256();
+        Path path = null;
+        try {
+            path = Files.createTempFile("bulk-upload-", ".xlsx");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new SpooledUpload(path, HashUtil.toHex(digest.digest()));
+        } catch (IOException e) {
+            deleteQuietly(path);
+            throw new RuntimeException("Failed to spool uploaded file", e);
+        }
+    }
+
+    private void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete spooled upload {}: {}", path, e.getMessage());
+        }
+    }
+
+    private record SpooledUpload(Path path, String checksum) {}
     
-    private BulkUploadBatch createBatchRecord(MultipartFile file, int totalRows, long startTimeMs) {
+    private BulkUploadBatch createBatchRecord(MultipartFile file, String checksum) {
+        return createBatchRecord(file.getOriginalFilename(), file.getSize(), checksum);
+    }
+
+    private BulkUploadBatch createBatchRecord(String fileName, long fileSizeBytes, String checksum) {
         BulkUploadBatch batch = new BulkUploadBatch();
         batch.setBatchId(generateBatchId());
         batch.setUploaderUserId(1L); // Hardcoded for Phase 1 (no auth yet)
         batch.setUploaderName("system"); // Hardcoded for Phase 1
-        batch.setFileName(file.getOriginalFilename());
-        batch.setFileSizeBytes(file.getSize());
-        
-        try {
-            String checksum = HashUtil.sha256Hex(file.getBytes());
-            batch.setFileChecksum(checksum);
-        } catch (IOException e) {
-            throw new RuntimeException("Failed to compute file checksum", e);
-        }
+        batch.setFileName(fileName);
+        batch.setFileSizeBytes(fileSizeBytes);
+        batch.setFileChecksum(checksum);
         
         batch.setStatus(BulkUploadStatus.PROCESSING);
         batch.setTotalRows(0); // Set to 0 initially to satisfy constraint; updated at end
@@ -292,4 +692,131 @@ public class BulkUploadService {
     public Page<BulkUploadBatch> listBatches(Pageable pageable) {
         return batchRepository.findAll(pageable);
     }
+
+    /**
+     * Looks up a batch by its public batch id.
+     */
+    @Transactional(readOnly = true)
+    public BulkUploadBatch getBatch(String batchId) {
+        return batchRepository.findByBatchId(batchId)
+                .orElseThrow(() -> new EntityNotFoundException("Bulk upload batch not found: " + batchId));
+    }
+
+    /**
+     * Summary of a batch for the batch detail endpoint.
+     */
+    @Transactional(readOnly = true)
+    public BatchDetailDto getBatchDetail(String batchId) {
+        BulkUploadBatch batch = getBatch(batchId);
+        return new BatchDetailDto(
+                batch.getBatchId(),
+                batch.getFileName(),
+                batch.getFileSizeBytes(),
+                batch.getUploaderName(),
+                batch.getStatus().name(),
+                batch.getTotalRows(),
+                batch.getCreatedCount(),
+                batch.getFailedCount(),
+                batch.getSkippedDuplicateCount(),
+                batch.getUploadedAt(),
+                batch.getProcessingCompletedAt(),
+                batch.getProcessingDurationMs()
+        );
+    }
+
+    /**
+     * Returns one keyset page of row outcomes, ordered by row index.
+     * An error code filter matches rows whose error_messages contain that code
+     * (only failed rows carry errors, so the status filter is not combined with it).
+     */
+    @Transactional(readOnly = true)
+    public BatchRowPageDto listRows(String batchId, Integer afterRowIndex, int limit,
+                                    RowStatus status, String errorCode) {
+        BulkUploadBatch batch = getBatch(batchId);
+        int after = afterRowIndex != null ? afterRowIndex : 0;
+        int pageSize = Math.max(1, Math.min(limit, MAX_ROW_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        Pageable probe = PageRequest.of(0, pageSize + 1);
+
+        List<BulkUploadRow> rows;
+        if (errorCode != null && !errorCode.isBlank()) {
+            rows = rowRepository.findPageAfterByErrorFilter(
+                    batch.getId(), errorCodeFilter(errorCode), after, pageSize + 1);
+        } else if (status == RowStatus.FAILED_VALIDATION) {
+            rows = rowRepository.findFailedPageAfter(batch.getId(), after, probe);
+        } else if (status != null) {
+            rows = rowRepository.findPageAfterByStatus(batch.getId(), status, after, probe);
+        } else {
+            rows = rowRepository.findPageAfter(batch.getId(), after, probe);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        List<RowOutcomeDto> outcomes = rows.stream().map(this::toOutcome).collect(Collectors.toList());
+        Integer next = rows.isEmpty() ? null : rows.get(rows.size() - 1).getRowIndex();
+        return new BatchRowPageDto(batch.getBatchId(), outcomes, next, hasMore);
+    }
+
+    /**
+     * Streams a CSV report of the batch's failed rows, one line per error, reading the
+     * rows in keyset chunks so the whole batch is never held in memory.
+     */
+    public void writeErrorReport(BulkUploadBatch batch, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("row_index,idempotency_key,code,field,message\n");
+
+        Pageable chunk = PageRequest.of(0, ERROR_REPORT_CHUNK_SIZE);
+        int after = 0;
+        List<BulkUploadRow> rows;
+        do {
+            rows = rowRepository.findFailedPageAfter(batch.getId(), after, chunk);
+            for (BulkUploadRow row : rows) {
+                List<Map<String, Object>> errors = row.getErrorMessages();
+                if (errors == null || errors.isEmpty()) {
+                    writeCsvLine(writer, row, null);
+                } else {
+                    for (Map<String, Object> error : errors) {
+                        writeCsvLine(writer, row, error);
+                    }
+                }
+                after = row.getRowIndex();
+            }
+        } while (rows.size() == ERROR_REPORT_CHUNK_SIZE);
+
+        writer.flush();
+    }
+
+    private void writeCsvLine(Writer writer, BulkUploadRow row, Map<String, Object> error) throws IOException {
+        writer.write(String.valueOf(row.getRowIndex()));
+        writer.write(',');
+        writer.write(csvField(row.getIdempotencyKey()));
+        writer.write(',');
+        writer.write(csvField(error != null ? error.get("code") : null));
+        writer.write(',');
+        writer.write(csvField(error != null ? error.get("field") : null));
+        writer.write(',');
+        writer.write(csvField(error != null ? error.get("message") : null));
+        writer.write('\n');
+    }
+
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private String errorCodeFilter(String errorCode) {
+        String code = errorCode.trim().toUpperCase();
+        if (!ERROR_CODE_PATTERN.matcher(code).matches()) {
+            throw new IllegalArgumentException("Invalid error code: " + errorCode);
+        }
+        return "[{\"code\":\"" + code + "\"}]";
+    }
 }
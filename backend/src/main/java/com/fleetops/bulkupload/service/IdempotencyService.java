@@ -2,23 +2,36 @@ package com.fleetops.bulkupload.service;
 
 import com.fleetops.bulkupload.dto.CreateOrderDto;
 import com.fleetops.bulkupload.entity.IdempotencyBasis;
-import com.fleetops.bulkupload.util.HashUtil;
+import com.fleetops.bulkupload.util.IdempotencyKeyEngine;
 import org.springframework.stereotype.Service;
 
 @Service
 public class IdempotencyService {
 
+    private final IdempotencyKeyEngine keyEngine = new IdempotencyKeyEngine();
+
     public IdempotencyResult computeIdempotencyKey(CreateOrderDto dto) {
         if (dto == null) throw new IllegalArgumentException("Order cannot be null");
         String ref = dto.getClientReference();
         if (ref != null && !ref.isBlank()) {
             return new IdempotencyResult(ref, IdempotencyBasis.CLIENT_REFERENCE);
         }
-        String canonical = computeCanonicalRepresentation(dto);
-        String key = HashUtil.sha256Hex(canonical);
+        // Hashes the canonical form below without materializing it
+        String key = keyEngine.hexKey(dto);
         return new IdempotencyResult(key, IdempotencyBasis.HASH);
     }
 
+    /**
+     * Compact 32-byte form of the HASH-basis key (ignores clientReference).
+     */
+    public byte[] computeBinaryKey(CreateOrderDto dto) {
+        if (dto == null) throw new IllegalArgumentException("Order cannot be null");
+        return keyEngine.binaryKey(dto);
+    }
+
+    /**
+     * Readable canonical form that HASH keys are computed over; kept for debugging and tests.
+     */
     public String computeCanonicalRepresentation(CreateOrderDto d) {
         StringBuilder sb = new StringBuilder(256);
         // Keep minimal fields for stability and speed
@@ -32,12 +45,12 @@ public class IdempotencyService {
         append(sb, d.getReceiverPincode());
         append(sb, d.getReceiverCity());
         append(sb, d.getItemCount());
-        append(sb, d.getTotalWeight());
+        append(sb, IdempotencyKeyEngine.canonicalDecimal(d.getTotalWeight()));
         append(sb, d.getItemDescription());
-        append(sb, d.getDeclaredValue());
+        append(sb, IdempotencyKeyEngine.canonicalDecimal(d.getDeclaredValue()));
         append(sb, d.getServiceType());
         append(sb, d.getCarrierName());
-        append(sb, d.getCodAmount());
+        append(sb, IdempotencyKeyEngine.canonicalDecimal(d.getCodAmount()));
         return sb.toString();
     }
 
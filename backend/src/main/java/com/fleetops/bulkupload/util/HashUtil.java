@@ -7,27 +7,47 @@ import java.security.NoSuchAlgorithmException;
 public final class HashUtil {
     private HashUtil() {}
 
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // MessageDigest.getInstance walks the provider list on every call; one digest per thread is enough
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(HashUtil::newSha256);
+
     public static String sha256Hex(byte[] bytes) {
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] hash = md.digest(bytes);
-            StringBuilder sb = new StringBuilder(hash.length * 2);
-            for (byte b : hash) sb.append(String.format("%02x", b));
-            return sb.toString();
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 not available", e);
-        }
+        return toHex(sha256().digest(bytes));
     }
 
     public static String sha256Hex(String input) {
+        return toHex(sha256().digest(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Per-thread SHA-256 digest. digest() resets it, so callers must finish with digest()
+     * (or call reset()) before handing the thread back.
+     */
+    public static MessageDigest sha256() {
+        MessageDigest digest = SHA256.get();
+        digest.reset();
+        return digest;
+    }
+
+    /**
+     * Fresh SHA-256 digest, e.g. for wrapping in a DigestInputStream while streaming a file.
+     */
+    public static MessageDigest newSha256() {
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] bytes = md.digest(input.getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder(bytes.length * 2);
-            for (byte b : bytes) sb.append(String.format("%02x", b));
-            return sb.toString();
+            return MessageDigest.getInstance("SHA-256");
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalStateException("SHA-256 not available", e);
         }
     }
+
+    public static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            int v = bytes[i] & 0xff;
+            out[j++] = HEX[v >>> 4];
+            out[j++] = HEX[v & 0x0f];
+        }
+        return new String(out);
+    }
 }
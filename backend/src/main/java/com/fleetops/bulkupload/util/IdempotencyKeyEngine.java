@@ -0,0 +1,181 @@
+package com.fleetops.bulkupload.util;
+
+import com.fleetops.bulkupload.dto.CreateOrderDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+/**
+ * Computes the HASH-basis idempotency key of an order without building the canonical String.
+ *
+ * The canonical fields are encoded as UTF-8 straight into a per-thread scratch buffer that is
+ * fed to a per-thread SHA-256 digest, so a key costs one digest pass and the final hex String.
+ * The byte stream is identical to {@code IdempotencyService.computeCanonicalRepresentation(..)}
+ * encoded as UTF-8, so keys match those already stored in bulk_upload_row. Decimals are hashed
+ * at a fixed scale, so "5", "5.0" and "5.00" from Excel, JSON or a replayed row give one key.
+ */
+public final class IdempotencyKeyEngine {
+
+    public static final int KEY_BYTES = 32;
+
+    public static final int DECIMAL_SCALE = 2;
+
+    private static final byte SEPARATOR = '|';
+
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    /**
+     * Lowercase hex SHA-256 of the canonical order fields (64 chars).
+     */
+    public String hexKey(CreateOrderDto dto) {
+        return HashUtil.toHex(digest(dto).out);
+    }
+
+    /**
+     * Compact 32-byte form of the same key, e.g. for in-memory sets or a bytea column.
+     */
+    public byte[] binaryKey(CreateOrderDto dto) {
+        return digest(dto).out.clone();
+    }
+
+    /**
+     * Writes the 32-byte key into {@code target} at {@code offset} without allocating.
+     */
+    public void binaryKey(CreateOrderDto dto, byte[] target, int offset) {
+        System.arraycopy(digest(dto).out, 0, target, offset, KEY_BYTES);
+    }
+
+    // Field order must stay in sync with IdempotencyService.computeCanonicalRepresentation
+    private State digest(CreateOrderDto d) {
+        State s = state.get();
+        s.begin();
+        s.putString(d.getSenderName());
+        s.putString(d.getSenderAddress());
+        s.putString(d.getSenderContact());
+        s.putString(d.getSenderEmail());
+        s.putString(d.getReceiverName());
+        s.putString(d.getReceiverAddress());
+        s.putString(d.getReceiverContact());
+        s.putString(d.getReceiverPincode());
+        s.putString(d.getReceiverCity());
+        s.putInteger(d.getItemCount());
+        s.putDecimal(d.getTotalWeight());
+        s.putString(d.getItemDescription());
+        s.putDecimal(d.getDeclaredValue());
+        s.putString(d.getServiceType());
+        s.putString(d.getCarrierName());
+        s.putDecimal(d.getCodAmount());
+        s.finish();
+        return s;
+    }
+
+    /**
+     * The decimal as it appears in the canonical form: always {@link #DECIMAL_SCALE} places.
+     */
+    public static BigDecimal canonicalDecimal(BigDecimal value) {
+        // setScale returns the same instance when the scale already matches
+        return value != null ? value.setScale(DECIMAL_SCALE, RoundingMode.HALF_UP) : null;
+    }
+
+    private static final class State {
+        final MessageDigest digest = HashUtil.newSha256();
+        final byte[] buffer = new byte[512];
+        final byte[] out = new byte[KEY_BYTES];
+        int position;
+
+        void begin() {
+            digest.reset();
+            position = 0;
+        }
+
+        void finish() {
+            flush();
+            try {
+                digest.digest(out, 0, KEY_BYTES);
+            } catch (DigestException e) {
+                throw new IllegalStateException("SHA-256 digest failed", e);
+            }
+        }
+
+        void putString(String value) {
+            if (value != null) {
+                encodeUtf8(value);
+            }
+            put(SEPARATOR);
+        }
+
+        void putDecimal(BigDecimal value) {
+            // BigDecimal caches its toString(), so repeated hashing of the same row is free
+            putString(value != null ? canonicalDecimal(value).toString() : null);
+        }
+
+        void putInteger(Integer value) {
+            if (value != null) {
+                long v = value;
+                if (v < 0) {
+                    put((byte) '-');
+                    v = -v;
+                }
+                long divisor = 1;
+                while (divisor * 10 <= v) {
+                    divisor *= 10;
+                }
+                for (; divisor > 0; divisor /= 10) {
+                    put((byte) ('0' + (v / divisor) % 10));
+                }
+            }
+            put(SEPARATOR);
+        }
+
+        // Same bytes as String.getBytes(UTF_8), including '?' for unpaired surrogates
+        private void encodeUtf8(String value) {
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c < 0x80) {
+                    put((byte) c);
+                } else if (c < 0x800) {
+                    ensure(2);
+                    buffer[position++] = (byte) (0xc0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                        int cp = Character.toCodePoint(c, value.charAt(++i));
+                        ensure(4);
+                        buffer[position++] = (byte) (0xf0 | (cp >> 18));
+                        buffer[position++] = (byte) (0x80 | ((cp >> 12) & 0x3f));
+                        buffer[position++] = (byte) (0x80 | ((cp >> 6) & 0x3f));
+                        buffer[position++] = (byte) (0x80 | (cp & 0x3f));
+                    } else {
+                        put((byte) '?');
+                    }
+                } else {
+                    ensure(3);
+                    buffer[position++] = (byte) (0xe0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3f));
+                }
+            }
+        }
+
+        private void put(byte b) {
+            ensure(1);
+            buffer[position++] = b;
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (position > 0) {
+                digest.update(buffer, 0, position);
+                position = 0;
+            }
+        }
+    }
+}
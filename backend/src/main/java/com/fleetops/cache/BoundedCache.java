@@ -0,0 +1,112 @@
+package com.fleetops.cache;
+
+import java.time.Clock;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small in-process LRU cache with an optional time-to-live, for hot read paths that do not
+ * justify a caching library. Access is synchronized on the instance; values should be treated
+ * as immutable by callers since the same instance is handed out on every hit.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedCache<K, V> {
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Clock clock;
+    private final LinkedHashMap<K, Timestamped<V>> entries;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * @param maxEntries capacity; the least recently used entry is evicted beyond it
+     * @param ttlMillis  entry lifetime after write, or {@code 0} for no expiry
+     */
+    public BoundedCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, Clock.systemUTC());
+    }
+
+    public BoundedCache(int maxEntries, long ttlMillis, Clock clock) {
+        if (maxEntries <= 0) throw new IllegalArgumentException("maxEntries must be positive");
+        if (ttlMillis < 0) throw new IllegalArgumentException("ttlMillis must not be negative");
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Timestamped<V>> eldest) {
+                return size() > BoundedCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value, or {@code null} when absent or expired.
+     */
+    public synchronized V get(K key) {
+        Timestamped<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (expired(entry)) {
+            entries.remove(key);
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value();
+    }
+
+    public synchronized void put(K key, V value) {
+        if (value == null) {
+            entries.remove(key);
+            return;
+        }
+        entries.put(key, new Timestamped<>(value, clock.millis()));
+    }
+
+    /**
+     * Returns the cached value or loads it. The loader runs outside the lock, so concurrent misses
+     * for one key may each load; a {@code null} result is not cached.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        V cached = get(key);
+        if (cached != null) return cached;
+        V loaded = loader.apply(key);
+        if (loaded != null) put(key, loaded);
+        return loaded;
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hitCount() {
+        return hits;
+    }
+
+    public synchronized long missCount() {
+        return misses;
+    }
+
+    private boolean expired(Timestamped<V> entry) {
+        return ttlMillis > 0 && clock.millis() - entry.writtenAt() >= ttlMillis;
+    }
+
+    private record Timestamped<V>(V value, long writtenAt) {
+    }
+}
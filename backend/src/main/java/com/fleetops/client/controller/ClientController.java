@@ -2,6 +2,7 @@ package com.fleetops.client.controller;
 
 import com.fleetops.client.dto.ClientDto;
 import com.fleetops.client.dto.ClientImportResponse;
+import com.fleetops.client.dto.ClientSummaryDto;
 import com.fleetops.client.service.ClientService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -44,6 +45,13 @@ public class ClientController {
                 .body(resource);
     }
 
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<ClientSummaryDto>> typeahead(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(clientService.typeahead(query, limit));
+    }
+
     @GetMapping
     public ResponseEntity<Object> getClients(
             @RequestParam(required = false) String query,
@@ -16,6 +16,8 @@ public class ClientImportResponse {
     private int totalProcessed;
     private int successCount;
     private int failureCount;
+    private int createdCount;
+    private int updatedCount;
     @Builder.Default
     private List<String> errors = new ArrayList<>();
     @Builder.Default
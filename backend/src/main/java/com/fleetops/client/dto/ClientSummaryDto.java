@@ -0,0 +1,20 @@
+package com.fleetops.client.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Compact client view held by the in-memory lookup index and returned by typeahead.
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class ClientSummaryDto {
+    Long id;
+    String name;
+    String contractNo;
+    String subContractCode;
+    String contactPerson;
+    String city;
+}
@@ -1,131 +1,95 @@
 package com.fleetops.client.service;
 
 import com.fleetops.client.dto.ClientDto;
+import com.fleetops.excel.BoundColumns;
+import com.fleetops.excel.CellConverters;
+import com.fleetops.excel.ColumnMapping;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
-import org.springframework.web.multipart.MultipartFile;
 
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 public class ClientExcelParserService {
 
-    public ClientParseResult parseClients(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            return ClientParseResult.builder().build();
-        }
-
-        try (Workbook wb = new XSSFWorkbook(file.getInputStream())) {
-            Sheet sheet = wb.getNumberOfSheets() > 0 ? wb.getSheetAt(0) : null;
-            if (sheet == null) return ClientParseResult.builder().build();
-
-            Row header = sheet.getRow(0);
-            Map<String, Integer> idx = buildHeaderIndex(header);
+    /**
+     * Client import template columns; also drives the generated template's header row.
+     */
+    static final ColumnMapping<ClientDto> CLIENT_COLUMNS = ColumnMapping.builder(ClientDto::new)
+            .column("ContractNo", CellConverters.TRIMMED_STRING, ClientDto::setContractNo)
+            .column("SubContractName", CellConverters.TRIMMED_STRING, ClientDto::setSubContractName)
+            .column("SubContractCode", CellConverters.TRIMMED_STRING, ClientDto::setSubContractCode)
+            .column("vAddress", CellConverters.TRIMMED_STRING, ClientDto::setVAddress)
+            .column("vPincode", CellConverters.TRIMMED_STRING, ClientDto::setVPincode)
+            .column("vCity", CellConverters.TRIMMED_STRING, ClientDto::setVCity)
+            .column("vState", CellConverters.TRIMMED_STRING, ClientDto::setVState)
+            .column("vCountry", CellConverters.TRIMMED_STRING, ClientDto::setVCountry)
+            .column("vContactPerson", CellConverters.TRIMMED_STRING, ClientDto::setVContactPerson)
+            .column("vContactMobile", CellConverters.TRIMMED_STRING, ClientDto::setVContactMobile)
+            .column("vContactEmail", CellConverters.TRIMMED_STRING, ClientDto::setVContactEmail)
+            .column("vBillGSTNo", CellConverters.TRIMMED_STRING, ClientDto::setVBillGstNo)
+            .column("vBillingName", CellConverters.TRIMMED_STRING, ClientDto::setVBillingName)
+            .column("vDeptName", CellConverters.TRIMMED_STRING, ClientDto::setVDeptName)
+            .column("vBillAddress1", CellConverters.TRIMMED_STRING, ClientDto::setVBillAddress1)
+            .column("vBillAddress2", CellConverters.TRIMMED_STRING, ClientDto::setVBillAddress2)
+            .column("vBillPincode", CellConverters.TRIMMED_STRING, ClientDto::setVBillPincode)
+            .column("vBillState", CellConverters.TRIMMED_STRING, ClientDto::setVBillState)
+            .column("vBillCity", CellConverters.TRIMMED_STRING, ClientDto::setVBillCity)
+            .column("vCCName", CellConverters.TRIMMED_STRING, ClientDto::setVCcName)
+            .column("vBillCountry", CellConverters.TRIMMED_STRING, ClientDto::setVBillCountry)
+            .column("vBillStaeCode", CellConverters.TRIMMED_STRING, ClientDto::setVBillStaeCode)
+            .column("vBillKindAttn", CellConverters.TRIMMED_STRING, ClientDto::setVBillKindAttn)
+            .column("vBillEmail", CellConverters.TRIMMED_STRING, ClientDto::setVBillEmail)
+            .column("vBillMobile", CellConverters.TRIMMED_STRING, ClientDto::setVBillMobile)
+            .column("vIntimationEmailids", CellConverters.TRIMMED_STRING, ClientDto::setVIntimationEmailIds)
+            .build();
+
+    /**
+     * Streams the first sheet of a workbook on disk with the XSSF event (SAX) model and hands
+     * valid clients to {@code chunkConsumer} in chunks of {@code chunkSize}, so only one chunk
+     * is ever held in memory. Row errors are collected in the returned result; its
+     * validClients list stays empty.
+     */
+    public ClientParseResult streamClients(Path path, int chunkSize, Consumer<List<ClientDto>> chunkConsumer) {
+        List<String> errors = new ArrayList<>();
+        try (OPCPackage pkg = OPCPackage.open(path.toFile(), PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return ClientParseResult.builder().errors(errors).build();
+            }
 
-            // We don't strictly enforce all headers, but we need at least the keys
-            // ContractNo, SubContractCode
-            
-            int last = sheet.getLastRowNum();
-            List<ClientDto> validClients = new ArrayList<>();
-            List<String> allErrors = new ArrayList<>();
-            
-            for (int r = 1; r <= last; r++) {
-                Row row = sheet.getRow(r);
-                if (row == null) continue;
-                
-                // Skip empty rows
-                if (isRowEmpty(row)) continue;
-
-                try {
-                    // Extract mandatory fields first
-                    String contractNo = getString(row, idx.get("ContractNo"));
-                    String subContractCode = getString(row, idx.get("SubContractCode"));
-                    String subContractName = getString(row, idx.get("SubContractName"));
-
-                    // Validate mandatory fields
-                    List<String> missingFields = new ArrayList<>();
-                    if (contractNo == null || contractNo.trim().isEmpty()) {
-                        missingFields.add("ContractNo");
-                    }
-                    if (subContractCode == null || subContractCode.trim().isEmpty()) {
-                        missingFields.add("SubContractCode");
-                    }
-                    if (subContractName == null || subContractName.trim().isEmpty()) {
-                        missingFields.add("SubContractName");
-                    }
-
-                    if (!missingFields.isEmpty()) {
-                        allErrors.add("Row " + (r + 1) + ": Missing mandatory fields: " + 
-                                String.join(", ", missingFields));
-                        continue; // Skip this row but continue processing others
-                    }
-
-                    ClientDto dto = ClientDto.builder()
-                            .contractNo(contractNo)
-                            .subContractName(subContractName)
-                            .subContractCode(subContractCode)
-                            .vAddress(getString(row, idx.get("vAddress")))
-                            .vPincode(getString(row, idx.get("vPincode")))
-                            .vCity(getString(row, idx.get("vCity")))
-                            .vState(getString(row, idx.get("vState")))
-                            .vCountry(getString(row, idx.get("vCountry")))
-                            .vContactPerson(getString(row, idx.get("vContactPerson")))
-                            .vContactMobile(getString(row, idx.get("vContactMobile")))
-                            .vContactEmail(getString(row, idx.get("vContactEmail")))
-                            .vBillGstNo(getString(row, idx.get("vBillGSTNo")))
-                            .vBillingName(getString(row, idx.get("vBillingName")))
-                            .vDeptName(getString(row, idx.get("vDeptName")))
-                            .vBillAddress1(getString(row, idx.get("vBillAddress1")))
-                            .vBillAddress2(getString(row, idx.get("vBillAddress2")))
-                            .vBillPincode(getString(row, idx.get("vBillPincode")))
-                            .vBillState(getString(row, idx.get("vBillState")))
-                            .vBillCity(getString(row, idx.get("vBillCity")))
-                            .vCcName(getString(row, idx.get("vCCName")))
-                            .vBillCountry(getString(row, idx.get("vBillCountry")))
-                            .vBillStaeCode(getString(row, idx.get("vBillStaeCode")))
-                            .vBillKindAttn(getString(row, idx.get("vBillKindAttn")))
-                            .vBillEmail(getString(row, idx.get("vBillEmail")))
-                            .vBillMobile(getString(row, idx.get("vBillMobile")))
-                            .vIntimationEmailIds(getString(row, idx.get("vIntimationEmailids")))
-                            .build();
-
-                    // Map mandatory legacy fields to core fields
-                    dto.setName(dto.getSubContractName());
-                    dto.setAddress(dto.getVAddress());
-                    dto.setContactPerson(dto.getVContactPerson());
-
-                    // Validate mapped mandatory fields
-                    List<String> mappedMissingFields = new ArrayList<>();
-                    if (dto.getAddress() == null || dto.getAddress().trim().isEmpty()) {
-                        mappedMissingFields.add("vAddress");
-                    }
-                    if (dto.getContactPerson() == null || dto.getContactPerson().trim().isEmpty()) {
-                        mappedMissingFields.add("vContactPerson");
-                    }
-
-                    if (!mappedMissingFields.isEmpty()) {
-                        allErrors.add("Row " + (r + 1) + ": Missing mandatory fields: " + 
-                                String.join(", ", mappedMissingFields));
-                        continue; // Skip this row but continue processing others
-                    }
-
-                    validClients.add(dto);
-                } catch (Exception e) {
-                    allErrors.add("Row " + (r + 1) + ": " + e.getMessage());
-                }
+            StreamingClientSheetHandler handler = new StreamingClientSheetHandler(chunkSize, chunkConsumer, errors);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader xmlReader = XMLHelper.newXMLReader();
+                xmlReader.setContentHandler(new XSSFSheetXMLHandler(
+                        reader.getStylesTable(), null, new ReadOnlySharedStringsTable(pkg),
+                        handler, new DataFormatter(), false));
+                xmlReader.parse(new InputSource(sheet));
             }
-            
-            return ClientParseResult.builder()
-                    .validClients(validClients)
-                    .errors(allErrors)
-                    .build();
-        } catch (IOException e) {
-            return ClientParseResult.builder()
-                    .errors(List.of("Failed to read Excel file: " + e.getMessage()))
-                    .build();
+            handler.flush();
+        } catch (IOException | OpenXML4JException | SAXException | ParserConfigurationException e) {
+            errors.add("Failed to read Excel file: " + e.getMessage());
         }
+        return ClientParseResult.builder().errors(errors).build();
     }
 
     public byte[] generateTemplate() {
@@ -133,18 +97,11 @@ public class ClientExcelParserService {
             Sheet sheet = workbook.createSheet("Clients");
             Row header = sheet.createRow(0);
             
-            String[] headers = {
-                "ContractNo", "SubContractName", "SubContractCode", "vAddress", "vPincode", 
-                "vCity", "vState", "vCountry", "vContactPerson", "vContactMobile", 
-                "vContactEmail", "vBillGSTNo", "vBillingName", "vDeptName", "vBillAddress1", 
-                "vBillAddress2", "vBillPincode", "vBillState", "vBillCity", "vCCName", 
-                "vBillCountry", "vBillStaeCode", "vBillKindAttn", "vBillEmail", "vBillMobile", 
-                "vIntimationEmailids"
-            };
-
-            for (int i = 0; i < headers.length; i++) {
+            List<String> headers = CLIENT_COLUMNS.headers();
+
+            for (int i = 0; i < headers.size(); i++) {
                 Cell cell = header.createCell(i);
-                cell.setCellValue(headers[i]);
+                cell.setCellValue(headers.get(i));
             }
 
             java.io.ByteArrayOutputStream bos = new java.io.ByteArrayOutputStream();
@@ -155,62 +112,118 @@ public class ClientExcelParserService {
         }
     }
 
-    private Map<String, Integer> buildHeaderIndex(Row header) {
-        if (header == null) return Collections.emptyMap();
-        Map<String, Integer> m = new HashMap<>();
-        short last = header.getLastCellNum();
-        for (int c = 0; c < last; c++) {
-            Cell cell = header.getCell(c);
-            String name = (cell != null) ? getCellValueAsString(cell).trim() : null;
-            if (name != null && !name.isEmpty()) {
-                m.put(name, c);
-            }
+    /**
+     * Checks mandatory fields and maps the legacy columns onto the core fields.
+     * Adds an error for the row and returns false when the client cannot be imported.
+     */
+    private boolean validateClient(ClientDto dto, int rowNumber, List<String> errors) {
+        List<String> missingFields = new ArrayList<>();
+        if (dto.getContractNo() == null || dto.getContractNo().trim().isEmpty()) {
+            missingFields.add("ContractNo");
+        }
+        if (dto.getSubContractCode() == null || dto.getSubContractCode().trim().isEmpty()) {
+            missingFields.add("SubContractCode");
+        }
+        if (dto.getSubContractName() == null || dto.getSubContractName().trim().isEmpty()) {
+            missingFields.add("SubContractName");
         }
-        return m;
-    }
 
-    private String getString(Row row, Integer colIdx) {
-        if (colIdx == null) return null;
-        Cell cell = row.getCell(colIdx);
-        return getCellValueAsString(cell);
-    }
+        if (!missingFields.isEmpty()) {
+            errors.add("Row " + rowNumber + ": Missing mandatory fields: " + String.join(", ", missingFields));
+            return false;
+        }
+
+        // Map mandatory legacy fields to core fields
+        dto.setName(dto.getSubContractName());
+        dto.setAddress(dto.getVAddress());
+        dto.setContactPerson(dto.getVContactPerson());
+
+        // Validate mapped mandatory fields
+        List<String> mappedMissingFields = new ArrayList<>();
+        if (dto.getAddress() == null || dto.getAddress().trim().isEmpty()) {
+            mappedMissingFields.add("vAddress");
+        }
+        if (dto.getContactPerson() == null || dto.getContactPerson().trim().isEmpty()) {
+            mappedMissingFields.add("vContactPerson");
+        }
 
-    private String getCellValueAsString(Cell cell) {
-        if (cell == null) return null;
-        switch (cell.getCellType()) {
-            case STRING:
-                return cell.getStringCellValue().trim();
-            case NUMERIC:
-                if (DateUtil.isCellDateFormatted(cell)) {
-                    return cell.getLocalDateTimeCellValue().toString();
-                }
-                // Check if it's an integer-like number (e.g. Pincode)
-                double val = cell.getNumericCellValue();
-                if (val == (long) val) {
-                    return String.valueOf((long) val);
-                }
-                return String.valueOf(val);
-            case BOOLEAN:
-                return String.valueOf(cell.getBooleanCellValue());
-            case FORMULA:
-                try {
-                    return cell.getStringCellValue();
-                } catch (Exception e) {
-                    return String.valueOf(cell.getNumericCellValue());
-                }
-            default:
-                return null;
+        if (!mappedMissingFields.isEmpty()) {
+            errors.add("Row " + rowNumber + ": Missing mandatory fields: " + String.join(", ", mappedMissingFields));
+            return false;
         }
+        return true;
     }
-    
-    private boolean isRowEmpty(Row row) {
-        if (row == null) return true;
-        for (int c = row.getFirstCellNum(); c < row.getLastCellNum(); c++) {
-            Cell cell = row.getCell(c);
-            if (cell != null && cell.getCellType() != CellType.BLANK) {
-                return false;
+
+    /**
+     * SAX callbacks for one sheet: collects cell texts per row, binds them through
+     * CLIENT_COLUMNS and emits valid clients in chunks.
+     */
+    private final class StreamingClientSheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final int chunkSize;
+        private final Consumer<List<ClientDto>> chunkConsumer;
+        private final List<String> errors;
+        private List<ClientDto> chunk;
+        private BoundColumns<ClientDto> columns;
+        private String[] values = new String[32];
+        private boolean rowHasValue;
+
+        StreamingClientSheetHandler(int chunkSize, Consumer<List<ClientDto>> chunkConsumer, List<String> errors) {
+            this.chunkSize = chunkSize;
+            this.chunkConsumer = chunkConsumer;
+            this.errors = errors;
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(values, null);
+            rowHasValue = false;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = columnIndex(cellReference);
+            if (column >= values.length) {
+                values = Arrays.copyOf(values, Math.max(column + 1, values.length * 2));
+            }
+            values[column] = formattedValue;
+            if (formattedValue != null && !formattedValue.isBlank()) {
+                rowHasValue = true;
             }
         }
-        return true;
+
+        @Override
+        public void endRow(int rowNum) {
+            if (columns == null) {
+                // First row delivered is the header
+                columns = CLIENT_COLUMNS.bind(Arrays.asList(values));
+                return;
+            }
+            if (!rowHasValue) return;
+
+            ClientDto dto = columns.read(values);
+            if (validateClient(dto, rowNum + 1, errors)) {
+                chunk.add(dto);
+                if (chunk.size() >= chunkSize) flush();
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) return;
+            chunkConsumer.accept(chunk);
+            chunk = new ArrayList<>(chunkSize);
+        }
+
+        // "AB12" -> 27; the event model omits blank cells, so positions come from the reference
+        private int columnIndex(String cellReference) {
+            int column = 0;
+            for (int i = 0; i < cellReference.length(); i++) {
+                char c = cellReference.charAt(i);
+                if (c < 'A' || c > 'Z') break;
+                column = column * 26 + (c - 'A' + 1);
+            }
+            return column - 1;
+        }
     }
 }
@@ -0,0 +1,181 @@
+package com.fleetops.client.service;
+
+import com.fleetops.client.dto.ClientDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based writer for client imports. Each chunk is committed in its own transaction:
+ * one query prefetches which (contract_no, sub_contract_code) keys already exist, then all
+ * rows are written as a JDBC batch of INSERT ... ON CONFLICT DO UPDATE statements. A chunk
+ * that fails is retried row by row so one bad row does not fail the other clients.
+ */
+@Component
+@Slf4j
+public class ClientImportWriter {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO clients (name, address, contact_person, contract_no, sub_contract_name, sub_contract_code, " +
+            "v_address, v_pincode, v_city, v_state, v_country, v_contact_person, v_contact_mobile, v_contact_email, " +
+            "v_bill_gst_no, v_billing_name, v_dept_name, v_bill_address1, v_bill_address2, v_bill_pincode, " +
+            "v_bill_state, v_bill_city, v_cc_name, v_bill_country, v_bill_stae_code, v_bill_kind_attn, " +
+            "v_bill_email, v_bill_mobile, v_intimation_emailids, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, now(), now()) " +
+            "ON CONFLICT (contract_no, sub_contract_code) DO UPDATE SET " +
+            "name = EXCLUDED.name, address = EXCLUDED.address, contact_person = EXCLUDED.contact_person, " +
+            "sub_contract_name = EXCLUDED.sub_contract_name, v_address = EXCLUDED.v_address, " +
+            "v_pincode = EXCLUDED.v_pincode, v_city = EXCLUDED.v_city, v_state = EXCLUDED.v_state, " +
+            "v_country = EXCLUDED.v_country, v_contact_person = EXCLUDED.v_contact_person, " +
+            "v_contact_mobile = EXCLUDED.v_contact_mobile, v_contact_email = EXCLUDED.v_contact_email, " +
+            "v_bill_gst_no = EXCLUDED.v_bill_gst_no, v_billing_name = EXCLUDED.v_billing_name, " +
+            "v_dept_name = EXCLUDED.v_dept_name, v_bill_address1 = EXCLUDED.v_bill_address1, " +
+            "v_bill_address2 = EXCLUDED.v_bill_address2, v_bill_pincode = EXCLUDED.v_bill_pincode, " +
+            "v_bill_state = EXCLUDED.v_bill_state, v_bill_city = EXCLUDED.v_bill_city, " +
+            "v_cc_name = EXCLUDED.v_cc_name, v_bill_country = EXCLUDED.v_bill_country, " +
+            "v_bill_stae_code = EXCLUDED.v_bill_stae_code, v_bill_kind_attn = EXCLUDED.v_bill_kind_attn, " +
+            "v_bill_email = EXCLUDED.v_bill_email, v_bill_mobile = EXCLUDED.v_bill_mobile, " +
+            "v_intimation_emailids = EXCLUDED.v_intimation_emailids, updated_at = now()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ClientImportWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Upserts one chunk of parsed clients. Rows repeating a key within the chunk collapse
+     * to the last occurrence, matching the old row-by-row behaviour. When the chunk as a whole
+     * fails (e.g. one row violates a constraint), it is retried one row per transaction so only
+     * the offending rows are reported as failed.
+     */
+    public ChunkResult upsertChunk(List<ClientDto> chunk) {
+        Map<String, ClientDto> byKey = new LinkedHashMap<>();
+        for (ClientDto dto : chunk) {
+            byKey.put(key(dto.getContractNo(), dto.getSubContractCode()), dto);
+        }
+
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> upsert(byKey));
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Client import chunk of {} rows failed, retrying row by row: {}",
+                    byKey.size(), e.getMostSpecificCause().getMessage());
+            result = upsertRowByRow(byKey);
+        }
+        log.debug("Client import chunk: {} rows, {} created, {} updated, {} failed",
+                chunk.size(), result.created(), result.updated(), result.failures().size());
+        return result;
+    }
+
+    private ChunkResult upsertRowByRow(Map<String, ClientDto> byKey) {
+        int created = 0;
+        int updated = 0;
+        List<ClientDto> clients = new ArrayList<>();
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, ClientDto> entry : byKey.entrySet()) {
+            ClientDto dto = entry.getValue();
+            try {
+                ChunkResult single = transactionTemplate.execute(status -> upsert(Map.of(entry.getKey(), dto)));
+                created += single.created();
+                updated += single.updated();
+                clients.addAll(single.clients());
+            } catch (DataAccessException | TransactionException e) {
+                failures.add("Client " + dto.getContractNo() + " / " + dto.getSubContractCode() + ": "
+                        + e.getMostSpecificCause().getMessage());
+            }
+        }
+        return new ChunkResult(created, updated, clients, failures);
+    }
+
+    // One prefetch of existing ids and one JDBC batch, run inside the caller's transaction
+    private ChunkResult upsert(Map<String, ClientDto> byKey) {
+        Map<String, Long> existingIds = findExistingIds(byKey.values());
+
+        List<Object[]> batchArgs = new ArrayList<>(byKey.size());
+        for (ClientDto dto : byKey.values()) {
+            batchArgs.add(toArgs(dto));
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+
+        int updated = 0;
+        List<ClientDto> inserted = new ArrayList<>();
+        for (Map.Entry<String, ClientDto> entry : byKey.entrySet()) {
+            Long id = existingIds.get(entry.getKey());
+            if (id != null) {
+                entry.getValue().setId(id);
+                updated++;
+            } else {
+                inserted.add(entry.getValue());
+            }
+        }
+        // Resolve generated ids so callers (e.g. the lookup index) can key new clients
+        if (!inserted.isEmpty()) {
+            Map<String, Long> insertedIds = findExistingIds(inserted);
+            for (ClientDto dto : inserted) {
+                dto.setId(insertedIds.get(key(dto.getContractNo(), dto.getSubContractCode())));
+            }
+        }
+        return new ChunkResult(inserted.size(), updated, new ArrayList<>(byKey.values()), List.of());
+    }
+
+    // One round trip per chunk: (contract_no, sub_contract_code) IN ((?, ?), ...) on idx_clients_contract_subcontract
+    private Map<String, Long> findExistingIds(Collection<ClientDto> clients) {
+        Map<String, Long> ids = new HashMap<>();
+        if (clients.isEmpty()) return ids;
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, contract_no, sub_contract_code FROM clients WHERE (contract_no, sub_contract_code) IN (");
+        List<Object> args = new ArrayList<>(clients.size() * 2);
+        for (ClientDto dto : clients) {
+            if (!args.isEmpty()) sql.append(", ");
+            sql.append("(?, ?)");
+            args.add(dto.getContractNo());
+            args.add(dto.getSubContractCode());
+        }
+        sql.append(')');
+
+        jdbcTemplate.query(sql.toString(), rs -> {
+            ids.put(key(rs.getString("contract_no"), rs.getString("sub_contract_code")), rs.getLong("id"));
+        }, args.toArray());
+        return ids;
+    }
+
+    private Object[] toArgs(ClientDto dto) {
+        return new Object[]{
+                dto.getName(), dto.getAddress(), dto.getContactPerson(),
+                dto.getContractNo(), dto.getSubContractName(), dto.getSubContractCode(),
+                dto.getVAddress(), dto.getVPincode(), dto.getVCity(), dto.getVState(), dto.getVCountry(),
+                dto.getVContactPerson(), dto.getVContactMobile(), dto.getVContactEmail(),
+                dto.getVBillGstNo(), dto.getVBillingName(), dto.getVDeptName(),
+                dto.getVBillAddress1(), dto.getVBillAddress2(), dto.getVBillPincode(),
+                dto.getVBillState(), dto.getVBillCity(), dto.getVCcName(), dto.getVBillCountry(),
+                dto.getVBillStaeCode(), dto.getVBillKindAttn(), dto.getVBillEmail(), dto.getVBillMobile(),
+                dto.getVIntimationEmailIds()
+        };
+    }
+
+    private static String key(String contractNo, String subContractCode) {
+        return contractNo + '\u0000' + subContractCode;
+    }
+
+    /**
+     * Outcome of one chunk; every entry in {@code clients} was committed and carries its database
+     * id, and {@code failures} holds one message per client that could not be written.
+     */
+    public record ChunkResult(int created, int updated, List<ClientDto> clients, List<String> failures) {
+    }
+}
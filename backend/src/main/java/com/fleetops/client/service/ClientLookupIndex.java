@@ -0,0 +1,282 @@
+package com.fleetops.client.service;
+
+import com.fleetops.client.Client;
+import com.fleetops.client.dto.ClientDto;
+import com.fleetops.client.dto.ClientSummaryDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory token prefix index over client name, sub-contract code, contact person and city,
+ * backing the typeahead endpoint without touching the database.
+ *
+ * <p>Tokens live in a sorted map, so a prefix lookup is a range scan from {@code prefix} up to
+ * {@code prefix + Character.MAX_VALUE}. Each query token must prefix-match at least one token of a client.
+ * Reads are lock-free; writes are serialized on the index monitor. The index is loaded once the
+ * application is ready, kept current by {@link ClientService} on create/update/delete/import and
+ * rebuilt periodically to pick up writes made by other instances.</p>
+ */
+@Component
+@Slf4j
+public class ClientLookupIndex {
+
+    // Bounds the work for very short prefixes; ranking then applies to the collected candidates
+    private static final int MAX_CANDIDATES = 2000;
+
+    private static final String LOAD_SQL =
+            "SELECT id, name, contract_no, sub_contract_code, contact_person, v_city FROM clients";
+
+    private static final Comparator<Candidate> RANKING = Comparator
+            .comparing((Candidate c) -> !c.namePrefix)
+            .thenComparing(c -> c.entry.sortName)
+            .thenComparing(c -> c.entry.summary.getId());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+
+    public ClientLookupIndex(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.client-index.refresh-interval-ms:900000}",
+            initialDelayString = "${app.client-index.refresh-interval-ms:900000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /**
+     * Reloads every client from the database and atomically swaps in the new index.
+     */
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<ClientSummaryDto> summaries = new ArrayList<>();
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            summaries.add(new ClientSummaryDto(
+                    rs.getLong("id"),
+                    rs.getString("name"),
+                    rs.getString("contract_no"),
+                    rs.getString("sub_contract_code"),
+                    rs.getString("contact_person"),
+                    rs.getString("v_city")));
+        });
+        replaceAll(summaries);
+        log.info("Client lookup index loaded {} clients ({} tokens) in {} ms",
+                summaries.size(), snapshot.tokens.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Replaces the index contents with the given summaries.
+     */
+    public synchronized void replaceAll(Collection<ClientSummaryDto> summaries) {
+        Snapshot fresh = new Snapshot();
+        for (ClientSummaryDto summary : summaries) {
+            fresh.put(summary);
+        }
+        snapshot = fresh;
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return snapshot.entries.size();
+    }
+
+    public void put(Client client) {
+        put(new ClientSummaryDto(client.getId(), client.getName(), client.getContractNo(),
+                client.getSubContractCode(), client.getContactPerson(), client.getVCity()));
+    }
+
+    public void put(ClientDto dto) {
+        put(new ClientSummaryDto(dto.getId(), dto.getName(), dto.getContractNo(),
+                dto.getSubContractCode(), dto.getContactPerson(), dto.getVCity()));
+    }
+
+    public synchronized void put(ClientSummaryDto summary) {
+        if (summary.getId() == null) return;
+        Snapshot current = snapshot;
+        current.remove(summary.getId());
+        current.put(summary);
+    }
+
+    public synchronized void putAll(Collection<ClientDto> clients) {
+        for (ClientDto dto : clients) {
+            put(dto);
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        snapshot.remove(id);
+    }
+
+    /**
+     * Returns up to {@code limit} clients matching every token of {@code query} by prefix.
+     * Clients whose name starts with the first query token rank first, then by name.
+     */
+    public List<ClientSummaryDto> search(String query, int limit) {
+        List<String> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || limit <= 0) return List.of();
+
+        Snapshot current = snapshot;
+
+        // Drive the scan from the query token with the narrowest prefix range
+        String driver = null;
+        int driverSize = Integer.MAX_VALUE;
+        for (String token : queryTokens) {
+            int size = current.rangeSize(token, driverSize);
+            if (size < driverSize) {
+                driver = token;
+                driverSize = size;
+            }
+            if (size == 0) return List.of();
+        }
+
+        String firstToken = queryTokens.get(0);
+        Set<Long> seen = new HashSet<>();
+        List<Candidate> candidates = new ArrayList<>();
+        scan:
+        for (Set<Long> ids : prefixRange(current.tokens, driver).values()) {
+            for (Long id : ids) {
+                if (!seen.add(id)) continue;
+                Entry entry = current.entries.get(id);
+                if (entry == null || !entry.matchesAll(queryTokens)) continue;
+                candidates.add(new Candidate(entry, entry.sortName.startsWith(firstToken)));
+                if (candidates.size() >= MAX_CANDIDATES) break scan;
+            }
+        }
+
+        candidates.sort(RANKING);
+        List<ClientSummaryDto> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && i < limit; i++) {
+            result.add(candidates.get(i).entry.summary);
+        }
+        return result;
+    }
+
+    private static NavigableMap<String, Set<Long>> prefixRange(NavigableMap<String, Set<Long>> tokens, String prefix) {
+        return tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Lower-cases and splits on anything that is not a letter or digit. Codes such as
+     * {@code "SUB-001"} additionally index their joined form {@code "sub001"}.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        String normalized = text.toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static String[] indexTokens(ClientSummaryDto summary) {
+        Set<String> tokens = new LinkedHashSet<>();
+        tokens.addAll(tokenize(summary.getName()));
+        tokens.addAll(tokenize(summary.getContactPerson()));
+        tokens.addAll(tokenize(summary.getCity()));
+        List<String> codeTokens = tokenize(summary.getSubContractCode());
+        tokens.addAll(codeTokens);
+        if (codeTokens.size() > 1) {
+            tokens.add(String.join("", codeTokens));
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private static final class Snapshot {
+        final NavigableMap<String, Set<Long>> tokens = new ConcurrentSkipListMap<>();
+        final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+        void put(ClientSummaryDto summary) {
+            Entry entry = new Entry(summary, indexTokens(summary));
+            entries.put(summary.getId(), entry);
+            for (String token : entry.tokens) {
+                tokens.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(summary.getId());
+            }
+        }
+
+        void remove(Long id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) return;
+            for (String token : entry.tokens) {
+                Set<Long> ids = tokens.get(token);
+                if (ids == null) continue;
+                ids.remove(id);
+                if (ids.isEmpty()) tokens.remove(token, ids);
+            }
+        }
+
+        // Counts postings under a prefix, stopping once the count can no longer beat {@code cap}
+        int rangeSize(String prefix, int cap) {
+            int size = 0;
+            for (Set<Long> ids : prefixRange(tokens, prefix).values()) {
+                size += ids.size();
+                if (size >= cap) return size;
+            }
+            return size;
+        }
+    }
+
+    private static final class Entry {
+        final ClientSummaryDto summary;
+        final String[] tokens;
+        final String sortName;
+
+        Entry(ClientSummaryDto summary, String[] tokens) {
+            this.summary = summary;
+            this.tokens = tokens;
+            this.sortName = summary.getName() == null ? "" : summary.getName().toLowerCase(Locale.ROOT);
+        }
+
+        boolean matchesAll(List<String> queryTokens) {
+            for (String query : queryTokens) {
+                boolean matched = false;
+                for (String token : tokens) {
+                    if (token.startsWith(query)) {
+                        matched = true;
+                        break;
+                    }
+                }
+                if (!matched) return false;
+            }
+            return true;
+        }
+    }
+
+    private record Candidate(Entry entry, boolean namePrefix) {
+    }
+}
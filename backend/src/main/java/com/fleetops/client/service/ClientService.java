@@ -5,17 +5,27 @@ import com.fleetops.client.ClientRepository;
 import com.fleetops.client.dto.ClientDto;
 import com.fleetops.client.mapper.ClientMapper;
 import com.fleetops.client.dto.ClientImportResponse;
+import com.fleetops.client.dto.ClientSummaryDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,67 +36,92 @@ public class ClientService {
     private final ClientRepository clientRepository;
     private final ClientExcelParserService excelParserService;
     private final ClientMapper clientMapper;
+    private final ClientImportWriter importWriter;
+    private final ClientLookupIndex lookupIndex;
+
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+    // The response echoes only the first imported clients; counts cover the whole file
+    private static final int IMPORTED_PREVIEW_LIMIT = 100;
+    private static final int TYPEAHEAD_MAX_LIMIT = 50;
 
     public ClientImportResponse importClients(MultipartFile file) {
         log.info("Starting client import from file: {}", file.getOriginalFilename());
-        
-        // Parse the Excel file
-        ClientParseResult parseResult = excelParserService.parseClients(file);
-        
-        List<ClientDto> validDtos = parseResult.getValidClients();
-        List<String> parseErrors = parseResult.getErrors();
-        
-        log.info("Parsed {} valid clients, {} rows with errors", validDtos.size(), parseErrors.size());
+        long startTime = System.currentTimeMillis();
 
-        ClientImportResponse response = new ClientImportResponse();
-        int totalRows = validDtos.size() + parseErrors.size();
-        response.setTotalProcessed(totalRows);
-        
+        ImportTally tally = new ImportTally();
         List<ClientDto> importedClients = new ArrayList<>();
-        List<String> allErrors = new ArrayList<>(parseErrors);
-        int successCount = 0;
-        int failureCount = parseErrors.size();
-
-        // Try to save valid clients
-        for (ClientDto dto : validDtos) {
-            try {
-                Client savedClient = upsertClient(dto);
-                importedClients.add(clientMapper.toDto(savedClient));
-                successCount++;
-            } catch (Exception e) {
-                log.error("Failed to save client: {}", dto.getContractNo(), e);
-                failureCount++;
-                allErrors.add("Client " + dto.getContractNo() + ": " + e.getMessage());
-            }
+        List<String> writeErrors = new ArrayList<>();
+
+        Path spooled = spool(file);
+        ClientParseResult parseResult;
+        try {
+            // Rows are streamed from disk and written chunk by chunk, each chunk in its own transaction
+            // A failing chunk is retried row by row by the writer, so only the bad rows come back as failures
+            parseResult = excelParserService.streamClients(spooled, IMPORT_CHUNK_SIZE, chunk -> {
+                ClientImportWriter.ChunkResult result = importWriter.upsertChunk(chunk);
+                tally.created += result.created();
+                tally.updated += result.updated();
+                tally.failed += result.failures().size();
+                tally.duplicates += chunk.size() - result.clients().size() - result.failures().size();
+                writeErrors.addAll(result.failures());
+                lookupIndex.putAll(result.clients());
+                for (ClientDto dto : result.clients()) {
+                    if (importedClients.size() >= IMPORTED_PREVIEW_LIMIT) break;
+                    importedClients.add(dto);
+                }
+            });
+        } finally {
+            deleteQuietly(spooled);
         }
 
+        List<String> allErrors = new ArrayList<>(parseResult.getErrors());
+        allErrors.addAll(writeErrors);
+        int successCount = tally.created + tally.updated + tally.duplicates;
+        int failureCount = parseResult.getErrors().size() + tally.failed;
+
+        ClientImportResponse response = new ClientImportResponse();
+        response.setTotalProcessed(successCount + failureCount);
         response.setSuccessCount(successCount);
         response.setFailureCount(failureCount);
+        response.setCreatedCount(tally.created);
+        response.setUpdatedCount(tally.updated);
         response.setImportedClients(importedClients);
         response.setErrors(allErrors);
 
-        log.info("Import completed. Success: {}, Failure: {}", successCount, failureCount);
+        log.info("Import completed in {} ms. Created: {}, Updated: {}, Failure: {}",
+                System.currentTimeMillis() - startTime, tally.created, tally.updated, failureCount);
         return response;
     }
 
-    public byte[] generateTemplate() {
-        return excelParserService.generateTemplate();
+    private Path spool(MultipartFile file) {
+        try {
+            Path path = Files.createTempFile("client-import-", ".xlsx");
+            try (InputStream in = file.getInputStream()) {
+                Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return path;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to buffer uploaded client file", e);
+        }
     }
 
-    @Transactional
-    protected Client upsertClient(ClientDto dto) {
-        Optional<Client> existing = clientRepository.findByContractNoAndSubContractCode(
-                dto.getContractNo(), dto.getSubContractCode());
-
-        Client client;
-        if (existing.isPresent()) {
-            client = existing.get();
-            updateClientFields(client, dto);
-        } else {
-            client = clientMapper.toEntity(dto);
+    private void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temp file {}: {}", path, e.getMessage());
         }
-        
-        return clientRepository.save(client);
+    }
+
+    private static final class ImportTally {
+        int created;
+        int updated;
+        int duplicates;
+        int failed;
+    }
+
+    public byte[] generateTemplate() {
+        return excelParserService.generateTemplate();
     }
 
     private void updateClientFields(Client client, ClientDto dto) {
@@ -133,9 +168,27 @@ public class ClientService {
                 .map(clientMapper::toDto);
     }
     
+    /**
+     * Prefix typeahead over name, sub-contract code, contact person and city served from
+     * {@link ClientLookupIndex}. Falls back to the LIKE search until the index has loaded.
+     */
+    public List<ClientSummaryDto> typeahead(String query, int limit) {
+        if (query == null || query.isBlank()) return List.of();
+        int boundedLimit = Math.max(1, Math.min(limit, TYPEAHEAD_MAX_LIMIT));
+        if (!lookupIndex.isReady()) {
+            return clientRepository.searchClients(query, PageRequest.of(0, boundedLimit, Sort.by("name")))
+                    .map(c -> new ClientSummaryDto(c.getId(), c.getName(), c.getContractNo(),
+                            c.getSubContractCode(), c.getContactPerson(), c.getVCity()))
+                    .getContent();
+        }
+        return lookupIndex.search(query, boundedLimit);
+    }
+    
     public ClientDto createClient(ClientDto dto) {
         Client client = clientMapper.toEntity(dto);
-        return clientMapper.toDto(clientRepository.save(client));
+        Client saved = clientRepository.save(client);
+        lookupIndex.put(saved);
+        return clientMapper.toDto(saved);
     }
     
     public ClientDto updateClient(Long id, ClientDto dto) {
@@ -147,7 +200,9 @@ public class ClientService {
         if (dto.getContractNo() != null) client.setContractNo(dto.getContractNo());
         if (dto.getSubContractCode() != null) client.setSubContractCode(dto.getSubContractCode());
         
-        return clientMapper.toDto(clientRepository.save(client));
+        Client saved = clientRepository.save(client);
+        lookupIndex.put(saved);
+        return clientMapper.toDto(saved);
     }
 
     @Transactional
@@ -156,6 +211,13 @@ public class ClientService {
             throw new RuntimeException("Client not found with id: " + id);
         }
         clientRepository.deleteById(id);
+        // Drop from the lookup index only once the delete is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lookupIndex.remove(id);
+            }
+        });
         log.info("Deleted client with id: {}", id);
     }
 }
@@ -0,0 +1,11 @@
+package com.fleetops.cod;
+
+/**
+ * Kinds of COD ledger entries. COLLECTED raises an agent's outstanding cash; DEPOSITED and SHORT
+ * settle it.
+ */
+public enum CodEntryType {
+    COLLECTED,
+    DEPOSITED,
+    SHORT
+}
@@ -0,0 +1,170 @@
+package com.fleetops.cod.controller;
+
+import com.fleetops.cod.dto.CodAgentBalanceResponse;
+import com.fleetops.cod.dto.CodLedgerEntryResponse;
+import com.fleetops.cod.dto.CodSettlementRequest;
+import com.fleetops.cod.service.CodLedgerService;
+import com.fleetops.user.entity.User;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CodLedgerController - COD reconciliation: deposits, shortages and agent balances.
+ */
+@RestController
+@RequestMapping("/api/v1/cod")
+public class CodLedgerController {
+
+    private static final Logger logger = LoggerFactory.getLogger(CodLedgerController.class);
+
+    private final CodLedgerService codLedgerService;
+
+    public CodLedgerController(CodLedgerService codLedgerService) {
+        this.codLedgerService = codLedgerService;
+    }
+
+    /**
+     * POST /api/v1/cod/deposits
+     * Record cash handed in by an agent (ADMIN/STAFF only).
+     */
+    @PostMapping("/deposits")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<?> recordDeposit(
+        @Valid @RequestBody CodSettlementRequest request,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        try {
+            CodLedgerEntryResponse entry = codLedgerService.recordDeposit(request, currentUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+        } catch (IllegalArgumentException ex) {
+            return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", ex.getMessage());
+        } catch (IllegalStateException ex) {
+            logger.warn("Rejected COD deposit for agent {}: {}", request.getAgentId(), ex.getMessage());
+            return error(HttpStatus.CONFLICT, "EXCEEDS_OUTSTANDING", ex.getMessage());
+        }
+    }
+
+    /**
+     * POST /api/v1/cod/shortages
+     * Write off a COD shortfall against an agent (ADMIN/STAFF only).
+     */
+    @PostMapping("/shortages")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<?> recordShortage(
+        @Valid @RequestBody CodSettlementRequest request,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        try {
+            CodLedgerEntryResponse entry = codLedgerService.recordShortage(request, currentUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(entry);
+        } catch (IllegalArgumentException ex) {
+            return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", ex.getMessage());
+        } catch (IllegalStateException ex) {
+            logger.warn("Rejected COD shortage for agent {}: {}", request.getAgentId(), ex.getMessage());
+            return error(HttpStatus.CONFLICT, "EXCEEDS_OUTSTANDING", ex.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/v1/cod/outstanding
+     * Agents with outstanding COD, largest first (ADMIN/STAFF only).
+     */
+    @GetMapping("/outstanding")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<List<CodAgentBalanceResponse>> getOutstanding() {
+        return ResponseEntity.ok(codLedgerService.getOutstandingBalances());
+    }
+
+    /**
+     * GET /api/v1/cod/agents/{agentId}/balance
+     * Lifetime COD totals of an agent. Agents may read only their own.
+     */
+    @GetMapping("/agents/{agentId}/balance")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'AGENT')")
+    public ResponseEntity<?> getAgentBalance(
+        @PathVariable Long agentId,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        if (!canView(currentUser, agentId)) {
+            return error(HttpStatus.FORBIDDEN, "FORBIDDEN", "Agents can only view their own COD balance");
+        }
+        CodAgentBalanceResponse balance = codLedgerService.getAgentBalance(agentId)
+            .orElse(new CodAgentBalanceResponse(agentId, null, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO, null));
+        return ResponseEntity.ok(balance);
+    }
+
+    /**
+     * GET /api/v1/cod/agents/{agentId}/daily?from=&to=
+     * Per-day COD movements and closing balances of an agent. Agents may read only their own.
+     */
+    @GetMapping("/agents/{agentId}/daily")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'AGENT')")
+    public ResponseEntity<?> getDailyBalances(
+        @PathVariable Long agentId,
+        @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        if (!canView(currentUser, agentId)) {
+            return error(HttpStatus.FORBIDDEN, "FORBIDDEN", "Agents can only view their own COD balance");
+        }
+        try {
+            return ResponseEntity.ok(codLedgerService.getDailyBalances(agentId, from, to));
+        } catch (IllegalArgumentException ex) {
+            return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", ex.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/v1/cod/agents/{agentId}/entries?from=&to=
+     * Ledger entries of an agent (at most 1000). Agents may read only their own.
+     */
+    @GetMapping("/agents/{agentId}/entries")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'AGENT')")
+    public ResponseEntity<?> getEntries(
+        @PathVariable Long agentId,
+        @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+        @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        if (!canView(currentUser, agentId)) {
+            return error(HttpStatus.FORBIDDEN, "FORBIDDEN", "Agents can only view their own COD ledger");
+        }
+        try {
+            return ResponseEntity.ok(codLedgerService.getEntries(agentId, from, to));
+        } catch (IllegalArgumentException ex) {
+            return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", ex.getMessage());
+        }
+    }
+
+    private boolean canView(User currentUser, Long agentId) {
+        return currentUser.hasRole("ADMIN") || currentUser.hasRole("STAFF") || currentUser.getId().equals(agentId);
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String code, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", code);
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
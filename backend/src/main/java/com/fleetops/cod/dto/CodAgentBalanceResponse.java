@@ -0,0 +1,17 @@
+package com.fleetops.cod.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * CodAgentBalanceResponse - Lifetime COD totals of an agent; outstanding is cash still held.
+ */
+public record CodAgentBalanceResponse(
+    Long agentId,
+    String agentName,
+    BigDecimal collectedAmount,
+    BigDecimal depositedAmount,
+    BigDecimal shortAmount,
+    BigDecimal outstandingAmount,
+    Instant updatedAt
+) {}
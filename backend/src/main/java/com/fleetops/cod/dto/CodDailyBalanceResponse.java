@@ -0,0 +1,15 @@
+package com.fleetops.cod.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * CodDailyBalanceResponse - An agent's COD movements on one day and the balance at its close.
+ */
+public record CodDailyBalanceResponse(
+    LocalDate date,
+    BigDecimal collectedAmount,
+    BigDecimal depositedAmount,
+    BigDecimal shortAmount,
+    BigDecimal closingBalance
+) {}
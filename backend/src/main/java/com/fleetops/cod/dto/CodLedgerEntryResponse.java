@@ -0,0 +1,25 @@
+package com.fleetops.cod.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fleetops.cod.CodEntryType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * CodLedgerEntryResponse - One ledger entry.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CodLedgerEntryResponse(
+    Long id,
+    Long agentId,
+    LocalDate entryDate,
+    CodEntryType entryType,
+    BigDecimal amount,
+    Long deliverySheetId,
+    String reference,
+    String notes,
+    String createdBy,
+    Instant createdAt
+) {}
@@ -0,0 +1,75 @@
+package com.fleetops.cod.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * CodSettlementRequest - Cash deposited by an agent, or a shortfall written off against them.
+ */
+public class CodSettlementRequest {
+
+    @NotNull(message = "agentId is required")
+    private Long agentId;
+
+    @NotNull(message = "amount is required")
+    @DecimalMin(value = "0.01", message = "amount must be positive")
+    @Digits(integer = 10, fraction = 2, message = "amount must have at most 2 decimal places")
+    private BigDecimal amount;
+
+    private LocalDate entryDate;   // Defaults to today
+
+    @Size(max = 100, message = "reference must be at most 100 characters")
+    private String reference;
+
+    @Size(max = 1000, message = "notes must be at most 1000 characters")
+    private String notes;
+
+    public CodSettlementRequest() {
+        // Default constructor for deserialization
+    }
+
+    public Long getAgentId() {
+        return agentId;
+    }
+
+    public void setAgentId(Long agentId) {
+        this.agentId = agentId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public LocalDate getEntryDate() {
+        return entryDate;
+    }
+
+    public void setEntryDate(LocalDate entryDate) {
+        this.entryDate = entryDate;
+    }
+
+    public String getReference() {
+        return reference;
+    }
+
+    public void setReference(String reference) {
+        this.reference = reference;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
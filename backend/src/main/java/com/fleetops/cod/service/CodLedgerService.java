@@ -0,0 +1,225 @@
+package com.fleetops.cod.service;
+
+import com.fleetops.cod.CodEntryType;
+import com.fleetops.cod.dto.CodAgentBalanceResponse;
+import com.fleetops.cod.dto.CodDailyBalanceResponse;
+import com.fleetops.cod.dto.CodLedgerEntryResponse;
+import com.fleetops.cod.dto.CodSettlementRequest;
+import com.fleetops.user.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * CodLedgerService - Append-only COD ledger with incrementally maintained balances.
+ *
+ * <p>Every entry is written together with two upserts in the same transaction: the agent's row
+ * for the entry date in {@code cod_daily_balances} and the agent's lifetime row in
+ * {@code cod_agent_balances}. Balances are therefore never recomputed from orders or entries;
+ * outstanding COD per agent is a primary key read and the outstanding list is an index scan.</p>
+ */
+@Service
+public class CodLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CodLedgerService.class);
+
+    private static final int MAX_ENTRIES = 1000;
+    private static final int MAX_DAYS = 366;
+
+    private static final String INSERT_ENTRY_SQL =
+            "INSERT INTO cod_ledger_entries (agent_id, entry_date, entry_type, amount, delivery_sheet_id, reference, notes, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) RETURNING id, agent_id, entry_date, entry_type, amount, delivery_sheet_id, " +
+            "reference, notes, created_by, created_at";
+
+    private static final String UPSERT_DAILY_SQL =
+            "INSERT INTO cod_daily_balances (agent_id, balance_date, collected_amount, deposited_amount, short_amount) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (agent_id, balance_date) DO UPDATE SET " +
+            "collected_amount = cod_daily_balances.collected_amount + EXCLUDED.collected_amount, " +
+            "deposited_amount = cod_daily_balances.deposited_amount + EXCLUDED.deposited_amount, " +
+            "short_amount = cod_daily_balances.short_amount + EXCLUDED.short_amount, " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    private static final String UPSERT_AGENT_SQL =
+            "INSERT INTO cod_agent_balances (agent_id, collected_amount, deposited_amount, short_amount, outstanding_amount) " +
+            "VALUES (?, ?, ?, ?, ?) ON CONFLICT (agent_id) DO UPDATE SET " +
+            "collected_amount = cod_agent_balances.collected_amount + EXCLUDED.collected_amount, " +
+            "deposited_amount = cod_agent_balances.deposited_amount + EXCLUDED.deposited_amount, " +
+            "short_amount = cod_agent_balances.short_amount + EXCLUDED.short_amount, " +
+            "outstanding_amount = cod_agent_balances.outstanding_amount + EXCLUDED.outstanding_amount, " +
+            "updated_at = CURRENT_TIMESTAMP";
+
+    private static final String LOCK_OUTSTANDING_SQL =
+            "SELECT outstanding_amount FROM cod_agent_balances WHERE agent_id = ? FOR UPDATE";
+
+    private static final String AGENT_BALANCE_COLUMNS =
+            "SELECT b.agent_id, u.full_name, b.collected_amount, b.deposited_amount, b.short_amount, " +
+            "b.outstanding_amount, b.updated_at FROM cod_agent_balances b LEFT JOIN users u ON u.id = b.agent_id ";
+
+    private static final String AGENT_BALANCE_SQL = AGENT_BALANCE_COLUMNS + "WHERE b.agent_id = ?";
+
+    private static final String OUTSTANDING_SQL = AGENT_BALANCE_COLUMNS +
+            "WHERE b.outstanding_amount <> 0 ORDER BY b.outstanding_amount DESC, b.agent_id";
+
+    // Closing balance is the running sum over the agent's days, so earlier days are included
+    private static final String DAILY_SQL =
+            "SELECT balance_date, collected_amount, deposited_amount, short_amount, closing_balance FROM (" +
+            "  SELECT balance_date, collected_amount, deposited_amount, short_amount, " +
+            "         sum(collected_amount - deposited_amount - short_amount) OVER (ORDER BY balance_date) AS closing_balance " +
+            "  FROM cod_daily_balances WHERE agent_id = ? AND balance_date <= ?) d " +
+            "WHERE balance_date >= ? ORDER BY balance_date";
+
+    private static final String ENTRIES_SQL =
+            "SELECT id, agent_id, entry_date, entry_type, amount, delivery_sheet_id, reference, notes, created_by, created_at " +
+            "FROM cod_ledger_entries WHERE agent_id = ? AND entry_date BETWEEN ? AND ? ORDER BY entry_date, id LIMIT ?";
+
+    private static final RowMapper<CodLedgerEntryResponse> ENTRY_MAPPER = (rs, i) -> new CodLedgerEntryResponse(
+        rs.getLong("id"),
+        rs.getLong("agent_id"),
+        rs.getDate("entry_date").toLocalDate(),
+        CodEntryType.valueOf(rs.getString("entry_type")),
+        rs.getBigDecimal("amount"),
+        rs.getObject("delivery_sheet_id", Long.class),
+        rs.getString("reference"),
+        rs.getString("notes"),
+        rs.getString("created_by"),
+        rs.getTimestamp("created_at").toInstant());
+
+    private static final RowMapper<CodAgentBalanceResponse> BALANCE_MAPPER = (rs, i) -> new CodAgentBalanceResponse(
+        rs.getLong("agent_id"),
+        rs.getString("full_name"),
+        rs.getBigDecimal("collected_amount"),
+        rs.getBigDecimal("deposited_amount"),
+        rs.getBigDecimal("short_amount"),
+        rs.getBigDecimal("outstanding_amount"),
+        rs.getTimestamp("updated_at").toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CodLedgerService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Posts the COD collected on a settled delivery sheet. Runs in the settlement's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public CodLedgerEntryResponse recordCollection(Long agentId, BigDecimal amount, LocalDate date,
+                                                   Long deliverySheetId, String sheetNumber, String createdBy) {
+        return append(CodEntryType.COLLECTED, agentId, amount, date, deliverySheetId, sheetNumber, null, createdBy);
+    }
+
+    /**
+     * Records cash handed in by an agent.
+     *
+     * @throws IllegalArgumentException if the amount is not positive
+     * @throws IllegalStateException    if the amount exceeds the agent's outstanding COD
+     */
+    @Transactional
+    public CodLedgerEntryResponse recordDeposit(CodSettlementRequest request, User currentUser) {
+        return settle(CodEntryType.DEPOSITED, request, currentUser);
+    }
+
+    /**
+     * Writes off a shortfall against an agent, e.g. after a cash count comes up short.
+     *
+     * @throws IllegalArgumentException if the amount is not positive
+     * @throws IllegalStateException    if the amount exceeds the agent's outstanding COD
+     */
+    @Transactional
+    public CodLedgerEntryResponse recordShortage(CodSettlementRequest request, User currentUser) {
+        return settle(CodEntryType.SHORT, request, currentUser);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<CodAgentBalanceResponse> getAgentBalance(Long agentId) {
+        return jdbcTemplate.query(AGENT_BALANCE_SQL, BALANCE_MAPPER, agentId).stream().findFirst();
+    }
+
+    /**
+     * Agents currently holding (or owed) COD, largest outstanding first.
+     */
+    @Transactional(readOnly = true)
+    public List<CodAgentBalanceResponse> getOutstandingBalances() {
+        return jdbcTemplate.query(OUTSTANDING_SQL, BALANCE_MAPPER);
+    }
+
+    /**
+     * Days with COD movements for an agent, with the closing balance of each day.
+     *
+     * @throws IllegalArgumentException if the range is inverted or longer than a year
+     */
+    @Transactional(readOnly = true)
+    public List<CodDailyBalanceResponse> getDailyBalances(Long agentId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return jdbcTemplate.query(DAILY_SQL, (rs, i) -> new CodDailyBalanceResponse(
+            rs.getDate("balance_date").toLocalDate(),
+            rs.getBigDecimal("collected_amount"),
+            rs.getBigDecimal("deposited_amount"),
+            rs.getBigDecimal("short_amount"),
+            rs.getBigDecimal("closing_balance")), agentId, Date.valueOf(to), Date.valueOf(from));
+    }
+
+    /**
+     * Ledger entries of an agent in date order, at most 1000.
+     *
+     * @throws IllegalArgumentException if the range is inverted or longer than a year
+     */
+    @Transactional(readOnly = true)
+    public List<CodLedgerEntryResponse> getEntries(Long agentId, LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        return jdbcTemplate.query(ENTRIES_SQL, ENTRY_MAPPER, agentId, Date.valueOf(from), Date.valueOf(to), MAX_ENTRIES);
+    }
+
+    private CodLedgerEntryResponse settle(CodEntryType type, CodSettlementRequest request, User currentUser) {
+        if (request.getAmount() == null || request.getAmount().signum() <= 0) {
+            throw new IllegalArgumentException("amount must be positive");
+        }
+        List<BigDecimal> outstanding = jdbcTemplate.queryForList(LOCK_OUTSTANDING_SQL, BigDecimal.class, request.getAgentId());
+        BigDecimal available = outstanding.isEmpty() ? BigDecimal.ZERO : outstanding.get(0);
+        if (request.getAmount().compareTo(available) > 0) {
+            throw new IllegalStateException("Amount " + request.getAmount() + " exceeds outstanding COD "
+                + available + " of agent " + request.getAgentId());
+        }
+        LocalDate date = request.getEntryDate() != null ? request.getEntryDate() : LocalDate.now();
+        return append(type, request.getAgentId(), request.getAmount(), date, null,
+            request.getReference(), request.getNotes(), currentUser.getUsername());
+    }
+
+    private CodLedgerEntryResponse append(CodEntryType type, Long agentId, BigDecimal amount, LocalDate date,
+                                          Long deliverySheetId, String reference, String notes, String createdBy) {
+        CodLedgerEntryResponse entry = jdbcTemplate.queryForObject(INSERT_ENTRY_SQL, ENTRY_MAPPER,
+            agentId, Date.valueOf(date), type.name(), amount, deliverySheetId, reference, notes, createdBy);
+
+        BigDecimal collected = type == CodEntryType.COLLECTED ? amount : BigDecimal.ZERO;
+        BigDecimal deposited = type == CodEntryType.DEPOSITED ? amount : BigDecimal.ZERO;
+        BigDecimal shortAmount = type == CodEntryType.SHORT ? amount : BigDecimal.ZERO;
+        BigDecimal outstandingDelta = collected.subtract(deposited).subtract(shortAmount);
+        jdbcTemplate.update(UPSERT_DAILY_SQL, agentId, Date.valueOf(date), collected, deposited, shortAmount);
+        jdbcTemplate.update(UPSERT_AGENT_SQL, agentId, collected, deposited, shortAmount, outstandingDelta);
+
+        logger.info("COD ledger: {} {} for agent {} on {} by {}", type, amount, agentId, date, createdBy);
+        return entry;
+    }
+
+    private static void validateRange(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("from and to are required");
+        }
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("to must not be before from");
+        }
+        if (from.plusDays(MAX_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException("Date range must be at most " + MAX_DAYS + " days");
+        }
+    }
+}
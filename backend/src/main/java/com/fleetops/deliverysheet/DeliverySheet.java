@@ -61,6 +61,10 @@ public class DeliverySheet {
     @Builder.Default
     private BigDecimal totalCodAmount = BigDecimal.ZERO;
 
+    // Set when the sheet is settled
+    @Column(name = "collected_cod_amount", precision = 12, scale = 2)
+    private BigDecimal collectedCodAmount;
+
     @Column(name = "scheduled_date")
     private LocalDate scheduledDate;
 
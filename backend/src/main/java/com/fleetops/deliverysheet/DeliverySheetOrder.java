@@ -33,6 +33,10 @@ public class DeliverySheetOrder {
     @Column(name = "order_id", nullable = false)
     private Long orderId;
 
+    // Position in the agent's route, null until the sheet is sequenced
+    @Column(name = "stop_sequence")
+    private Integer stopSequence;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
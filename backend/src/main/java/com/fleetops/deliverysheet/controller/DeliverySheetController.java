@@ -2,8 +2,18 @@ package com.fleetops.deliverysheet.controller;
 
 import com.fleetops.deliverysheet.DeliverySheetStatus;
 import com.fleetops.deliverysheet.dto.CreateDeliverySheetRequest;
+import com.fleetops.deliverysheet.dto.DeliverySheetPlanResponse;
 import com.fleetops.deliverysheet.dto.DeliverySheetResponse;
+import com.fleetops.deliverysheet.dto.DeliverySheetSettlementResponse;
+import com.fleetops.deliverysheet.dto.PlanDeliverySheetsRequest;
+import com.fleetops.deliverysheet.dto.RunSheetBundle;
+import com.fleetops.deliverysheet.dto.SequenceDeliverySheetRequest;
+import com.fleetops.deliverysheet.dto.SettleDeliverySheetRequest;
+import com.fleetops.deliverysheet.planner.DeliverySheetPlanningService;
+import com.fleetops.deliverysheet.planner.RouteSequencingService;
 import com.fleetops.deliverysheet.service.DeliverySheetService;
+import com.fleetops.deliverysheet.service.DeliverySheetSettlementService;
+import com.fleetops.deliverysheet.service.RunSheetBundleService;
 import com.fleetops.user.entity.User;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -12,6 +22,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -24,8 +35,10 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -38,9 +51,23 @@ public class DeliverySheetController {
     private static final Logger logger = LoggerFactory.getLogger(DeliverySheetController.class);
 
     private final DeliverySheetService deliverySheetService;
+    private final DeliverySheetPlanningService deliverySheetPlanningService;
+    private final RouteSequencingService routeSequencingService;
+    private final RunSheetBundleService runSheetBundleService;
+    private final DeliverySheetSettlementService deliverySheetSettlementService;
 
-    public DeliverySheetController(DeliverySheetService deliverySheetService) {
+    public DeliverySheetController(
+        DeliverySheetService deliverySheetService,
+        DeliverySheetPlanningService deliverySheetPlanningService,
+        RouteSequencingService routeSequencingService,
+        RunSheetBundleService runSheetBundleService,
+        DeliverySheetSettlementService deliverySheetSettlementService
+    ) {
         this.deliverySheetService = deliverySheetService;
+        this.deliverySheetPlanningService = deliverySheetPlanningService;
+        this.routeSequencingService = routeSequencingService;
+        this.runSheetBundleService = runSheetBundleService;
+        this.deliverySheetSettlementService = deliverySheetSettlementService;
     }
 
     /**
@@ -96,18 +123,20 @@ public class DeliverySheetController {
 
     /**
      * GET /api/v1/delivery-sheets
-     * List delivery sheets (ADMIN/STAFF).
+     * List delivery sheets (ADMIN/STAFF). includeOrderIds=false returns summaries without orderIds.
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<?> getDeliverySheets(
         @RequestParam(value = "assignedAgentId", required = false) Long assignedAgentId,
         @RequestParam(value = "status", required = false) String status,
+        @RequestParam(value = "includeOrderIds", defaultValue = "true") boolean includeOrderIds,
         @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable
     ) {
         try {
             DeliverySheetStatus parsedStatus = parseStatus(status);
-            Page<DeliverySheetResponse> response = deliverySheetService.getDeliverySheets(assignedAgentId, parsedStatus, pageable);
+            Page<DeliverySheetResponse> response = deliverySheetService.getDeliverySheets(
+                assignedAgentId, parsedStatus, pageable, includeOrderIds);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException ex) {
             logger.warn("Invalid delivery sheet filter: {}", ex.getMessage());
@@ -120,18 +149,20 @@ public class DeliverySheetController {
 
     /**
      * GET /api/v1/delivery-sheets/my
-     * List delivery sheets scoped to authenticated user.
+     * List delivery sheets scoped to authenticated user. includeOrderIds=false omits orderIds.
      */
     @GetMapping("/my")
     @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'AGENT')")
     public ResponseEntity<?> getMyDeliverySheets(
         @RequestParam(value = "status", required = false) String status,
+        @RequestParam(value = "includeOrderIds", defaultValue = "true") boolean includeOrderIds,
         @PageableDefault(sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
         @AuthenticationPrincipal User currentUser
     ) {
         try {
             DeliverySheetStatus parsedStatus = parseStatus(status);
-            Page<DeliverySheetResponse> response = deliverySheetService.getDeliverySheetsForUser(currentUser, parsedStatus, pageable);
+            Page<DeliverySheetResponse> response = deliverySheetService.getDeliverySheetsForUser(
+                currentUser, parsedStatus, pageable, includeOrderIds);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException ex) {
             logger.warn("Failed to fetch delivery sheets for user {}: {}", currentUser != null ? currentUser.getUsername() : "unknown", ex.getMessage());
@@ -142,6 +173,146 @@ public class DeliverySheetController {
         }
     }
 
+    /**
+     * GET /api/v1/delivery-sheets/my/bundle
+     * Open sheets of an agent with every stop, in one response. Agents get their own bundle;
+     * ADMIN/STAFF pass agentId. Sends an ETag and answers If-None-Match with 304 when nothing changed.
+     */
+    @GetMapping("/my/bundle")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'AGENT')")
+    public ResponseEntity<?> getMyRunSheetBundle(
+        @RequestParam(value = "agentId", required = false) Long agentId,
+        @AuthenticationPrincipal User currentUser,
+        WebRequest webRequest
+    ) {
+        Long targetAgentId;
+        if (currentUser.hasRole("ADMIN") || currentUser.hasRole("STAFF")) {
+            if (agentId == null) {
+                return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", "agentId is required");
+            }
+            targetAgentId = agentId;
+        } else {
+            targetAgentId = currentUser.getId();
+        }
+
+        String etag = runSheetBundleService.currentETag(targetAgentId);
+        if (webRequest.checkNotModified(etag)) {
+            // 304 with the ETag header already set
+            return null;
+        }
+        RunSheetBundle bundle = runSheetBundleService.getBundle(targetAgentId);
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .body(bundle);
+    }
+
+    /**
+     * POST /api/v1/delivery-sheets/plans
+     * Plan draft sheets for pending orders across active agents (ADMIN/STAFF only).
+     * Nothing is saved until the plan is committed.
+     */
+    @PostMapping("/plans")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<?> planDeliverySheets(
+        @Valid @RequestBody(required = false) PlanDeliverySheetsRequest request,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        try {
+            DeliverySheetPlanResponse response = deliverySheetPlanningService.plan(request, currentUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Failed to plan delivery sheets: {}", ex.getMessage());
+            return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", ex.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/v1/delivery-sheets/plans/{planId}
+     * Review a draft plan (ADMIN/STAFF only).
+     */
+    @GetMapping("/plans/{planId}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<DeliverySheetPlanResponse> getDeliverySheetPlan(@PathVariable String planId) {
+        return deliverySheetPlanningService.getPlan(planId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * POST /api/v1/delivery-sheets/plans/{planId}/commit
+     * Create every draft sheet of a plan in one transaction (ADMIN/STAFF only).
+     */
+    @PostMapping("/plans/{planId}/commit")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<?> commitDeliverySheetPlan(
+        @PathVariable String planId,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        try {
+            List<DeliverySheetResponse> response = deliverySheetPlanningService.commitPlan(planId, currentUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Failed to commit delivery sheet plan {}: {}", planId, ex.getMessage());
+            return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", ex.getMessage());
+        } catch (IllegalStateException ex) {
+            logger.warn("Delivery sheet plan {} is stale: {}", planId, ex.getMessage());
+            return error(HttpStatus.CONFLICT, "PLAN_CONFLICT", ex.getMessage());
+        }
+    }
+
+    /**
+     * POST /api/v1/delivery-sheets/{id}/sequence
+     * Optimize and store the stop order of a sheet (ADMIN/STAFF only). The response lists
+     * orderIds in route order.
+     */
+    @PostMapping("/{id}/sequence")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<?> sequenceDeliverySheet(
+        @PathVariable Long id,
+        @Valid @RequestBody(required = false) SequenceDeliverySheetRequest request
+    ) {
+        try {
+            return ResponseEntity.ok(routeSequencingService.sequenceSheet(id, request));
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Failed to sequence delivery sheet {}: {}", id, ex.getMessage());
+            return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", ex.getMessage());
+        } catch (IllegalStateException ex) {
+            return error(HttpStatus.CONFLICT, "INVALID_STATE", ex.getMessage());
+        }
+    }
+
+    /**
+     * POST /api/v1/delivery-sheets/{id}/settle
+     * Close a sheet with the final DELIVERED/RETURNED outcome of its orders in one transaction.
+     * Agents may settle only their own sheets.
+     */
+    @PostMapping("/{id}/settle")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'AGENT')")
+    public ResponseEntity<?> settleDeliverySheet(
+        @PathVariable Long id,
+        @Valid @RequestBody SettleDeliverySheetRequest request,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        try {
+            DeliverySheetSettlementResponse response = deliverySheetSettlementService.settle(id, request, currentUser);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Failed to settle delivery sheet {}: {}", id, ex.getMessage());
+            return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", ex.getMessage());
+        } catch (IllegalStateException ex) {
+            logger.warn("Delivery sheet {} cannot be settled: {}", id, ex.getMessage());
+            return error(HttpStatus.CONFLICT, "INVALID_STATE", ex.getMessage());
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String code, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", code);
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
+
     private DeliverySheetStatus parseStatus(String value) {
         if (value == null || value.isBlank() || value.equalsIgnoreCase("ALL")) {
             return null;
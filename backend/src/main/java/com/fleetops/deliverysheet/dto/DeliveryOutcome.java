@@ -0,0 +1,59 @@
+package com.fleetops.deliverysheet.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DeliveryOutcome - Final status of one order when its delivery sheet is settled.
+ */
+public class DeliveryOutcome {
+
+    @NotNull(message = "orderId is required")
+    private Long orderId;
+
+    @NotBlank(message = "status is required")
+    private String status;   // DELIVERED or RETURNED
+
+    @Size(max = 500, message = "reason must be at most 500 characters")
+    private String reason;
+
+    @Size(max = 1000, message = "notes must be at most 1000 characters")
+    private String notes;
+
+    public DeliveryOutcome() {
+        // Default constructor for deserialization
+    }
+
+    public Long getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Long orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
@@ -0,0 +1,125 @@
+package com.fleetops.deliverysheet.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DeliverySheetPlanResponse - A reviewable set of draft delivery sheets, committed by planId.
+ */
+public class DeliverySheetPlanResponse {
+
+    private String planId;
+    private LocalDate scheduledDate;
+    private Instant createdAt;
+    private Instant expiresAt;
+    private String createdBy;
+    private Integer totalOrders;
+    private Integer assignedOrders;
+    private Integer agentsConsidered;
+    private Integer clusterCount;
+    private Long planningMillis;
+    private List<DraftDeliverySheet> drafts = new ArrayList<>();
+    private List<Long> unassignedOrderIds = new ArrayList<>();
+
+    public DeliverySheetPlanResponse() {
+        // Default constructor
+    }
+
+    public String getPlanId() {
+        return planId;
+    }
+
+    public void setPlanId(String planId) {
+        this.planId = planId;
+    }
+
+    public LocalDate getScheduledDate() {
+        return scheduledDate;
+    }
+
+    public void setScheduledDate(LocalDate scheduledDate) {
+        this.scheduledDate = scheduledDate;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Integer getTotalOrders() {
+        return totalOrders;
+    }
+
+    public void setTotalOrders(Integer totalOrders) {
+        this.totalOrders = totalOrders;
+    }
+
+    public Integer getAssignedOrders() {
+        return assignedOrders;
+    }
+
+    public void setAssignedOrders(Integer assignedOrders) {
+        this.assignedOrders = assignedOrders;
+    }
+
+    public Integer getAgentsConsidered() {
+        return agentsConsidered;
+    }
+
+    public void setAgentsConsidered(Integer agentsConsidered) {
+        this.agentsConsidered = agentsConsidered;
+    }
+
+    public Integer getClusterCount() {
+        return clusterCount;
+    }
+
+    public void setClusterCount(Integer clusterCount) {
+        this.clusterCount = clusterCount;
+    }
+
+    public Long getPlanningMillis() {
+        return planningMillis;
+    }
+
+    public void setPlanningMillis(Long planningMillis) {
+        this.planningMillis = planningMillis;
+    }
+
+    public List<DraftDeliverySheet> getDrafts() {
+        return drafts;
+    }
+
+    public void setDrafts(List<DraftDeliverySheet> drafts) {
+        this.drafts = drafts != null ? new ArrayList<>(drafts) : new ArrayList<>();
+    }
+
+    public List<Long> getUnassignedOrderIds() {
+        return unassignedOrderIds;
+    }
+
+    public void setUnassignedOrderIds(List<Long> unassignedOrderIds) {
+        this.unassignedOrderIds = unassignedOrderIds != null ? new ArrayList<>(unassignedOrderIds) : new ArrayList<>();
+    }
+}
@@ -23,10 +23,12 @@ public class DeliverySheetResponse {
     private String assignedAgentName;
     private Integer totalOrders;
     private BigDecimal totalCodAmount;
+    private BigDecimal collectedCodAmount;              // Set once the sheet is settled
     private LocalDate scheduledDate;
     private LocalDate deliveryDate;
     private String notes;
-    private List<Long> orderIds = new ArrayList<>();
+    private List<Long> orderIds = new ArrayList<>();   // In route order once the sheet is sequenced
+    private Double routeDistanceKm;                     // Set by the sequencing endpoint
     private Instant createdAt;
     private Instant updatedAt;
 
@@ -98,6 +100,14 @@ public class DeliverySheetResponse {
         this.totalCodAmount = totalCodAmount;
     }
 
+    public BigDecimal getCollectedCodAmount() {
+        return collectedCodAmount;
+    }
+
+    public void setCollectedCodAmount(BigDecimal collectedCodAmount) {
+        this.collectedCodAmount = collectedCodAmount;
+    }
+
     public LocalDate getScheduledDate() {
         return scheduledDate;
     }
@@ -127,7 +137,8 @@ public class DeliverySheetResponse {
     }
 
     public void setOrderIds(List<Long> orderIds) {
-        this.orderIds = orderIds != null ? new ArrayList<>(orderIds) : new ArrayList<>();
+        // null leaves orderIds out of summary responses
+        this.orderIds = orderIds != null ? new ArrayList<>(orderIds) : null;
     }
 
     public Instant getCreatedAt() {
@@ -145,4 +156,12 @@ public class DeliverySheetResponse {
     public void setUpdatedAt(Instant updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Double getRouteDistanceKm() {
+        return routeDistanceKm;
+    }
+
+    public void setRouteDistanceKm(Double routeDistanceKm) {
+        this.routeDistanceKm = routeDistanceKm;
+    }
 }
@@ -0,0 +1,15 @@
+package com.fleetops.deliverysheet.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * DeliverySheetSettlementResponse - Closed sheet plus the outcome totals over all of its orders.
+ */
+public record DeliverySheetSettlementResponse(
+    DeliverySheetResponse sheet,
+    int deliveredOrders,
+    int returnedOrders,
+    int cancelledOrders,
+    BigDecimal collectedCodAmount,   // COD of DELIVERED orders
+    BigDecimal returnedCodAmount     // COD not collected because the order came back
+) {}
@@ -0,0 +1,79 @@
+package com.fleetops.deliverysheet.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DraftDeliverySheet - One agent's proposed sheet within a delivery sheet plan.
+ */
+public class DraftDeliverySheet {
+
+    private Long assignedAgentId;
+    private String assignedAgentName;
+    private String title;
+    private Integer totalOrders;
+    private BigDecimal totalCodAmount;
+    private List<String> areas = new ArrayList<>();
+    private List<Long> orderIds = new ArrayList<>();
+
+    public DraftDeliverySheet() {
+        // Default constructor
+    }
+
+    public Long getAssignedAgentId() {
+        return assignedAgentId;
+    }
+
+    public void setAssignedAgentId(Long assignedAgentId) {
+        this.assignedAgentId = assignedAgentId;
+    }
+
+    public String getAssignedAgentName() {
+        return assignedAgentName;
+    }
+
+    public void setAssignedAgentName(String assignedAgentName) {
+        this.assignedAgentName = assignedAgentName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public Integer getTotalOrders() {
+        return totalOrders;
+    }
+
+    public void setTotalOrders(Integer totalOrders) {
+        this.totalOrders = totalOrders;
+    }
+
+    public BigDecimal getTotalCodAmount() {
+        return totalCodAmount;
+    }
+
+    public void setTotalCodAmount(BigDecimal totalCodAmount) {
+        this.totalCodAmount = totalCodAmount;
+    }
+
+    public List<String> getAreas() {
+        return areas;
+    }
+
+    public void setAreas(List<String> areas) {
+        this.areas = areas != null ? new ArrayList<>(areas) : new ArrayList<>();
+    }
+
+    public List<Long> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Long> orderIds) {
+        this.orderIds = orderIds != null ? new ArrayList<>(orderIds) : new ArrayList<>();
+    }
+}
@@ -0,0 +1,53 @@
+package com.fleetops.deliverysheet.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * PlanDeliverySheetsRequest - Input for automatic delivery sheet planning.
+ */
+public class PlanDeliverySheetsRequest {
+
+    // Orders due on or before this date (or without a due date) are planned; defaults to today
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate scheduledDate;
+
+    // Restricts planning to these active agents; all active agents when empty
+    private List<Long> agentIds;
+
+    @Min(value = 1, message = "maxOrdersPerSheet must be at least 1")
+    @Max(value = 2000, message = "maxOrdersPerSheet must be 2000 or less")
+    private Integer maxOrdersPerSheet;
+
+    public PlanDeliverySheetsRequest() {
+        // Default constructor for deserialization
+    }
+
+    public LocalDate getScheduledDate() {
+        return scheduledDate;
+    }
+
+    public void setScheduledDate(LocalDate scheduledDate) {
+        this.scheduledDate = scheduledDate;
+    }
+
+    public List<Long> getAgentIds() {
+        return agentIds;
+    }
+
+    public void setAgentIds(List<Long> agentIds) {
+        this.agentIds = agentIds;
+    }
+
+    public Integer getMaxOrdersPerSheet() {
+        return maxOrdersPerSheet;
+    }
+
+    public void setMaxOrdersPerSheet(Integer maxOrdersPerSheet) {
+        this.maxOrdersPerSheet = maxOrdersPerSheet;
+    }
+}
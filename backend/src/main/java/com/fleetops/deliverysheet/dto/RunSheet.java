@@ -0,0 +1,24 @@
+package com.fleetops.deliverysheet.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fleetops.deliverysheet.DeliverySheetStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * RunSheet - One open delivery sheet with its stops in route order.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RunSheet(
+    Long id,
+    String sheetNumber,
+    String title,
+    DeliverySheetStatus status,
+    LocalDate scheduledDate,
+    Integer totalOrders,
+    BigDecimal totalCodAmount,
+    String notes,
+    List<RunSheetStop> stops
+) {}
@@ -0,0 +1,13 @@
+package com.fleetops.deliverysheet.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * RunSheetBundle - Everything the agent app needs for the day in one response.
+ */
+public record RunSheetBundle(
+    Long agentId,
+    Instant generatedAt,
+    List<RunSheet> sheets
+) {}
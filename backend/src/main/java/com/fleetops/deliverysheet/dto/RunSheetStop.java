@@ -0,0 +1,26 @@
+package com.fleetops.deliverysheet.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * RunSheetStop - Compact order projection for the agent app: what is needed at the door.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RunSheetStop(
+    Long id,
+    String orderId,
+    Integer sequence,
+    String status,
+    String receiverName,
+    String receiverAddress,
+    String receiverContact,
+    String receiverPincode,
+    String receiverCity,
+    Integer itemCount,
+    BigDecimal codAmount,
+    String paymentStatus,
+    String deliveryInstructions,
+    String specialInstructions
+) {}
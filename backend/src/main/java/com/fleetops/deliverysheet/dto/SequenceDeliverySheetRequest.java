@@ -0,0 +1,53 @@
+package com.fleetops.deliverysheet.dto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+/**
+ * SequenceDeliverySheetRequest - Options for route sequencing a delivery sheet.
+ */
+public class SequenceDeliverySheetRequest {
+
+    // Optional starting point (e.g. the hub or the agent's position); both or neither
+    @DecimalMin(value = "-90.0", message = "startLatitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "startLatitude must be between -90 and 90")
+    private Double startLatitude;
+
+    @DecimalMin(value = "-180.0", message = "startLongitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "startLongitude must be between -180 and 180")
+    private Double startLongitude;
+
+    @Min(value = 1, message = "timeBudgetMs must be at least 1")
+    @Max(value = 5000, message = "timeBudgetMs must be 5000 or less")
+    private Integer timeBudgetMs;
+
+    public SequenceDeliverySheetRequest() {
+        // Default constructor for deserialization
+    }
+
+    public Double getStartLatitude() {
+        return startLatitude;
+    }
+
+    public void setStartLatitude(Double startLatitude) {
+        this.startLatitude = startLatitude;
+    }
+
+    public Double getStartLongitude() {
+        return startLongitude;
+    }
+
+    public void setStartLongitude(Double startLongitude) {
+        this.startLongitude = startLongitude;
+    }
+
+    public Integer getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    public void setTimeBudgetMs(Integer timeBudgetMs) {
+        this.timeBudgetMs = timeBudgetMs;
+    }
+}
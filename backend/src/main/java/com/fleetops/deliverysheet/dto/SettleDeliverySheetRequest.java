@@ -0,0 +1,31 @@
+package com.fleetops.deliverysheet.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SettleDeliverySheetRequest - Per-order outcomes for closing a delivery sheet.
+ */
+public class SettleDeliverySheetRequest {
+
+    @NotEmpty(message = "outcomes are required")
+    @Size(max = 5000, message = "At most 5000 outcomes per settlement")
+    @Valid
+    private List<DeliveryOutcome> outcomes = new ArrayList<>();
+
+    public SettleDeliverySheetRequest() {
+        // Default constructor for deserialization
+    }
+
+    public List<DeliveryOutcome> getOutcomes() {
+        return outcomes;
+    }
+
+    public void setOutcomes(List<DeliveryOutcome> outcomes) {
+        this.outcomes = outcomes;
+    }
+}
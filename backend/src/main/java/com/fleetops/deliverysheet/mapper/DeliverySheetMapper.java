@@ -5,6 +5,7 @@ import com.fleetops.deliverysheet.DeliverySheetOrder;
 import com.fleetops.deliverysheet.dto.DeliverySheetResponse;
 import org.springframework.stereotype.Component;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -14,11 +15,32 @@ import java.util.stream.Collectors;
 @Component
 public class DeliverySheetMapper {
 
+    // Sequenced stops first, in route order
+    private static final Comparator<DeliverySheetOrder> ROUTE_ORDER = Comparator
+        .comparing(DeliverySheetOrder::getStopSequence, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(DeliverySheetOrder::getId, Comparator.nullsLast(Comparator.naturalOrder()));
+
     public DeliverySheetResponse toResponse(DeliverySheet entity) {
         if (entity == null) {
             return null;
         }
 
+        List<Long> orderIds = entity.getOrders().stream()
+            .sorted(ROUTE_ORDER)
+            .map(DeliverySheetOrder::getOrderId)
+            .collect(Collectors.toList());
+        return toResponse(entity, orderIds);
+    }
+
+    /**
+     * Map a sheet whose order links were written or read outside the entity's collection.
+     * A null orderIds omits them from the response.
+     */
+    public DeliverySheetResponse toResponse(DeliverySheet entity, List<Long> orderIds) {
+        if (entity == null) {
+            return null;
+        }
+
         DeliverySheetResponse response = new DeliverySheetResponse();
         response.setId(entity.getId());
         response.setSheetNumber(entity.getSheetNumber());
@@ -28,15 +50,12 @@ public class DeliverySheetMapper {
         response.setAssignedAgentName(entity.getAssignedAgentName());
         response.setTotalOrders(entity.getTotalOrders());
         response.setTotalCodAmount(entity.getTotalCodAmount());
+        response.setCollectedCodAmount(entity.getCollectedCodAmount());
         response.setScheduledDate(entity.getScheduledDate());
         response.setDeliveryDate(entity.getDeliveryDate());
         response.setNotes(entity.getNotes());
         response.setCreatedAt(entity.getCreatedAt());
         response.setUpdatedAt(entity.getUpdatedAt());
-
-        List<Long> orderIds = entity.getOrders().stream()
-            .map(DeliverySheetOrder::getOrderId)
-            .collect(Collectors.toList());
         response.setOrderIds(orderIds);
 
         return response;
@@ -0,0 +1,280 @@
+package com.fleetops.deliverysheet.planner;
+
+import java.util.Arrays;
+
+/**
+ * In-memory delivery sheet planning over primitive arrays.
+ *
+ * <p>Orders are first grouped by area (receiver pincode, or city when the pincode is missing).
+ * Areas larger than an agent's fair share are split into spatially contiguous pieces when the
+ * orders have coordinates. The resulting clusters are then assigned largest first, each to the
+ * agent whose load after taking it is lowest, where load combines order count and COD exposure
+ * relative to the per-agent average plus a small penalty for sending an agent to a different
+ * neighbourhood than the one it already covers.</p>
+ *
+ * <p>Cost is O(n log n) for grouping plus O(clusters x agents) for assignment, which keeps 20k
+ * orders over 200 agents well under a second. The class has no Spring or database dependencies.</p>
+ */
+public final class DeliverySheetPlanner {
+
+    public static final int UNASSIGNED = -1;
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private final int maxOrdersPerAgent;
+    private final double codWeight;
+    private final double localityWeight;
+    private final double localityRadiusKm;
+
+    /**
+     * @param maxOrdersPerAgent hard cap on orders per sheet; clusters that do not fit anywhere stay unassigned
+     * @param codWeight         weight of COD balance relative to order count balance (0 ignores COD)
+     * @param localityWeight    penalty, in units of one average agent load, for a cluster far from an agent's area
+     * @param localityRadiusKm  distance at which the full locality penalty applies
+     */
+    public DeliverySheetPlanner(int maxOrdersPerAgent, double codWeight, double localityWeight, double localityRadiusKm) {
+        if (maxOrdersPerAgent < 1) {
+            throw new IllegalArgumentException("maxOrdersPerAgent must be positive");
+        }
+        this.maxOrdersPerAgent = maxOrdersPerAgent;
+        this.codWeight = codWeight;
+        this.localityWeight = localityWeight;
+        this.localityRadiusKm = localityRadiusKm;
+    }
+
+    /**
+     * Plans {@code areaKeys.length} orders over {@code agentCount} agents.
+     *
+     * @param areaKeys per order, a dense area index (0..areaCount-1)
+     * @param cityKeys per order, a dense city index, or -1 when unknown
+     * @param codCents per order, COD amount in minor units
+     * @param lat      per order, latitude or NaN when unknown
+     * @param lng      per order, longitude or NaN when unknown
+     */
+    public Plan plan(int[] areaKeys, int areaCount, int[] cityKeys, long[] codCents,
+                     double[] lat, double[] lng, int agentCount) {
+        int n = areaKeys.length;
+        Plan plan = new Plan(n, agentCount);
+        if (n == 0 || agentCount == 0) {
+            Arrays.fill(plan.agentOfOrder, UNASSIGNED);
+            return plan;
+        }
+
+        int fairShare = (n + agentCount - 1) / agentCount;
+        int chunk = Math.max(1, Math.min(maxOrdersPerAgent, fairShare));
+        buildClusters(plan, areaKeys, areaCount, lat, lng, chunk);
+        Clusters clusters = summarize(plan, cityKeys, codCents, lat, lng);
+        assign(plan, clusters, agentCount, n, sum(codCents));
+        return plan;
+    }
+
+    // Counting sort by area, then split oversized areas into pieces of at most 'chunk' orders
+    private void buildClusters(Plan plan, int[] areaKeys, int areaCount, double[] lat, double[] lng, int chunk) {
+        int n = areaKeys.length;
+        int[] start = new int[areaCount + 1];
+        for (int area : areaKeys) start[area + 1]++;
+        for (int a = 0; a < areaCount; a++) start[a + 1] += start[a];
+        int[] members = new int[n];
+        int[] fill = Arrays.copyOf(start, areaCount);
+        for (int i = 0; i < n; i++) members[fill[areaKeys[i]]++] = i;
+
+        int clusterCount = 0;
+        long[] packed = new long[0];
+        for (int area = 0; area < areaCount; area++) {
+            int from = start[area];
+            int size = start[area + 1] - from;
+            if (size == 0) continue;
+            if (size > chunk && allLocated(members, from, size, lat)) {
+                // Order members along a Z-curve so each piece is a compact sub-area
+                if (packed.length < size) packed = new long[size];
+                for (int k = 0; k < size; k++) {
+                    int order = members[from + k];
+                    packed[k] = (morton(lat[order], lng[order]) << 31) | order;
+                }
+                Arrays.sort(packed, 0, size);
+                for (int k = 0; k < size; k++) members[from + k] = (int) (packed[k] & 0x7FFF_FFFFL);
+            }
+            int pieces = (size + chunk - 1) / chunk;
+            for (int p = 0; p < pieces; p++) {
+                // Near-equal pieces rather than full chunks plus a small remainder
+                int pFrom = from + (int) ((long) size * p / pieces);
+                int pTo = from + (int) ((long) size * (p + 1) / pieces);
+                for (int k = pFrom; k < pTo; k++) plan.clusterOfOrder[members[k]] = clusterCount;
+                clusterCount++;
+            }
+        }
+        plan.clusterCount = clusterCount;
+    }
+
+    private Clusters summarize(Plan plan, int[] cityKeys, long[] codCents, double[] lat, double[] lng) {
+        int c = plan.clusterCount;
+        Clusters s = new Clusters(c);
+        Arrays.fill(s.city, Integer.MIN_VALUE);
+        int[] located = new int[c];
+        for (int i = 0; i < plan.clusterOfOrder.length; i++) {
+            int k = plan.clusterOfOrder[i];
+            s.size[k]++;
+            s.cod[k] += codCents[i];
+            if (!Double.isNaN(lat[i]) && !Double.isNaN(lng[i])) {
+                s.lat[k] += lat[i];
+                s.lng[k] += lng[i];
+                located[k]++;
+            }
+            int city = cityKeys[i];
+            if (s.city[k] == Integer.MIN_VALUE) s.city[k] = city;
+            else if (s.city[k] != city) s.city[k] = -1;
+        }
+        for (int k = 0; k < c; k++) {
+            if (located[k] == 0) {
+                s.lat[k] = Double.NaN;
+                s.lng[k] = Double.NaN;
+            } else {
+                s.lat[k] /= located[k];
+                s.lng[k] /= located[k];
+            }
+        }
+        return s;
+    }
+
+    private void assign(Plan plan, Clusters s, int agentCount, int totalOrders, long totalCod) {
+        int c = plan.clusterCount;
+        int[] agentOfCluster = new int[c];
+        Arrays.fill(agentOfCluster, UNASSIGNED);
+
+        // Largest clusters first (longest-processing-time greedy)
+        long[] bySize = new long[c];
+        for (int k = 0; k < c; k++) bySize[k] = ((long) s.size[k] << 32) | k;
+        Arrays.sort(bySize);
+
+        double orderTarget = (double) totalOrders / agentCount;
+        double codTarget = (double) totalCod / agentCount;
+        boolean balanceCod = codWeight > 0 && codTarget > 0;
+
+        int[] orders = plan.agentOrders;
+        long[] cod = plan.agentCodCents;
+        // Each agent's area is anchored on its first cluster
+        double[] anchorLat = new double[agentCount];
+        double[] anchorLng = new double[agentCount];
+        int[] anchorCity = new int[agentCount];
+        boolean[] anchored = new boolean[agentCount];
+
+        for (int idx = c - 1; idx >= 0; idx--) {
+            int k = (int) (bySize[idx] & 0xFFFF_FFFFL);
+            int best = UNASSIGNED;
+            double bestScore = Double.POSITIVE_INFINITY;
+            for (int a = 0; a < agentCount; a++) {
+                if (orders[a] + s.size[k] > maxOrdersPerAgent) continue;
+                double score = (orders[a] + s.size[k]) / orderTarget;
+                if (balanceCod) score += codWeight * (cod[a] + s.cod[k]) / codTarget;
+                if (anchored[a]) {
+                    score += localityWeight * distanceFactor(anchorLat[a], anchorLng[a], anchorCity[a],
+                            s.lat[k], s.lng[k], s.city[k]);
+                }
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = a;
+                }
+            }
+            if (best == UNASSIGNED) continue;
+            agentOfCluster[k] = best;
+            orders[best] += s.size[k];
+            cod[best] += s.cod[k];
+            if (!anchored[best]) {
+                anchored[best] = true;
+                anchorLat[best] = s.lat[k];
+                anchorLng[best] = s.lng[k];
+                anchorCity[best] = s.city[k];
+            }
+        }
+
+        for (int i = 0; i < plan.agentOfOrder.length; i++) {
+            plan.agentOfOrder[i] = agentOfCluster[plan.clusterOfOrder[i]];
+        }
+        for (int k = 0; k < c; k++) {
+            if (agentOfCluster[k] == UNASSIGNED) plan.unassignedOrders += s.size[k];
+        }
+    }
+
+    // 0 for the same neighbourhood, 1 for far away or unknown
+    private double distanceFactor(double aLat, double aLng, int aCity, double lat, double lng, int city) {
+        if (!Double.isNaN(aLat) && !Double.isNaN(lat)) {
+            return Math.min(1.0, haversineKm(aLat, aLng, lat, lng) / localityRadiusKm);
+        }
+        if (aCity >= 0 && city >= 0) {
+            return aCity == city ? 0.0 : 1.0;
+        }
+        return 0.5;
+    }
+
+    static double haversineKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(h)));
+    }
+
+    // 16 bits per axis interleaved into a 32-bit Z-order key
+    private static long morton(double lat, double lng) {
+        long y = (long) ((lat + 90.0) / 180.0 * 0xFFFF);
+        long x = (long) ((lng + 180.0) / 360.0 * 0xFFFF);
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(long v) {
+        v &= 0xFFFF;
+        v = (v | (v << 8)) & 0x00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0FL;
+        v = (v | (v << 2)) & 0x33333333L;
+        v = (v | (v << 1)) & 0x55555555L;
+        return v;
+    }
+
+    private static boolean allLocated(int[] members, int from, int size, double[] lat) {
+        for (int k = from; k < from + size; k++) {
+            if (Double.isNaN(lat[members[k]])) return false;
+        }
+        return true;
+    }
+
+    private static long sum(long[] values) {
+        long total = 0;
+        for (long v : values) total += v;
+        return total;
+    }
+
+    private static final class Clusters {
+        final int[] size;
+        final long[] cod;
+        final double[] lat;
+        final double[] lng;
+        final int[] city;   // -1 when the cluster spans several cities or the city is unknown
+
+        Clusters(int count) {
+            size = new int[count];
+            cod = new long[count];
+            lat = new double[count];
+            lng = new double[count];
+            city = new int[count];
+        }
+    }
+
+    /**
+     * Planning result, indexed like the input arrays.
+     */
+    public static final class Plan {
+        public final int[] agentOfOrder;     // agent index per order, or UNASSIGNED
+        public final int[] clusterOfOrder;   // cluster index per order
+        public final int[] agentOrders;      // orders per agent
+        public final long[] agentCodCents;   // COD per agent
+        public int clusterCount;
+        public int unassignedOrders;
+
+        Plan(int orderCount, int agentCount) {
+            agentOfOrder = new int[orderCount];
+            clusterOfOrder = new int[orderCount];
+            agentOrders = new int[agentCount];
+            agentCodCents = new long[agentCount];
+        }
+    }
+}
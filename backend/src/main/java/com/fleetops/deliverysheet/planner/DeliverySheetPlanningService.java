@@ -0,0 +1,403 @@
+package com.fleetops.deliverysheet.planner;
+
+import com.fleetops.cache.BoundedCache;
+import com.fleetops.deliverysheet.DeliverySheet;
+import com.fleetops.deliverysheet.DeliverySheetRepository;
+import com.fleetops.deliverysheet.DeliverySheetStatus;
+import com.fleetops.deliverysheet.dto.DeliverySheetPlanResponse;
+import com.fleetops.deliverysheet.dto.DeliverySheetResponse;
+import com.fleetops.deliverysheet.dto.DraftDeliverySheet;
+import com.fleetops.deliverysheet.dto.PlanDeliverySheetsRequest;
+import com.fleetops.deliverysheet.mapper.DeliverySheetMapper;
+import com.fleetops.deliverysheet.service.DeliverySheetOrderWriter;
+import com.fleetops.user.dto.UserResponse;
+import com.fleetops.user.entity.User;
+import com.fleetops.user.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DeliverySheetPlanningService - Builds draft delivery sheets from pending orders and commits
+ * reviewed plans.
+ *
+ * Planning reads the eligible orders in one query straight into primitive arrays and runs
+ * {@link DeliverySheetPlanner} in memory. Drafts are kept in memory on this instance until they
+ * are committed or expire; committing locks the orders, re-checks that every one is still
+ * eligible and creates all sheets and their order links in a single transaction.
+ */
+@Service
+public class DeliverySheetPlanningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliverySheetPlanningService.class);
+
+    // Orders awaiting delivery that are not already on an open sheet. Coordinates are the centroid
+    // of known places sharing the receiver pincode, when there are any.
+    private static final String ELIGIBLE_ORDERS_SQL =
+            "WITH centroids AS (" +
+            "  SELECT postal_code, avg(ST_Y(location)) AS lat, avg(ST_X(location)) AS lng FROM places " +
+            "  WHERE postal_code IS NOT NULL AND COALESCE(active, true) GROUP BY postal_code) " +
+            "SELECT o.id, o.receiver_pincode, o.receiver_city, COALESCE(o.cod_amount, 0) AS cod, c.lat, c.lng " +
+            "FROM orders o LEFT JOIN centroids c ON c.postal_code = o.receiver_pincode " +
+            "WHERE o.status IN ('CONFIRMED', 'PICKED_UP') " +
+            "AND (o.estimated_delivery_date IS NULL OR o.estimated_delivery_date <= ?) " +
+            "AND NOT EXISTS (SELECT 1 FROM delivery_sheet_orders dso " +
+            "  JOIN delivery_sheets ds ON ds.id = dso.delivery_sheet_id " +
+            "  WHERE dso.order_id = o.id AND ds.status IN ('OPEN', 'IN_PROGRESS')) " +
+            "ORDER BY o.id LIMIT ?";
+
+    // Locked in id order so concurrent commits of overlapping plans cannot deadlock
+    private static final String LOCK_ORDERS_SQL =
+            "SELECT id FROM orders WHERE id = ANY (?) ORDER BY id FOR UPDATE";
+
+    private static final String COUNT_STILL_ELIGIBLE_SQL =
+            "SELECT count(*) FROM orders o WHERE o.id = ANY (?) AND o.status IN ('CONFIRMED', 'PICKED_UP') " +
+            "AND NOT EXISTS (SELECT 1 FROM delivery_sheet_orders dso " +
+            "  JOIN delivery_sheets ds ON ds.id = dso.delivery_sheet_id " +
+            "  WHERE dso.order_id = o.id AND ds.status IN ('OPEN', 'IN_PROGRESS'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+    private final DeliverySheetRepository deliverySheetRepository;
+    private final DeliverySheetOrderWriter deliverySheetOrderWriter;
+    private final DeliverySheetMapper deliverySheetMapper;
+    private final int maxOrders;
+    private final int defaultMaxOrdersPerSheet;
+    private final double codWeight;
+    private final double localityWeight;
+    private final double localityRadiusKm;
+    private final Duration planTtl;
+    private final BoundedCache<String, DeliverySheetPlanResponse> plans;
+    private final Set<String> committing = ConcurrentHashMap.newKeySet();
+
+    public DeliverySheetPlanningService(
+        JdbcTemplate jdbcTemplate,
+        UserService userService,
+        DeliverySheetRepository deliverySheetRepository,
+        DeliverySheetOrderWriter deliverySheetOrderWriter,
+        DeliverySheetMapper deliverySheetMapper,
+        @Value("${app.delivery-sheet.planner.max-orders:50000}") int maxOrders,
+        @Value("${app.delivery-sheet.planner.max-orders-per-sheet:250}") int defaultMaxOrdersPerSheet,
+        @Value("${app.delivery-sheet.planner.cod-weight:1.0}") double codWeight,
+        @Value("${app.delivery-sheet.planner.locality-weight:0.25}") double localityWeight,
+        @Value("${app.delivery-sheet.planner.locality-radius-km:10}") double localityRadiusKm,
+        @Value("${app.delivery-sheet.planner.plan-ttl-minutes:30}") long planTtlMinutes
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.userService = userService;
+        this.deliverySheetRepository = deliverySheetRepository;
+        this.deliverySheetOrderWriter = deliverySheetOrderWriter;
+        this.deliverySheetMapper = deliverySheetMapper;
+        this.maxOrders = maxOrders;
+        this.defaultMaxOrdersPerSheet = defaultMaxOrdersPerSheet;
+        this.codWeight = codWeight;
+        this.localityWeight = localityWeight;
+        this.localityRadiusKm = localityRadiusKm;
+        this.planTtl = Duration.ofMinutes(planTtlMinutes);
+        this.plans = new BoundedCache<>(64, planTtl.toMillis());
+    }
+
+    /**
+     * Plan draft sheets for the eligible orders. Nothing is written; the plan is kept for review.
+     */
+    @Transactional(readOnly = true)
+    public DeliverySheetPlanResponse plan(PlanDeliverySheetsRequest request, User requestedBy) {
+        long start = System.currentTimeMillis();
+        LocalDate scheduledDate = request != null && request.getScheduledDate() != null
+            ? request.getScheduledDate()
+            : LocalDate.now();
+        int maxPerSheet = request != null && request.getMaxOrdersPerSheet() != null
+            ? request.getMaxOrdersPerSheet()
+            : defaultMaxOrdersPerSheet;
+        List<UserResponse> agents = selectAgents(request != null ? request.getAgentIds() : null);
+
+        EligibleOrders orders = loadEligibleOrders(scheduledDate);
+        DeliverySheetPlanner.Plan plan = new DeliverySheetPlanner(maxPerSheet, codWeight, localityWeight, localityRadiusKm)
+            .plan(orders.areaKeys, orders.areaNames.size(), orders.cityKeys, orders.codCents,
+                orders.lat, orders.lng, agents.size());
+
+        DeliverySheetPlanResponse response = toResponse(orders, plan, agents, scheduledDate);
+        response.setPlanId(UUID.randomUUID().toString());
+        response.setCreatedAt(Instant.now());
+        response.setExpiresAt(response.getCreatedAt().plus(planTtl));
+        response.setCreatedBy(requestedBy != null ? requestedBy.getUsername() : null);
+        response.setPlanningMillis(System.currentTimeMillis() - start);
+        plans.put(response.getPlanId(), response);
+
+        logger.info("Planned {} of {} orders into {} draft sheets for {} ({} clusters) in {} ms",
+            response.getAssignedOrders(), response.getTotalOrders(), response.getDrafts().size(),
+            scheduledDate, plan.clusterCount, response.getPlanningMillis());
+        return response;
+    }
+
+    public Optional<DeliverySheetPlanResponse> getPlan(String planId) {
+        return Optional.ofNullable(plans.get(planId));
+    }
+
+    /**
+     * Create every draft sheet of a plan in one transaction.
+     *
+     * @throws IllegalArgumentException if the plan does not exist or has expired
+     * @throws IllegalStateException    if orders or agents changed since planning, or the plan is already committing
+     */
+    @Transactional
+    public List<DeliverySheetResponse> commitPlan(String planId, User committedBy) {
+        DeliverySheetPlanResponse plan = plans.get(planId);
+        if (plan == null) {
+            throw new IllegalArgumentException("Delivery sheet plan not found or expired: " + planId);
+        }
+        if (plan.getDrafts().isEmpty()) {
+            throw new IllegalArgumentException("Delivery sheet plan " + planId + " has no draft sheets");
+        }
+        if (!committing.add(planId)) {
+            throw new IllegalStateException("Delivery sheet plan " + planId + " is already being committed");
+        }
+        // Hold the commit mark until the transaction ends, and keep the plan if it rolled back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                committing.remove(planId);
+                if (status == STATUS_COMMITTED) {
+                    plans.invalidate(planId);
+                }
+            }
+        });
+        return createSheets(plan, committedBy);
+    }
+
+    private List<DeliverySheetResponse> createSheets(DeliverySheetPlanResponse plan, User committedBy) {
+        List<Long> allOrderIds = new ArrayList<>();
+        plan.getDrafts().forEach(draft -> allOrderIds.addAll(draft.getOrderIds()));
+        Long[] orderIdArray = allOrderIds.toArray(new Long[0]);
+        // Lock before re-checking so a concurrent commit cannot put the same orders on another sheet
+        jdbcTemplate.queryForList(LOCK_ORDERS_SQL, Long.class, (Object) orderIdArray);
+        Long stillEligible = jdbcTemplate.queryForObject(COUNT_STILL_ELIGIBLE_SQL, Long.class, (Object) orderIdArray);
+        if (stillEligible == null || stillEligible != allOrderIds.size()) {
+            throw new IllegalStateException("Orders changed since the plan was created; please plan again");
+        }
+
+        Set<Long> activeAgentIds = new HashSet<>();
+        userService.getActiveAgents().forEach(agent -> activeAgentIds.add(agent.id()));
+        List<DeliverySheet> sheets = new ArrayList<>(plan.getDrafts().size());
+        Set<String> sheetNumbers = new HashSet<>();
+        for (DraftDeliverySheet draft : plan.getDrafts()) {
+            if (!activeAgentIds.contains(draft.getAssignedAgentId())) {
+                throw new IllegalStateException("Agent " + draft.getAssignedAgentName() + " is no longer active; please plan again");
+            }
+            sheets.add(DeliverySheet.builder()
+                .sheetNumber(uniqueSheetNumber(sheetNumbers))
+                .title(draft.getTitle())
+                .status(DeliverySheetStatus.OPEN)
+                .assignedAgentId(draft.getAssignedAgentId())
+                .assignedAgentName(draft.getAssignedAgentName())
+                .totalOrders(draft.getTotalOrders())
+                .totalCodAmount(draft.getTotalCodAmount())
+                .scheduledDate(plan.getScheduledDate())
+                .metadata(buildMetadata(plan, committedBy))
+                .build());
+        }
+
+        List<DeliverySheet> saved = deliverySheetRepository.saveAll(sheets);
+        Map<Long, List<Long>> orderIdsBySheet = new LinkedHashMap<>();
+        for (int i = 0; i < saved.size(); i++) {
+            orderIdsBySheet.put(saved.get(i).getId(), plan.getDrafts().get(i).getOrderIds());
+        }
+        deliverySheetOrderWriter.insertLinks(orderIdsBySheet);
+
+        logger.info("Committed delivery sheet plan {}: {} sheets, {} orders", plan.getPlanId(),
+            saved.size(), allOrderIds.size());
+        List<DeliverySheetResponse> responses = new ArrayList<>(saved.size());
+        for (DeliverySheet sheet : saved) {
+            responses.add(deliverySheetMapper.toResponse(sheet, orderIdsBySheet.get(sheet.getId())));
+        }
+        return responses;
+    }
+
+    private List<UserResponse> selectAgents(List<Long> agentIds) {
+        List<UserResponse> active = userService.getActiveAgents();
+        if (agentIds == null || agentIds.isEmpty()) {
+            return active;
+        }
+        Set<Long> wanted = new LinkedHashSet<>(agentIds);
+        List<UserResponse> selected = active.stream().filter(agent -> wanted.contains(agent.id())).toList();
+        if (selected.size() != wanted.size()) {
+            throw new IllegalArgumentException("One or more agents were not found or are inactive");
+        }
+        return selected;
+    }
+
+    private EligibleOrders loadEligibleOrders(LocalDate scheduledDate) {
+        EligibleOrders orders = new EligibleOrders(1024);
+        Map<String, Integer> areaIndex = new HashMap<>();
+        Map<String, Integer> cityIndex = new HashMap<>();
+        jdbcTemplate.query(ELIGIBLE_ORDERS_SQL, rs -> {
+            String pincode = trimToNull(rs.getString("receiver_pincode"));
+            String city = trimToNull(rs.getString("receiver_city"));
+            String cityKey = city != null ? city.toLowerCase() : null;
+            String area = pincode != null ? pincode : cityKey != null ? "city:" + cityKey : "unknown";
+            int areaKey = areaIndex.computeIfAbsent(area, k -> {
+                orders.areaNames.add(pincode != null ? pincode : city != null ? city : "Unknown area");
+                return orders.areaNames.size() - 1;
+            });
+            int cityKeyIndex = cityKey == null ? -1 : cityIndex.computeIfAbsent(cityKey, k -> cityIndex.size());
+            double lat = rs.getDouble("lat");
+            boolean located = !rs.wasNull();
+            double lng = rs.getDouble("lng");
+            orders.add(rs.getLong("id"), areaKey, cityKeyIndex,
+                rs.getBigDecimal("cod").movePointRight(2).longValue(),
+                located ? lat : Double.NaN, located ? lng : Double.NaN);
+        }, Date.valueOf(scheduledDate), maxOrders);
+        orders.trim();
+        if (orders.size == maxOrders) {
+            logger.warn("Delivery sheet planning for {} was capped at {} orders", scheduledDate, maxOrders);
+        }
+        return orders;
+    }
+
+    private DeliverySheetPlanResponse toResponse(EligibleOrders orders, DeliverySheetPlanner.Plan plan,
+                                                 List<UserResponse> agents, LocalDate scheduledDate) {
+        int agentCount = agents.size();
+        List<List<Long>> orderIdsByAgent = new ArrayList<>(agentCount);
+        List<Set<String>> areasByAgent = new ArrayList<>(agentCount);
+        for (int a = 0; a < agentCount; a++) {
+            orderIdsByAgent.add(new ArrayList<>(plan.agentOrders[a]));
+            areasByAgent.add(new LinkedHashSet<>());
+        }
+        List<Long> unassigned = new ArrayList<>(plan.unassignedOrders);
+        for (int i = 0; i < orders.size; i++) {
+            int agent = plan.agentOfOrder[i];
+            if (agent == DeliverySheetPlanner.UNASSIGNED) {
+                unassigned.add(orders.ids[i]);
+            } else {
+                orderIdsByAgent.get(agent).add(orders.ids[i]);
+                areasByAgent.get(agent).add(orders.areaNames.get(orders.areaKeys[i]));
+            }
+        }
+
+        List<DraftDeliverySheet> drafts = new ArrayList<>();
+        for (int a = 0; a < agentCount; a++) {
+            if (plan.agentOrders[a] == 0) continue;
+            UserResponse agent = agents.get(a);
+            String agentName = agent.fullName() != null ? agent.fullName() : agent.username();
+            DraftDeliverySheet draft = new DraftDeliverySheet();
+            draft.setAssignedAgentId(agent.id());
+            draft.setAssignedAgentName(agentName);
+            draft.setTitle(scheduledDate + " - " + agentName);
+            draft.setTotalOrders(plan.agentOrders[a]);
+            draft.setTotalCodAmount(BigDecimal.valueOf(plan.agentCodCents[a], 2));
+            draft.setAreas(new ArrayList<>(areasByAgent.get(a)));
+            draft.setOrderIds(orderIdsByAgent.get(a));
+            drafts.add(draft);
+        }
+
+        DeliverySheetPlanResponse response = new DeliverySheetPlanResponse();
+        response.setScheduledDate(scheduledDate);
+        response.setTotalOrders(orders.size);
+        response.setAssignedOrders(orders.size - plan.unassignedOrders);
+        response.setAgentsConsidered(agentCount);
+        response.setClusterCount(plan.clusterCount);
+        response.setDrafts(drafts);
+        response.setUnassignedOrderIds(unassigned);
+        return response;
+    }
+
+    private Map<String, Object> buildMetadata(DeliverySheetPlanResponse plan, User committedBy) {
+        Map<String, Object> metadata = new HashMap<>();
+        if (committedBy != null) {
+            metadata.put("createdBy", committedBy.getUsername());
+        }
+        metadata.put("createdAt", LocalDate.now().toString());
+        metadata.put("planId", plan.getPlanId());
+        return metadata;
+    }
+
+    // Same format as DeliverySheetService, also unique within the batch being created
+    private String uniqueSheetNumber(Set<String> taken) {
+        String candidate;
+        do {
+            candidate = "DS" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        } while (!taken.add(candidate) || deliverySheetRepository.existsBySheetNumber(candidate));
+        return candidate;
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) return null;
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    /**
+     * Eligible orders as parallel primitive arrays, the input format of {@link DeliverySheetPlanner}.
+     */
+    private static final class EligibleOrders {
+        long[] ids;
+        int[] areaKeys;
+        int[] cityKeys;
+        long[] codCents;
+        double[] lat;
+        double[] lng;
+        int size;
+        final List<String> areaNames = new ArrayList<>();
+
+        EligibleOrders(int capacity) {
+            ids = new long[capacity];
+            areaKeys = new int[capacity];
+            cityKeys = new int[capacity];
+            codCents = new long[capacity];
+            lat = new double[capacity];
+            lng = new double[capacity];
+        }
+
+        void add(long id, int areaKey, int cityKey, long cod, double latitude, double longitude) {
+            if (size == ids.length) {
+                int capacity = Math.max(16, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                areaKeys = Arrays.copyOf(areaKeys, capacity);
+                cityKeys = Arrays.copyOf(cityKeys, capacity);
+                codCents = Arrays.copyOf(codCents, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                lng = Arrays.copyOf(lng, capacity);
+            }
+            ids[size] = id;
+            areaKeys[size] = areaKey;
+            cityKeys[size] = cityKey;
+            codCents[size] = cod;
+            lat[size] = latitude;
+            lng[size] = longitude;
+            size++;
+        }
+
+        // The planner sizes its work by array length
+        void trim() {
+            ids = Arrays.copyOf(ids, size);
+            areaKeys = Arrays.copyOf(areaKeys, size);
+            cityKeys = Arrays.copyOf(cityKeys, size);
+            codCents = Arrays.copyOf(codCents, size);
+            lat = Arrays.copyOf(lat, size);
+            lng = Arrays.copyOf(lng, size);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.fleetops.deliverysheet.planner;
+
+/**
+ * Orders the stops of one delivery run as an open path (the agent does not return).
+ *
+ * <p>A nearest-neighbour tour is built first and then improved with 2-opt (segment reversal)
+ * and Or-opt (moving runs of 1-3 stops, optionally reversed) until no improving move remains or
+ * the time budget runs out. Distances come from a flat row-major {@code double[n * n]} matrix,
+ * so the inner loops touch only primitive arrays. The class has no Spring or database
+ * dependencies.</p>
+ */
+public final class RouteSequencer {
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_OR_OPT_SEGMENT = 3;
+    private static final int NONE = -1;
+
+    private final double[] dist;
+    private final int n;
+    private final boolean fixedStart;
+
+    /**
+     * @param dist       flat n x n distance matrix, {@code dist[i * n + j]}
+     * @param n          number of stops
+     * @param fixedStart whether stop 0 is the fixed starting point (e.g. the agent's depot)
+     */
+    public RouteSequencer(double[] dist, int n, boolean fixedStart) {
+        if (dist.length < n * n) {
+            throw new IllegalArgumentException("Distance matrix must have " + n * n + " entries");
+        }
+        this.dist = dist;
+        this.n = n;
+        this.fixedStart = fixedStart;
+    }
+
+    /**
+     * Haversine distances in km between every pair of points, as a flat row-major matrix.
+     */
+    public static double[] haversineMatrix(double[] lat, double[] lng) {
+        int n = lat.length;
+        double[] cosLat = new double[n];
+        double[] radLat = new double[n];
+        double[] radLng = new double[n];
+        for (int i = 0; i < n; i++) {
+            radLat[i] = Math.toRadians(lat[i]);
+            radLng[i] = Math.toRadians(lng[i]);
+            cosLat[i] = Math.cos(radLat[i]);
+        }
+        double[] matrix = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                double sinLat = Math.sin((radLat[j] - radLat[i]) / 2);
+                double sinLng = Math.sin((radLng[j] - radLng[i]) / 2);
+                double h = sinLat * sinLat + cosLat[i] * cosLat[j] * sinLng * sinLng;
+                double d = 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(h)));
+                matrix[i * n + j] = d;
+                matrix[j * n + i] = d;
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Best route found within the budget, as stop indices in visiting order.
+     */
+    public int[] sequence(long timeBudgetNanos) {
+        if (n <= 2) {
+            int[] route = new int[n];
+            for (int i = 0; i < n; i++) route[i] = i;
+            return route;
+        }
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        int[] route = nearestNeighbour(fixedStart ? 0 : farthestFromOthers());
+        int[] scratch = new int[n];
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = twoOpt(route, deadline);
+            improved |= orOpt(route, scratch, deadline);
+        }
+        return route;
+    }
+
+    public double length(int[] route) {
+        double total = 0;
+        for (int i = 0; i + 1 < route.length; i++) {
+            total += dist[route[i] * n + route[i + 1]];
+        }
+        return total;
+    }
+
+    private int[] nearestNeighbour(int start) {
+        int[] route = new int[n];
+        boolean[] visited = new boolean[n];
+        route[0] = start;
+        visited[start] = true;
+        for (int k = 1; k < n; k++) {
+            int row = route[k - 1] * n;
+            int best = NONE;
+            double bestDist = Double.POSITIVE_INFINITY;
+            for (int j = 0; j < n; j++) {
+                if (!visited[j] && dist[row + j] < bestDist) {
+                    bestDist = dist[row + j];
+                    best = j;
+                }
+            }
+            route[k] = best;
+            visited[best] = true;
+        }
+        return route;
+    }
+
+    // Without a depot, an outlying stop makes a better start for an open path than an arbitrary one
+    private int farthestFromOthers() {
+        int best = 0;
+        double bestSum = -1;
+        for (int i = 0; i < n; i++) {
+            double sum = 0;
+            int row = i * n;
+            for (int j = 0; j < n; j++) sum += dist[row + j];
+            if (sum > bestSum) {
+                bestSum = sum;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One first-improvement pass of 2-opt: reverse route[i+1..j] when that shortens the path.
+     * Without a fixed start the prefix route[0..j] may be reversed too (i = -1).
+     */
+    private boolean twoOpt(int[] route, long deadline) {
+        boolean improved = false;
+        for (int i = fixedStart ? 0 : -1; i < n - 2; i++) {
+            if (System.nanoTime() >= deadline) return improved;
+            int a = i >= 0 ? route[i] : NONE;
+            int b = route[i + 1];
+            for (int j = i + 2; j < n; j++) {
+                int c = route[j];
+                int d = j + 1 < n ? route[j + 1] : NONE;
+                double delta = edge(a, c) + edge(b, d) - edge(a, b) - edge(c, d);
+                if (delta < -EPSILON) {
+                    reverse(route, i + 1, j);
+                    b = route[i + 1];
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * One first-improvement pass of Or-opt: move a run of 1-3 stops, forwards or reversed, to the
+     * cheapest other position.
+     */
+    private boolean orOpt(int[] route, int[] scratch, long deadline) {
+        boolean improved = false;
+        int first = fixedStart ? 1 : 0;
+        for (int len = 1; len <= MAX_OR_OPT_SEGMENT; len++) {
+            for (int i = first; i + len <= n; i++) {
+                if (System.nanoTime() >= deadline) return improved;
+                int s0 = route[i];
+                int sL = route[i + len - 1];
+                int prev = i > 0 ? route[i - 1] : NONE;
+                int next = i + len < n ? route[i + len] : NONE;
+                double removeGain = edge(prev, s0) + edge(sL, next) - edge(prev, next);
+                if (removeGain <= EPSILON) continue;
+
+                // Insert between route[p] and route[p + 1]; p = -1 is the front, p = n - 1 the end
+                int bestP = Integer.MIN_VALUE;
+                boolean bestReversed = false;
+                double bestGain = EPSILON;
+                for (int p = first - 1; p < n; p++) {
+                    if (p >= i - 1 && p < i + len) continue;
+                    int u = p >= 0 ? route[p] : NONE;
+                    int v = p + 1 < n ? route[p + 1] : NONE;
+                    double base = edge(u, v);
+                    double forward = removeGain - (edge(u, s0) + edge(sL, v) - base);
+                    double reversed = removeGain - (edge(u, sL) + edge(s0, v) - base);
+                    if (forward > bestGain) {
+                        bestGain = forward;
+                        bestP = p;
+                        bestReversed = false;
+                    }
+                    if (len > 1 && reversed > bestGain) {
+                        bestGain = reversed;
+                        bestP = p;
+                        bestReversed = true;
+                    }
+                }
+                if (bestP != Integer.MIN_VALUE) {
+                    moveSegment(route, scratch, i, len, bestP, bestReversed);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    // Rebuilds the route with route[i..i+len) placed after position p of the original route
+    private void moveSegment(int[] route, int[] scratch, int i, int len, int p, boolean reversed) {
+        int k = 0;
+        if (p == -1) k = copySegment(route, scratch, k, i, len, reversed);
+        for (int pos = 0; pos < n; pos++) {
+            if (pos >= i && pos < i + len) continue;
+            scratch[k++] = route[pos];
+            if (pos == p) k = copySegment(route, scratch, k, i, len, reversed);
+        }
+        System.arraycopy(scratch, 0, route, 0, n);
+    }
+
+    private static int copySegment(int[] route, int[] scratch, int k, int i, int len, boolean reversed) {
+        for (int s = 0; s < len; s++) {
+            scratch[k++] = route[reversed ? i + len - 1 - s : i + s];
+        }
+        return k;
+    }
+
+    private static void reverse(int[] route, int from, int to) {
+        while (from < to) {
+            int tmp = route[from];
+            route[from++] = route[to];
+            route[to--] = tmp;
+        }
+    }
+
+    // Open path ends have no edge beyond them
+    private double edge(int a, int b) {
+        return a == NONE || b == NONE ? 0.0 : dist[a * n + b];
+    }
+}
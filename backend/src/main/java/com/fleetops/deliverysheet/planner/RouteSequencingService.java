@@ -0,0 +1,134 @@
+package com.fleetops.deliverysheet.planner;
+
+import com.fleetops.deliverysheet.DeliverySheet;
+import com.fleetops.deliverysheet.DeliverySheetRepository;
+import com.fleetops.deliverysheet.DeliverySheetStatus;
+import com.fleetops.deliverysheet.dto.DeliverySheetResponse;
+import com.fleetops.deliverysheet.dto.SequenceDeliverySheetRequest;
+import com.fleetops.deliverysheet.mapper.DeliverySheetMapper;
+import com.fleetops.deliverysheet.service.DeliverySheetOrderWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RouteSequencingService - Orders the stops of a delivery sheet into a short driving route.
+ *
+ * Stop coordinates are the centroid of known places sharing the order's receiver pincode. Stops
+ * without coordinates cannot be placed and keep their current relative order after the routed
+ * stops. The sequence is stored on the sheet's order links and drives the order of orderIds in
+ * sheet responses.
+ */
+@Service
+public class RouteSequencingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RouteSequencingService.class);
+
+    private static final String STOPS_SQL =
+            "WITH stops AS (" +
+            "  SELECT dso.id AS link_id, dso.order_id, dso.stop_sequence, o.receiver_pincode " +
+            "  FROM delivery_sheet_orders dso JOIN orders o ON o.id = dso.order_id " +
+            "  WHERE dso.delivery_sheet_id = ?), " +
+            "centroids AS (" +
+            "  SELECT postal_code, avg(ST_Y(location)) AS lat, avg(ST_X(location)) AS lng FROM places " +
+            "  WHERE postal_code IN (SELECT receiver_pincode FROM stops) AND COALESCE(active, true) " +
+            "  GROUP BY postal_code) " +
+            "SELECT s.order_id, c.lat, c.lng FROM stops s LEFT JOIN centroids c ON c.postal_code = s.receiver_pincode " +
+            "ORDER BY s.stop_sequence NULLS LAST, s.link_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DeliverySheetRepository deliverySheetRepository;
+    private final DeliverySheetOrderWriter deliverySheetOrderWriter;
+    private final DeliverySheetMapper deliverySheetMapper;
+    private final int defaultTimeBudgetMs;
+
+    public RouteSequencingService(
+        JdbcTemplate jdbcTemplate,
+        DeliverySheetRepository deliverySheetRepository,
+        DeliverySheetOrderWriter deliverySheetOrderWriter,
+        DeliverySheetMapper deliverySheetMapper,
+        @Value("${app.delivery-sheet.sequencing.time-budget-ms:100}") int defaultTimeBudgetMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.deliverySheetRepository = deliverySheetRepository;
+        this.deliverySheetOrderWriter = deliverySheetOrderWriter;
+        this.deliverySheetMapper = deliverySheetMapper;
+        this.defaultTimeBudgetMs = defaultTimeBudgetMs;
+    }
+
+    /**
+     * Sequence a sheet's stops and store the route.
+     *
+     * @throws IllegalArgumentException if the sheet does not exist or the start point is incomplete
+     * @throws IllegalStateException    if the sheet is already completed or closed
+     */
+    @Transactional
+    public DeliverySheetResponse sequenceSheet(Long deliverySheetId, SequenceDeliverySheetRequest request) {
+        DeliverySheet sheet = deliverySheetRepository.findById(deliverySheetId)
+            .orElseThrow(() -> new IllegalArgumentException("Delivery sheet not found with ID: " + deliverySheetId));
+        if (sheet.getStatus() == DeliverySheetStatus.COMPLETED || sheet.getStatus() == DeliverySheetStatus.CLOSED) {
+            throw new IllegalStateException("Delivery sheet " + sheet.getSheetNumber() + " is " + sheet.getStatus());
+        }
+        Double startLat = request != null ? request.getStartLatitude() : null;
+        Double startLng = request != null ? request.getStartLongitude() : null;
+        if ((startLat == null) != (startLng == null)) {
+            throw new IllegalArgumentException("startLatitude and startLongitude must be given together");
+        }
+        int budgetMs = request != null && request.getTimeBudgetMs() != null ? request.getTimeBudgetMs() : defaultTimeBudgetMs;
+
+        long start = System.nanoTime();
+        List<Long> located = new ArrayList<>();
+        List<Long> unlocated = new ArrayList<>();
+        List<double[]> points = new ArrayList<>();
+        jdbcTemplate.query(STOPS_SQL, rs -> {
+            long orderId = rs.getLong("order_id");
+            double lat = rs.getDouble("lat");
+            if (rs.wasNull()) {
+                unlocated.add(orderId);
+            } else {
+                located.add(orderId);
+                points.add(new double[]{lat, rs.getDouble("lng")});
+            }
+        }, deliverySheetId);
+
+        // With a start point it becomes node 0, pinned as the first node of the path
+        int offset = startLat != null ? 1 : 0;
+        int n = located.size() + offset;
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        if (offset == 1) {
+            lat[0] = startLat;
+            lng[0] = startLng;
+        }
+        for (int i = 0; i < located.size(); i++) {
+            lat[i + offset] = points.get(i)[0];
+            lng[i + offset] = points.get(i)[1];
+        }
+
+        RouteSequencer sequencer = new RouteSequencer(RouteSequencer.haversineMatrix(lat, lng), n, offset == 1);
+        int[] route = sequencer.sequence(TimeUnit.MILLISECONDS.toNanos(budgetMs));
+
+        List<Long> orderIds = new ArrayList<>(located.size() + unlocated.size());
+        for (int node : route) {
+            if (node >= offset) orderIds.add(located.get(node - offset));
+        }
+        orderIds.addAll(unlocated);
+        deliverySheetOrderWriter.updateStopSequences(deliverySheetId, orderIds);
+
+        double distanceKm = sequencer.length(route);
+        logger.info("Sequenced delivery sheet {}: {} stops ({} without coordinates), {} km in {} ms",
+            sheet.getSheetNumber(), orderIds.size(), unlocated.size(), Math.round(distanceKm * 10) / 10.0,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+        DeliverySheetResponse response = deliverySheetMapper.toResponse(sheet, orderIds);
+        response.setRouteDistanceKm(Math.round(distanceKm * 100) / 100.0);
+        return response;
+    }
+}
@@ -0,0 +1,127 @@
+package com.fleetops.deliverysheet.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based access to {@code delivery_sheet_orders}. Sheets can hold thousands of orders, so
+ * totals come from one aggregate query and link changes are written as JDBC batches instead of
+ * loading orders and cascading one link entity per order. Callers run inside their own transaction.
+ */
+@Component
+public class DeliverySheetOrderWriter {
+
+    private static final String ORDER_TOTALS_SQL =
+            "SELECT count(*), COALESCE(sum(cod_amount), 0) FROM orders WHERE id = ANY (?)";
+
+    private static final String LINKED_ORDERS_SQL =
+            "SELECT order_id FROM delivery_sheet_orders WHERE delivery_sheet_id = ? " +
+            "ORDER BY stop_sequence NULLS LAST, id";
+
+    private static final String LINKED_ORDERS_BY_SHEETS_SQL =
+            "SELECT delivery_sheet_id, order_id FROM delivery_sheet_orders " +
+            "WHERE delivery_sheet_id = ANY (?) ORDER BY delivery_sheet_id, stop_sequence NULLS LAST, id";
+
+    private static final String INSERT_LINK_SQL =
+            "INSERT INTO delivery_sheet_orders (delivery_sheet_id, order_id) VALUES (?, ?)";
+
+    private static final String UPDATE_SEQUENCE_SQL =
+            "UPDATE delivery_sheet_orders SET stop_sequence = ? WHERE delivery_sheet_id = ? AND order_id = ?";
+
+    private static final String DELETE_LINKS_SQL =
+            "DELETE FROM delivery_sheet_orders WHERE delivery_sheet_id = ? AND order_id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DeliverySheetOrderWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Counts the given orders that exist and sums their COD amounts, in one query.
+     */
+    public OrderTotals summarizeOrders(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) return new OrderTotals(0, BigDecimal.ZERO);
+        return jdbcTemplate.queryForObject(ORDER_TOTALS_SQL,
+                (rs, i) -> new OrderTotals(rs.getInt(1), rs.getBigDecimal(2)),
+                (Object) orderIds.toArray(new Long[0]));
+    }
+
+    /**
+     * Order ids linked to a sheet, in route order; unsequenced orders come last.
+     */
+    public List<Long> findLinkedOrderIds(Long deliverySheetId) {
+        return jdbcTemplate.queryForList(LINKED_ORDERS_SQL, Long.class, deliverySheetId);
+    }
+
+    /**
+     * Order ids linked to each of the given sheets, in one query. Sheets without links map to an
+     * empty list.
+     */
+    public Map<Long, List<Long>> findLinkedOrderIdsBySheet(Collection<Long> deliverySheetIds) {
+        Map<Long, List<Long>> bySheet = new HashMap<>();
+        if (deliverySheetIds.isEmpty()) return bySheet;
+        for (Long sheetId : deliverySheetIds) {
+            bySheet.put(sheetId, new ArrayList<>());
+        }
+        jdbcTemplate.query(LINKED_ORDERS_BY_SHEETS_SQL,
+                rs -> {
+                    bySheet.get(rs.getLong(1)).add(rs.getLong(2));
+                },
+                (Object) deliverySheetIds.toArray(new Long[0]));
+        return bySheet;
+    }
+
+    public void insertLinks(Long deliverySheetId, Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) return;
+        List<Object[]> args = new ArrayList<>(orderIds.size());
+        for (Long orderId : orderIds) {
+            args.add(new Object[]{deliverySheetId, orderId});
+        }
+        jdbcTemplate.batchUpdate(INSERT_LINK_SQL, args);
+    }
+
+    /**
+     * Links orders to several sheets as one batch, e.g. when committing a plan.
+     */
+    public void insertLinks(Map<Long, ? extends Collection<Long>> orderIdsBySheet) {
+        List<Object[]> args = new ArrayList<>();
+        orderIdsBySheet.forEach((sheetId, orderIds) -> {
+            for (Long orderId : orderIds) {
+                args.add(new Object[]{sheetId, orderId});
+            }
+        });
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_LINK_SQL, args);
+        }
+    }
+
+    /**
+     * Stores the route order of a sheet's stops as one batch; position 1 is the first stop.
+     */
+    public void updateStopSequences(Long deliverySheetId, List<Long> orderIdsInRouteOrder) {
+        List<Object[]> args = new ArrayList<>(orderIdsInRouteOrder.size());
+        for (int i = 0; i < orderIdsInRouteOrder.size(); i++) {
+            args.add(new Object[]{i + 1, deliverySheetId, orderIdsInRouteOrder.get(i)});
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SEQUENCE_SQL, args);
+    }
+
+    public int deleteLinks(Long deliverySheetId, Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) return 0;
+        return jdbcTemplate.update(DELETE_LINKS_SQL, deliverySheetId, orderIds.toArray(new Long[0]));
+    }
+
+    /**
+     * Number of existing orders and their summed COD amount.
+     */
+    public record OrderTotals(int count, BigDecimal codAmount) {
+    }
+}
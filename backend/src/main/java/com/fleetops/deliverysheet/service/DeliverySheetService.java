@@ -1,14 +1,11 @@
 package com.fleetops.deliverysheet.service;
 
 import com.fleetops.deliverysheet.DeliverySheet;
-import com.fleetops.deliverysheet.DeliverySheetOrder;
 import com.fleetops.deliverysheet.DeliverySheetRepository;
 import com.fleetops.deliverysheet.DeliverySheetStatus;
 import com.fleetops.deliverysheet.dto.CreateDeliverySheetRequest;
 import com.fleetops.deliverysheet.dto.DeliverySheetResponse;
 import com.fleetops.deliverysheet.mapper.DeliverySheetMapper;
-import com.fleetops.order.Order;
-import com.fleetops.order.OrderRepository;
 import com.fleetops.user.entity.User;
 import com.fleetops.user.repository.UserRepository;
 import org.slf4j.Logger;
@@ -18,12 +15,15 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -37,19 +37,19 @@ public class DeliverySheetService {
 
     private final DeliverySheetRepository deliverySheetRepository;
     private final UserRepository userRepository;
-    private final OrderRepository orderRepository;
     private final DeliverySheetMapper deliverySheetMapper;
+    private final DeliverySheetOrderWriter deliverySheetOrderWriter;
 
     public DeliverySheetService(
         DeliverySheetRepository deliverySheetRepository,
         UserRepository userRepository,
-        OrderRepository orderRepository,
-        DeliverySheetMapper deliverySheetMapper
+        DeliverySheetMapper deliverySheetMapper,
+        DeliverySheetOrderWriter deliverySheetOrderWriter
     ) {
         this.deliverySheetRepository = deliverySheetRepository;
         this.userRepository = userRepository;
-        this.orderRepository = orderRepository;
         this.deliverySheetMapper = deliverySheetMapper;
+        this.deliverySheetOrderWriter = deliverySheetOrderWriter;
     }
 
     /**
@@ -69,21 +69,8 @@ public class DeliverySheetService {
             throw new IllegalArgumentException("Assigned user is not an agent");
         }
 
-        List<Long> orderIds = request.getOrderIds() != null
-            ? request.getOrderIds()
-            : List.of();
-
-        List<Order> orders = orderIds.isEmpty()
-            ? List.of()
-            : orderRepository.findAllById(orderIds);
-
-        if (!orderIds.isEmpty() && orders.size() != orderIds.size()) {
-            throw new IllegalArgumentException("One or more orders were not found for this delivery sheet");
-        }
-
-        BigDecimal totalCodAmount = orders.stream()
-            .map(order -> order.getCodAmount() != null ? order.getCodAmount() : BigDecimal.ZERO)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<Long> orderIds = distinctOrderIds(request.getOrderIds());
+        DeliverySheetOrderWriter.OrderTotals totals = summarizeOrders(orderIds);
 
         DeliverySheet deliverySheet = DeliverySheet.builder()
             .sheetNumber(generateSheetNumber())
@@ -91,24 +78,19 @@ public class DeliverySheetService {
             .status(DeliverySheetStatus.OPEN)
             .assignedAgentId(agent.getId())
             .assignedAgentName(agent.getFullName())
-            .totalOrders(orders.size())
-            .totalCodAmount(totalCodAmount)
+            .totalOrders(totals.count())
+            .totalCodAmount(totals.codAmount())
             .scheduledDate(request.getScheduledDate())
             .notes(request.getNotes())
             .metadata(buildMetadata(createdBy, orderIds))
             .build();
 
-        if (!orders.isEmpty()) {
-            orders.forEach(order -> deliverySheet.addOrderLink(
-                DeliverySheetOrder.builder()
-                    .orderId(order.getId())
-                    .build()
-            ));
-        }
-
+        // IDENTITY insert happens on save, so the sheet id is available for the link batch
         DeliverySheet saved = deliverySheetRepository.save(deliverySheet);
-        logger.info("Delivery sheet {} created for agent {}", saved.getSheetNumber(), agent.getUsername());
-        return deliverySheetMapper.toResponse(saved);
+        deliverySheetOrderWriter.insertLinks(saved.getId(), orderIds);
+        logger.info("Delivery sheet {} created for agent {} with {} orders",
+            saved.getSheetNumber(), agent.getUsername(), orderIds.size());
+        return deliverySheetMapper.toResponse(saved, orderIds);
     }
 
     /**
@@ -134,21 +116,8 @@ public class DeliverySheetService {
         }
 
         // Process order IDs
-        List<Long> orderIds = request.getOrderIds() != null
-            ? request.getOrderIds()
-            : List.of();
-
-        List<Order> orders = orderIds.isEmpty()
-            ? List.of()
-            : orderRepository.findAllById(orderIds);
-
-        if (!orderIds.isEmpty() && orders.size() != orderIds.size()) {
-            throw new IllegalArgumentException("One or more orders were not found for this delivery sheet");
-        }
-
-        BigDecimal totalCodAmount = orders.stream()
-            .map(order -> order.getCodAmount() != null ? order.getCodAmount() : BigDecimal.ZERO)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<Long> orderIds = distinctOrderIds(request.getOrderIds());
+        DeliverySheetOrderWriter.OrderTotals totals = summarizeOrders(orderIds);
 
         // Update delivery sheet fields
         deliverySheet.setTitle(request.getTitle());
@@ -156,18 +125,15 @@ public class DeliverySheetService {
         deliverySheet.setAssignedAgentName(agent.getFullName());
         deliverySheet.setScheduledDate(request.getScheduledDate());
         deliverySheet.setNotes(request.getNotes());
-        deliverySheet.setTotalOrders(orders.size());
-        deliverySheet.setTotalCodAmount(totalCodAmount);
-
-        // Clear existing order links and add new ones
-        deliverySheet.clearOrderLinks();
-        if (!orders.isEmpty()) {
-            orders.forEach(order -> deliverySheet.addOrderLink(
-                DeliverySheetOrder.builder()
-                    .orderId(order.getId())
-                    .build()
-            ));
-        }
+        deliverySheet.setTotalOrders(totals.count());
+        deliverySheet.setTotalCodAmount(totals.codAmount());
+
+        // Only write the link changes: unchanged orders keep their rows
+        Set<Long> current = new HashSet<>(deliverySheetOrderWriter.findLinkedOrderIds(id));
+        List<Long> added = orderIds.stream().filter(orderId -> !current.contains(orderId)).toList();
+        current.removeAll(orderIds);
+        deliverySheetOrderWriter.deleteLinks(id, current);
+        deliverySheetOrderWriter.insertLinks(id, added);
 
         // Update metadata
         Map<String, Object> metadata = deliverySheet.getMetadata() != null 
@@ -177,14 +143,16 @@ public class DeliverySheetService {
             metadata.put("updatedBy", updatedBy.getUsername());
         }
         metadata.put("updatedAt", LocalDate.now().toString());
-        if (orderIds != null && !orderIds.isEmpty()) {
+        if (!orderIds.isEmpty()) {
             metadata.put("orderIds", orderIds);
         }
         deliverySheet.setMetadata(metadata);
 
         DeliverySheet saved = deliverySheetRepository.save(deliverySheet);
-        logger.info("Delivery sheet {} updated by {}", saved.getSheetNumber(), updatedBy != null ? updatedBy.getUsername() : "system");
-        return deliverySheetMapper.toResponse(saved);
+        logger.info("Delivery sheet {} updated by {} (+{} / -{} orders)", saved.getSheetNumber(),
+            updatedBy != null ? updatedBy.getUsername() : "system", added.size(), current.size());
+        // Re-read so a sequenced sheet keeps its route order, with added orders last
+        return deliverySheetMapper.toResponse(saved, deliverySheetOrderWriter.findLinkedOrderIds(id));
     }
 
     /**
@@ -194,10 +162,11 @@ public class DeliverySheetService {
     public Page<DeliverySheetResponse> getDeliverySheets(
         Long assignedAgentId,
         DeliverySheetStatus status,
-        Pageable pageable
+        Pageable pageable,
+        boolean includeOrderIds
     ) {
         Page<DeliverySheet> result = deliverySheetRepository.findAllFiltered(status, assignedAgentId, pageable);
-        return result.map(deliverySheetMapper::toResponse);
+        return toResponses(result, includeOrderIds);
     }
 
     /**
@@ -207,7 +176,8 @@ public class DeliverySheetService {
     public Page<DeliverySheetResponse> getDeliverySheetsForUser(
         User currentUser,
         DeliverySheetStatus status,
-        Pageable pageable
+        Pageable pageable,
+        boolean includeOrderIds
     ) {
         Objects.requireNonNull(currentUser, "Authenticated user is required");
 
@@ -217,11 +187,43 @@ public class DeliverySheetService {
                 status,
                 pageable
             );
-            return result.map(deliverySheetMapper::toResponse);
+            return toResponses(result, includeOrderIds);
         }
 
         // ADMIN and STAFF default to full list
-        return getDeliverySheets(null, status, pageable);
+        return getDeliverySheets(null, status, pageable, includeOrderIds);
+    }
+
+    /**
+     * Map a page of sheets, loading the order links of the whole page in one query rather than
+     * initializing each sheet's lazy collection. Without order ids the links are not read at all.
+     */
+    private Page<DeliverySheetResponse> toResponses(Page<DeliverySheet> page, boolean includeOrderIds) {
+        if (!includeOrderIds) {
+            return page.map(sheet -> deliverySheetMapper.toResponse(sheet, null));
+        }
+        List<Long> sheetIds = page.getContent().stream().map(DeliverySheet::getId).toList();
+        Map<Long, List<Long>> orderIdsBySheet = deliverySheetOrderWriter.findLinkedOrderIdsBySheet(sheetIds);
+        return page.map(sheet -> deliverySheetMapper.toResponse(sheet, orderIdsBySheet.get(sheet.getId())));
+    }
+
+    // Duplicate ids in a request refer to the same order, so they are linked once
+    private List<Long> distinctOrderIds(List<Long> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return List.of();
+        }
+        if (requested.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Order IDs must not be null");
+        }
+        return new ArrayList<>(new LinkedHashSet<>(requested));
+    }
+
+    private DeliverySheetOrderWriter.OrderTotals summarizeOrders(List<Long> orderIds) {
+        DeliverySheetOrderWriter.OrderTotals totals = deliverySheetOrderWriter.summarizeOrders(orderIds);
+        if (totals.count() != orderIds.size()) {
+            throw new IllegalArgumentException("One or more orders were not found for this delivery sheet");
+        }
+        return totals;
     }
 
     private Map<String, Object> buildMetadata(User createdBy, List<Long> orderIds) {
@@ -0,0 +1,247 @@
+package com.fleetops.deliverysheet.service;
+
+import com.fleetops.cod.service.CodLedgerService;
+import com.fleetops.deliverysheet.DeliverySheetRepository;
+import com.fleetops.deliverysheet.dto.DeliveryOutcome;
+import com.fleetops.deliverysheet.dto.DeliverySheetResponse;
+import com.fleetops.deliverysheet.dto.DeliverySheetSettlementResponse;
+import com.fleetops.deliverysheet.dto.SettleDeliverySheetRequest;
+import com.fleetops.deliverysheet.mapper.DeliverySheetMapper;
+import com.fleetops.order.Order;
+import com.fleetops.order.service.OrderBatchWriter;
+import com.fleetops.order.service.OrderBatchWriter.StatusChange;
+import com.fleetops.order.service.OrderService;
+import com.fleetops.user.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * DeliverySheetSettlementService - Closes a delivery sheet with the final outcome of every order.
+ *
+ * <p>The whole settlement is one transaction of a fixed number of statements regardless of sheet
+ * size: the sheet and its orders are locked and read once, all transitions are validated in
+ * memory (every problem is reported together), order statuses change in one UPDATE, history rows
+ * go in as one batch, and the COD totals are aggregated and stored on the sheet as it is closed.
+ * The collected COD is posted to the agent's COD ledger in the same transaction. Listeners get
+ * a single SSE event after commit instead of one per order.</p>
+ */
+@Service
+public class DeliverySheetSettlementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeliverySheetSettlementService.class);
+
+    private static final Set<Order.OrderStatus> OUTCOMES = Set.of(Order.OrderStatus.DELIVERED, Order.OrderStatus.RETURNED);
+    private static final int MAX_REPORTED = 20;
+
+    private static final String LOCK_SHEET_SQL =
+            "SELECT sheet_number, status, assigned_agent_id FROM delivery_sheets WHERE id = ? FOR UPDATE";
+
+    // Locked in id order so concurrent settlements of overlapping sheets cannot deadlock
+    private static final String LOCK_ORDERS_SQL =
+            "SELECT o.id, o.order_id, o.status FROM delivery_sheet_orders dso JOIN orders o ON o.id = dso.order_id " +
+            "WHERE dso.delivery_sheet_id = ? ORDER BY o.id FOR UPDATE OF o";
+
+    private static final String TOTALS_SQL =
+            "SELECT count(*) FILTER (WHERE o.status = 'DELIVERED'), " +
+            "       count(*) FILTER (WHERE o.status = 'RETURNED'), " +
+            "       count(*) FILTER (WHERE o.status = 'CANCELLED'), " +
+            "       COALESCE(sum(o.cod_amount) FILTER (WHERE o.status = 'DELIVERED'), 0), " +
+            "       COALESCE(sum(o.cod_amount) FILTER (WHERE o.status = 'RETURNED'), 0) " +
+            "FROM delivery_sheet_orders dso JOIN orders o ON o.id = dso.order_id WHERE dso.delivery_sheet_id = ?";
+
+    private static final String CLOSE_SHEET_SQL =
+            "UPDATE delivery_sheets SET status = 'CLOSED', delivery_date = COALESCE(delivery_date, ?), " +
+            "collected_cod_amount = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderBatchWriter orderBatchWriter;
+    private final OrderService orderService;
+    private final CodLedgerService codLedgerService;
+    private final DeliverySheetRepository deliverySheetRepository;
+    private final DeliverySheetMapper deliverySheetMapper;
+
+    public DeliverySheetSettlementService(
+        JdbcTemplate jdbcTemplate,
+        OrderBatchWriter orderBatchWriter,
+        OrderService orderService,
+        CodLedgerService codLedgerService,
+        DeliverySheetRepository deliverySheetRepository,
+        DeliverySheetMapper deliverySheetMapper
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderBatchWriter = orderBatchWriter;
+        this.orderService = orderService;
+        this.codLedgerService = codLedgerService;
+        this.deliverySheetRepository = deliverySheetRepository;
+        this.deliverySheetMapper = deliverySheetMapper;
+    }
+
+    /**
+     * Apply the outcomes and close the sheet. Every order on the sheet must either get an outcome
+     * (DELIVERED or RETURNED) or already be in a terminal status.
+     *
+     * @throws IllegalArgumentException if the sheet is not visible to the user or the outcomes do
+     *                                  not match the sheet's orders
+     * @throws IllegalStateException    if the sheet is already closed or has no assigned agent, or an
+     *                                  outcome is not a valid transition from the order's current status
+     */
+    @Transactional
+    public DeliverySheetSettlementResponse settle(Long deliverySheetId, SettleDeliverySheetRequest request, User currentUser) {
+        Map<Long, DeliveryOutcome> outcomes = indexOutcomes(request);
+
+        List<Map<String, Object>> sheetRows = jdbcTemplate.queryForList(LOCK_SHEET_SQL, deliverySheetId);
+        Map<String, Object> sheet = sheetRows.isEmpty() ? null : sheetRows.get(0);
+        Long assignedAgentId = sheet != null ? toLong(sheet.get("assigned_agent_id")) : null;
+        // Agents only see their own sheets; anything else, including unassigned sheets, is reported as not found
+        if (sheet == null || (!isStaff(currentUser) && !Objects.equals(currentUser.getId(), assignedAgentId))) {
+            throw new IllegalArgumentException("Delivery sheet not found with ID: " + deliverySheetId);
+        }
+        String sheetNumber = (String) sheet.get("sheet_number");
+        String sheetStatus = (String) sheet.get("status");
+        if (!"OPEN".equals(sheetStatus) && !"IN_PROGRESS".equals(sheetStatus)) {
+            throw new IllegalStateException("Delivery sheet " + sheetNumber + " is " + sheetStatus);
+        }
+        // Collected COD is posted to the assigned agent's ledger, so there has to be one
+        if (assignedAgentId == null) {
+            throw new IllegalStateException("Delivery sheet " + sheetNumber + " has no assigned agent; assign one before settling");
+        }
+
+        List<StatusChange> changes = new ArrayList<>(outcomes.size());
+        List<String> missing = new ArrayList<>();
+        List<String> invalid = new ArrayList<>();
+        Map<Long, String> businessIds = new HashMap<>();
+        jdbcTemplate.query(LOCK_ORDERS_SQL, rs -> {
+            long id = rs.getLong("id");
+            String orderId = rs.getString("order_id");
+            Order.OrderStatus current = Order.OrderStatus.valueOf(rs.getString("status"));
+            businessIds.put(id, orderId);
+            DeliveryOutcome outcome = outcomes.get(id);
+            if (outcome == null) {
+                if (!current.isTerminal()) missing.add(orderId);
+                return;
+            }
+            Order.OrderStatus target = Order.OrderStatus.valueOf(outcome.getStatus().trim().toUpperCase());
+            if (!current.canTransitionTo(target)) {
+                invalid.add(orderId + " (" + current + " -> " + target + ")");
+                return;
+            }
+            changes.add(new StatusChange(id, current, target, outcome.getReason(), outcome.getNotes()));
+        }, deliverySheetId);
+
+        List<Long> notOnSheet = outcomes.keySet().stream().filter(id -> !businessIds.containsKey(id)).toList();
+        if (!notOnSheet.isEmpty()) {
+            throw new IllegalArgumentException("Orders not on delivery sheet " + sheetNumber + ": " + summarize(notOnSheet));
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException(missing.size() + " orders on " + sheetNumber
+                + " have no outcome: " + summarize(missing));
+        }
+        if (!invalid.isEmpty()) {
+            throw new IllegalStateException(invalid.size() + " invalid status transitions: " + summarize(invalid));
+        }
+
+        Instant now = Instant.now();
+        String changedBy = currentUser.getUsername();
+        int updated = orderBatchWriter.applyStatusChanges(changes, changedBy, now);
+        if (updated != changes.size()) {
+            // Rows are locked, so this only happens if the lock query and the update disagree
+            throw new IllegalStateException("Orders on " + sheetNumber + " changed during settlement; retry");
+        }
+        orderBatchWriter.insertStatusHistory(changes, changedBy, now);
+
+        Totals totals = jdbcTemplate.queryForObject(TOTALS_SQL, (rs, i) -> new Totals(
+            rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getBigDecimal(4), rs.getBigDecimal(5)), deliverySheetId);
+        LocalDate today = LocalDate.ofInstant(now, ZoneId.systemDefault());
+        jdbcTemplate.update(CLOSE_SHEET_SQL, Date.valueOf(today), totals.collectedCod(), Timestamp.from(now), deliverySheetId);
+        if (totals.collectedCod().signum() > 0) {
+            codLedgerService.recordCollection(assignedAgentId, totals.collectedCod(), today, deliverySheetId, sheetNumber, changedBy);
+        }
+
+        publishAfterCommit(deliverySheetId, sheetNumber, changes);
+        logger.info("Settled delivery sheet {} by {}: {} delivered, {} returned, COD collected {}",
+            sheetNumber, changedBy, totals.delivered(), totals.returned(), totals.collectedCod());
+
+        DeliverySheetResponse response = deliverySheetRepository.findById(deliverySheetId)
+            .map(entity -> deliverySheetMapper.toResponse(entity, null))
+            .orElseThrow(() -> new IllegalStateException("Delivery sheet " + sheetNumber + " disappeared"));
+        return new DeliverySheetSettlementResponse(response, totals.delivered(), totals.returned(),
+            totals.cancelled(), totals.collectedCod(), totals.returnedCod());
+    }
+
+    private Map<Long, DeliveryOutcome> indexOutcomes(SettleDeliverySheetRequest request) {
+        if (request == null || request.getOutcomes() == null || request.getOutcomes().isEmpty()) {
+            throw new IllegalArgumentException("outcomes are required");
+        }
+        Map<Long, DeliveryOutcome> outcomes = new LinkedHashMap<>();
+        for (DeliveryOutcome outcome : request.getOutcomes()) {
+            if (outcome == null || outcome.getOrderId() == null) {
+                throw new IllegalArgumentException("Every outcome needs an orderId");
+            }
+            Order.OrderStatus status;
+            try {
+                status = Order.OrderStatus.valueOf(String.valueOf(outcome.getStatus()).trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                status = null;
+            }
+            if (status == null || !OUTCOMES.contains(status)) {
+                throw new IllegalArgumentException("Outcome for order " + outcome.getOrderId()
+                    + " must be DELIVERED or RETURNED, got " + outcome.getStatus());
+            }
+            if (outcomes.put(outcome.getOrderId(), outcome) != null) {
+                throw new IllegalArgumentException("Duplicate outcome for order " + outcome.getOrderId());
+            }
+        }
+        return outcomes;
+    }
+
+    private void publishAfterCommit(Long deliverySheetId, String sheetNumber, List<StatusChange> changes) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("deliverySheetId", deliverySheetId);
+        summary.put("sheetNumber", sheetNumber);
+        summary.put("delivered", changes.stream()
+            .filter(c -> c.toStatus() == Order.OrderStatus.DELIVERED).map(StatusChange::orderId).toList());
+        summary.put("returned", changes.stream()
+            .filter(c -> c.toStatus() == Order.OrderStatus.RETURNED).map(StatusChange::orderId).toList());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                orderService.broadcastBulkStatusUpdate(summary);
+            }
+        });
+    }
+
+    private static boolean isStaff(User user) {
+        return user.hasRole("ADMIN") || user.hasRole("STAFF");
+    }
+
+    private static Long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : null;
+    }
+
+    private static String summarize(List<?> values) {
+        if (values.size() <= MAX_REPORTED) return values.toString();
+        return values.subList(0, MAX_REPORTED) + " and " + (values.size() - MAX_REPORTED) + " more";
+    }
+
+    private record Totals(int delivered, int returned, int cancelled, BigDecimal collectedCod, BigDecimal returnedCod) {
+    }
+}
@@ -0,0 +1,134 @@
+package com.fleetops.deliverysheet.service;
+
+import com.fleetops.bulkupload.util.HashUtil;
+import com.fleetops.deliverysheet.DeliverySheetStatus;
+import com.fleetops.deliverysheet.dto.RunSheet;
+import com.fleetops.deliverysheet.dto.RunSheetBundle;
+import com.fleetops.deliverysheet.dto.RunSheetStop;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RunSheetBundleService - Builds an agent's open sheets and their orders for the mobile app.
+ *
+ * The bundle is two queries (sheets, then every stop of those sheets) instead of one request per
+ * order. Its ETag comes from a single aggregate over the same rows, so a client whose copy is
+ * current is answered with 304 without reading or serializing the bundle.
+ */
+@Service
+public class RunSheetBundleService {
+
+    private static final String OPEN_STATUSES = "('OPEN', 'IN_PROGRESS')";
+
+    // One row per open sheet; any change to the sheet, its links, sequence or orders changes a column.
+    // updated_at is the writing transaction's start time, so a transaction that started earlier but
+    // commits later can leave max(updated_at) unchanged. xmin is the writing transaction's id and is
+    // replaced on every row update, so the xmin sums change whenever any joined row is rewritten.
+    private static final String VERSION_SQL =
+            "SELECT ds.id, ds.updated_at, ds.xmin::text::bigint AS sheet_xmin, count(dso.id) AS links, " +
+            "       COALESCE(sum(dso.id), 0) AS link_sum, " +
+            "       COALESCE(sum(COALESCE(dso.stop_sequence, 0)::bigint * dso.order_id), 0) AS sequence_sum, " +
+            "       max(o.updated_at) AS orders_updated_at, " +
+            "       COALESCE(sum(o.xmin::text::bigint), 0) AS orders_xmin_sum " +
+            "FROM delivery_sheets ds " +
+            "LEFT JOIN delivery_sheet_orders dso ON dso.delivery_sheet_id = ds.id " +
+            "LEFT JOIN orders o ON o.id = dso.order_id " +
+            "WHERE ds.assigned_agent_id = ? AND ds.status IN " + OPEN_STATUSES + " " +
+            "GROUP BY ds.id, ds.updated_at, ds.xmin::text::bigint ORDER BY ds.id";
+
+    private static final String SHEETS_SQL =
+            "SELECT id, sheet_number, title, status, scheduled_date, total_orders, total_cod_amount, notes " +
+            "FROM delivery_sheets WHERE assigned_agent_id = ? AND status IN " + OPEN_STATUSES + " " +
+            "ORDER BY scheduled_date NULLS LAST, id";
+
+    private static final String STOPS_SQL =
+            "SELECT dso.delivery_sheet_id, dso.stop_sequence, o.id, o.order_id, o.status, o.receiver_name, " +
+            "       o.receiver_address, o.receiver_contact, o.receiver_pincode, o.receiver_city, o.item_count, " +
+            "       o.cod_amount, o.payment_status, o.delivery_instructions, o.special_instructions " +
+            "FROM delivery_sheet_orders dso JOIN orders o ON o.id = dso.order_id " +
+            "WHERE dso.delivery_sheet_id = ANY (?) " +
+            "ORDER BY dso.delivery_sheet_id, dso.stop_sequence NULLS LAST, dso.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RunSheetBundleService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Strong ETag for the agent's current bundle, quoted for the ETag header.
+     */
+    @Transactional(readOnly = true)
+    public String currentETag(Long agentId) {
+        StringBuilder version = new StringBuilder("agent:").append(agentId);
+        jdbcTemplate.query(VERSION_SQL, rs -> {
+            version.append('|').append(rs.getLong("id"))
+                .append(',').append(rs.getTimestamp("updated_at"))
+                .append(',').append(rs.getLong("sheet_xmin"))
+                .append(',').append(rs.getLong("links"))
+                .append(',').append(rs.getLong("link_sum"))
+                .append(',').append(rs.getLong("sequence_sum"))
+                .append(',').append(rs.getTimestamp("orders_updated_at"))
+                .append(',').append(rs.getLong("orders_xmin_sum"));
+        }, agentId);
+        return '"' + HashUtil.sha256Hex(version.toString()).substring(0, 32) + '"';
+    }
+
+    @Transactional(readOnly = true)
+    public RunSheetBundle getBundle(Long agentId) {
+        Map<Long, RunSheet> sheets = new LinkedHashMap<>();
+        jdbcTemplate.query(SHEETS_SQL, rs -> {
+            Date scheduled = rs.getDate("scheduled_date");
+            sheets.put(rs.getLong("id"), new RunSheet(
+                rs.getLong("id"),
+                rs.getString("sheet_number"),
+                rs.getString("title"),
+                DeliverySheetStatus.valueOf(rs.getString("status")),
+                scheduled != null ? scheduled.toLocalDate() : null,
+                rs.getInt("total_orders"),
+                rs.getBigDecimal("total_cod_amount"),
+                rs.getString("notes"),
+                new ArrayList<>()));
+        }, agentId);
+
+        if (!sheets.isEmpty()) {
+            jdbcTemplate.query(STOPS_SQL, rs -> {
+                sheets.get(rs.getLong("delivery_sheet_id")).stops().add(toStop(rs));
+            }, (Object) sheets.keySet().toArray(new Long[0]));
+        }
+
+        return new RunSheetBundle(agentId, Instant.now(), List.copyOf(sheets.values()));
+    }
+
+    private static RunSheetStop toStop(ResultSet rs) throws SQLException {
+        int sequence = rs.getInt("stop_sequence");
+        Integer stopSequence = rs.wasNull() ? null : sequence;
+        int items = rs.getInt("item_count");
+        Integer itemCount = rs.wasNull() ? null : items;
+        return new RunSheetStop(
+            rs.getLong("id"),
+            rs.getString("order_id"),
+            stopSequence,
+            rs.getString("status"),
+            rs.getString("receiver_name"),
+            rs.getString("receiver_address"),
+            rs.getString("receiver_contact"),
+            rs.getString("receiver_pincode"),
+            rs.getString("receiver_city"),
+            itemCount,
+            rs.getBigDecimal("cod_amount"),
+            rs.getString("payment_status"),
+            rs.getString("delivery_instructions"),
+            rs.getString("special_instructions"));
+    }
+}
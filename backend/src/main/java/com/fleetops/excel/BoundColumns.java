@@ -0,0 +1,54 @@
+package com.fleetops.excel;
+
+import org.apache.poi.ss.usermodel.Row;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A {@link ColumnMapping} resolved against one sheet's header: parallel arrays of cell
+ * positions and binders, walked once per data row.
+ */
+public final class BoundColumns<T> {
+
+    private final Supplier<T> factory;
+    private final int[] cellIndexes;
+    private final ColumnMapping.Column<T, ?>[] binders;
+    private final List<String> missingRequired;
+
+    BoundColumns(Supplier<T> factory, int[] cellIndexes, ColumnMapping.Column<T, ?>[] binders,
+                 List<String> missingRequired) {
+        this.factory = factory;
+        this.cellIndexes = cellIndexes;
+        this.binders = binders;
+        this.missingRequired = Collections.unmodifiableList(missingRequired);
+    }
+
+    /**
+     * Required headers that were not found in the sheet (empty when the sheet is usable).
+     */
+    public List<String> missingRequired() {
+        return missingRequired;
+    }
+
+    public T read(Row row) {
+        T target = factory.get();
+        for (int i = 0; i < binders.length; i++) {
+            binders[i].bind(target, row.getCell(cellIndexes[i]));
+        }
+        return target;
+    }
+
+    /**
+     * Reads a row delivered as cell texts indexed by column position (streaming reader).
+     */
+    public T read(String[] cellTexts) {
+        T target = factory.get();
+        for (int i = 0; i < binders.length; i++) {
+            int index = cellIndexes[i];
+            binders[i].bindText(target, index < cellTexts.length ? cellTexts[index] : null);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,20 @@
+package com.fleetops.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+
+/**
+ * Converts a single cell to a typed value. Implementations return null for blank or
+ * unconvertible cells instead of throwing.
+ */
+public interface CellConverter<V> {
+
+    /**
+     * Converts a cell of a workbook loaded with the user model.
+     */
+    V convert(Cell cell);
+
+    /**
+     * Converts the formatted text of a cell, as delivered by the streaming (SAX) reader.
+     */
+    V convertText(String text);
+}
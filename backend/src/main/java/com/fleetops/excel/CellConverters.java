@@ -0,0 +1,154 @@
+package com.fleetops.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.function.Function;
+
+/**
+ * Typed cell converters. Every converter dispatches on the cell type first, so a numeric
+ * cell read as text (e.g. a pincode typed as a number) never goes through an exception.
+ */
+public final class CellConverters {
+
+    private CellConverters() {}
+
+    /**
+     * Text value as entered; integral numbers are rendered without a trailing ".0".
+     */
+    public static final CellConverter<String> STRING = of(
+            cell -> asString(cell, false),
+            text -> text);
+
+    /**
+     * Text value with surrounding whitespace removed.
+     */
+    public static final CellConverter<String> TRIMMED_STRING = of(
+            cell -> asString(cell, true),
+            String::trim);
+
+    /**
+     * Numeric cell rounded to an int; numeric text is accepted as well.
+     */
+    public static final CellConverter<Integer> INTEGER = of(
+            cell -> toInteger(asDouble(cell)),
+            text -> toInteger(parseNumber(text)));
+
+    /**
+     * Numeric cell rounded to a long; numeric text is accepted as well.
+     */
+    public static final CellConverter<Long> LONG = of(
+            cell -> toLong(asDouble(cell)),
+            text -> toLong(parseNumber(text)));
+
+    /**
+     * Decimal with a fixed scale (HALF_UP), e.g. weights and amounts.
+     */
+    public static CellConverter<BigDecimal> decimal(int scale) {
+        return of(
+                cell -> toDecimal(asDouble(cell), scale),
+                text -> toDecimal(parseNumber(text), scale));
+    }
+
+    /**
+     * Combines a user-model and a text conversion into one converter.
+     */
+    public static <V> CellConverter<V> of(Function<Cell, V> fromCell, Function<String, V> fromText) {
+        return new CellConverter<>() {
+            @Override
+            public V convert(Cell cell) {
+                return fromCell.apply(cell);
+            }
+
+            @Override
+            public V convertText(String text) {
+                return text == null || text.isEmpty() ? null : fromText.apply(text);
+            }
+        };
+    }
+
+    private static Integer toInteger(Double value) {
+        return value == null ? null : (int) Math.round(value);
+    }
+
+    private static Long toLong(Double value) {
+        return value == null ? null : Math.round(value);
+    }
+
+    private static BigDecimal toDecimal(Double value, int scale) {
+        return value == null ? null : BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
+    private static String asString(Cell cell, boolean trim) {
+        if (cell == null) return null;
+        CellType type = cell.getCellType();
+        if (type == CellType.FORMULA) {
+            type = cell.getCachedFormulaResultType();
+        }
+        switch (type) {
+            case STRING: {
+                String value = cell.getStringCellValue();
+                return trim ? value.trim() : value;
+            }
+            case NUMERIC:
+                if (DateUtil.isCellDateFormatted(cell)) {
+                    return cell.getLocalDateTimeCellValue().toString();
+                }
+                return formatNumber(cell.getNumericCellValue());
+            case BOOLEAN:
+                return String.valueOf(cell.getBooleanCellValue());
+            default:
+                return null;
+        }
+    }
+
+    private static Double asDouble(Cell cell) {
+        if (cell == null) return null;
+        CellType type = cell.getCellType();
+        if (type == CellType.FORMULA) {
+            type = cell.getCachedFormulaResultType();
+        }
+        switch (type) {
+            case NUMERIC:
+                return cell.getNumericCellValue();
+            case STRING:
+                return parseNumber(cell.getStringCellValue());
+            default:
+                return null;
+        }
+    }
+
+    // Integral values such as pincodes and phone numbers must not come back as "560001.0"
+    private static String formatNumber(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    /**
+     * Parses plain decimal text ("12", "-3.50"); anything else yields null.
+     */
+    static Double parseNumber(String text) {
+        String s = text.trim();
+        int length = s.length();
+        if (length == 0) return null;
+        int i = (s.charAt(0) == '-' || s.charAt(0) == '+') ? 1 : 0;
+        boolean digits = false;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return null;
+            }
+        }
+        return digits ? Double.valueOf(s) : null;
+    }
+}
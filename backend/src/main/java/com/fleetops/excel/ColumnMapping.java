@@ -0,0 +1,140 @@
+package com.fleetops.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Declarative mapping from sheet header names to DTO properties.
+ *
+ * A mapping is declared once per target type and is immutable. {@link #bind(Row)} resolves it
+ * against an actual header row, producing a {@link BoundColumns} that reads each data row with
+ * a flat array walk: no header-name lookups and no per-cell exception handling.
+ */
+public final class ColumnMapping<T> {
+
+    private final Supplier<T> factory;
+    private final List<Column<T, ?>> columns;
+
+    private ColumnMapping(Supplier<T> factory, List<Column<T, ?>> columns) {
+        this.factory = factory;
+        this.columns = Collections.unmodifiableList(columns);
+    }
+
+    public static <T> Builder<T> builder(Supplier<T> factory) {
+        return new Builder<>(factory);
+    }
+
+    /**
+     * Header names in declaration order, e.g. for generating a template.
+     */
+    public List<String> headers() {
+        List<String> headers = new ArrayList<>(columns.size());
+        for (Column<T, ?> column : columns) headers.add(column.header);
+        return headers;
+    }
+
+    /**
+     * Resolves the mapping against a header row. Columns absent from the sheet are skipped;
+     * absent required columns are reported by {@link BoundColumns#missingRequired()}.
+     */
+    public BoundColumns<T> bind(Row header) {
+        Map<String, Integer> positions = new HashMap<>();
+        if (header != null) {
+            short last = header.getLastCellNum();
+            for (int c = 0; c < last; c++) {
+                String name = CellConverters.TRIMMED_STRING.convert(header.getCell(c));
+                if (name != null && !name.isEmpty()) positions.putIfAbsent(name, c);
+            }
+        }
+        return resolve(positions);
+    }
+
+    /**
+     * Resolves the mapping against header texts, indexed by column position, as produced
+     * by a streaming reader.
+     */
+    public BoundColumns<T> bind(List<String> headerTexts) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int c = 0; c < headerTexts.size(); c++) {
+            String name = headerTexts.get(c);
+            if (name != null && !name.trim().isEmpty()) positions.putIfAbsent(name.trim(), c);
+        }
+        return resolve(positions);
+    }
+
+    private BoundColumns<T> resolve(Map<String, Integer> positions) {
+        List<Column<T, ?>> present = new ArrayList<>(columns.size());
+        List<Integer> cellIndexes = new ArrayList<>(columns.size());
+        List<String> missing = new ArrayList<>();
+        for (Column<T, ?> column : columns) {
+            Integer position = positions.get(column.header);
+            if (position != null) {
+                present.add(column);
+                cellIndexes.add(position);
+            } else if (column.required) {
+                missing.add(column.header);
+            }
+        }
+
+        int[] indexes = new int[present.size()];
+        @SuppressWarnings("unchecked")
+        Column<T, ?>[] binders = present.toArray(new Column[0]);
+        for (int i = 0; i < indexes.length; i++) indexes[i] = cellIndexes.get(i);
+        return new BoundColumns<>(factory, indexes, binders, missing);
+    }
+
+    static final class Column<T, V> {
+        final String header;
+        final CellConverter<V> converter;
+        final BiConsumer<T, V> setter;
+        final boolean required;
+
+        Column(String header, CellConverter<V> converter, BiConsumer<T, V> setter, boolean required) {
+            this.header = header;
+            this.converter = converter;
+            this.setter = setter;
+            this.required = required;
+        }
+
+        void bind(T target, Cell cell) {
+            V value = converter.convert(cell);
+            if (value != null) setter.accept(target, value);
+        }
+
+        void bindText(T target, String text) {
+            V value = converter.convertText(text);
+            if (value != null) setter.accept(target, value);
+        }
+    }
+
+    public static final class Builder<T> {
+        private final Supplier<T> factory;
+        private final List<Column<T, ?>> columns = new ArrayList<>();
+
+        private Builder(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        public <V> Builder<T> column(String header, CellConverter<V> converter, BiConsumer<T, V> setter) {
+            columns.add(new Column<>(header, converter, setter, false));
+            return this;
+        }
+
+        public <V> Builder<T> required(String header, CellConverter<V> converter, BiConsumer<T, V> setter) {
+            columns.add(new Column<>(header, converter, setter, true));
+            return this;
+        }
+
+        public ColumnMapping<T> build() {
+            return new ColumnMapping<>(factory, new ArrayList<>(columns));
+        }
+    }
+}
@@ -8,6 +8,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -33,7 +34,7 @@ public class PlaceController {
             @RequestParam(required = false) String search, // For search functionality in UI
             @RequestParam(required = false) String country, // Filter by country
             @RequestParam(required = false) String city,    // Filter by city
-            @PageableDefault(size = 20, sort = "createdAt") Pageable pageable) {
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
         
         log.debug("Getting places for organization: {}, type: {}, search: {}", organizationId, type, search);
         Page<PlaceResponse> places = placeService.getPlaces(organizationId, type, search, country, city, pageable);
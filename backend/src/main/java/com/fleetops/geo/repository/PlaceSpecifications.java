@@ -0,0 +1,62 @@
+package com.fleetops.geo.repository;
+
+import com.fleetops.geo.entity.Place;
+import com.fleetops.geo.entity.Place.PlaceType;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Specification building blocks for the place listing. Organization and type are compared on the
+ * raw columns so a tenant's page is served from idx_places_org_type_created / idx_places_org_created;
+ * the free text predicate lower-cases name and address to match the trigram indexes.
+ */
+public final class PlaceSpecifications {
+
+    private PlaceSpecifications() {}
+
+    public static Specification<Place> from(UUID organizationId, PlaceType type, String search,
+                                            String country, String city) {
+        return Specification.<Place>where(inOrganization(organizationId))
+                .and(hasType(type))
+                .and(matchesText(search))
+                .and(inCountry(country))
+                .and(inCity(city));
+    }
+
+    public static Specification<Place> inOrganization(UUID organizationId) {
+        if (organizationId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("organizationId"), organizationId);
+    }
+
+    public static Specification<Place> hasType(PlaceType type) {
+        if (type == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+
+    public static Specification<Place> matchesText(String text) {
+        if (text == null || text.isBlank()) return null;
+        String pattern = "%" + escapeLike(text.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("name")), pattern, '\\'),
+                cb.like(cb.lower(root.get("address")), pattern, '\\'),
+                cb.like(cb.lower(root.get("addressLine1")), pattern, '\\'));
+    }
+
+    public static Specification<Place> inCountry(String country) {
+        if (country == null || country.isBlank()) return null;
+        String value = country.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("country")), value);
+    }
+
+    public static Specification<Place> inCity(String city) {
+        if (city == null || city.isBlank()) return null;
+        String value = city.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("city")), value);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -6,6 +6,7 @@ import com.fleetops.geo.entity.Place.PlaceType;
 import com.fleetops.geo.exception.PlaceNotFoundException;
 import com.fleetops.geo.exception.InvalidCoordinateException;
 import com.fleetops.geo.repository.PlaceRepository;
+import com.fleetops.geo.repository.PlaceSpecifications;
 import com.fleetops.geo.util.LocationMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -13,12 +14,14 @@ import org.locationtech.jts.geom.Point;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -28,6 +31,11 @@ import java.util.stream.Collectors;
 @Transactional
 public class PlaceServiceImpl implements PlaceService {
     
+    // Sorts backed by idx_places_org_type_created / idx_places_org_created / idx_places_org_name
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("createdAt", "name");
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+    private static final int MAX_PAGE_SIZE = 200;
+    
     private final PlaceRepository placeRepository;
     
     @Override
@@ -85,17 +93,10 @@ public class PlaceServiceImpl implements PlaceService {
     @Override
     @Transactional(readOnly = true)
     public Page<PlaceResponse> getPlaces(UUID organizationId, PlaceType type, String search, String country, String city, Pageable pageable) {
-        // For now, use a simple findAll to test basic functionality
-        // String typeString = type != null ? type.name() : null;
-        
-        // Create a pageable without sorting to avoid native query issues
-        Pageable unsortedPageable = PageRequest.of(
-            pageable.getPageNumber(), 
-            pageable.getPageSize()
+        Page<Place> places = placeRepository.findAll(
+            PlaceSpecifications.from(organizationId, type, search, country, city),
+            listingPageable(pageable)
         );
-        
-        // Use findAll for now to test basic functionality
-        Page<Place> places = placeRepository.findAll(unsortedPageable);
         return places.map(this::mapEntityToResponse);
     }
     
@@ -206,7 +207,23 @@ public class PlaceServiceImpl implements PlaceService {
             throw new InvalidCoordinateException("Longitude must be between -180 and 180, got: " + longitude);
         }
     }
-    
+
+    /**
+     * Keeps only index-backed sort properties (createdAt, name), defaulting to newest first, and
+     * appends id so pages stay stable when timestamps or names tie.
+     */
+    private Pageable listingPageable(Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().stream()
+            .filter(order -> SORTABLE_PROPERTIES.contains(order.getProperty()))
+            .collect(Collectors.toList());
+        if (orders.size() < pageable.getSort().stream().count()) {
+            log.debug("Ignoring unsupported place sort in {}", pageable.getSort());
+        }
+        Sort sort = orders.isEmpty() ? DEFAULT_SORT : Sort.by(orders);
+        int size = Math.min(pageable.getPageSize(), MAX_PAGE_SIZE);
+        return PageRequest.of(pageable.getPageNumber(), size, sort.and(Sort.by("id")));
+    }
+
     private void mapRequestToEntity(PlaceRequest request, Place place) {
         place.setName(request.getName());
         place.setDescription(request.getDescription());
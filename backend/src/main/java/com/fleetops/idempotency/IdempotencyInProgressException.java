@@ -0,0 +1,10 @@
+package com.fleetops.idempotency;
+
+/**
+ * A request with the same Idempotency-Key is still being processed and did not finish in time.
+ */
+public class IdempotencyInProgressException extends RuntimeException {
+    public IdempotencyInProgressException(String message) {
+        super(message);
+    }
+}
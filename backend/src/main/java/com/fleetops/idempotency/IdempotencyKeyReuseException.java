@@ -0,0 +1,10 @@
+package com.fleetops.idempotency;
+
+/**
+ * An Idempotency-Key was replayed with a different request body.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+    public IdempotencyKeyReuseException(String message) {
+        super(message);
+    }
+}
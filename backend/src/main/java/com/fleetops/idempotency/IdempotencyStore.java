@@ -0,0 +1,229 @@
+package com.fleetops.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetops.bulkupload.util.HashUtil;
+import com.fleetops.cache.BoundedCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for create endpoints.
+ *
+ * <p>The first request for a (scope, key) claims a row in {@code idempotency_records} inside the
+ * same transaction that creates the resource and stores the JSON response before commit, so the
+ * resource and its replayable response become visible together. Retries replay the stored
+ * response; a retry with a different body is rejected.</p>
+ *
+ * <p>Concurrent duplicates are handled at two levels: on one instance they queue on a striped
+ * lock, across instances the second INSERT blocks on the uncommitted unique key and then sees the
+ * committed record. Completed responses are also kept in a bounded in-memory cache, so typical
+ * retries never reach the database.</p>
+ *
+ * <p>The store opens the transaction itself, after the lock is taken, and runs the action in it.
+ * Callers must therefore not hold a transaction of their own (mark the entry point
+ * {@code NOT_SUPPORTED}); otherwise lock waiters each pin a pooled connection.</p>
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private static final int LOCK_STRIPES = 256;
+
+    private static final String CLAIM_SQL =
+            "INSERT INTO idempotency_records (scope, idem_key, request_hash, created_at, expires_at) " +
+            "VALUES (?, ?, ?, now(), ?) " +
+            "ON CONFLICT (scope, idem_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, " +
+            "response_body = NULL, created_at = now(), expires_at = EXCLUDED.expires_at " +
+            "WHERE idempotency_records.expires_at < now()";
+
+    private static final String FIND_SQL =
+            "SELECT request_hash, response_body FROM idempotency_records WHERE scope = ? AND idem_key = ?";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE idempotency_records SET response_body = ? WHERE scope = ? AND idem_key = ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM idempotency_records WHERE (scope, idem_key) IN (" +
+            "SELECT scope, idem_key FROM idempotency_records WHERE expires_at < now() LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long lockWaitMillis;
+    private final BoundedCache<String, StoredResponse> cache;
+    private final ReentrantLock[] stripes = new ReentrantLock[LOCK_STRIPES];
+
+    public IdempotencyStore(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+                            @Value("${app.idempotency.cache-max-entries:10000}") int cacheMaxEntries,
+                            @Value("${app.idempotency.lock-wait-ms:10000}") long lockWaitMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.lockWaitMillis = lockWaitMillis;
+        this.cache = new BoundedCache<>(cacheMaxEntries, ttl.toMillis());
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs {@code action} at most once per (scope, key) within the TTL and returns its result, or
+     * the stored result of the first successful run. Without a key the action simply runs, in a
+     * transaction of its own like the keyed path.
+     *
+     * @throws IdempotencyKeyReuseException   if the key was used with a different request
+     * @throws IdempotencyInProgressException if a duplicate on this instance did not finish in time
+     */
+    public <T> T execute(String scope, String key, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return transactionTemplate.execute(status -> action.get());
+        }
+        String idemKey = key.trim();
+        if (idemKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String cacheKey = scope + ':' + idemKey;
+        String requestHash = hash(request);
+
+        StoredResponse cached = cache.get(cacheKey);
+        if (cached != null) {
+            return replay(cached, requestHash, scope, idemKey, responseType);
+        }
+
+        ReentrantLock lock = stripes[Math.floorMod(cacheKey.hashCode(), LOCK_STRIPES)];
+        boolean locked;
+        try {
+            locked = lock.tryLock(lockWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyInProgressException("Interrupted while waiting for request " + idemKey);
+        }
+        if (!locked) {
+            throw new IdempotencyInProgressException("A request with Idempotency-Key " + idemKey + " is still in progress");
+        }
+        try {
+            // A duplicate may have completed while this thread waited
+            cached = cache.get(cacheKey);
+            if (cached != null) {
+                return replay(cached, requestHash, scope, idemKey, responseType);
+            }
+            return transactionTemplate.execute(status ->
+                    claimAndRun(scope, idemKey, cacheKey, requestHash, responseType, action));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private <T> T claimAndRun(String scope, String idemKey, String cacheKey, String requestHash,
+                              Class<T> responseType, Supplier<T> action) {
+        Timestamp expiresAt = Timestamp.from(Instant.now().plus(ttl));
+        int claimed = jdbcTemplate.update(CLAIM_SQL, scope, idemKey, requestHash, expiresAt);
+        if (claimed == 0) {
+            StoredResponse existing = find(scope, idemKey);
+            if (existing == null || existing.body() == null) {
+                // Only possible if the holder completed without a body; treat as still running
+                throw new IdempotencyInProgressException("A request with Idempotency-Key " + idemKey + " is still in progress");
+            }
+            cacheAfterCommit(cacheKey, existing);
+            return replay(existing, requestHash, scope, idemKey, responseType);
+        }
+
+        T result = action.get();
+        StoredResponse stored = new StoredResponse(requestHash, toJson(result));
+        jdbcTemplate.update(COMPLETE_SQL, stored.body(), scope, idemKey);
+        cacheAfterCommit(cacheKey, stored);
+        return result;
+    }
+
+    private StoredResponse find(String scope, String idemKey) {
+        List<StoredResponse> rows = jdbcTemplate.query(FIND_SQL,
+                (rs, i) -> new StoredResponse(rs.getString("request_hash"), rs.getString("response_body")),
+                scope, idemKey);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private <T> T replay(StoredResponse stored, String requestHash, String scope, String idemKey, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(
+                    "Idempotency-Key " + idemKey + " was already used for a different " + scope + " request");
+        }
+        log.debug("Replaying stored {} response for Idempotency-Key {}", scope, idemKey);
+        try {
+            return objectMapper.readValue(stored.body(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is not readable", e);
+        }
+    }
+
+    // Only cache what actually committed
+    private void cacheAfterCommit(String cacheKey, StoredResponse stored) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.put(cacheKey, stored);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.put(cacheKey, stored);
+            }
+        });
+    }
+
+    private String hash(Object request) {
+        try {
+            return HashUtil.sha256Hex(objectMapper.writeValueAsBytes(request));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be serialized for idempotency check", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored for idempotent replay", e);
+        }
+    }
+
+    /**
+     * Deletes expired records in small batches.
+     */
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, 1000);
+            total += deleted;
+        } while (deleted > 0);
+        if (total > 0) {
+            log.info("Purged {} expired idempotency records", total);
+        }
+    }
+
+    private record StoredResponse(String requestHash, String body) {
+    }
+}
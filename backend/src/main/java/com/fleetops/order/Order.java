@@ -215,7 +215,21 @@ public class Order {
     }
     
     public enum OrderStatus {
-        PENDING, CONFIRMED, PICKED_UP, IN_TRANSIT, DELIVERED, CANCELLED, RETURNED
+        PENDING, CONFIRMED, PICKED_UP, IN_TRANSIT, DELIVERED, CANCELLED, RETURNED;
+
+        public boolean canTransitionTo(OrderStatus to) {
+            return switch (this) {
+                case PENDING -> to == CONFIRMED || to == CANCELLED;
+                case CONFIRMED -> to == PICKED_UP || to == CANCELLED;
+                case PICKED_UP -> to == IN_TRANSIT || to == RETURNED;
+                case IN_TRANSIT -> to == DELIVERED || to == RETURNED;
+                case DELIVERED, CANCELLED, RETURNED -> false; // Terminal states
+            };
+        }
+
+        public boolean isTerminal() {
+            return this == DELIVERED || this == CANCELLED || this == RETURNED;
+        }
     }
     
     public enum PaymentStatus {
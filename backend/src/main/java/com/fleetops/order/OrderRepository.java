@@ -23,6 +23,7 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     // Find orders created from a specific pickup
     List<Order> findBySourcePickupIdOrderByCreatedAtDesc(String sourcePickupId);
+    long countBySourcePickupId(String sourcePickupId);
     
     // Find orders by status
     Page<Order> findByStatusIn(List<Order.OrderStatus> statuses, Pageable pageable);
@@ -42,9 +42,10 @@ public class OrderController {
     // CRUD Endpoints
     
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody CreateOrderDto createOrderDto) {
+    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody CreateOrderDto createOrderDto,
+                                                @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         logger.info("Creating order for client: {}", createOrderDto.getClientName());
-        OrderDto createdOrder = orderService.createOrder(createOrderDto);
+        OrderDto createdOrder = orderService.createOrder(createOrderDto, idempotencyKey);
         return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
     }
     
@@ -0,0 +1,233 @@
+package com.fleetops.order.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetops.order.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC batch writer for creating many orders at once. Orders use IDENTITY keys, which stops
+ * Hibernate from batching inserts, so bulk paths write the rows here as one JDBC batch (collapsed
+ * into multi-row INSERTs by the driver) and read the generated ids back from the same batch.
+ * Bulk status changes are one UPDATE over unnest()ed arrays plus one history batch.
+ * Callers run inside their own transaction.
+ */
+@Component
+public class OrderBatchWriter {
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (order_id, client_id, client_name, client_company, contact_number, " +
+            "sender_name, sender_address, sender_contact, sender_email, sender_pincode, sender_city, sender_state, " +
+            "receiver_name, receiver_address, receiver_contact, receiver_email, receiver_pincode, receiver_city, receiver_state, " +
+            "source_pickup_id, item_count, total_weight, length_cm, width_cm, height_cm, item_description, declared_value, " +
+            "service_type, carrier_name, carrier_id, tracking_number, status, status_updated_at, status_updated_by, " +
+            "assigned_staff_id, assigned_staff_name, staff_department, estimated_delivery_date, delivery_instructions, " +
+            "cod_amount, shipping_cost, tax_amount, total_amount, payment_status, special_instructions, " +
+            "created_at, updated_at, created_by, metadata) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, " +
+            "?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb))";
+
+    private static final String INSERT_HISTORY_SQL =
+            "INSERT INTO order_status_history (order_id, from_status, to_status, changed_at, changed_by, reason) " +
+            "VALUES (?, NULL, ?, ?, ?, ?)";
+
+    private static final String INSERT_STATUS_HISTORY_SQL =
+            "INSERT INTO order_status_history (order_id, from_status, to_status, changed_at, changed_by, reason, notes) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Guarded on the expected current status, so a concurrent change shows up as a short count
+    private static final String UPDATE_STATUS_SQL =
+            "UPDATE orders o SET status = v.to_status, status_updated_at = ?, status_updated_by = ?, updated_at = ?, " +
+            "actual_delivery_date = CASE WHEN v.to_status = 'DELIVERED' " +
+            "    THEN COALESCE(o.actual_delivery_date, ?) ELSE o.actual_delivery_date END " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::varchar[]) AS v(id, from_status, to_status) " +
+            "WHERE o.id = v.id AND o.status = v.from_status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public OrderBatchWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns which of the given business order ids already exist, in one query.
+     */
+    public Set<String> findExistingOrderIds(Collection<String> orderIds) {
+        if (orderIds.isEmpty()) return Set.of();
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT order_id FROM orders WHERE order_id = ANY (?)", String.class,
+                (Object) orderIds.toArray(new String[0])));
+    }
+
+    /**
+     * Inserts all orders as one JDBC batch and assigns the generated ids and audit timestamps.
+     */
+    public void insertOrders(List<Order> orders) {
+        if (orders.isEmpty()) return;
+        Instant now = Instant.now();
+        for (Order order : orders) {
+            order.setCreatedAt(now);
+            order.setUpdatedAt(now);
+        }
+
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_ORDER_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bindOrder(ps, orders.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return orders.size();
+                    }
+                },
+                keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != orders.size()) {
+            throw new IllegalStateException("Expected " + orders.size() + " generated order ids, got " + generated.size());
+        }
+        for (int i = 0; i < orders.size(); i++) {
+            orders.get(i).setId(((Number) generated.get(i).get("id")).longValue());
+        }
+    }
+
+    /**
+     * Writes the initial (null -> current status) history row for each order as one batch.
+     */
+    public void insertInitialHistory(List<Order> orders, String changedBy, String reason) {
+        if (orders.isEmpty()) return;
+        List<Object[]> args = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            args.add(new Object[]{order.getId(), order.getStatus().name(),
+                    Timestamp.from(order.getCreatedAt()), changedBy, reason});
+        }
+        jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, args);
+    }
+
+    /**
+     * Applies all status changes in one statement and returns how many orders were updated; fewer
+     * than requested means some order no longer had its expected from-status. updated_at is set
+     * explicitly because the rows bypass the entity's auditing. DELIVERED orders get
+     * actual_delivery_date unless it is already set.
+     */
+    public int applyStatusChanges(List<StatusChange> changes, String changedBy, Instant changedAt) {
+        if (changes.isEmpty()) return 0;
+        Long[] ids = new Long[changes.size()];
+        String[] from = new String[changes.size()];
+        String[] to = new String[changes.size()];
+        for (int i = 0; i < changes.size(); i++) {
+            StatusChange change = changes.get(i);
+            ids[i] = change.orderId();
+            from[i] = change.fromStatus().name();
+            to[i] = change.toStatus().name();
+        }
+        Timestamp at = Timestamp.from(changedAt);
+        Date today = Date.valueOf(LocalDate.ofInstant(changedAt, ZoneId.systemDefault()));
+        return jdbcTemplate.update(UPDATE_STATUS_SQL, at, changedBy, at, today, ids, from, to);
+    }
+
+    /**
+     * Writes one history row per status change as one batch.
+     */
+    public void insertStatusHistory(List<StatusChange> changes, String changedBy, Instant changedAt) {
+        if (changes.isEmpty()) return;
+        Timestamp at = Timestamp.from(changedAt);
+        List<Object[]> args = new ArrayList<>(changes.size());
+        for (StatusChange change : changes) {
+            args.add(new Object[]{change.orderId(), change.fromStatus().name(), change.toStatus().name(),
+                    at, changedBy, change.reason(), change.notes()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_STATUS_HISTORY_SQL, args);
+    }
+
+    private void bindOrder(PreparedStatement ps, Order o) throws SQLException {
+        int i = 1;
+        ps.setString(i++, o.getOrderId());
+        ps.setObject(i++, o.getClientId(), Types.BIGINT);
+        ps.setString(i++, o.getClientName());
+        ps.setString(i++, o.getClientCompany());
+        ps.setString(i++, o.getContactNumber());
+        ps.setString(i++, o.getSenderName());
+        ps.setString(i++, o.getSenderAddress());
+        ps.setString(i++, o.getSenderContact());
+        ps.setString(i++, o.getSenderEmail());
+        ps.setString(i++, o.getSenderPincode());
+        ps.setString(i++, o.getSenderCity());
+        ps.setString(i++, o.getSenderState());
+        ps.setString(i++, o.getReceiverName());
+        ps.setString(i++, o.getReceiverAddress());
+        ps.setString(i++, o.getReceiverContact());
+        ps.setString(i++, o.getReceiverEmail());
+        ps.setString(i++, o.getReceiverPincode());
+        ps.setString(i++, o.getReceiverCity());
+        ps.setString(i++, o.getReceiverState());
+        ps.setString(i++, o.getSourcePickupId());
+        ps.setObject(i++, o.getItemCount(), Types.INTEGER);
+        ps.setBigDecimal(i++, o.getTotalWeight());
+        ps.setBigDecimal(i++, o.getLengthCm());
+        ps.setBigDecimal(i++, o.getWidthCm());
+        ps.setBigDecimal(i++, o.getHeightCm());
+        ps.setString(i++, o.getItemDescription());
+        ps.setBigDecimal(i++, o.getDeclaredValue());
+        ps.setString(i++, o.getServiceType() != null ? o.getServiceType().name() : null);
+        ps.setString(i++, o.getCarrierName());
+        ps.setString(i++, o.getCarrierId());
+        ps.setString(i++, o.getTrackingNumber());
+        ps.setString(i++, o.getStatus().name());
+        ps.setTimestamp(i++, o.getStatusUpdatedAt() != null ? Timestamp.from(o.getStatusUpdatedAt()) : null);
+        ps.setString(i++, o.getStatusUpdatedBy());
+        ps.setObject(i++, o.getAssignedStaffId(), Types.BIGINT);
+        ps.setString(i++, o.getAssignedStaffName());
+        ps.setString(i++, o.getStaffDepartment());
+        ps.setDate(i++, o.getEstimatedDeliveryDate() != null ? Date.valueOf(o.getEstimatedDeliveryDate()) : null);
+        ps.setString(i++, o.getDeliveryInstructions());
+        ps.setBigDecimal(i++, o.getCodAmount());
+        ps.setBigDecimal(i++, o.getShippingCost());
+        ps.setBigDecimal(i++, o.getTaxAmount());
+        ps.setBigDecimal(i++, o.getTotalAmount());
+        ps.setString(i++, o.getPaymentStatus() != null ? o.getPaymentStatus().name() : null);
+        ps.setString(i++, o.getSpecialInstructions());
+        ps.setTimestamp(i++, Timestamp.from(o.getCreatedAt()));
+        ps.setTimestamp(i++, Timestamp.from(o.getUpdatedAt()));
+        ps.setString(i++, o.getCreatedBy());
+        ps.setString(i, toJson(o.getMetadata()));
+    }
+
+    private String toJson(Map<String, Object> metadata) {
+        if (metadata == null || metadata.isEmpty()) return "{}";
+        try {
+            return objectMapper.writeValueAsString(metadata);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Order metadata is not serializable", e);
+        }
+    }
+
+    public record StatusChange(Long orderId, Order.OrderStatus fromStatus, Order.OrderStatus toStatus,
+                               String reason, String notes) {
+    }
+}
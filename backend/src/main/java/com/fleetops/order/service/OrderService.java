@@ -1,5 +1,6 @@
 package com.fleetops.order.service;
 
+import com.fleetops.idempotency.IdempotencyStore;
 import com.fleetops.order.Order;
 import com.fleetops.order.OrderRepository;
 import com.fleetops.order.OrderStatusHistory;
@@ -35,6 +36,8 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderStatusHistoryRepository statusHistoryRepository;
     private final OrderMapper orderMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final OrderBatchWriter orderBatchWriter;
     
     // Real-time SSE connections
     private final Map<String, SseEmitter> sseConnections = new ConcurrentHashMap<>();
@@ -42,14 +45,29 @@ public class OrderService {
     @Autowired
     public OrderService(OrderRepository orderRepository, 
                        OrderStatusHistoryRepository statusHistoryRepository,
-                       OrderMapper orderMapper) {
+                       OrderMapper orderMapper,
+                       IdempotencyStore idempotencyStore,
+                       OrderBatchWriter orderBatchWriter) {
         this.orderRepository = orderRepository;
         this.statusHistoryRepository = statusHistoryRepository;
         this.orderMapper = orderMapper;
+        this.idempotencyStore = idempotencyStore;
+        this.orderBatchWriter = orderBatchWriter;
     }
     
     // CRUD Operations
     
+    /**
+     * Creates an order at most once per Idempotency-Key; retries get the stored response.
+     * Runs outside any transaction so duplicates wait on the store's lock without holding a
+     * connection; the store then opens the transaction that writes the order and its record.
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public OrderDto createOrder(CreateOrderDto createOrderDto, String idempotencyKey) {
+        return idempotencyStore.execute("order", idempotencyKey, createOrderDto, OrderDto.class,
+                () -> createOrder(createOrderDto));
+    }
+    
     public OrderDto createOrder(CreateOrderDto createOrderDto) {
         logger.info("Creating new order for client: {}", createOrderDto.getClientName());
         
@@ -84,6 +102,61 @@ public class OrderService {
         return orderDto;
     }
     
+    /**
+     * Creates many orders in the current transaction: the orders and their initial status history
+     * rows are each written as a single JDBC batch, and one ORDERS_CREATED event is broadcast
+     * instead of one event per order.
+     */
+    public List<OrderDto> createOrders(List<CreateOrderDto> createOrderDtos, String changedBy, String reason) {
+        if (createOrderDtos.isEmpty()) return List.of();
+
+        List<Order> orders = new ArrayList<>(createOrderDtos.size());
+        for (CreateOrderDto dto : createOrderDtos) {
+            Order order = orderMapper.toEntity(dto);
+            if (order.getTotalAmount() == null) {
+                order.setTotalAmount(calculateTotalAmount(order));
+            }
+            if (order.getEstimatedDeliveryDate() == null) {
+                order.setEstimatedDeliveryDate(calculateEstimatedDeliveryDate(order.getServiceType()));
+            }
+            if (order.getTrackingNumber() == null) {
+                order.setTrackingNumber(generateTrackingNumber(order.getCarrierName()));
+            }
+            order.setCreatedBy(changedBy);
+            orders.add(order);
+        }
+        assignUniqueOrderIds(orders);
+
+        orderBatchWriter.insertOrders(orders);
+        orderBatchWriter.insertInitialHistory(orders, changedBy, reason);
+
+        List<OrderDto> created = orders.stream().map(orderMapper::toDto).toList();
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("count", created.size());
+        summary.put("orderIds", created.stream().map(OrderDto::getOrderId).toList());
+        broadcast("ORDERS_CREATED", summary);
+
+        logger.info("Created {} orders in one batch ({})", created.size(), reason);
+        return created;
+    }
+
+    // Generated order ids are short random numbers; re-draw any that collide within the batch or with stored orders
+    private void assignUniqueOrderIds(List<Order> orders) {
+        Set<String> taken = new HashSet<>();
+        for (int attempt = 0; attempt < 5; attempt++) {
+            Set<String> candidates = new HashSet<>();
+            for (Order order : orders) {
+                while (taken.contains(order.getOrderId()) || !candidates.add(order.getOrderId())) {
+                    order.setOrderId(orderMapper.generateOrderId());
+                }
+            }
+            Set<String> existing = orderBatchWriter.findExistingOrderIds(candidates);
+            if (existing.isEmpty()) return;
+            taken.addAll(existing);
+        }
+        throw new IllegalStateException("Could not allocate unique order ids for batch of " + orders.size());
+    }
+    
     public OrderDto getOrder(Long id) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Order not found with id: " + id));
@@ -449,10 +522,22 @@ public class OrderService {
         return emitter;
     }
     
+    /**
+     * One SSE event for a bulk status change (e.g. a delivery sheet settlement) instead of one
+     * event per order.
+     */
+    public void broadcastBulkStatusUpdate(Map<String, Object> summary) {
+        broadcast("ORDERS_BULK_STATUS_UPDATED", summary);
+    }
+
     private void sendRealTimeUpdate(String eventType, OrderDto orderDto) {
+        broadcast(eventType, orderDto);
+    }
+
+    private void broadcast(String eventType, Object data) {
         Map<String, Object> update = new HashMap<>();
         update.put("type", eventType);
-        update.put("data", orderDto);
+        update.put("data", data);
         update.put("timestamp", Instant.now());
         
         sseConnections.entrySet().removeIf(entry -> {
@@ -525,12 +610,6 @@ public class OrderService {
     }
     
     private boolean isValidStatusTransition(Order.OrderStatus from, Order.OrderStatus to) {
-        return switch (from) {
-            case PENDING -> to == Order.OrderStatus.CONFIRMED || to == Order.OrderStatus.CANCELLED;
-            case CONFIRMED -> to == Order.OrderStatus.PICKED_UP || to == Order.OrderStatus.CANCELLED;
-            case PICKED_UP -> to == Order.OrderStatus.IN_TRANSIT || to == Order.OrderStatus.RETURNED;
-            case IN_TRANSIT -> to == Order.OrderStatus.DELIVERED || to == Order.OrderStatus.RETURNED;
-            case DELIVERED, CANCELLED, RETURNED -> false; // Terminal states
-        };
+        return from.canTransitionTo(to);
     }
 }
@@ -1,14 +1,23 @@
 package com.fleetops.pickup;
 
+import com.fleetops.pickup.capacity.PickupSlotUnavailableException;
+import com.fleetops.pickup.dto.AvailableSlotDto;
+import com.fleetops.pickup.dto.ConvertPickupToOrdersDto;
 import com.fleetops.pickup.dto.CreatePickupDto;
 import com.fleetops.pickup.dto.PickupDto;
+import com.fleetops.pickup.dto.PickupSearchCriteria;
 import com.fleetops.pickup.dto.UpdatePickupStatusDto;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/pickups")
 public class PickupController {
@@ -17,44 +26,123 @@ public class PickupController {
     private PickupService pickupService;
 
     @PostMapping
-    public ResponseEntity<PickupDto> create(@RequestBody CreatePickupDto dto, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
-        PickupDto created = pickupService.createPickup(dto, idempotencyKey);
-        return ResponseEntity.status(201).body(created);
+    public ResponseEntity<?> create(@RequestBody CreatePickupDto dto, @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            PickupDto created = pickupService.createPickup(dto, idempotencyKey);
+            return ResponseEntity.status(201).body(created);
+        } catch (PickupSlotUnavailableException e) {
+            return slotUnavailable(e);
+        }
     }
 
+    /**
+     * First free pickup slots between two dates, earliest first. Without staffId every active
+     * agent is considered; several staffId values narrow the search to that team.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> availability(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) List<Long> staffId,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<AvailableSlotDto> slots = pickupService.findAvailableSlots(from, to, staffId, limit);
+            return ResponseEntity.ok(slots);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid availability query", "message", e.getMessage()));
+        }
+    }
+
+    /**
+     * Lists pickups, optionally filtered server-side. Without filters this is the plain paged list.
+     * Status accepts several values, either repeated or comma-separated.
+     */
     @GetMapping
-    public Page<PickupDto> list(Pageable pageable) {
-        return pickupService.listPickups(pageable);
+    public ResponseEntity<?> list(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) Long staffId,
+            @RequestParam(required = false) Long clientId,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String q,
+            Pageable pageable) {
+        PickupSearchCriteria criteria = new PickupSearchCriteria();
+        criteria.dateFrom = dateFrom;
+        criteria.dateTo = dateTo;
+        criteria.statuses = status;
+        criteria.assignedStaffId = staffId;
+        criteria.clientId = clientId;
+        criteria.pickupType = type;
+        criteria.query = q;
+        try {
+            return ResponseEntity.ok(pickupService.searchPickups(criteria, pageable));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid search", "message", e.getMessage()));
+        }
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PickupDto> get(@PathVariable Long id) {
-        return pickupService.listPickups(Pageable.unpaged()).stream().filter(p->p.id.equals(id)).findFirst()
+        return pickupService.getPickup(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/by-pickup-id/{pickupId}")
+    public ResponseEntity<PickupDto> getByPickupId(@PathVariable String pickupId) {
+        return pickupService.getPickupByPickupId(pickupId)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<PickupDto> update(@PathVariable Long id, @RequestBody CreatePickupDto dto) {
+    public ResponseEntity<?> update(@PathVariable Long id, @RequestBody CreatePickupDto dto) {
         try {
             PickupDto updated = pickupService.updatePickup(id, dto);
             return ResponseEntity.ok(updated);
+        } catch (PickupSlotUnavailableException e) {
+            return slotUnavailable(e);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Creates one order per consignment for this pickup in a single batched transaction and
+     * reconciles the pickup's received item count against its orders.
+     */
+    @PostMapping("/{id}/orders")
+    public ResponseEntity<?> convertToOrders(@PathVariable Long id, @RequestBody ConvertPickupToOrdersDto dto,
+                                             @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        try {
+            return ResponseEntity.status(201).body(pickupService.convertToOrders(id, dto, idempotencyKey));
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid consignments", "message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of("error", "Conversion not allowed", "message", e.getMessage()));
+        }
+    }
+
     /**
      * Update pickup status with optional completion details.
      * When completing a pickup, agent can specify how many items were actually received.
      */
     @PatchMapping("/{id}/status")
-    public ResponseEntity<PickupDto> updateStatus(@PathVariable Long id, @RequestBody UpdatePickupStatusDto dto) {
+    public ResponseEntity<?> updateStatus(@PathVariable Long id, @RequestBody UpdatePickupStatusDto dto) {
         try {
             PickupDto updated = pickupService.updatePickupStatus(id, dto);
             return ResponseEntity.ok(updated);
+        } catch (PickupSlotUnavailableException e) {
+            return slotUnavailable(e);
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
+
+    private ResponseEntity<?> slotUnavailable(PickupSlotUnavailableException e) {
+        return ResponseEntity.status(409).body(Map.of("error", "Slot unavailable", "message", e.getMessage()));
+    }
 }
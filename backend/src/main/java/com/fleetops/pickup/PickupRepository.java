@@ -1,9 +1,29 @@
 package com.fleetops.pickup;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.Optional;
 
 public interface PickupRepository extends JpaRepository<Pickup, Long>, JpaSpecificationExecutor<Pickup> {
     Optional<Pickup> findByPickupId(String pickupId);
+
+    @Query("SELECT p FROM Pickup p LEFT JOIN FETCH p.client WHERE p.id = :id")
+    Optional<Pickup> findWithClientById(@Param("id") Long id);
+
+    @Query("SELECT p FROM Pickup p LEFT JOIN FETCH p.client WHERE p.pickupId = :pickupId")
+    Optional<Pickup> findWithClientByPickupId(@Param("pickupId") String pickupId);
+
+    /**
+     * Specification search with the client loaded in the same statement; the entity graph is
+     * applied to the select only, not to the derived count query.
+     */
+    @Override
+    @EntityGraph(attributePaths = "client")
+    Page<Pickup> findAll(Specification<Pickup> spec, Pageable pageable);
 }
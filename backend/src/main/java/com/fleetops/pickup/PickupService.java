@@ -1,14 +1,26 @@
 package com.fleetops.pickup;
 
+import com.fleetops.pickup.dto.AvailableSlotDto;
+import com.fleetops.pickup.dto.ConvertPickupToOrdersDto;
 import com.fleetops.pickup.dto.CreatePickupDto;
+import com.fleetops.pickup.dto.PickupConversionResultDto;
 import com.fleetops.pickup.dto.PickupDto;
+import com.fleetops.pickup.dto.PickupSearchCriteria;
 import com.fleetops.pickup.dto.UpdatePickupStatusDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
 public interface PickupService {
     PickupDto createPickup(CreatePickupDto dto, String idempotencyKey);
-    Page<PickupDto> listPickups(Pageable pageable);
+    Page<PickupDto> searchPickups(PickupSearchCriteria criteria, Pageable pageable);
+    Optional<PickupDto> getPickup(Long id);
+    Optional<PickupDto> getPickupByPickupId(String pickupId);
+    PickupConversionResultDto convertToOrders(Long id, ConvertPickupToOrdersDto dto, String idempotencyKey);
     PickupDto updatePickup(Long id, CreatePickupDto dto);
     PickupDto updatePickupStatus(Long id, UpdatePickupStatusDto dto);
+    List<AvailableSlotDto> findAvailableSlots(LocalDate from, LocalDate to, List<Long> staffIds, int limit);
 }
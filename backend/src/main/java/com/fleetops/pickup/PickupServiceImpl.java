@@ -1,36 +1,96 @@
 package com.fleetops.pickup;
 
+import com.fleetops.cache.BoundedCache;
 import com.fleetops.client.Client;
 import com.fleetops.client.ClientRepository;
+import com.fleetops.idempotency.IdempotencyStore;
+import com.fleetops.order.OrderRepository;
+import com.fleetops.order.dto.CreateOrderDto;
+import com.fleetops.order.dto.OrderDto;
+import com.fleetops.order.service.OrderService;
+import com.fleetops.pickup.capacity.PickupCapacityEngine;
+import com.fleetops.pickup.dto.AvailableSlotDto;
+import com.fleetops.pickup.dto.ConvertPickupToOrdersDto;
 import com.fleetops.pickup.dto.CreatePickupDto;
+import com.fleetops.pickup.dto.PickupConversionResultDto;
 import com.fleetops.pickup.dto.PickupDto;
+import com.fleetops.pickup.dto.PickupSearchCriteria;
 import com.fleetops.pickup.dto.UpdatePickupStatusDto;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class PickupServiceImpl implements PickupService {
 
+    private static final Logger log = LoggerFactory.getLogger(PickupServiceImpl.class);
+
     @Autowired
     private PickupRepository repository;
     
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PickupCapacityEngine capacityEngine;
+
+    static final int MAX_CONSIGNMENTS_PER_CONVERSION = 1000;
+    static final int MAX_AVAILABLE_SLOTS = 200;
+    static final int MAX_AVAILABILITY_DAYS = 31;
+
+    // Hot read path for agents polling a pickup; evicted on every write through this service.
+    // The TTL bounds staleness from writes made by other instances.
+    private final BoundedCache<Long, PickupDto> pickupCache;
+    // pickupId -> id never changes once assigned, so this mapping is never invalidated
+    private final BoundedCache<String, Long> pickupIdIndex;
+
+    public PickupServiceImpl(
+            @Value("${app.pickup.cache.max-entries:2000}") int cacheMaxEntries,
+            @Value("${app.pickup.cache.ttl-ms:30000}") long cacheTtlMillis) {
+        this.pickupCache = new BoundedCache<>(cacheMaxEntries, cacheTtlMillis);
+        this.pickupIdIndex = new BoundedCache<>(cacheMaxEntries, 0);
+    }
+
     @Override
     public PickupDto createPickup(CreatePickupDto dto, String idempotencyKey) {
+        // Retries with the same Idempotency-Key replay the first response instead of creating a duplicate
+        return idempotencyStore.execute("pickup", idempotencyKey, dto, PickupDto.class, () -> doCreatePickup(dto));
+    }
+
+    private PickupDto doCreatePickup(CreatePickupDto dto) {
         Pickup p = new Pickup();
         p.setPickupId("PU" + UUID.randomUUID().toString().substring(0,8).toUpperCase());
         
@@ -68,17 +128,183 @@ public class PickupServiceImpl implements PickupService {
         p.setStatus("scheduled");
         p.setCreatedAt(Instant.now());
         p.setUpdatedAt(Instant.now());
-        repository.save(p);
+
+        // Book the staff slot before saving so two concurrent creates cannot both take it
+        PickupCapacityEngine.Reservation reservation =
+                capacityEngine.reserve(p.getAssignedStaffId(), p.getPickupDate(), p.getPickupTime());
+        try {
+            repository.save(p);
+        } catch (RuntimeException e) {
+            capacityEngine.cancel(reservation);
+            throw e;
+        }
+        capacityEngine.bind(p.getId(), reservation);
+        if (reservation != null) releaseOnRollback(p.getId());
         return toDto(p);
     }
 
+    // The create may run inside the idempotency transaction, which can still roll back after save
+    private void releaseOnRollback(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) capacityEngine.release(id);
+            }
+        });
+    }
+
+    @Override
+    public List<AvailableSlotDto> findAvailableSlots(LocalDate from, LocalDate to, List<Long> staffIds, int limit) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(6);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (start.plusDays(MAX_AVAILABILITY_DAYS).isBefore(end.plusDays(1))) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_AVAILABILITY_DAYS + " days");
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_AVAILABLE_SLOTS));
+        return capacityEngine.findFreeSlots(start, end, staffIds, boundedLimit);
+    }
+
     @Override
-    public Page<PickupDto> listPickups(Pageable pageable) {
-        List<PickupDto> dtos = repository.findAll(pageable).stream().map(this::toDto).collect(Collectors.toList());
-        return new PageImpl<>(dtos, pageable, repository.count());
+    public Page<PickupDto> searchPickups(PickupSearchCriteria criteria, Pageable pageable) {
+        if (criteria != null && criteria.dateFrom != null && criteria.dateTo != null
+                && criteria.dateFrom.isAfter(criteria.dateTo)) {
+            throw new IllegalArgumentException("dateFrom must not be after dateTo");
+        }
+        return repository.findAll(PickupSpecifications.from(criteria), pageable).map(this::toDto);
     }
 
     @Override
+    public Optional<PickupDto> getPickup(Long id) {
+        return Optional.ofNullable(pickupCache.computeIfAbsent(id,
+                key -> repository.findWithClientById(key).map(this::toDto).orElse(null)));
+    }
+
+    @Override
+    public Optional<PickupDto> getPickupByPickupId(String pickupId) {
+        Long id = pickupIdIndex.get(pickupId);
+        if (id != null) {
+            PickupDto cached = pickupCache.get(id);
+            if (cached != null) return Optional.of(cached);
+        }
+        Optional<PickupDto> loaded = repository.findWithClientByPickupId(pickupId).map(this::toDto);
+        loaded.ifPresent(dto -> {
+            pickupIdIndex.put(dto.pickupId, dto.id);
+            pickupCache.put(dto.id, dto);
+        });
+        return loaded;
+    }
+
+    // Not transactional: the idempotency store opens the transaction once its lock is held
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PickupConversionResultDto convertToOrders(Long id, ConvertPickupToOrdersDto dto, String idempotencyKey) {
+        if (dto == null || dto.consignments == null || dto.consignments.isEmpty()) {
+            throw new IllegalArgumentException("At least one consignment is required");
+        }
+        if (dto.consignments.size() > MAX_CONSIGNMENTS_PER_CONVERSION) {
+            throw new IllegalArgumentException("At most " + MAX_CONSIGNMENTS_PER_CONVERSION + " consignments per request");
+        }
+        return idempotencyStore.execute("pickup-orders", idempotencyKey, dto, PickupConversionResultDto.class,
+                () -> doConvertToOrders(id, dto));
+    }
+
+    private PickupConversionResultDto doConvertToOrders(Long id, ConvertPickupToOrdersDto dto) {
+        Pickup pickup = repository.findWithClientById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Pickup not found with id: " + id));
+        if ("cancelled".equalsIgnoreCase(pickup.getStatus())) {
+            throw new IllegalStateException("Cannot create orders from cancelled pickup " + pickup.getPickupId());
+        }
+
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < dto.consignments.size(); i++) {
+            CreateOrderDto consignment = dto.consignments.get(i);
+            if (consignment == null) {
+                errors.add("consignments[" + i + "]: must not be null");
+                continue;
+            }
+            applyPickupDefaults(consignment, pickup);
+            for (ConstraintViolation<CreateOrderDto> v : validator.validate(consignment)) {
+                errors.add("consignments[" + i + "]." + v.getPropertyPath() + ": " + v.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new IllegalArgumentException(String.join("; ", errors));
+        }
+
+        String convertedBy = dto.convertedBy != null ? dto.convertedBy : "System";
+        List<OrderDto> orders = orderService.createOrders(dto.consignments, convertedBy,
+                "Created from pickup " + pickup.getPickupId());
+
+        // Reconcile: every received item should end up as exactly one order. Without a received
+        // count (pickup not completed yet) there is nothing to reconcile against.
+        long totalOrders = orderRepository.countBySourcePickupId(pickup.getPickupId());
+        Integer itemsReceived = pickup.getItemsReceived();
+
+        PickupConversionResultDto result = new PickupConversionResultDto();
+        result.pickupId = pickup.getPickupId();
+        result.ordersCreated = orders.size();
+        result.totalOrdersForPickup = totalOrders;
+        result.itemsReceived = itemsReceived;
+        result.unconvertedItems = itemsReceived != null ? itemsReceived - totalOrders : null;
+        result.reconciled = result.unconvertedItems != null && result.unconvertedItems == 0;
+        result.orders = orders;
+        if (itemsReceived != null && !result.reconciled) {
+            log.warn("Pickup {} has {} items received but {} orders", pickup.getPickupId(),
+                    itemsReceived, totalOrders);
+        }
+        return result;
+    }
+
+    private void applyPickupDefaults(CreateOrderDto c, Pickup pickup) {
+        Client client = pickup.getClient();
+        c.setSourcePickupId(pickup.getPickupId());
+        if (c.getClientId() == null && client != null) c.setClientId(client.getId());
+        if (isBlank(c.getClientName())) c.setClientName(pickup.getClientName());
+        if (isBlank(c.getContactNumber())) c.setContactNumber(pickup.getContactNumber());
+        if (isBlank(c.getSenderAddress())) c.setSenderAddress(pickup.getPickupAddress());
+        if (isBlank(c.getCarrierId())) c.setCarrierId(pickup.getCarrierId());
+        if (client != null) {
+            if (isBlank(c.getClientCompany())) c.setClientCompany(client.getSubContractName());
+            if (isBlank(c.getSenderName())) c.setSenderName(client.getVContactPerson());
+            if (isBlank(c.getSenderContact())) c.setSenderContact(client.getVContactMobile());
+            if (isBlank(c.getSenderEmail())) c.setSenderEmail(client.getVContactEmail());
+            if (isBlank(c.getSenderPincode())) c.setSenderPincode(client.getVPincode());
+            if (isBlank(c.getSenderCity())) c.setSenderCity(client.getVCity());
+            if (isBlank(c.getSenderState())) c.setSenderState(client.getVState());
+        }
+        if (isBlank(c.getSenderName())) c.setSenderName(pickup.getClientName());
+        if (isBlank(c.getSenderContact())) c.setSenderContact(pickup.getContactNumber());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private void evictAfterCommit(Long id) {
+        evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops a pickup from the read cache; call after any write to the pickup row.
+     */
+    void evict(Long id) {
+        pickupCache.invalidate(id);
+    }
+
+    @Override
+    @Transactional
     public PickupDto updatePickup(Long id, CreatePickupDto dto) {
         Pickup existing = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pickup not found with id: " + id));
@@ -99,20 +325,39 @@ public class PickupServiceImpl implements PickupService {
         if (dto.totalWeight != null) existing.setTotalWeight(dto.totalWeight);
         if (dto.estimatedCost != null) existing.setEstimatedCost(dto.estimatedCost);
         if (dto.carrierId != null) existing.setCarrierId(dto.carrierId);
+
+        // Move the slot booking first; a conflict leaves the pickup and its booking unchanged
+        restoreBookingOnRollback(id);
+        if ("cancelled".equalsIgnoreCase(existing.getStatus())) {
+            capacityEngine.release(id);
+        } else {
+            capacityEngine.rebook(id, existing.getAssignedStaffId(), existing.getPickupDate(), existing.getPickupTime());
+        }
         
         existing.setUpdatedAt(Instant.now());
         repository.save(existing);
+        evictAfterCommit(id);
         return toDto(existing);
     }
 
     @Override
+    @Transactional
     public PickupDto updatePickupStatus(Long id, UpdatePickupStatusDto dto) {
         Pickup existing = repository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Pickup not found with id: " + id));
+        boolean wasCancelled = "cancelled".equalsIgnoreCase(existing.getStatus());
         
         if (dto.status != null) {
             existing.setStatus(dto.status);
         }
+
+        // Cancelling frees the slot; reinstating a cancelled pickup has to book it again
+        restoreBookingOnRollback(id);
+        if ("cancelled".equalsIgnoreCase(dto.status)) {
+            capacityEngine.release(id);
+        } else if (wasCancelled && dto.status != null) {
+            capacityEngine.rebook(id, existing.getAssignedStaffId(), existing.getPickupDate(), existing.getPickupTime());
+        }
         
         // If completing the pickup, record completion details
         if ("completed".equalsIgnoreCase(dto.status)) {
@@ -124,9 +369,23 @@ public class PickupServiceImpl implements PickupService {
         
         existing.setUpdatedAt(Instant.now());
         repository.save(existing);
+        evictAfterCommit(id);
         return toDto(existing);
     }
 
+    // The engine is changed before the save so a slot conflict is caught atomically; if the
+    // transaction then does not commit, the pickup goes back to the booking it had before
+    private void restoreBookingOnRollback(Long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        PickupCapacityEngine.Reservation previous = capacityEngine.bookingOf(id);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) capacityEngine.restore(id, previous);
+            }
+        });
+    }
+
     private PickupDto toDto(Pickup p) {
         PickupDto d = new PickupDto();
         d.id = p.getId();
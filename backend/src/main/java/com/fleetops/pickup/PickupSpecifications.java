@@ -0,0 +1,89 @@
+package com.fleetops.pickup;
+
+import com.fleetops.pickup.dto.PickupSearchCriteria;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Specification building blocks for pickup search. Equality and range predicates are kept on the
+ * raw columns so they can use idx_pickups_date_status and idx_pickups_staff_date; only the free
+ * text predicate lower-cases its columns.
+ */
+public final class PickupSpecifications {
+
+    private PickupSpecifications() {}
+
+    public static Specification<Pickup> from(PickupSearchCriteria criteria) {
+        Specification<Pickup> spec = Specification.where(null);
+        if (criteria == null) return spec;
+        return spec
+                .and(pickupDateBetween(criteria.dateFrom, criteria.dateTo))
+                .and(hasStatusIn(criteria.statuses))
+                .and(assignedTo(criteria.assignedStaffId))
+                .and(forClient(criteria.clientId))
+                .and(hasType(criteria.pickupType))
+                .and(matchesText(criteria.query));
+    }
+
+    public static Specification<Pickup> pickupDateBetween(LocalDate from, LocalDate to) {
+        if (from == null && to == null) return null;
+        return (root, query, cb) -> {
+            if (from == null) return cb.lessThanOrEqualTo(root.get("pickupDate"), to);
+            if (to == null) return cb.greaterThanOrEqualTo(root.get("pickupDate"), from);
+            return cb.between(root.get("pickupDate"), from, to);
+        };
+    }
+
+    /**
+     * Statuses are stored lower-case (e.g. "scheduled", "in-progress"), so input is normalized
+     * instead of wrapping the column in lower() and losing the index.
+     */
+    public static Specification<Pickup> hasStatusIn(Collection<String> statuses) {
+        if (statuses == null) return null;
+        List<String> normalized = statuses.stream()
+                .filter(s -> s != null && !s.isBlank())
+                .map(s -> s.trim().toLowerCase(Locale.ROOT))
+                .distinct()
+                .toList();
+        if (normalized.isEmpty()) return null;
+        if (normalized.size() == 1) {
+            return (root, query, cb) -> cb.equal(root.get("status"), normalized.get(0));
+        }
+        return (root, query, cb) -> root.get("status").in(normalized);
+    }
+
+    public static Specification<Pickup> assignedTo(Long staffId) {
+        if (staffId == null) return null;
+        return (root, query, cb) -> cb.equal(root.get("assignedStaffId"), staffId);
+    }
+
+    public static Specification<Pickup> forClient(Long clientId) {
+        if (clientId == null) return null;
+        // Compares the client_id column directly; no join to clients
+        return (root, query, cb) -> cb.equal(root.get("client").get("id"), clientId);
+    }
+
+    public static Specification<Pickup> hasType(String pickupType) {
+        if (pickupType == null || pickupType.isBlank()) return null;
+        return (root, query, cb) -> cb.equal(root.get("pickupType"), pickupType.trim());
+    }
+
+    public static Specification<Pickup> matchesText(String text) {
+        if (text == null || text.isBlank()) return null;
+        String pattern = "%" + escapeLike(text.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("pickupId")), pattern, '\\'),
+                cb.like(cb.lower(root.get("clientName")), pattern, '\\'),
+                cb.like(cb.lower(root.get("pickupAddress")), pattern, '\\'),
+                cb.like(cb.lower(root.get("assignedStaffName")), pattern, '\\'),
+                cb.like(root.get("contactNumber"), pattern, '\\'));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
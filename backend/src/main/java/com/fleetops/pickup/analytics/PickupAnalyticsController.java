@@ -0,0 +1,81 @@
+package com.fleetops.pickup.analytics;
+
+import com.fleetops.pickup.analytics.dto.ClientVolumeDto;
+import com.fleetops.pickup.analytics.dto.DailyVolumeDto;
+import com.fleetops.pickup.analytics.dto.HeatmapDto;
+import com.fleetops.pickup.analytics.dto.PickupAnalyticsDto;
+import com.fleetops.pickup.analytics.dto.StaffPerformanceDto;
+import com.fleetops.pickup.analytics.dto.StatusCountDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pickup analytics served from the daily rollup. Every endpoint takes an optional inclusive
+ * {@code from}/{@code to} pickup date range (ISO dates, default: last 30 days, max 366 days).
+ */
+@RestController
+@RequestMapping("/api/v1/pickups/analytics")
+public class PickupAnalyticsController {
+
+    @Autowired
+    private PickupAnalyticsService analyticsService;
+
+    @GetMapping("/overview")
+    public PickupAnalyticsDto overview(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int topClients) {
+        return analyticsService.getOverview(from, to, topClients);
+    }
+
+    @GetMapping("/volume")
+    public List<DailyVolumeDto> volume(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return analyticsService.getVolumeByDay(from, to);
+    }
+
+    @GetMapping("/status-distribution")
+    public List<StatusCountDto> statusDistribution(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return analyticsService.getStatusDistribution(from, to);
+    }
+
+    @GetMapping("/staff")
+    public List<StaffPerformanceDto> staff(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return analyticsService.getStaffPerformance(from, to);
+    }
+
+    @GetMapping("/heatmap")
+    public HeatmapDto heatmap(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return analyticsService.getHeatmap(from, to);
+    }
+
+    @GetMapping("/top-clients")
+    public List<ClientVolumeDto> topClients(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        return analyticsService.getTopClients(from, to, limit);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidRange(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", "Invalid date range", "message", e.getMessage()));
+    }
+}
@@ -0,0 +1,164 @@
+package com.fleetops.pickup.analytics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Maintains {@code pickup_analytics_rollup} from {@code pickups}.
+ *
+ * A frequent refresh recomputes a trailing/leading window of pickup dates, where edits happen;
+ * a nightly pass rebuilds every date so late edits to old pickups are eventually reflected.
+ * Each pass is one DELETE plus one INSERT ... SELECT over a single scan of the affected pickups,
+ * in one transaction guarded by a transaction-scoped advisory lock so concurrent instances skip
+ * rather than collide.
+ */
+@Service
+public class PickupAnalyticsRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PickupAnalyticsRollupService.class);
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long ROLLUP_LOCK_KEY = 0x5049_434B_5550_5231L;
+
+    private static final String DELETE_RANGE_SQL =
+            "DELETE FROM pickup_analytics_rollup WHERE rollup_date BETWEEN ? AND ?";
+
+    private static final String DELETE_ALL_SQL = "DELETE FROM pickup_analytics_rollup";
+
+    private static final String INSERT_SQL =
+            "WITH src AS (" +
+            "  SELECT pickup_date, lower(status) AS status, assigned_staff_id, assigned_staff_name, " +
+            "         client_id, client_name, pickup_time, COALESCE(items_count, 0) AS items, " +
+            "         CASE WHEN lower(status) = 'completed' AND completed_at IS NOT NULL AND created_at IS NOT NULL " +
+            "              THEN GREATEST(EXTRACT(EPOCH FROM (completed_at - created_at)), 0) END AS completion_seconds " +
+            "  FROM pickups WHERE pickup_date BETWEEN ? AND ?) " +
+            "INSERT INTO pickup_analytics_rollup " +
+            "  (rollup_date, dimension, dim_key, dim_label, pickup_count, item_count, completed_count, completion_seconds, refreshed_at) " +
+            "SELECT pickup_date, 'STATUS', COALESCE(status, 'unknown'), COALESCE(status, 'unknown'), count(*), sum(items), " +
+            "       count(completion_seconds), COALESCE(round(sum(completion_seconds)), 0), now() " +
+            "  FROM src GROUP BY pickup_date, COALESCE(status, 'unknown') " +
+            "UNION ALL " +
+            "SELECT pickup_date, 'STAFF', " +
+            "       COALESCE(assigned_staff_id::text, 'name:' || assigned_staff_name, 'unassigned'), " +
+            "       max(assigned_staff_name), count(*), sum(items), " +
+            "       count(completion_seconds), COALESCE(round(sum(completion_seconds)), 0), now() " +
+            "  FROM src GROUP BY pickup_date, COALESCE(assigned_staff_id::text, 'name:' || assigned_staff_name, 'unassigned') " +
+            "UNION ALL " +
+            "SELECT pickup_date, 'HOUR', EXTRACT(HOUR FROM pickup_time)::int::text, NULL, count(*), sum(items), " +
+            "       count(completion_seconds), COALESCE(round(sum(completion_seconds)), 0), now() " +
+            "  FROM src WHERE pickup_time IS NOT NULL GROUP BY pickup_date, EXTRACT(HOUR FROM pickup_time)::int " +
+            "UNION ALL " +
+            "SELECT pickup_date, 'CLIENT', " +
+            "       COALESCE(client_id::text, 'name:' || lower(client_name), 'unknown'), " +
+            "       max(client_name), count(*), sum(items), " +
+            "       count(completion_seconds), COALESCE(round(sum(completion_seconds)), 0), now() " +
+            "  FROM src GROUP BY pickup_date, COALESCE(client_id::text, 'name:' || lower(client_name), 'unknown')";
+
+    private static final String DATE_BOUNDS_SQL =
+            "SELECT min(pickup_date), max(pickup_date) FROM pickups";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PickupAnalyticsService analyticsService;
+    private final boolean enabled;
+    private final int recentDays;
+    private final int futureDays;
+
+    public PickupAnalyticsRollupService(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        PickupAnalyticsService analyticsService,
+                                        @Value("${app.pickup.analytics.rollup-enabled:true}") boolean enabled,
+                                        @Value("${app.pickup.analytics.recent-days:45}") int recentDays,
+                                        @Value("${app.pickup.analytics.future-days:30}") int futureDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.analyticsService = analyticsService;
+        this.enabled = enabled;
+        this.recentDays = recentDays;
+        this.futureDays = futureDays;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        if (!enabled) return;
+        Integer rows = jdbcTemplate.queryForObject("SELECT count(*) FROM pickup_analytics_rollup", Integer.class);
+        if (rows == null || rows == 0) {
+            rebuildAll();
+        } else {
+            refreshRecent();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.pickup.analytics.refresh-interval-ms:300000}",
+            initialDelayString = "${app.pickup.analytics.refresh-interval-ms:300000}")
+    public void scheduledRefresh() {
+        if (enabled) refreshRecent();
+    }
+
+    @Scheduled(cron = "${app.pickup.analytics.full-rebuild-cron:0 30 2 * * *}")
+    public void scheduledRebuild() {
+        if (enabled) rebuildAll();
+    }
+
+    /**
+     * Recomputes the rollup for pickup dates in [today - recentDays, today + futureDays].
+     *
+     * @return false when another instance holds the rollup lock
+     */
+    public boolean refreshRecent() {
+        LocalDate today = LocalDate.now();
+        return refresh(today.minusDays(recentDays), today.plusDays(futureDays), false);
+    }
+
+    /**
+     * Recomputes the rollup for every pickup date.
+     *
+     * @return false when another instance holds the rollup lock
+     */
+    public boolean rebuildAll() {
+        LocalDate[] bounds = jdbcTemplate.queryForObject(DATE_BOUNDS_SQL, (rs, i) -> new LocalDate[]{
+                rs.getDate(1) != null ? rs.getDate(1).toLocalDate() : null,
+                rs.getDate(2) != null ? rs.getDate(2).toLocalDate() : null});
+        if (bounds == null || bounds[0] == null) {
+            return refresh(LocalDate.now(), LocalDate.now(), true);
+        }
+        return refresh(bounds[0], bounds[1], true);
+    }
+
+    private boolean refresh(LocalDate from, LocalDate to, boolean replaceAll) {
+        long start = System.currentTimeMillis();
+        Integer inserted = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ROLLUP_LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) return null;
+
+            if (replaceAll) {
+                jdbcTemplate.update(DELETE_ALL_SQL);
+            } else {
+                jdbcTemplate.update(DELETE_RANGE_SQL, Date.valueOf(from), Date.valueOf(to));
+            }
+            return jdbcTemplate.update(INSERT_SQL, Date.valueOf(from), Date.valueOf(to));
+        });
+
+        if (inserted == null) {
+            logger.debug("Pickup analytics rollup skipped; another instance is refreshing");
+            return false;
+        }
+        analyticsService.onRollupRefreshed(Instant.now());
+        logger.info("Pickup analytics rollup refreshed {} .. {} ({} rows, full={}) in {} ms",
+                from, to, inserted, replaceAll, System.currentTimeMillis() - start);
+        return true;
+    }
+}
@@ -0,0 +1,223 @@
+package com.fleetops.pickup.analytics;
+
+import com.fleetops.cache.BoundedCache;
+import com.fleetops.pickup.analytics.dto.ClientVolumeDto;
+import com.fleetops.pickup.analytics.dto.DailyVolumeDto;
+import com.fleetops.pickup.analytics.dto.HeatmapDto;
+import com.fleetops.pickup.analytics.dto.PickupAnalyticsDto;
+import com.fleetops.pickup.analytics.dto.StaffPerformanceDto;
+import com.fleetops.pickup.analytics.dto.StatusCountDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Read side of pickup analytics. Every aggregate is answered from {@code pickup_analytics_rollup}
+ * (a few rows per day) rather than from {@code pickups}, and results are kept in a short-TTL cache
+ * that is also cleared whenever the rollup is refreshed.
+ */
+@Service
+public class PickupAnalyticsService {
+
+    public static final int MAX_RANGE_DAYS = 366;
+    public static final int DEFAULT_RANGE_DAYS = 30;
+    public static final int MAX_TOP_CLIENTS = 100;
+
+    private static final String VOLUME_SQL =
+            "SELECT rollup_date, dim_key, pickup_count FROM pickup_analytics_rollup " +
+            "WHERE dimension = 'STATUS' AND rollup_date BETWEEN ? AND ? ORDER BY rollup_date, dim_key";
+
+    private static final String STATUS_SQL =
+            "SELECT dim_key, sum(pickup_count) AS pickups FROM pickup_analytics_rollup " +
+            "WHERE dimension = 'STATUS' AND rollup_date BETWEEN ? AND ? " +
+            "GROUP BY dim_key ORDER BY pickups DESC, dim_key";
+
+    private static final String STAFF_SQL =
+            "SELECT dim_key, max(dim_label) AS label, sum(pickup_count) AS pickups, " +
+            "       sum(completed_count) AS completed, sum(completion_seconds) AS seconds " +
+            "FROM pickup_analytics_rollup WHERE dimension = 'STAFF' AND rollup_date BETWEEN ? AND ? " +
+            "GROUP BY dim_key ORDER BY pickups DESC, dim_key";
+
+    private static final String HEATMAP_SQL =
+            "SELECT EXTRACT(ISODOW FROM rollup_date)::int AS dow, dim_key::int AS hour, sum(pickup_count) AS pickups " +
+            "FROM pickup_analytics_rollup WHERE dimension = 'HOUR' AND rollup_date BETWEEN ? AND ? " +
+            "GROUP BY 1, 2";
+
+    private static final String TOP_CLIENTS_SQL =
+            "SELECT dim_key, max(dim_label) AS label, sum(pickup_count) AS pickups, sum(item_count) AS items " +
+            "FROM pickup_analytics_rollup WHERE dimension = 'CLIENT' AND rollup_date BETWEEN ? AND ? " +
+            "GROUP BY dim_key ORDER BY pickups DESC, dim_key LIMIT ?";
+
+    private static final String REFRESHED_AT_SQL =
+            "SELECT max(refreshed_at) FROM pickup_analytics_rollup";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BoundedCache<String, Object> cache;
+    private volatile Instant lastRefreshedAt;
+
+    public PickupAnalyticsService(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.pickup.analytics.cache-ttl-ms:60000}") long cacheTtlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = new BoundedCache<>(256, cacheTtlMillis);
+    }
+
+    public PickupAnalyticsDto getOverview(LocalDate from, LocalDate to, int topClients) {
+        LocalDate[] range = resolveRange(from, to);
+        PickupAnalyticsDto dto = new PickupAnalyticsDto();
+        dto.from = range[0].toString();
+        dto.to = range[1].toString();
+        dto.refreshedAt = getRefreshedAt();
+        dto.volumeByDay = getVolumeByDay(range[0], range[1]);
+        dto.statusDistribution = getStatusDistribution(range[0], range[1]);
+        dto.staffPerformance = getStaffPerformance(range[0], range[1]);
+        dto.heatmap = getHeatmap(range[0], range[1]);
+        dto.topClients = getTopClients(range[0], range[1], topClients);
+        return dto;
+    }
+
+    public List<DailyVolumeDto> getVolumeByDay(LocalDate from, LocalDate to) {
+        LocalDate[] range = resolveRange(from, to);
+        return cached(key("volume", range), () -> {
+            Map<LocalDate, DailyVolumeDto> byDate = new LinkedHashMap<>();
+            jdbcTemplate.query(VOLUME_SQL, rs -> {
+                LocalDate date = rs.getDate("rollup_date").toLocalDate();
+                DailyVolumeDto day = byDate.computeIfAbsent(date, d -> {
+                    DailyVolumeDto v = new DailyVolumeDto();
+                    v.date = d.toString();
+                    v.byStatus = new LinkedHashMap<>();
+                    return v;
+                });
+                long count = rs.getLong("pickup_count");
+                day.byStatus.put(rs.getString("dim_key"), count);
+                day.total += count;
+            }, Date.valueOf(range[0]), Date.valueOf(range[1]));
+            return new ArrayList<>(byDate.values());
+        });
+    }
+
+    public List<StatusCountDto> getStatusDistribution(LocalDate from, LocalDate to) {
+        LocalDate[] range = resolveRange(from, to);
+        return cached(key("status", range), () -> {
+            List<StatusCountDto> rows = jdbcTemplate.query(STATUS_SQL, (rs, i) -> {
+                StatusCountDto s = new StatusCountDto();
+                s.status = rs.getString("dim_key");
+                s.count = rs.getLong("pickups");
+                return s;
+            }, Date.valueOf(range[0]), Date.valueOf(range[1]));
+            long total = rows.stream().mapToLong(s -> s.count).sum();
+            for (StatusCountDto s : rows) {
+                s.percentage = total == 0 ? 0 : Math.round(s.count * 10000.0 / total) / 100.0;
+            }
+            return rows;
+        });
+    }
+
+    public List<StaffPerformanceDto> getStaffPerformance(LocalDate from, LocalDate to) {
+        LocalDate[] range = resolveRange(from, to);
+        return cached(key("staff", range), () -> jdbcTemplate.query(STAFF_SQL, (rs, i) -> {
+            String key = rs.getString("dim_key");
+            StaffPerformanceDto s = new StaffPerformanceDto();
+            s.staffId = parseId(key);
+            s.staffName = rs.getString("label");
+            s.totalPickups = rs.getLong("pickups");
+            s.completedPickups = rs.getLong("completed");
+            long seconds = rs.getLong("seconds");
+            s.avgCompletionMinutes = s.completedPickups == 0 ? null
+                    : Math.round(seconds / 60.0 / s.completedPickups * 10) / 10.0;
+            return s;
+        }, Date.valueOf(range[0]), Date.valueOf(range[1])));
+    }
+
+    public HeatmapDto getHeatmap(LocalDate from, LocalDate to) {
+        LocalDate[] range = resolveRange(from, to);
+        return cached(key("heatmap", range), () -> {
+            HeatmapDto heatmap = new HeatmapDto();
+            heatmap.counts = new long[7][24];
+            jdbcTemplate.query(HEATMAP_SQL, rs -> {
+                long count = rs.getLong("pickups");
+                heatmap.counts[rs.getInt("dow") - 1][rs.getInt("hour")] = count;
+                heatmap.max = Math.max(heatmap.max, count);
+            }, Date.valueOf(range[0]), Date.valueOf(range[1]));
+            return heatmap;
+        });
+    }
+
+    public List<ClientVolumeDto> getTopClients(LocalDate from, LocalDate to, int limit) {
+        LocalDate[] range = resolveRange(from, to);
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_TOP_CLIENTS));
+        return cached(key("clients", range) + ':' + boundedLimit, () -> jdbcTemplate.query(TOP_CLIENTS_SQL, (rs, i) -> {
+            ClientVolumeDto c = new ClientVolumeDto();
+            c.clientId = parseId(rs.getString("dim_key"));
+            c.clientName = rs.getString("label");
+            c.pickups = rs.getLong("pickups");
+            c.items = rs.getLong("items");
+            return c;
+        }, Date.valueOf(range[0]), Date.valueOf(range[1]), boundedLimit));
+    }
+
+    /**
+     * Time of the last rollup refresh seen by this instance, or read from the table when this
+     * instance has not refreshed yet (e.g. another instance held the rollup lock).
+     */
+    public Instant getRefreshedAt() {
+        Instant known = lastRefreshedAt;
+        if (known != null) return known;
+        Timestamp ts = jdbcTemplate.queryForObject(REFRESHED_AT_SQL, Timestamp.class);
+        return ts != null ? ts.toInstant() : null;
+    }
+
+    /**
+     * Clears cached aggregates; called after each rollup refresh.
+     */
+    public void onRollupRefreshed(Instant refreshedAt) {
+        lastRefreshedAt = refreshedAt;
+        cache.invalidateAll();
+    }
+
+    /**
+     * Defaults to the last {@value #DEFAULT_RANGE_DAYS} days ending today and rejects inverted or
+     * over-long ranges.
+     */
+    static LocalDate[] resolveRange(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Date range must not exceed " + MAX_RANGE_DAYS + " days");
+        }
+        return new LocalDate[]{start, end};
+    }
+
+    // Rollup keys are numeric ids, or prefixed names for rows without one
+    private static Long parseId(String key) {
+        if (key == null || key.isEmpty() || !Character.isDigit(key.charAt(0))) return null;
+        try {
+            return Long.valueOf(key);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String key(String aggregate, LocalDate[] range) {
+        return aggregate + ':' + range[0] + ':' + range[1];
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T cached(String key, Supplier<T> loader) {
+        return (T) cache.computeIfAbsent(key, k -> Objects.requireNonNull(loader.get(), "analytics result"));
+    }
+}
@@ -0,0 +1,10 @@
+package com.fleetops.pickup.analytics.dto;
+
+public class ClientVolumeDto {
+    public Long clientId;       // Null for pickups created with a free-text client name
+    public String clientName;
+    public long pickups;
+    public long items;
+
+    public ClientVolumeDto() {}
+}
@@ -0,0 +1,11 @@
+package com.fleetops.pickup.analytics.dto;
+
+import java.util.Map;
+
+public class DailyVolumeDto {
+    public String date;                  // ISO date (pickup_date)
+    public long total;
+    public Map<String, Long> byStatus;   // status -> pickups on that day
+
+    public DailyVolumeDto() {}
+}
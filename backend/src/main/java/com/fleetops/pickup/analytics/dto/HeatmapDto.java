@@ -0,0 +1,12 @@
+package com.fleetops.pickup.analytics.dto;
+
+/**
+ * Scheduled pickups by day of week (row 0 = Monday) and hour of pickup time (column 0-23).
+ * Pickups without a pickup time are not counted.
+ */
+public class HeatmapDto {
+    public long[][] counts;
+    public long max;
+
+    public HeatmapDto() {}
+}
@@ -0,0 +1,20 @@
+package com.fleetops.pickup.analytics.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Dashboard payload combining every pickup analytics aggregate for one date range.
+ */
+public class PickupAnalyticsDto {
+    public String from;
+    public String to;
+    public Instant refreshedAt;   // Last rollup refresh; aggregates are at most one refresh interval old
+    public List<DailyVolumeDto> volumeByDay;
+    public List<StatusCountDto> statusDistribution;
+    public List<StaffPerformanceDto> staffPerformance;
+    public HeatmapDto heatmap;
+    public List<ClientVolumeDto> topClients;
+
+    public PickupAnalyticsDto() {}
+}
@@ -0,0 +1,11 @@
+package com.fleetops.pickup.analytics.dto;
+
+public class StaffPerformanceDto {
+    public Long staffId;                  // Null for pickups assigned by name only or unassigned
+    public String staffName;
+    public long totalPickups;
+    public long completedPickups;
+    public Double avgCompletionMinutes;   // created -> completed; null when nothing completed
+
+    public StaffPerformanceDto() {}
+}
@@ -0,0 +1,9 @@
+package com.fleetops.pickup.analytics.dto;
+
+public class StatusCountDto {
+    public String status;
+    public long count;
+    public double percentage;   // Share of all pickups in the range, 0-100
+
+    public StatusCountDto() {}
+}
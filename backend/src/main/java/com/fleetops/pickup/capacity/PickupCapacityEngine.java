@@ -0,0 +1,345 @@
+package com.fleetops.pickup.capacity;
+
+import com.fleetops.pickup.dto.AvailableSlotDto;
+import com.fleetops.user.dto.UserResponse;
+import com.fleetops.user.service.UserService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory pickup slot occupancy per staff member and day.
+ *
+ * <p>The working day ({@code day-start}..{@code day-end}) is cut into fixed slots of
+ * {@code slot-minutes}; each (staff, day) is one {@code long} bitset with bit {@code i} set when
+ * slot {@code i} is booked, so availability is a handful of bit operations per staff-day. A pickup
+ * occupies {@code slots-per-pickup} consecutive slots from its pickup time. Pickups without staff,
+ * date or time, or with a time outside the working day, are not capacity managed.</p>
+ *
+ * <p>Reads are lock-free; reservations and releases are serialized on the engine so a
+ * check-and-book is atomic. The engine is rebuilt from {@code pickups} at startup and nightly and
+ * kept current by {@code PickupServiceImpl}; it guards bookings made through this instance.</p>
+ */
+@Component
+public class PickupCapacityEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PickupCapacityEngine.class);
+
+    private static final String LOAD_SQL =
+            "SELECT id, assigned_staff_id, pickup_date, pickup_time FROM pickups " +
+            "WHERE assigned_staff_id IS NOT NULL AND pickup_time IS NOT NULL " +
+            "AND pickup_date >= ? AND lower(status) <> 'cancelled'";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserService userService;
+    private final Clock clock;
+
+    private final int slotMinutes;
+    private final LocalTime dayStart;
+    private final int slotsPerDay;
+    private final int slotsPerPickup;
+    private final long fullDayMask;
+
+    // (staffId, epochDay) -> occupied slot bits
+    private final Map<Long, Long> occupancy = new ConcurrentHashMap<>();
+    // pickup id -> its reservation, and the pickups booked per (staffId, epochDay)
+    private final Map<Long, Reservation> reservations = new HashMap<>();
+    private final Map<Long, Set<Long>> pickupsByStaffDay = new HashMap<>();
+    // Bookable staff (active agents), in roster order
+    private volatile Map<Long, String> roster = Map.of();
+
+    public PickupCapacityEngine(JdbcTemplate jdbcTemplate,
+                                UserService userService,
+                                @Value("${app.pickup.capacity.slot-minutes:30}") int slotMinutes,
+                                @Value("${app.pickup.capacity.day-start:08:00}") String dayStart,
+                                @Value("${app.pickup.capacity.day-end:20:00}") String dayEnd,
+                                @Value("${app.pickup.capacity.slots-per-pickup:1}") int slotsPerPickup) {
+        this(jdbcTemplate, userService, Clock.systemDefaultZone(), slotMinutes,
+                LocalTime.parse(dayStart), LocalTime.parse(dayEnd), slotsPerPickup);
+    }
+
+    PickupCapacityEngine(JdbcTemplate jdbcTemplate, UserService userService, Clock clock,
+                         int slotMinutes, LocalTime dayStart, LocalTime dayEnd, int slotsPerPickup) {
+        if (slotMinutes <= 0 || !dayEnd.isAfter(dayStart)) {
+            throw new IllegalArgumentException("Invalid pickup capacity slot configuration");
+        }
+        int slots = (int) ((dayEnd.toSecondOfDay() - dayStart.toSecondOfDay()) / 60 / slotMinutes);
+        if (slots < 1 || slots > Long.SIZE) {
+            throw new IllegalArgumentException("Working day must split into 1-64 slots, got " + slots);
+        }
+        if (slotsPerPickup < 1 || slotsPerPickup > slots) {
+            throw new IllegalArgumentException("slots-per-pickup must be between 1 and " + slots);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.userService = userService;
+        this.clock = clock;
+        this.slotMinutes = slotMinutes;
+        this.dayStart = dayStart;
+        this.slotsPerDay = slots;
+        this.slotsPerPickup = slotsPerPickup;
+        this.fullDayMask = slots == Long.SIZE ? -1L : (1L << slots) - 1;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        refreshRoster();
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.pickup.capacity.roster-refresh-ms:300000}",
+            initialDelayString = "${app.pickup.capacity.roster-refresh-ms:300000}")
+    public void refreshRoster() {
+        Map<Long, String> fresh = new LinkedHashMap<>();
+        for (UserResponse agent : userService.getActiveAgents()) {
+            fresh.put(agent.id(), agent.fullName() != null ? agent.fullName() : agent.username());
+        }
+        roster = fresh;
+    }
+
+    /**
+     * Reloads occupancy for today onwards from the pickups table.
+     */
+    @Scheduled(cron = "${app.pickup.capacity.rebuild-cron:0 5 0 * * *}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        occupancy.clear();
+        reservations.clear();
+        pickupsByStaffDay.clear();
+        int[] loaded = {0};
+        jdbcTemplate.query(LOAD_SQL, rs -> {
+            Reservation r = reservationFor(rs.getLong("assigned_staff_id"),
+                    rs.getDate("pickup_date").toLocalDate(), rs.getTime("pickup_time").toLocalTime());
+            if (r != null) {
+                // Existing data may already overlap; record it as booked regardless
+                apply(rs.getLong("id"), r);
+                loaded[0]++;
+            }
+        }, Date.valueOf(LocalDate.now(clock)));
+        logger.info("Pickup capacity engine loaded {} reservations in {} ms", loaded[0], System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Atomically books the slots for a pickup that is about to be saved.
+     *
+     * @return the reservation to {@link #bind} once the pickup has an id, or null when the
+     *         pickup is not capacity managed
+     * @throws PickupSlotUnavailableException if any of the slots is already booked
+     */
+    public synchronized Reservation reserve(Long staffId, LocalDate date, LocalTime time) {
+        Reservation r = reservationFor(staffId, date, time);
+        if (r == null) return null;
+        long bits = occupancy.getOrDefault(r.staffDayKey(), 0L);
+        if ((bits & r.mask()) != 0) {
+            throw new PickupSlotUnavailableException("Staff " + staffId + " is already booked at " + date + " " + time);
+        }
+        occupancy.put(r.staffDayKey(), bits | r.mask());
+        return r;
+    }
+
+    /**
+     * Moves a pickup to new slots, keeping its current booking if the new slots are taken.
+     *
+     * @throws PickupSlotUnavailableException if the new slots are booked by another pickup
+     */
+    public synchronized void rebook(Long pickupId, Long staffId, LocalDate date, LocalTime time) {
+        Reservation previous = reservations.get(pickupId);
+        Reservation next = reservationFor(staffId, date, time);
+        if (previous != null && previous.equals(next)) return;
+        release(pickupId);
+        if (next == null) return;
+        long bits = occupancy.getOrDefault(next.staffDayKey(), 0L);
+        if ((bits & next.mask()) != 0) {
+            if (previous != null) apply(pickupId, previous);
+            throw new PickupSlotUnavailableException("Staff " + staffId + " is already booked at " + date + " " + time);
+        }
+        apply(pickupId, next);
+    }
+
+    /**
+     * Associates a reservation made by {@link #reserve} with the saved pickup.
+     */
+    public synchronized void bind(Long pickupId, Reservation reservation) {
+        if (reservation != null) apply(pickupId, reservation);
+    }
+
+    /**
+     * Frees an unbound reservation, e.g. when saving the pickup failed.
+     */
+    public synchronized void cancel(Reservation reservation) {
+        if (reservation == null) return;
+        unbook(reservation);
+    }
+
+    /**
+     * Current booking of a saved pickup, or null when it holds none; pass it to {@link #restore}
+     * to undo a later change.
+     */
+    public synchronized Reservation bookingOf(Long pickupId) {
+        return reservations.get(pickupId);
+    }
+
+    /**
+     * Puts a pickup back on the booking returned earlier by {@link #bookingOf}, e.g. when the
+     * transaction that moved or released it did not commit. A null booking releases the pickup.
+     */
+    public synchronized void restore(Long pickupId, Reservation booking) {
+        release(pickupId);
+        if (booking != null) apply(pickupId, booking);
+    }
+
+    public synchronized void release(Long pickupId) {
+        Reservation r = reservations.remove(pickupId);
+        if (r == null) return;
+        Set<Long> pickups = pickupsByStaffDay.get(r.staffDayKey());
+        if (pickups != null) {
+            pickups.remove(pickupId);
+            if (pickups.isEmpty()) pickupsByStaffDay.remove(r.staffDayKey());
+        }
+        unbook(r);
+    }
+
+    /**
+     * First {@code limit} free slots between the given dates (inclusive), ordered by date, time and
+     * roster order. Slots that already started are skipped. {@code staffIds} narrows the staff
+     * considered; when empty every active agent is.
+     */
+    public List<AvailableSlotDto> findFreeSlots(LocalDate from, LocalDate to, Collection<Long> staffIds, int limit) {
+        Map<Long, String> staff = roster;
+        List<Long> candidates = new ArrayList<>();
+        if (staffIds == null || staffIds.isEmpty()) {
+            candidates.addAll(staff.keySet());
+        } else {
+            for (Long id : staffIds) {
+                if (staff.containsKey(id)) candidates.add(id);
+            }
+        }
+        List<AvailableSlotDto> result = new ArrayList<>(Math.max(0, limit));
+        if (candidates.isEmpty() || limit <= 0) return result;
+
+        LocalDateTime now = LocalDateTime.now(clock);
+        long[] free = new long[candidates.size()];
+        for (LocalDate date = from; !date.isAfter(to) && result.size() < limit; date = date.plusDays(1)) {
+            long notStarted = notStartedMask(date, now);
+            if (notStarted == 0) continue;
+            long epochDay = date.toEpochDay();
+            long any = 0;
+            for (int s = 0; s < free.length; s++) {
+                long bits = occupancy.getOrDefault(staffDayKey(candidates.get(s), epochDay), 0L);
+                free[s] = startableMask(bits) & notStarted;
+                any |= free[s];
+            }
+            while (any != 0 && result.size() < limit) {
+                int slot = Long.numberOfTrailingZeros(any);
+                long bit = 1L << slot;
+                for (int s = 0; s < free.length && result.size() < limit; s++) {
+                    if ((free[s] & bit) != 0) {
+                        result.add(slot(candidates.get(s), staff.get(candidates.get(s)), date, slot));
+                    }
+                }
+                any &= ~bit;
+            }
+        }
+        return result;
+    }
+
+    public boolean isFree(Long staffId, LocalDate date, LocalTime time) {
+        Reservation r = reservationFor(staffId, date, time);
+        return r == null || (occupancy.getOrDefault(r.staffDayKey(), 0L) & r.mask()) == 0;
+    }
+
+    // Bits of slots where a pickup can start: the slot and the following slotsPerPickup-1 are free
+    private long startableMask(long occupied) {
+        long free = ~occupied & fullDayMask;
+        long startable = free;
+        for (int i = 1; i < slotsPerPickup; i++) {
+            startable &= free >>> i;
+        }
+        return startable & (fullDayMask >>> (slotsPerPickup - 1));
+    }
+
+    private long notStartedMask(LocalDate date, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        if (date.isBefore(today)) return 0;
+        if (date.isAfter(today)) return fullDayMask;
+        int minutes = now.toLocalTime().toSecondOfDay() / 60 - dayStart.toSecondOfDay() / 60;
+        if (minutes < 0) return fullDayMask;
+        int firstSlot = minutes / slotMinutes + 1;
+        if (firstSlot >= slotsPerDay) return 0;
+        return fullDayMask & (-1L << firstSlot);
+    }
+
+    private AvailableSlotDto slot(Long staffId, String staffName, LocalDate date, int slot) {
+        AvailableSlotDto dto = new AvailableSlotDto();
+        dto.staffId = staffId;
+        dto.staffName = staffName;
+        dto.date = date.toString();
+        LocalTime start = dayStart.plusMinutes((long) slot * slotMinutes);
+        dto.startTime = start.toString();
+        dto.endTime = start.plusMinutes((long) slotsPerPickup * slotMinutes).toString();
+        return dto;
+    }
+
+    private void apply(Long pickupId, Reservation r) {
+        reservations.put(pickupId, r);
+        pickupsByStaffDay.computeIfAbsent(r.staffDayKey(), k -> new HashSet<>()).add(pickupId);
+        occupancy.merge(r.staffDayKey(), r.mask(), (a, b) -> a | b);
+    }
+
+    // Clears a reservation's bits, then re-applies the bound pickups of that staff-day so slots
+    // shared with overlapping legacy bookings stay booked; in-flight reservations are untouched
+    private void unbook(Reservation r) {
+        long bits = occupancy.getOrDefault(r.staffDayKey(), 0L) & ~r.mask();
+        Set<Long> pickups = pickupsByStaffDay.get(r.staffDayKey());
+        if (pickups != null) {
+            for (Long id : pickups) {
+                bits |= reservations.get(id).mask();
+            }
+        }
+        if (bits == 0) {
+            occupancy.remove(r.staffDayKey());
+        } else {
+            occupancy.put(r.staffDayKey(), bits);
+        }
+    }
+
+    private Reservation reservationFor(Long staffId, LocalDate date, LocalTime time) {
+        if (staffId == null || date == null || time == null) return null;
+        int minutes = time.toSecondOfDay() / 60 - dayStart.toSecondOfDay() / 60;
+        if (minutes < 0) return null;
+        int first = minutes / slotMinutes;
+        if (first >= slotsPerDay) return null;
+        int count = Math.min(slotsPerPickup, slotsPerDay - first);
+        long mask = (count == Long.SIZE ? -1L : (1L << count) - 1) << first;
+        return new Reservation(staffDayKey(staffId, date.toEpochDay()), mask);
+    }
+
+    private static long staffDayKey(long staffId, long epochDay) {
+        return (staffId << 24) | epochDay;
+    }
+
+    /**
+     * Booked slot bits for one staff-day.
+     */
+    public record Reservation(long staffDayKey, long mask) {
+    }
+}
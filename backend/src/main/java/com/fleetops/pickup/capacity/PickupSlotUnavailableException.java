@@ -0,0 +1,10 @@
+package com.fleetops.pickup.capacity;
+
+/**
+ * The requested pickup slot is already booked for the assigned staff member.
+ */
+public class PickupSlotUnavailableException extends RuntimeException {
+    public PickupSlotUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.fleetops.pickup.dto;
+
+/**
+ * A free pickup slot for one staff member; times are HH:mm.
+ */
+public class AvailableSlotDto {
+    public Long staffId;
+    public String staffName;
+    public String date;
+    public String startTime;
+    public String endTime;
+
+    public AvailableSlotDto() {}
+}
@@ -0,0 +1,17 @@
+package com.fleetops.pickup.dto;
+
+import com.fleetops.order.dto.CreateOrderDto;
+
+import java.util.List;
+
+/**
+ * Request to create orders (one per consignment) from a pickup in a single call.
+ * Client and sender fields left empty on a consignment are filled from the pickup and its client;
+ * sourcePickupId is always set to the pickup.
+ */
+public class ConvertPickupToOrdersDto {
+    public List<CreateOrderDto> consignments;
+    public String convertedBy;
+
+    public ConvertPickupToOrdersDto() {}
+}
@@ -0,0 +1,21 @@
+package com.fleetops.pickup.dto;
+
+import com.fleetops.order.dto.OrderDto;
+
+import java.util.List;
+
+/**
+ * Outcome of a pickup-to-orders conversion, including reconciliation of the items the agent
+ * recorded as received against the orders now linked to the pickup.
+ */
+public class PickupConversionResultDto {
+    public String pickupId;
+    public int ordersCreated;
+    public long totalOrdersForPickup;   // Including orders created by earlier conversions
+    public Integer itemsReceived;       // As recorded when the pickup was completed; null before that
+    public Long unconvertedItems;       // itemsReceived - totalOrdersForPickup; negative means more orders than items, null without itemsReceived
+    public boolean reconciled;          // true when every received item has exactly one order; false while unreconciled
+    public List<OrderDto> orders;
+
+    public PickupConversionResultDto() {}
+}
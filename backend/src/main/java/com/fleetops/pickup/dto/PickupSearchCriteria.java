@@ -0,0 +1,19 @@
+package com.fleetops.pickup.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Optional filters for pickup search. Null or empty fields are ignored.
+ */
+public class PickupSearchCriteria {
+    public LocalDate dateFrom;       // Inclusive pickup_date lower bound
+    public LocalDate dateTo;         // Inclusive pickup_date upper bound
+    public List<String> statuses;    // Any of (scheduled, in-progress, completed, cancelled)
+    public Long assignedStaffId;
+    public Long clientId;
+    public String pickupType;
+    public String query;             // Free text over pickupId, client name, address, staff and contact number
+
+    public PickupSearchCriteria() {}
+}
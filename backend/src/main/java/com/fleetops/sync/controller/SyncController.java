@@ -0,0 +1,67 @@
+package com.fleetops.sync.controller;
+
+import com.fleetops.sync.dto.SyncChangesResponse;
+import com.fleetops.sync.service.SyncFeedService;
+import com.fleetops.user.entity.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SyncController - Delta sync feed for offline-first clients.
+ */
+@RestController
+@RequestMapping("/api/v1/sync")
+public class SyncController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncController.class);
+
+    private final SyncFeedService syncFeedService;
+
+    public SyncController(SyncFeedService syncFeedService) {
+        this.syncFeedService = syncFeedService;
+    }
+
+    /**
+     * GET /api/v1/sync/changes
+     * Orders, delivery sheets and pickups changed since the cursor. Omit the cursor for the
+     * initial load and keep requesting while hasMore is true. Agents receive only their own
+     * sheets, orders and pickups; ADMIN/STAFF receive everything. An expired cursor returns 410
+     * and the client starts over without one.
+     */
+    @GetMapping("/changes")
+    @PreAuthorize("hasAnyRole('ADMIN', 'STAFF', 'AGENT')")
+    public ResponseEntity<?> getChanges(
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam(value = "limit", required = false) Integer limit,
+        @AuthenticationPrincipal User currentUser
+    ) {
+        Long agentId = currentUser.hasRole("ADMIN") || currentUser.hasRole("STAFF") ? null : currentUser.getId();
+        try {
+            SyncChangesResponse response = syncFeedService.getChanges(cursor, limit, agentId);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Rejected sync request from {}: {}", currentUser.getUsername(), ex.getMessage());
+            return error(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", ex.getMessage());
+        } catch (IllegalStateException ex) {
+            return error(HttpStatus.GONE, "CURSOR_EXPIRED", ex.getMessage());
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String code, String message) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", code);
+        error.put("message", message);
+        return ResponseEntity.status(status).body(error);
+    }
+}
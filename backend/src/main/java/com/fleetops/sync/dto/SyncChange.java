@@ -0,0 +1,38 @@
+package com.fleetops.sync.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * SyncChange - One entry of the sync feed.
+ *
+ * UPSERT carries the current row in {@code data}; DELETE is a tombstone telling the client to
+ * drop the entity, with {@code reason} CANCELLED, UNASSIGNED or DELETED.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SyncChange(
+    EntityType entityType,
+    Long id,
+    Operation op,
+    String reason,
+    Instant changedAt,
+    Object data
+) {
+
+    public enum EntityType {
+        ORDER, DELIVERY_SHEET, PICKUP
+    }
+
+    public enum Operation {
+        UPSERT, DELETE
+    }
+
+    public static SyncChange upsert(EntityType entityType, Long id, Instant changedAt, Object data) {
+        return new SyncChange(entityType, id, Operation.UPSERT, null, changedAt, data);
+    }
+
+    public static SyncChange tombstone(EntityType entityType, Long id, String reason, Instant changedAt) {
+        return new SyncChange(entityType, id, Operation.DELETE, reason, changedAt, null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.fleetops.sync.dto;
+
+import java.util.List;
+
+/**
+ * SyncChangesResponse - A page of the sync feed. Send {@code cursor} back to continue; when
+ * {@code hasMore} is true the next page can be requested immediately.
+ */
+public record SyncChangesResponse(
+    List<SyncChange> changes,
+    String cursor,
+    boolean hasMore
+) {}
@@ -0,0 +1,22 @@
+package com.fleetops.sync.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * SyncDeliverySheet - Delivery sheet fields carried by the sync feed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SyncDeliverySheet(
+    String sheetNumber,
+    String title,
+    String status,
+    Long assignedAgentId,
+    String assignedAgentName,
+    Integer totalOrders,
+    BigDecimal totalCodAmount,
+    LocalDate scheduledDate,
+    LocalDate deliveryDate
+) {}
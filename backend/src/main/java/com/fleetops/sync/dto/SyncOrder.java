@@ -0,0 +1,25 @@
+package com.fleetops.sync.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+/**
+ * SyncOrder - Order fields carried by the sync feed. deliverySheetId is set in agent feeds only.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SyncOrder(
+    String orderId,
+    String status,
+    String clientName,
+    String receiverName,
+    String receiverAddress,
+    String receiverContact,
+    String receiverPincode,
+    String receiverCity,
+    Integer itemCount,
+    BigDecimal codAmount,
+    String paymentStatus,
+    Long assignedStaffId,
+    Long deliverySheetId
+) {}
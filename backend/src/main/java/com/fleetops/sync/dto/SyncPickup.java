@@ -0,0 +1,23 @@
+package com.fleetops.sync.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * SyncPickup - Pickup fields carried by the sync feed.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SyncPickup(
+    String pickupId,
+    Long clientId,
+    String clientName,
+    String pickupAddress,
+    LocalDate pickupDate,
+    LocalTime pickupTime,
+    String status,
+    Long assignedStaffId,
+    String assignedStaffName,
+    Integer itemsCount
+) {}
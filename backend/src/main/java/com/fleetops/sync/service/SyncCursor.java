@@ -0,0 +1,109 @@
+package com.fleetops.sync.service;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Position of a client in the sync feed: the last (updated_at, id) delivered from each stream.
+ *
+ * <p>Encoded as URL-safe base64 of a version byte followed by one (epoch micros, id) pair per
+ * stream. Clients must treat the value as opaque and send it back unchanged.</p>
+ */
+public final class SyncCursor {
+
+    /**
+     * Streams of the feed, in the order their positions are encoded. At equal timestamps
+     * tombstones sort first so a removal never overtakes the re-add that followed it.
+     */
+    public enum Stream {
+        TOMBSTONES, ORDERS, DELIVERY_SHEETS, PICKUPS
+    }
+
+    private static final byte VERSION = 1;
+    private static final int ENCODED_BYTES = 1 + Stream.values().length * 2 * Long.BYTES;
+
+    private final long[] micros;
+    private final long[] ids;
+
+    private SyncCursor(long[] micros, long[] ids) {
+        this.micros = micros;
+        this.ids = ids;
+    }
+
+    /**
+     * Cursor for a first sync: every row of the entity streams, and only tombstones written
+     * from {@code tombstonesFrom} on (older removals concern rows the client never had).
+     */
+    public static SyncCursor initial(Instant tombstonesFrom) {
+        int n = Stream.values().length;
+        long[] micros = new long[n];
+        micros[Stream.TOMBSTONES.ordinal()] = toMicros(tombstonesFrom);
+        return new SyncCursor(micros, new long[n]);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the value was not produced by {@link #encode()}
+     */
+    public static SyncCursor decode(String value) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sync cursor");
+        }
+        if (bytes.length != ENCODED_BYTES || bytes[0] != VERSION) {
+            throw new IllegalArgumentException("Invalid sync cursor");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1);
+        int n = Stream.values().length;
+        long[] micros = new long[n];
+        long[] ids = new long[n];
+        try {
+            for (int i = 0; i < n; i++) {
+                micros[i] = buffer.getLong();
+                ids[i] = buffer.getLong();
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Invalid sync cursor");
+        }
+        return new SyncCursor(micros, ids);
+    }
+
+    public String encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(ENCODED_BYTES);
+        buffer.put(VERSION);
+        for (int i = 0; i < micros.length; i++) {
+            buffer.putLong(micros[i]);
+            buffer.putLong(ids[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public Instant updatedAt(Stream stream) {
+        return Instant.EPOCH.plus(micros[stream.ordinal()], ChronoUnit.MICROS);
+    }
+
+    public long id(Stream stream) {
+        return ids[stream.ordinal()];
+    }
+
+    /**
+     * Copy of this cursor with {@code stream} moved to the given position.
+     */
+    public SyncCursor advance(Stream stream, Instant updatedAt, long id) {
+        long[] newMicros = Arrays.copyOf(micros, micros.length);
+        long[] newIds = Arrays.copyOf(ids, ids.length);
+        newMicros[stream.ordinal()] = toMicros(updatedAt);
+        newIds[stream.ordinal()] = id;
+        return new SyncCursor(newMicros, newIds);
+    }
+
+    // PostgreSQL timestamps have microsecond precision, so positions round-trip exactly
+    static long toMicros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+}
@@ -0,0 +1,328 @@
+package com.fleetops.sync.service;
+
+import com.fleetops.sync.dto.SyncChange;
+import com.fleetops.sync.dto.SyncChange.EntityType;
+import com.fleetops.sync.dto.SyncChangesResponse;
+import com.fleetops.sync.dto.SyncDeliverySheet;
+import com.fleetops.sync.dto.SyncOrder;
+import com.fleetops.sync.dto.SyncPickup;
+import com.fleetops.sync.service.SyncCursor.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * SyncFeedService - Incremental change feed over orders, delivery sheets and pickups.
+ *
+ * <p>Each entity table is read as its own stream in (updated_at, id) order from the position in
+ * the client's cursor, using the V26 indexes. One page takes up to {@code limit + 1} rows from
+ * every stream, merges them by timestamp and keeps the first {@code limit}; each stream's
+ * position moves to the last row it contributed. Cancelled orders and pickups are sent as
+ * tombstones, and removals that leave no row (deletions, unassignments) come from
+ * {@code sync_tombstones}.</p>
+ *
+ * <p>Rows newer than {@code now - safety lag} are held back: timestamps are taken at transaction
+ * start, so a slow transaction can commit rows that sort before positions already handed out.
+ * Transactions running longer than the lag can still be missed until the next full load.</p>
+ *
+ * <p>Agent feeds cover the agent's sheets, orders on those sheets that are not CLOSED, and
+ * pickups assigned to them. When a sheet is closed its orders drop out of the feed without
+ * tombstones; clients drop them with the sheet, using {@code deliverySheetId}.</p>
+ */
+@Service
+public class SyncFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncFeedService.class);
+
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private static final String ORDER_COLUMNS =
+            "o.id, o.order_id, o.status, o.client_name, o.receiver_name, o.receiver_address, o.receiver_contact, " +
+            "o.receiver_pincode, o.receiver_city, o.item_count, o.cod_amount, o.payment_status, o.assigned_staff_id";
+
+    private static final String ORDERS_SQL =
+            "SELECT " + ORDER_COLUMNS + ", NULL::bigint AS delivery_sheet_id, o.updated_at AS changed_at " +
+            "FROM orders o WHERE (o.updated_at, o.id) > (?, ?) AND o.updated_at < ? " +
+            "ORDER BY o.updated_at, o.id LIMIT ?";
+
+    // An order enters an agent's scope when linked or when its sheet changes (e.g. reassignment),
+    // so its position is the latest of the order's and the link's timestamps
+    private static final String AGENT_ORDERS_SQL =
+            "WITH mine AS (" +
+            "  SELECT DISTINCT ON (dso.order_id) dso.order_id, dso.delivery_sheet_id, " +
+            "         GREATEST(dso.created_at, ds.updated_at) AS linked_at " +
+            "  FROM delivery_sheet_orders dso JOIN delivery_sheets ds ON ds.id = dso.delivery_sheet_id " +
+            "  WHERE ds.assigned_agent_id = ? AND ds.status <> 'CLOSED' " +
+            "  ORDER BY dso.order_id, linked_at DESC) " +
+            "SELECT * FROM (" +
+            "  SELECT " + ORDER_COLUMNS + ", m.delivery_sheet_id, GREATEST(o.updated_at, m.linked_at) AS changed_at " +
+            "  FROM mine m JOIN orders o ON o.id = m.order_id) x " +
+            "WHERE (x.changed_at, x.id) > (?, ?) AND x.changed_at < ? " +
+            "ORDER BY x.changed_at, x.id LIMIT ?";
+
+    private static final String SHEET_COLUMNS =
+            "id, sheet_number, title, status, assigned_agent_id, assigned_agent_name, total_orders, " +
+            "total_cod_amount, scheduled_date, delivery_date, updated_at AS changed_at";
+
+    private static final String SHEETS_SQL =
+            "SELECT " + SHEET_COLUMNS + " FROM delivery_sheets " +
+            "WHERE (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?";
+
+    private static final String AGENT_SHEETS_SQL =
+            "SELECT " + SHEET_COLUMNS + " FROM delivery_sheets WHERE assigned_agent_id = ? " +
+            "AND (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?";
+
+    private static final String PICKUP_COLUMNS =
+            "id, pickup_id, client_id, client_name, pickup_address, pickup_date, pickup_time, status, " +
+            "assigned_staff_id, assigned_staff_name, items_count, updated_at AS changed_at";
+
+    private static final String PICKUPS_SQL =
+            "SELECT " + PICKUP_COLUMNS + " FROM pickups " +
+            "WHERE (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?";
+
+    private static final String AGENT_PICKUPS_SQL =
+            "SELECT " + PICKUP_COLUMNS + " FROM pickups WHERE assigned_staff_id = ? " +
+            "AND (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?";
+
+    // Unassignments only matter to the agent that lost the entity
+    private static final String TOMBSTONES_SQL =
+            "SELECT id, entity_type, entity_id, reason, updated_at AS changed_at, false AS in_scope " +
+            "FROM sync_tombstones WHERE reason = 'DELETED' " +
+            "AND (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?";
+
+    // An unassignment undone since (e.g. the order moved to another of the agent's sheets) is
+    // skipped, but still advances the cursor
+    private static final String AGENT_TOMBSTONES_SQL =
+            "SELECT t.id, t.entity_type, t.entity_id, t.reason, t.updated_at AS changed_at, " +
+            "  CASE WHEN t.agent_id IS NULL THEN false " +
+            "       WHEN t.entity_type = 'ORDER' THEN EXISTS (" +
+            "         SELECT 1 FROM delivery_sheet_orders dso JOIN delivery_sheets ds ON ds.id = dso.delivery_sheet_id " +
+            "         WHERE dso.order_id = t.entity_id AND ds.assigned_agent_id = t.agent_id AND ds.status <> 'CLOSED') " +
+            "       WHEN t.entity_type = 'DELIVERY_SHEET' THEN EXISTS (" +
+            "         SELECT 1 FROM delivery_sheets ds WHERE ds.id = t.entity_id AND ds.assigned_agent_id = t.agent_id) " +
+            "       ELSE EXISTS (SELECT 1 FROM pickups p WHERE p.id = t.entity_id AND p.assigned_staff_id = t.agent_id) " +
+            "  END AS in_scope " +
+            "FROM (" +
+            "  (SELECT * FROM sync_tombstones WHERE agent_id = ? " +
+            "   AND (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?) " +
+            "  UNION ALL " +
+            "  (SELECT * FROM sync_tombstones WHERE agent_id IS NULL AND reason = 'DELETED' " +
+            "   AND (updated_at, id) > (?, ?) AND updated_at < ? ORDER BY updated_at, id LIMIT ?)) t " +
+            "ORDER BY t.updated_at, t.id LIMIT ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM sync_tombstones WHERE id IN (" +
+            "SELECT id FROM sync_tombstones WHERE updated_at < ? LIMIT ?)";
+
+    private static final Comparator<Candidate> FEED_ORDER = Comparator
+            .comparing(Candidate::changedAt)
+            .thenComparing(Candidate::stream)
+            .thenComparingLong(Candidate::id);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration safetyLag;
+    private final Duration tombstoneRetention;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public SyncFeedService(
+        JdbcTemplate jdbcTemplate,
+        @Value("${app.sync.safety-lag-ms:5000}") long safetyLagMs,
+        @Value("${app.sync.tombstone-retention-days:30}") long tombstoneRetentionDays,
+        @Value("${app.sync.default-page-size:500}") int defaultPageSize,
+        @Value("${app.sync.max-page-size:2000}") int maxPageSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.safetyLag = Duration.ofMillis(safetyLagMs);
+        this.tombstoneRetention = Duration.ofDays(tombstoneRetentionDays);
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Next page of changes after {@code cursorValue}; a null cursor starts a full load.
+     *
+     * @param agentId restricts the feed to one agent's scope, or null for every row
+     * @throws IllegalArgumentException if the cursor or limit is invalid
+     * @throws IllegalStateException    if the cursor is older than tombstone retention and the
+     *                                  client has to reload
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public SyncChangesResponse getChanges(String cursorValue, Integer limit, Long agentId) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxPageSize);
+        }
+
+        Instant now = jdbcTemplate.queryForObject("SELECT now()", Timestamp.class).toInstant();
+        Instant cutoff = now.minus(safetyLag);
+        SyncCursor cursor;
+        if (cursorValue == null || cursorValue.isBlank()) {
+            cursor = SyncCursor.initial(cutoff);
+        } else {
+            cursor = SyncCursor.decode(cursorValue);
+            if (cursor.updatedAt(Stream.TOMBSTONES).isBefore(now.minus(tombstoneRetention))) {
+                throw new IllegalStateException("Sync cursor has expired; start a full load");
+            }
+        }
+
+        Timestamp until = Timestamp.from(cutoff);
+        int fetch = pageSize + 1;
+        List<List<Candidate>> streams = new ArrayList<>();
+        if (agentId == null) {
+            streams.add(query(Stream.TOMBSTONES, TOMBSTONES_SQL, cursor, until, fetch));
+            streams.add(query(Stream.ORDERS, ORDERS_SQL, cursor, until, fetch));
+            streams.add(query(Stream.DELIVERY_SHEETS, SHEETS_SQL, cursor, until, fetch));
+            streams.add(query(Stream.PICKUPS, PICKUPS_SQL, cursor, until, fetch));
+        } else {
+            Timestamp tombstonesAfter = Timestamp.from(cursor.updatedAt(Stream.TOMBSTONES));
+            long tombstoneId = cursor.id(Stream.TOMBSTONES);
+            streams.add(jdbcTemplate.query(AGENT_TOMBSTONES_SQL, (rs, i) -> toCandidate(Stream.TOMBSTONES, rs),
+                agentId, tombstonesAfter, tombstoneId, until, fetch,
+                tombstonesAfter, tombstoneId, until, fetch, fetch));
+            streams.add(queryForAgent(Stream.ORDERS, AGENT_ORDERS_SQL, agentId, cursor, until, fetch));
+            streams.add(queryForAgent(Stream.DELIVERY_SHEETS, AGENT_SHEETS_SQL, agentId, cursor, until, fetch));
+            streams.add(queryForAgent(Stream.PICKUPS, AGENT_PICKUPS_SQL, agentId, cursor, until, fetch));
+        }
+
+        List<Candidate> merged = new ArrayList<>();
+        streams.forEach(merged::addAll);
+        merged.sort(FEED_ORDER);
+        int taken = Math.min(pageSize, merged.size());
+
+        List<SyncChange> changes = new ArrayList<>(taken);
+        SyncCursor next = cursor;
+        for (Candidate candidate : merged.subList(0, taken)) {
+            next = next.advance(candidate.stream(), candidate.changedAt(), candidate.id());
+            if (candidate.change() != null) {
+                changes.add(candidate.change());
+            }
+        }
+        boolean hasMore = taken < merged.size();
+        if (!hasMore) {
+            // Everything before the cutoff has been delivered; moving every stream up to it keeps
+            // idle cursors from looking expired and shortens the next range scans
+            for (Stream stream : Stream.values()) {
+                if (next.updatedAt(stream).isBefore(cutoff)) {
+                    next = next.advance(stream, cutoff, 0);
+                }
+            }
+        }
+        return new SyncChangesResponse(changes, next.encode(), hasMore);
+    }
+
+    /**
+     * Deletes tombstones older than the retention period in small batches. Cursors older than
+     * that are rejected, so no client can still need them.
+     */
+    @Scheduled(cron = "${app.sync.tombstone-purge-cron:0 15 3 * * *}")
+    public void purgeTombstones() {
+        Timestamp before = Timestamp.from(Instant.now().minus(tombstoneRetention));
+        int total = 0;
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(PURGE_SQL, before, PURGE_BATCH_SIZE);
+            total += deleted;
+        } while (deleted > 0);
+        if (total > 0) {
+            logger.info("Purged {} sync tombstones", total);
+        }
+    }
+
+    private List<Candidate> query(Stream stream, String sql, SyncCursor cursor, Timestamp until, int fetch) {
+        return jdbcTemplate.query(sql, (rs, i) -> toCandidate(stream, rs),
+            Timestamp.from(cursor.updatedAt(stream)), cursor.id(stream), until, fetch);
+    }
+
+    private List<Candidate> queryForAgent(Stream stream, String sql, Long agentId, SyncCursor cursor,
+                                          Timestamp until, int fetch) {
+        return jdbcTemplate.query(sql, (rs, i) -> toCandidate(stream, rs),
+            agentId, Timestamp.from(cursor.updatedAt(stream)), cursor.id(stream), until, fetch);
+    }
+
+    private static Candidate toCandidate(Stream stream, ResultSet rs) throws SQLException {
+        long id = rs.getLong("id");
+        Instant changedAt = rs.getTimestamp("changed_at").toInstant();
+        SyncChange change = switch (stream) {
+            case TOMBSTONES -> rs.getBoolean("in_scope") ? null : SyncChange.tombstone(
+                EntityType.valueOf(rs.getString("entity_type")), rs.getLong("entity_id"),
+                rs.getString("reason"), changedAt);
+            case ORDERS -> "CANCELLED".equals(rs.getString("status"))
+                ? SyncChange.tombstone(EntityType.ORDER, id, "CANCELLED", changedAt)
+                : SyncChange.upsert(EntityType.ORDER, id, changedAt, toOrder(rs));
+            case DELIVERY_SHEETS -> SyncChange.upsert(EntityType.DELIVERY_SHEET, id, changedAt, toDeliverySheet(rs));
+            case PICKUPS -> "cancelled".equalsIgnoreCase(rs.getString("status"))
+                ? SyncChange.tombstone(EntityType.PICKUP, id, "CANCELLED", changedAt)
+                : SyncChange.upsert(EntityType.PICKUP, id, changedAt, toPickup(rs));
+        };
+        return new Candidate(stream, changedAt, id, change);
+    }
+
+    private static SyncOrder toOrder(ResultSet rs) throws SQLException {
+        return new SyncOrder(
+            rs.getString("order_id"),
+            rs.getString("status"),
+            rs.getString("client_name"),
+            rs.getString("receiver_name"),
+            rs.getString("receiver_address"),
+            rs.getString("receiver_contact"),
+            rs.getString("receiver_pincode"),
+            rs.getString("receiver_city"),
+            rs.getObject("item_count", Integer.class),
+            rs.getBigDecimal("cod_amount"),
+            rs.getString("payment_status"),
+            rs.getObject("assigned_staff_id", Long.class),
+            rs.getObject("delivery_sheet_id", Long.class));
+    }
+
+    private static SyncDeliverySheet toDeliverySheet(ResultSet rs) throws SQLException {
+        Date scheduled = rs.getDate("scheduled_date");
+        Date delivered = rs.getDate("delivery_date");
+        return new SyncDeliverySheet(
+            rs.getString("sheet_number"),
+            rs.getString("title"),
+            rs.getString("status"),
+            rs.getObject("assigned_agent_id", Long.class),
+            rs.getString("assigned_agent_name"),
+            rs.getObject("total_orders", Integer.class),
+            rs.getBigDecimal("total_cod_amount"),
+            scheduled != null ? scheduled.toLocalDate() : null,
+            delivered != null ? delivered.toLocalDate() : null);
+    }
+
+    private static SyncPickup toPickup(ResultSet rs) throws SQLException {
+        Date date = rs.getDate("pickup_date");
+        Time time = rs.getTime("pickup_time");
+        return new SyncPickup(
+            rs.getString("pickup_id"),
+            rs.getObject("client_id", Long.class),
+            rs.getString("client_name"),
+            rs.getString("pickup_address"),
+            date != null ? date.toLocalDate() : null,
+            time != null ? time.toLocalTime() : null,
+            rs.getString("status"),
+            rs.getObject("assigned_staff_id", Long.class),
+            rs.getString("assigned_staff_name"),
+            rs.getObject("items_count", Integer.class));
+    }
+
+    // change is null for rows that only advance the cursor
+    private record Candidate(Stream stream, Instant changedAt, long id, SyncChange change) {
+    }
+}
@@ -0,0 +1,9 @@
+-- V22: Composite indexes backing server-side pickup search
+-- Day/board views filter by date range and status; staff day views by staff then date.
+
+CREATE INDEX IF NOT EXISTS idx_pickups_date_status ON pickups(pickup_date, status);
+CREATE INDEX IF NOT EXISTS idx_pickups_staff_date ON pickups(assigned_staff_id, pickup_date);
+CREATE INDEX IF NOT EXISTS idx_pickups_client_date ON pickups(client_id, pickup_date);
+
+-- idx_pickups_date is a prefix of idx_pickups_date_status
+DROP INDEX IF EXISTS idx_pickups_date;
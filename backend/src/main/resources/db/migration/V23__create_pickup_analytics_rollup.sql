@@ -0,0 +1,21 @@
+-- V23: Daily pickup analytics rollup, refreshed by PickupAnalyticsRollupService
+-- One row per (pickup_date, dimension, key). Dimensions:
+--   STATUS  key = lower(status)
+--   STAFF   key = assigned_staff_id, or 'name:<staff name>' / 'unassigned'
+--   HOUR    key = hour of pickup_time (0-23)
+--   CLIENT  key = client_id, or 'name:<lower(client_name)>'
+
+CREATE TABLE IF NOT EXISTS pickup_analytics_rollup (
+  rollup_date DATE NOT NULL,
+  dimension VARCHAR(16) NOT NULL,
+  dim_key VARCHAR(255) NOT NULL,
+  dim_label VARCHAR(255),
+  pickup_count BIGINT NOT NULL DEFAULT 0,
+  item_count BIGINT NOT NULL DEFAULT 0,
+  completed_count BIGINT NOT NULL DEFAULT 0,     -- completed pickups with completed_at set
+  completion_seconds BIGINT NOT NULL DEFAULT 0,  -- sum of (completed_at - created_at) over completed_count
+  refreshed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (dimension, rollup_date, dim_key)
+);
+
+COMMENT ON TABLE pickup_analytics_rollup IS 'Pre-aggregated pickup analytics per day and dimension; derived data, safe to rebuild';
@@ -0,0 +1,15 @@
+-- V24: Stored responses for Idempotency-Key on create endpoints (pickups, orders)
+-- A row is claimed in the same transaction that creates the resource, so a concurrent
+-- retry blocks on the unique key and then replays the committed response.
+
+CREATE TABLE IF NOT EXISTS idempotency_records (
+  scope VARCHAR(32) NOT NULL,            -- e.g. 'pickup', 'order'
+  idem_key VARCHAR(255) NOT NULL,        -- client supplied Idempotency-Key
+  request_hash CHAR(64) NOT NULL,        -- SHA-256 of the request body; reuse with another body is rejected
+  response_body TEXT,                    -- JSON response replayed on retries
+  created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+  PRIMARY KEY (scope, idem_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_records_expires_at ON idempotency_records(expires_at);
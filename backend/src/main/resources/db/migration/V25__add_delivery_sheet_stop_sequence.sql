@@ -0,0 +1,8 @@
+-- V25: Route order of the stops on a delivery sheet
+-- Written by the route sequencing optimizer; NULL until a sheet is sequenced, and for orders
+-- added to a sheet afterwards (listed after the sequenced stops).
+
+ALTER TABLE delivery_sheet_orders ADD COLUMN stop_sequence INT;
+
+CREATE INDEX IF NOT EXISTS idx_delivery_sheet_orders_sequence
+    ON delivery_sheet_orders(delivery_sheet_id, stop_sequence);
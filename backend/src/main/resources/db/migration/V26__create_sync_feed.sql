@@ -0,0 +1,110 @@
+-- V26: Delta sync feed (GET /api/v1/sync/changes)
+-- Clients page through rows in (updated_at, id) order with an opaque cursor. The indexes below
+-- cover the keyset predicate and sort, so each page is one bounded index range scan.
+
+CREATE INDEX IF NOT EXISTS idx_orders_sync ON orders(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_delivery_sheets_sync ON delivery_sheets(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_pickups_sync ON pickups(updated_at, id);
+
+-- Agent-scoped feeds
+CREATE INDEX IF NOT EXISTS idx_delivery_sheets_agent_sync ON delivery_sheets(assigned_agent_id, updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_pickups_staff_sync ON pickups(assigned_staff_id, updated_at, id);
+
+-- Removals that leave no row behind to sync: deletions, and an order, sheet or pickup leaving
+-- an agent's scope. Written by the triggers below so bulk SQL paths are covered too.
+-- Cancellations are not recorded here; the cancelled row itself is sent as a tombstone.
+CREATE TABLE IF NOT EXISTS sync_tombstones (
+  id BIGSERIAL PRIMARY KEY,
+  entity_type VARCHAR(16) NOT NULL,      -- ORDER, DELIVERY_SHEET, PICKUP
+  entity_id BIGINT NOT NULL,
+  agent_id BIGINT,                       -- agent whose scope lost the entity; NULL for deletions seen by everyone
+  reason VARCHAR(16) NOT NULL,           -- DELETED, UNASSIGNED
+  updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_sync ON sync_tombstones(updated_at, id);
+CREATE INDEX IF NOT EXISTS idx_sync_tombstones_agent_sync ON sync_tombstones(agent_id, updated_at, id);
+
+CREATE OR REPLACE FUNCTION sync_tombstone_order_unlinked()
+RETURNS TRIGGER AS $$
+BEGIN
+  -- The sheet is already gone when the link is removed by a cascading sheet delete
+  INSERT INTO sync_tombstones (entity_type, entity_id, agent_id, reason)
+  SELECT 'ORDER', OLD.order_id, ds.assigned_agent_id, 'UNASSIGNED'
+  FROM delivery_sheets ds WHERE ds.id = OLD.delivery_sheet_id;
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_delivery_sheet_orders_sync_tombstone
+  AFTER DELETE ON delivery_sheet_orders
+  FOR EACH ROW
+  EXECUTE FUNCTION sync_tombstone_order_unlinked();
+
+CREATE OR REPLACE FUNCTION sync_tombstone_delivery_sheet()
+RETURNS TRIGGER AS $$
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    INSERT INTO sync_tombstones (entity_type, entity_id, agent_id, reason)
+    VALUES ('DELIVERY_SHEET', OLD.id, NULL, 'DELETED');
+    RETURN OLD;
+  END IF;
+  -- Reassigned: the sheet and its orders leave the previous agent's scope
+  INSERT INTO sync_tombstones (entity_type, entity_id, agent_id, reason)
+  VALUES ('DELIVERY_SHEET', OLD.id, OLD.assigned_agent_id, 'UNASSIGNED');
+  INSERT INTO sync_tombstones (entity_type, entity_id, agent_id, reason)
+  SELECT 'ORDER', dso.order_id, OLD.assigned_agent_id, 'UNASSIGNED'
+  FROM delivery_sheet_orders dso WHERE dso.delivery_sheet_id = OLD.id;
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_delivery_sheets_sync_tombstone_update
+  AFTER UPDATE OF assigned_agent_id ON delivery_sheets
+  FOR EACH ROW
+  WHEN (OLD.assigned_agent_id IS DISTINCT FROM NEW.assigned_agent_id)
+  EXECUTE FUNCTION sync_tombstone_delivery_sheet();
+
+CREATE TRIGGER trg_delivery_sheets_sync_tombstone_delete
+  AFTER DELETE ON delivery_sheets
+  FOR EACH ROW
+  EXECUTE FUNCTION sync_tombstone_delivery_sheet();
+
+CREATE OR REPLACE FUNCTION sync_tombstone_pickup()
+RETURNS TRIGGER AS $$
+BEGIN
+  IF TG_OP = 'DELETE' THEN
+    INSERT INTO sync_tombstones (entity_type, entity_id, agent_id, reason)
+    VALUES ('PICKUP', OLD.id, NULL, 'DELETED');
+    RETURN OLD;
+  END IF;
+  INSERT INTO sync_tombstones (entity_type, entity_id, agent_id, reason)
+  VALUES ('PICKUP', OLD.id, OLD.assigned_staff_id, 'UNASSIGNED');
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_pickups_sync_tombstone_update
+  AFTER UPDATE OF assigned_staff_id ON pickups
+  FOR EACH ROW
+  WHEN (OLD.assigned_staff_id IS NOT NULL AND OLD.assigned_staff_id IS DISTINCT FROM NEW.assigned_staff_id)
+  EXECUTE FUNCTION sync_tombstone_pickup();
+
+CREATE TRIGGER trg_pickups_sync_tombstone_delete
+  AFTER DELETE ON pickups
+  FOR EACH ROW
+  EXECUTE FUNCTION sync_tombstone_pickup();
+
+CREATE OR REPLACE FUNCTION sync_tombstone_order_deleted()
+RETURNS TRIGGER AS $$
+BEGIN
+  INSERT INTO sync_tombstones (entity_type, entity_id, agent_id, reason)
+  VALUES ('ORDER', OLD.id, NULL, 'DELETED');
+  RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_orders_sync_tombstone_delete
+  AFTER DELETE ON orders
+  FOR EACH ROW
+  EXECUTE FUNCTION sync_tombstone_order_deleted();
@@ -0,0 +1,4 @@
+-- V27: COD collected on a delivery sheet, recorded when the sheet is settled and closed
+-- (sum of cod_amount over its DELIVERED orders). NULL until settlement.
+
+ALTER TABLE delivery_sheets ADD COLUMN IF NOT EXISTS collected_cod_amount NUMERIC(12,2);
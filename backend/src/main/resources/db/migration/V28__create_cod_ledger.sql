@@ -0,0 +1,76 @@
+-- V28: COD reconciliation ledger
+-- cod_ledger_entries is append-only: COLLECTED when a delivery sheet is settled, DEPOSITED when an
+-- agent hands cash in, SHORT when a shortfall is written off against the agent.
+-- The balance tables are maintained incrementally by CodLedgerService in the same transaction as
+-- each entry, so outstanding COD per agent is a primary key lookup.
+
+CREATE TABLE IF NOT EXISTS cod_ledger_entries (
+  id BIGSERIAL PRIMARY KEY,
+  agent_id BIGINT NOT NULL REFERENCES users(id),
+  entry_date DATE NOT NULL,
+  entry_type VARCHAR(16) NOT NULL,
+  amount NUMERIC(12,2) NOT NULL,
+  delivery_sheet_id BIGINT REFERENCES delivery_sheets(id),
+  reference VARCHAR(100),                -- e.g. deposit slip or receipt number
+  notes TEXT,
+  created_by VARCHAR(255),
+  created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  CONSTRAINT chk_cod_ledger_entries_type CHECK (entry_type IN ('COLLECTED', 'DEPOSITED', 'SHORT')),
+  CONSTRAINT chk_cod_ledger_entries_amount CHECK (amount > 0)
+);
+
+CREATE INDEX IF NOT EXISTS idx_cod_ledger_entries_agent_date ON cod_ledger_entries(agent_id, entry_date, id);
+-- A sheet's collection is posted once
+CREATE UNIQUE INDEX IF NOT EXISTS idx_cod_ledger_entries_sheet_collected
+  ON cod_ledger_entries(delivery_sheet_id) WHERE entry_type = 'COLLECTED';
+
+CREATE OR REPLACE FUNCTION cod_ledger_entries_append_only()
+RETURNS TRIGGER AS $$
+BEGIN
+  RAISE EXCEPTION 'cod_ledger_entries is append-only; post a correcting entry instead';
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_cod_ledger_entries_append_only
+  BEFORE UPDATE OR DELETE ON cod_ledger_entries
+  FOR EACH ROW
+  EXECUTE FUNCTION cod_ledger_entries_append_only();
+
+-- Movements per agent and day; the closing balance of a day is the running sum up to it
+CREATE TABLE IF NOT EXISTS cod_daily_balances (
+  agent_id BIGINT NOT NULL REFERENCES users(id),
+  balance_date DATE NOT NULL,
+  collected_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  deposited_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  short_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (agent_id, balance_date)
+);
+
+CREATE INDEX IF NOT EXISTS idx_cod_daily_balances_date ON cod_daily_balances(balance_date);
+
+-- Lifetime totals per agent; outstanding_amount = collected - deposited - short
+CREATE TABLE IF NOT EXISTS cod_agent_balances (
+  agent_id BIGINT PRIMARY KEY REFERENCES users(id),
+  collected_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  deposited_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  short_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  outstanding_amount NUMERIC(14,2) NOT NULL DEFAULT 0,
+  updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_cod_agent_balances_outstanding
+  ON cod_agent_balances(outstanding_amount DESC) WHERE outstanding_amount <> 0;
+
+-- Backfill collections of sheets settled before the ledger existed
+INSERT INTO cod_ledger_entries (agent_id, entry_date, entry_type, amount, delivery_sheet_id, reference, created_by)
+SELECT assigned_agent_id, COALESCE(delivery_date, updated_at::date), 'COLLECTED', collected_cod_amount, id,
+       sheet_number, 'migration'
+FROM delivery_sheets
+WHERE status = 'CLOSED' AND collected_cod_amount > 0 AND assigned_agent_id IS NOT NULL;
+
+INSERT INTO cod_daily_balances (agent_id, balance_date, collected_amount)
+SELECT agent_id, entry_date, sum(amount) FROM cod_ledger_entries GROUP BY agent_id, entry_date;
+
+INSERT INTO cod_agent_balances (agent_id, collected_amount, outstanding_amount)
+SELECT agent_id, sum(amount), sum(amount) FROM cod_ledger_entries GROUP BY agent_id;
@@ -0,0 +1,18 @@
+-- V29: Indexes for the filtered place listing (GET /api/v1/places)
+-- The listing always narrows by organization first, then optionally by type, and sorts by
+-- created_at or name, so one tenant's page is an index range scan instead of a scan of all places.
+
+CREATE INDEX IF NOT EXISTS idx_places_org_type_created ON places(organization_id, type, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_places_org_created ON places(organization_id, created_at DESC);
+CREATE INDEX IF NOT EXISTS idx_places_org_name ON places(organization_id, name);
+
+-- Prefix of the composites above
+DROP INDEX IF EXISTS idx_places_organization;
+
+-- Free text search is lower(column) LIKE '%term%'; trigram indexes on the same expressions let
+-- Postgres answer it with a bitmap OR instead of reading every row
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_places_name_trgm ON places USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_places_address_trgm ON places USING GIN (lower(address) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_places_address_line_1_trgm ON places USING GIN (lower(address_line_1) gin_trgm_ops);
@@ -0,0 +1,4 @@
+-- V30: Name-keyed rollup rows use 'name:' || <name>, and client_name / assigned_staff_name are
+-- VARCHAR(255), so dim_key needs more than 255 characters. TEXT costs nothing extra in Postgres.
+
+ALTER TABLE pickup_analytics_rollup ALTER COLUMN dim_key TYPE TEXT;
@@ -1,6 +1,10 @@
 package com.fleetops.bulkupload.parser;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fleetops.bulkupload.dto.CreateOrderDto;
+import com.fleetops.bulkupload.entity.IdempotencyBasis;
+import com.fleetops.bulkupload.mapper.BulkOrderMapper;
+import com.fleetops.bulkupload.service.IdempotencyService;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
@@ -9,9 +13,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
@@ -50,6 +57,79 @@ class ExcelParserServiceTest {
                 .hasMessageContaining("receiverName");
     }
 
+    @Test
+    void parseExcel_numericCells_hashLikeTheSameJsonOrderAndItsReplay() throws IOException {
+        MultipartFile file = createExcelWithNumericContacts();
+
+        CreateOrderDto excel = service.parseExcel(file).get(0);
+        assertThat(excel.getReceiverPincode()).isEqualTo("560001");
+        assertThat(excel.getSenderContact()).isEqualTo("9876543210");
+
+        String json = "[{\"senderName\":\"Sender 1\",\"senderAddress\":\"Sender Address 1\","
+                + "\"senderContact\":\"9876543210\",\"senderEmail\":\"sender1@example.com\","
+                + "\"receiverName\":\"Receiver 1\",\"receiverAddress\":\"Receiver Address 1\","
+                + "\"receiverContact\":\"1234567890\",\"receiverPincode\":560001,\"receiverCity\":\"Bengaluru\","
+                + "\"itemCount\":1,\"totalWeight\":2.5,\"itemDescription\":\"Test Item 1\",\"declaredValue\":100,"
+                + "\"serviceType\":\"express\",\"carrierName\":\"DHL\",\"codAmount\":50.0}]";
+        List<CreateOrderDto> parsed = new ArrayList<>();
+        new JsonOrderStreamParser(new ObjectMapper()).parse(
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+                (rowIndex, dto, error) -> parsed.add(dto));
+
+        BulkOrderMapper mapper = new BulkOrderMapper();
+        CreateOrderDto replayed = mapper.fromRawData(mapper.toRawData(excel), null);
+
+        IdempotencyService idempotencyService = new IdempotencyService();
+        IdempotencyService.IdempotencyResult key = idempotencyService.computeIdempotencyKey(excel);
+        assertThat(key.getBasis()).isEqualTo(IdempotencyBasis.HASH);
+        assertThat(idempotencyService.computeCanonicalRepresentation(excel)).isEqualTo(
+                "Sender 1|Sender Address 1|9876543210|sender1@example.com|Receiver 1|Receiver Address 1|"
+                        + "1234567890|560001|Bengaluru|1|2.50|Test Item 1|100.00|express|DHL|50.00|");
+        assertThat(idempotencyService.computeIdempotencyKey(parsed.get(0)).getIdempotencyKey())
+                .isEqualTo(key.getIdempotencyKey());
+        assertThat(idempotencyService.computeIdempotencyKey(replayed).getIdempotencyKey())
+                .isEqualTo(key.getIdempotencyKey());
+    }
+
+    private MultipartFile createExcelWithNumericContacts() throws IOException {
+        Workbook wb = new XSSFWorkbook();
+        Sheet sheet = wb.createSheet("Orders");
+
+        String[] headers = new String[]{
+                "senderName","senderAddress","senderContact","senderEmail",
+                "receiverName","receiverAddress","receiverContact","receiverPincode","receiverCity",
+                "itemCount","totalWeight","itemDescription","declaredValue",
+                "serviceType","carrierName","codAmount"
+        };
+        Row h = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) h.createCell(i).setCellValue(headers[i]);
+
+        Row row = sheet.createRow(1);
+        row.createCell(0).setCellValue("Sender 1");
+        row.createCell(1).setCellValue("Sender Address 1");
+        row.createCell(2).setCellValue(9876543210d);
+        row.createCell(3).setCellValue("sender1@example.com");
+        row.createCell(4).setCellValue("Receiver 1");
+        row.createCell(5).setCellValue("Receiver Address 1");
+        row.createCell(6).setCellValue(1234567890d);
+        row.createCell(7).setCellValue(560001d);
+        row.createCell(8).setCellValue("Bengaluru");
+        row.createCell(9).setCellValue(1);
+        row.createCell(10).setCellValue(2.5);
+        row.createCell(11).setCellValue("Test Item 1");
+        row.createCell(12).setCellValue(100.0);
+        row.createCell(13).setCellValue("express");
+        row.createCell(14).setCellValue("DHL");
+        row.createCell(15).setCellValue(50.0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        wb.write(out);
+        wb.close();
+        return new MockMultipartFile("orders.xlsx", "orders.xlsx",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                out.toByteArray());
+    }
+
     private MultipartFile createExcelWithHeadersAndRows(int rows) throws IOException {
         Workbook wb = new XSSFWorkbook();
         Sheet sheet = wb.createSheet("Orders");
@@ -0,0 +1,65 @@
+package com.fleetops.bulkupload.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetops.bulkupload.dto.CreateOrderDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("JsonOrderStreamParser Tests")
+class JsonOrderStreamParserTest {
+
+    private final JsonOrderStreamParser parser = new JsonOrderStreamParser(new ObjectMapper());
+
+    @Test
+    @DisplayName("Should read every element of a JSON array")
+    void parsesJsonArray() {
+        String body = "[{\"clientName\":\"Acme\",\"codAmount\":12.5},{\"clientName\":\"Beta\"}]";
+        List<CreateOrderDto> rows = new ArrayList<>();
+
+        int count = parser.parse(stream(body), (rowIndex, dto, error) -> rows.add(dto));
+
+        assertThat(count).isEqualTo(2);
+        assertThat(rows).extracting(CreateOrderDto::getClientName).containsExactly("Acme", "Beta");
+        assertThat(rows.get(0).getCodAmount()).isEqualTo(new BigDecimal("12.50"));
+    }
+
+    @Test
+    @DisplayName("Should read NDJSON lines and report unbindable elements as row errors")
+    void parsesNdjsonWithRowErrors() {
+        String body = "{\"clientName\":\"Acme\"}\n{\"itemCount\":\"many\"}\n42\n";
+        List<Integer> failed = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+
+        int count = parser.parse(stream(body), (rowIndex, dto, error) -> {
+            if (dto == null) {
+                failed.add(rowIndex);
+                assertThat(error).isNotBlank();
+            } else {
+                names.add(dto.getClientName());
+            }
+        });
+
+        assertThat(count).isEqualTo(3);
+        assertThat(names).containsExactly("Acme");
+        assertThat(failed).containsExactly(2, 3);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed JSON")
+    void rejectsMalformedJson() {
+        assertThatThrownBy(() -> parser.parse(stream("[{\"clientName\": }]"), (rowIndex, dto, error) -> { }))
+                .isInstanceOf(BulkPayloadParseException.class);
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.junit.jupiter.api.Disabled;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
@@ -203,7 +204,10 @@ class BulkUploadRowRepositoryTest {
         row.setIdempotencyBasis(IdempotencyBasis.CLIENT_REFERENCE);
         row.setStatus(RowStatus.FAILED_VALIDATION);
         row.setOrderId(null); // No order created
-        row.setErrorMessages(List.of("MISSING_PINCODE: Required field receiverPincode"));
+        row.setErrorMessages(List.of(Map.of(
+                "code", "MISSING_PINCODE",
+                "field", "receiverPincode",
+                "message", "Required field receiverPincode")));
         row.setRawData(Map.of("senderName", "John", "receiverName", "Jane"));
 
         // When
@@ -213,11 +217,40 @@ class BulkUploadRowRepositoryTest {
 
         // Then
         BulkUploadRow found = repository.findById(saved.getId()).orElseThrow();
-        assertThat(found.getErrorMessages()).contains("MISSING_PINCODE");
+        assertThat(found.getErrorMessages()).hasSize(1);
+        assertThat(found.getErrorMessages().get(0)).containsEntry("code", "MISSING_PINCODE");
         assertThat(found.getRawData()).containsEntry("senderName", "John");
         assertThat(found.getStatus()).isEqualTo(RowStatus.FAILED_VALIDATION);
     }
 
+    @Test
+    @DisplayName("Should page rows by row index keyset")
+    void testFindPageAfter() {
+        // Given
+        BulkUploadBatch batch = createTestBatch("BU202510040001");
+        entityManager.persistAndFlush(batch);
+
+        for (int i = 1; i <= 5; i++) {
+            BulkUploadRow row = createTestRow(batch, i, "KEY-00" + i);
+            if (i % 2 == 0) {
+                row.setStatus(RowStatus.FAILED_VALIDATION);
+            }
+            entityManager.persist(row);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<BulkUploadRow> firstPage = repository.findPageAfter(batch.getId(), 0, PageRequest.of(0, 2));
+        List<BulkUploadRow> secondPage = repository.findPageAfter(batch.getId(), 2, PageRequest.of(0, 2));
+        List<BulkUploadRow> failed = repository.findFailedPageAfter(batch.getId(), 0, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(firstPage).extracting(BulkUploadRow::getRowIndex).containsExactly(1, 2);
+        assertThat(secondPage).extracting(BulkUploadRow::getRowIndex).containsExactly(3, 4);
+        assertThat(failed).extracting(BulkUploadRow::getRowIndex).containsExactly(2, 4);
+    }
+
     // Helper methods
     private BulkUploadBatch createTestBatch(String batchId) {
         BulkUploadBatch batch = new BulkUploadBatch();
@@ -0,0 +1,146 @@
+package com.fleetops.bulkupload.service;
+
+import com.fleetops.bulkupload.config.BulkUploadRetentionProperties;
+import com.fleetops.bulkupload.repository.BulkUploadBatchRepository;
+import com.fleetops.bulkupload.repository.BulkUploadRowRepository;
+import com.fleetops.bulkupload.repository.RetentionKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkUploadRetentionServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Mock
+    private BulkUploadRowRepository rowRepository;
+
+    @Mock
+    private BulkUploadBatchRepository batchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final BulkUploadRetentionProperties properties = new BulkUploadRetentionProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BulkUploadRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        properties.setDeleteBatchSize(2);
+        service = new BulkUploadRetentionService(rowRepository, batchRepository, properties,
+                transactionManager, meterRegistry);
+    }
+
+    @Test
+    void purgeExpired_deletesRowsInKeysetChunksThenEmptyBatches() {
+        when(rowRepository.findExpiredKeys(any(), any(), anyLong(), any()))
+                .thenReturn(List.of(key(1L, T0), key(2L, T0)))
+                .thenReturn(List.of(key(3L, T0.plusMinutes(1))))
+                .thenReturn(List.of());
+        when(rowRepository.deleteByIdIn(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        when(batchRepository.findExpiredEmptyKeys(any(), any(), anyLong(), any()))
+                .thenReturn(List.of(key(10L, T0)))
+                .thenReturn(List.of());
+        when(batchRepository.deleteByIdIn(List.of(10L))).thenReturn(1);
+
+        BulkUploadRetentionService.PurgeResult result = service.purgeExpired();
+
+        assertThat(result.rowsPurged()).isEqualTo(3);
+        assertThat(result.batchesPurged()).isEqualTo(1);
+        InOrder order = inOrder(rowRepository, batchRepository);
+        order.verify(rowRepository).deleteByIdIn(List.of(1L, 2L));
+        order.verify(rowRepository).deleteByIdIn(List.of(3L));
+        order.verify(batchRepository).deleteByIdIn(List.of(10L));
+        // Each chunk resumes after the last key of the previous one
+        verify(rowRepository).findExpiredKeys(any(), eq(T0), eq(2L), any());
+        verify(rowRepository).findExpiredKeys(any(), eq(T0.plusMinutes(1)), eq(3L), any());
+        verify(rowRepository, never()).findJsonByIdIn(anyList());
+        verify(transactionManager, times(5)).commit(any());
+        assertThat(meterRegistry.get("bulkupload.retention.purged").tag("table", "bulk_upload_row")
+                .counter().count()).isEqualTo(3d);
+    }
+
+    @Test
+    void purgeExpired_archivesEachChunkBeforeDeletingIt(@TempDir Path archiveDir) throws IOException {
+        properties.setArchiveEnabled(true);
+        properties.setArchiveDirectory(archiveDir.toString());
+        when(rowRepository.findExpiredKeys(any(), any(), anyLong(), any()))
+                .thenReturn(List.of(key(1L, T0), key(2L, T0)))
+                .thenReturn(List.of());
+        when(rowRepository.findJsonByIdIn(List.of(1L, 2L))).thenReturn(List.of("{\"id\":1}", "{\"id\":2}"));
+        when(rowRepository.deleteByIdIn(List.of(1L, 2L))).thenReturn(2);
+        when(batchRepository.findExpiredEmptyKeys(any(), any(), anyLong(), any())).thenReturn(List.of());
+
+        service.purgeExpired();
+
+        InOrder order = inOrder(rowRepository);
+        order.verify(rowRepository).findJsonByIdIn(List.of(1L, 2L));
+        order.verify(rowRepository).deleteByIdIn(List.of(1L, 2L));
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(archiveDir)) {
+            files = listing.collect(Collectors.toList());
+        }
+        // No batch archive is created when nothing was purged from bulk_upload_batch
+        assertThat(files).singleElement()
+                .satisfies(file -> assertThat(file.getFileName().toString()).startsWith("bulk_upload_row-"));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(files.get(0))), StandardCharsets.UTF_8))) {
+            assertThat(reader.lines()).containsExactly("{\"id\":1}", "{\"id\":2}");
+        }
+    }
+
+    @Test
+    void purgeExpired_archiveFailureRollsBackChunk(@TempDir Path tempDir) throws IOException {
+        // A plain file where the archive directory should be makes the archive write fail
+        Path notADirectory = Files.createFile(tempDir.resolve("archive"));
+        properties.setArchiveEnabled(true);
+        properties.setArchiveDirectory(notADirectory.toString());
+        when(rowRepository.findExpiredKeys(any(), any(), anyLong(), any()))
+                .thenReturn(List.of(key(1L, T0)));
+        when(rowRepository.findJsonByIdIn(List.of(1L))).thenReturn(List.of("{\"id\":1}"));
+
+        assertThatThrownBy(() -> service.purgeExpired()).isInstanceOf(UncheckedIOException.class);
+
+        verify(rowRepository, never()).deleteByIdIn(anyList());
+        verify(transactionManager).rollback(any());
+    }
+
+    private static RetentionKey key(Long id, LocalDateTime createdAt) {
+        return new RetentionKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getCreatedAt() {
+                return createdAt;
+            }
+        };
+    }
+}
@@ -0,0 +1,245 @@
+package com.fleetops.bulkupload.service;
+
+import com.fleetops.bulkupload.dto.BatchDetailDto;
+import com.fleetops.bulkupload.dto.BulkUploadResponseDto;
+import com.fleetops.bulkupload.dto.CreateOrderDto;
+import com.fleetops.bulkupload.entity.BulkUploadBatch;
+import com.fleetops.bulkupload.entity.BulkUploadRow;
+import com.fleetops.bulkupload.entity.BulkUploadStatus;
+import com.fleetops.bulkupload.entity.IdempotencyBasis;
+import com.fleetops.bulkupload.entity.RowStatus;
+import com.fleetops.bulkupload.mapper.BulkOrderMapper;
+import com.fleetops.bulkupload.parser.ExcelParserService;
+import com.fleetops.bulkupload.parser.JsonOrderStreamParser;
+import com.fleetops.bulkupload.repository.BulkUploadBatchRepository;
+import com.fleetops.bulkupload.repository.BulkUploadRowRepository;
+import com.fleetops.order.dto.OrderDto;
+import com.fleetops.order.service.OrderService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkUploadServiceTest {
+
+    @Mock
+    private ExcelParserService excelParserService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private BulkUploadBatchRepository batchRepository;
+
+    @Mock
+    private BulkUploadRowRepository rowRepository;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private BulkOrderMapper bulkOrderMapper;
+
+    @Mock
+    private JsonOrderStreamParser jsonOrderStreamParser;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private BulkUploadService service;
+
+    private final MockMultipartFile file = new MockMultipartFile("file", "orders.xlsx",
+            "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", new byte[]{1, 2, 3});
+
+    @Test
+    void process_reUploadOfCompletedBatch_returnsStoredOutcomes() {
+        BulkUploadBatch previous = completedBatch(7L, 2);
+        when(batchRepository.findFirstByFileChecksumAndStatusOrderByUploadedAtDesc(anyString(), eq(BulkUploadStatus.COMPLETED)))
+                .thenReturn(Optional.of(previous));
+        when(rowRepository.existsByBatch_Id(7L)).thenReturn(true);
+        when(rowRepository.findByBatch_IdOrderByRowIndexAsc(7L)).thenReturn(List.of());
+
+        BulkUploadResponseDto response = service.process(file);
+
+        assertThat(response.getDuplicateFile()).isTrue();
+        assertThat(response.getBatchId()).isEqualTo("BU-PREVIOUS");
+        verifyNoInteractions(excelParserService);
+    }
+
+    @Test
+    void process_reUploadOfPurgedBatch_isProcessedAgain() {
+        // Batch created orders, but the retention job has since removed its rows
+        BulkUploadBatch previous = completedBatch(7L, 2);
+        when(batchRepository.findFirstByFileChecksumAndStatusOrderByUploadedAtDesc(anyString(), eq(BulkUploadStatus.COMPLETED)))
+                .thenReturn(Optional.of(previous));
+        when(rowRepository.existsByBatch_Id(7L)).thenReturn(false);
+        when(excelParserService.parseSpooled(any(Path.class))).thenReturn(List.of());
+        when(batchRepository.save(any(BulkUploadBatch.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        BulkUploadResponseDto response = service.process(file);
+
+        assertThat(response.getDuplicateFile()).isFalse();
+        assertThat(response.getBatchId()).isNotEqualTo("BU-PREVIOUS");
+        verify(excelParserService).parseSpooled(any(Path.class));
+        verify(rowRepository, never()).findByBatch_IdOrderByRowIndexAsc(anyLong());
+    }
+
+    @Test
+    void process_reUploadOfAllDuplicateBatch_isStillShortCircuited() {
+        // No rows were ever stored for a batch whose rows were all duplicates
+        BulkUploadBatch previous = completedBatch(7L, 0);
+        when(batchRepository.findFirstByFileChecksumAndStatusOrderByUploadedAtDesc(anyString(), eq(BulkUploadStatus.COMPLETED)))
+                .thenReturn(Optional.of(previous));
+        when(rowRepository.findByBatch_IdOrderByRowIndexAsc(7L)).thenReturn(List.of());
+
+        BulkUploadResponseDto response = service.process(file);
+
+        assertThat(response.getDuplicateFile()).isTrue();
+        verify(rowRepository, never()).existsByBatch_Id(anyLong());
+        verifyNoInteractions(excelParserService);
+    }
+
+    @Test
+    void getBatchDetail_returnsSummaryWithoutInternalFields() {
+        BulkUploadBatch batch = completedBatch(7L, 2);
+        batch.setFileName("orders.xlsx");
+        batch.setFileChecksum("abc123");
+        when(batchRepository.findByBatchId("BU-PREVIOUS")).thenReturn(Optional.of(batch));
+
+        BatchDetailDto detail = service.getBatchDetail("BU-PREVIOUS");
+
+        assertThat(detail.getBatchId()).isEqualTo("BU-PREVIOUS");
+        assertThat(detail.getFileName()).isEqualTo("orders.xlsx");
+        assertThat(detail.getStatus()).isEqualTo("COMPLETED");
+        assertThat(detail.getTotalRows()).isEqualTo(2);
+        assertThat(detail.getCreatedCount()).isEqualTo(2);
+        assertThat(detail.getSkippedDuplicateCount()).isZero();
+    }
+
+    @Test
+    void getBatchDetail_unknownBatch_throwsNotFound() {
+        when(batchRepository.findByBatchId("BU-MISSING")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.getBatchDetail("BU-MISSING"))
+                .isInstanceOf(EntityNotFoundException.class);
+    }
+
+    @Test
+    void processJson_invalidPayloadRow_isPersistedAsFailed() {
+        when(batchRepository.save(any(BulkUploadBatch.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(jsonOrderStreamParser.parse(any(), any())).thenAnswer(inv -> {
+            JsonOrderStreamParser.RowHandler handler = inv.getArgument(1);
+            handler.onRow(1, null, "Order must be a JSON object");
+            return 1;
+        });
+
+        BulkUploadResponseDto response = service.processJson(new ByteArrayInputStream(new byte[0]), "orders.json");
+
+        ArgumentCaptor<BulkUploadRow> saved = ArgumentCaptor.forClass(BulkUploadRow.class);
+        verify(rowRepository).save(saved.capture());
+        BulkUploadRow row = saved.getValue();
+        assertThat(row.getRowIndex()).isEqualTo(1);
+        assertThat(row.getStatus()).isEqualTo(RowStatus.FAILED_VALIDATION);
+        assertThat(row.getIdempotencyKey()).hasSize(64);
+        assertThat(row.getErrorMessages()).singleElement()
+                .satisfies(error -> assertThat(error.get("code")).isEqualTo("INVALID_PAYLOAD"));
+        assertThat(response.getFailedCount()).isEqualTo(1);
+        assertThat(response.getRows()).singleElement()
+                .satisfies(outcome -> assertThat(outcome.getStatus()).isEqualTo("FAILED_VALIDATION"));
+    }
+
+    @Test
+    void processJson_commitsEachChunkSeparately() {
+        when(batchRepository.save(any(BulkUploadBatch.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(jsonOrderStreamParser.parse(any(), any())).thenAnswer(inv -> {
+            JsonOrderStreamParser.RowHandler handler = inv.getArgument(1);
+            for (int i = 1; i <= 1200; i++) {
+                handler.onRow(i, null, "Order must be a JSON object");
+            }
+            return 1200;
+        });
+
+        BulkUploadResponseDto response = service.processJson(new ByteArrayInputStream(new byte[0]), "orders.json");
+
+        // 500 + 500 + 200
+        verify(transactionManager, times(3)).commit(any());
+        verify(rowRepository, times(1200)).save(any(BulkUploadRow.class));
+        assertThat(response.getFailedCount()).isEqualTo(1200);
+    }
+
+    @Test
+    void processJson_malformedBody_marksBatchFailedAndRethrows() {
+        when(batchRepository.save(any(BulkUploadBatch.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(jsonOrderStreamParser.parse(any(), any())).thenAnswer(inv -> {
+            JsonOrderStreamParser.RowHandler handler = inv.getArgument(1);
+            handler.onRow(1, null, "Order must be a JSON object");
+            throw new IllegalArgumentException("Malformed JSON");
+        });
+
+        assertThatThrownBy(() -> service.processJson(new ByteArrayInputStream(new byte[0]), "orders.json"))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        ArgumentCaptor<BulkUploadBatch> saved = ArgumentCaptor.forClass(BulkUploadBatch.class);
+        verify(batchRepository, times(2)).save(saved.capture());
+        assertThat(saved.getValue().getStatus()).isEqualTo(BulkUploadStatus.FAILED);
+        verify(rowRepository, never()).save(any(BulkUploadRow.class));
+    }
+
+    @Test
+    void reprocessFailedRows_withoutOverride_keepsStoredKey() {
+        BulkUploadBatch batch = completedBatch(7L, 1);
+        batch.setFailedCount(1);
+        BulkUploadRow row = new BulkUploadRow();
+        row.setId(70L);
+        row.setBatch(batch);
+        row.setRowIndex(2);
+        row.setIdempotencyKey("stored-key");
+        row.setIdempotencyBasis(IdempotencyBasis.HASH);
+        row.setStatus(RowStatus.FAILED_VALIDATION);
+        row.setRawData(Map.of("senderName", "Sender 2"));
+        CreateOrderDto dto = new CreateOrderDto();
+        OrderDto order = new OrderDto();
+        order.setId(500L);
+        when(batchRepository.findByBatchId("BU-PREVIOUS")).thenReturn(Optional.of(batch));
+        when(rowRepository.findFailedValidationRows(7L)).thenReturn(List.of(row));
+        when(bulkOrderMapper.fromRawData(row.getRawData(), null)).thenReturn(dto);
+        when(rowRepository.findByIdempotencyKey("stored-key")).thenReturn(Optional.of(row));
+        when(orderService.createOrder(any())).thenReturn(order);
+
+        BulkUploadResponseDto response = service.reprocessFailedRows("BU-PREVIOUS", null);
+
+        assertThat(response.getCreatedCount()).isEqualTo(1);
+        assertThat(row.getIdempotencyKey()).isEqualTo("stored-key");
+        assertThat(row.getStatus()).isEqualTo(RowStatus.CREATED);
+        verifyNoInteractions(idempotencyService);
+    }
+
+    private static BulkUploadBatch completedBatch(Long id, int createdCount) {
+        BulkUploadBatch batch = new BulkUploadBatch();
+        batch.setId(id);
+        batch.setBatchId("BU-PREVIOUS");
+        batch.setStatus(BulkUploadStatus.COMPLETED);
+        batch.setTotalRows(2);
+        batch.setCreatedCount(createdCount);
+        batch.setFailedCount(0);
+        batch.setSkippedDuplicateCount(2 - createdCount);
+        return batch;
+    }
+}
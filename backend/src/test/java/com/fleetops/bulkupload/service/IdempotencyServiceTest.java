@@ -2,6 +2,7 @@ package com.fleetops.bulkupload.service;
 
 import com.fleetops.bulkupload.dto.CreateOrderDto;
 import com.fleetops.bulkupload.entity.IdempotencyBasis;
+import com.fleetops.bulkupload.util.HashUtil;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
@@ -42,6 +43,33 @@ class IdempotencyServiceTest {
         assertThat(rc.getIdempotencyKey()).isNotEqualTo(ra.getIdempotencyKey());
     }
 
+    @Test
+    void hashKeyMatchesDigestOfCanonicalRepresentation() {
+        CreateOrderDto dto = sampleOrder();
+        dto.setReceiverAddress("Flat 4, Kōramangala – 5th Block \uD83D\uDE9A");
+
+        var result = service.computeIdempotencyKey(dto);
+
+        assertThat(result.getIdempotencyKey())
+                .isEqualTo(HashUtil.sha256Hex(service.computeCanonicalRepresentation(dto)));
+        assertThat(service.computeBinaryKey(dto))
+                .hasSize(32)
+                .satisfies(bytes -> assertThat(HashUtil.toHex(bytes)).isEqualTo(result.getIdempotencyKey()));
+    }
+
+    @Test
+    void decimalScaleDoesNotChangeKey() {
+        CreateOrderDto a = sampleOrder();
+        CreateOrderDto b = sampleOrder();
+        b.setTotalWeight(new BigDecimal("2.5"));
+        b.setDeclaredValue(new BigDecimal("100"));
+        b.setCodAmount(BigDecimal.ZERO);
+
+        assertThat(service.computeIdempotencyKey(b).getIdempotencyKey())
+                .isEqualTo(service.computeIdempotencyKey(a).getIdempotencyKey());
+        assertThat(service.computeCanonicalRepresentation(b)).isEqualTo(service.computeCanonicalRepresentation(a));
+    }
+
     private CreateOrderDto sampleOrder() {
         CreateOrderDto dto = new CreateOrderDto();
         dto.setSenderName("John");
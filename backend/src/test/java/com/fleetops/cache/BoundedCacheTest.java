@@ -0,0 +1,84 @@
+package com.fleetops.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondCapacity() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2, 0);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("c")).isEqualTo(3);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        MutableClock clock = new MutableClock();
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 1000, clock);
+        cache.put("a", 1);
+
+        clock.advance(999);
+        assertThat(cache.get("a")).isEqualTo(1);
+        clock.advance(1);
+        assertThat(cache.get("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void loadsOnceAndDoesNotCacheMissingValues() {
+        BoundedCache<Long, String> cache = new BoundedCache<>(10, 0);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(cache.computeIfAbsent(1L, k -> { loads.incrementAndGet(); return "one"; })).isEqualTo("one");
+        assertThat(cache.computeIfAbsent(1L, k -> { loads.incrementAndGet(); return "other"; })).isEqualTo("one");
+        assertThat(cache.computeIfAbsent(2L, k -> { loads.incrementAndGet(); return null; })).isNull();
+        assertThat(cache.computeIfAbsent(2L, k -> { loads.incrementAndGet(); return null; })).isNull();
+        assertThat(loads).hasValue(3);
+
+        cache.invalidate(1L);
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis = 1_700_000_000_000L;
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
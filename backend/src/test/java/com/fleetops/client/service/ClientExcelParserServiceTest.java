@@ -6,11 +6,13 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.Test;
-import org.springframework.mock.web.MockMultipartFile;
-import org.springframework.web.multipart.MultipartFile;
+import org.junit.jupiter.api.io.TempDir;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,19 +21,25 @@ class ClientExcelParserServiceTest {
 
     private final ClientExcelParserService parserService = new ClientExcelParserService();
 
+    @TempDir
+    Path tempDir;
+
+    private final List<ClientDto> clients = new ArrayList<>();
+
     @Test
     void shouldParseValidClients() throws IOException {
         // Given: A valid Excel file with all mandatory fields
-        MultipartFile file = createExcelFile(new String[][]{
+        Path file = createExcelFile(new String[][]{
                 {"ContractNo", "SubContractName", "SubContractCode", "vAddress", "vContactPerson"},
                 {"CON001", "Test Client 1", "SUB001", "123 Main St", "John Doe"},
                 {"CON002", "Test Client 2", "SUB002", "456 Park Ave", "Jane Smith"}
         });
 
         // When
-        List<ClientDto> clients = parserService.parseClients(file);
+        ClientParseResult result = parse(file);
 
         // Then
+        assertFalse(result.hasErrors());
         assertEquals(2, clients.size());
         assertEquals("CON001", clients.get(0).getContractNo());
         assertEquals("Test Client 1", clients.get(0).getSubContractName());
@@ -42,104 +50,90 @@ class ClientExcelParserServiceTest {
     }
 
     @Test
-    void shouldThrowExceptionWhenContractNoIsMissing() throws IOException {
+    void shouldReportErrorWhenContractNoIsMissing() throws IOException {
         // Given: Excel file missing ContractNo
-        MultipartFile file = createExcelFile(new String[][]{
+        Path file = createExcelFile(new String[][]{
                 {"ContractNo", "SubContractName", "SubContractCode"},
                 {"", "Test Client", "SUB001"} // Empty ContractNo
         });
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            parserService.parseClients(file);
-        });
-        assertTrue(exception.getMessage().contains("Missing mandatory fields"));
-        assertTrue(exception.getMessage().contains("ContractNo"));
+        String error = singleError(parse(file));
+        assertTrue(error.contains("Missing mandatory fields"));
+        assertTrue(error.contains("ContractNo"));
     }
 
     @Test
-    void shouldThrowExceptionWhenSubContractCodeIsMissing() throws IOException {
+    void shouldReportErrorWhenSubContractCodeIsMissing() throws IOException {
         // Given: Excel file missing SubContractCode
-        MultipartFile file = createExcelFile(new String[][]{
+        Path file = createExcelFile(new String[][]{
                 {"ContractNo", "SubContractName", "SubContractCode"},
                 {"CON001", "Test Client", ""} // Empty SubContractCode
         });
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            parserService.parseClients(file);
-        });
-        assertTrue(exception.getMessage().contains("Missing mandatory fields"));
-        assertTrue(exception.getMessage().contains("SubContractCode"));
+        String error = singleError(parse(file));
+        assertTrue(error.contains("Missing mandatory fields"));
+        assertTrue(error.contains("SubContractCode"));
     }
 
     @Test
-    void shouldThrowExceptionWhenSubContractNameIsMissing() throws IOException {
+    void shouldReportErrorWhenSubContractNameIsMissing() throws IOException {
         // Given: Excel file missing SubContractName
-        MultipartFile file = createExcelFile(new String[][]{
+        Path file = createExcelFile(new String[][]{
                 {"ContractNo", "SubContractName", "SubContractCode"},
                 {"CON001", "", "SUB001"} // Empty SubContractName
         });
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            parserService.parseClients(file);
-        });
-        assertTrue(exception.getMessage().contains("Missing mandatory fields"));
-        assertTrue(exception.getMessage().contains("SubContractName"));
+        String error = singleError(parse(file));
+        assertTrue(error.contains("Missing mandatory fields"));
+        assertTrue(error.contains("SubContractName"));
     }
 
     @Test
-    void shouldThrowExceptionWithMultipleMissingFields() throws IOException {
+    void shouldReportErrorWithMultipleMissingFields() throws IOException {
         // Given: Excel file with multiple missing mandatory fields
-        MultipartFile file = createExcelFile(new String[][]{
+        Path file = createExcelFile(new String[][]{
                 {"ContractNo", "SubContractName", "SubContractCode"},
                 {"", "", "SUB001"} // Missing ContractNo and SubContractName
         });
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            parserService.parseClients(file);
-        });
-        assertTrue(exception.getMessage().contains("Missing mandatory fields"));
-        assertTrue(exception.getMessage().contains("ContractNo"));
-        assertTrue(exception.getMessage().contains("SubContractName"));
+        String error = singleError(parse(file));
+        assertTrue(error.contains("Missing mandatory fields"));
+        assertTrue(error.contains("ContractNo"));
+        assertTrue(error.contains("SubContractName"));
     }
 
     @Test
-    void shouldThrowExceptionWhenAddressIsMissing() throws IOException {
+    void shouldReportErrorWhenAddressIsMissing() throws IOException {
         // Given: Excel file missing vAddress
-        MultipartFile file = createExcelFile(new String[][]{
+        Path file = createExcelFile(new String[][]{
                 {"ContractNo", "SubContractName", "SubContractCode", "vAddress", "vContactPerson"},
                 {"CON001", "Test Client", "SUB001", "", "John Doe"} // Empty vAddress
         });
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            parserService.parseClients(file);
-        });
-        assertTrue(exception.getMessage().contains("Address (vAddress) is required"));
+        assertTrue(singleError(parse(file)).contains("vAddress"));
     }
 
     @Test
-    void shouldThrowExceptionWhenContactPersonIsMissing() throws IOException {
+    void shouldReportErrorWhenContactPersonIsMissing() throws IOException {
         // Given: Excel file missing vContactPerson
-        MultipartFile file = createExcelFile(new String[][]{
+        Path file = createExcelFile(new String[][]{
                 {"ContractNo", "SubContractName", "SubContractCode", "vAddress", "vContactPerson"},
                 {"CON001", "Test Client", "SUB001", "123 Main St", ""} // Empty vContactPerson
         });
 
         // When & Then
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
-            parserService.parseClients(file);
-        });
-        assertTrue(exception.getMessage().contains("Contact Person (vContactPerson) is required"));
+        assertTrue(singleError(parse(file)).contains("vContactPerson"));
     }
 
     @Test
     void shouldSkipEmptyRows() throws IOException {
         // Given: Excel file with empty rows
-        MultipartFile file = createExcelFile(new String[][]{
+        Path file = createExcelFile(new String[][]{
                 {"ContractNo", "SubContractName", "SubContractCode", "vAddress", "vContactPerson"},
                 {"CON001", "Test Client 1", "SUB001", "123 Main St", "John Doe"},
                 {"", "", "", "", ""}, // Empty row
@@ -147,9 +141,10 @@ class ClientExcelParserServiceTest {
         });
 
         // When
-        List<ClientDto> clients = parserService.parseClients(file);
+        ClientParseResult result = parse(file);
 
         // Then: Empty row should be skipped
+        assertFalse(result.hasErrors());
         assertEquals(2, clients.size());
     }
 
@@ -158,7 +153,7 @@ class ClientExcelParserServiceTest {
         // Given: Excel file with numeric values
         try (Workbook workbook = new XSSFWorkbook()) {
             Sheet sheet = workbook.createSheet("Clients");
-            
+
             // Header
             Row header = sheet.createRow(0);
             header.createCell(0).setCellValue("ContractNo");
@@ -167,7 +162,7 @@ class ClientExcelParserServiceTest {
             header.createCell(3).setCellValue("vAddress");
             header.createCell(4).setCellValue("vContactPerson");
             header.createCell(5).setCellValue("vPincode");
-            
+
             // Data row with numeric pincode
             Row dataRow = sheet.createRow(1);
             dataRow.createCell(0).setCellValue("CON001");
@@ -176,15 +171,9 @@ class ClientExcelParserServiceTest {
             dataRow.createCell(3).setCellValue("123 Main St");
             dataRow.createCell(4).setCellValue("John Doe");
             dataRow.createCell(5).setCellValue(400001); // Numeric pincode
-            
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            workbook.write(bos);
-            MultipartFile file = new MockMultipartFile("file", "test.xlsx", 
-                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", 
-                    bos.toByteArray());
 
             // When
-            List<ClientDto> clients = parserService.parseClients(file);
+            parse(write(workbook));
 
             // Then
             assertEquals(1, clients.size());
@@ -192,22 +181,54 @@ class ClientExcelParserServiceTest {
         }
     }
 
-    private MultipartFile createExcelFile(String[][] data) throws IOException {
+    @Test
+    void shouldEmitClientsInChunks() throws IOException {
+        // Given: three valid rows and a chunk size of two
+        Path file = createExcelFile(new String[][]{
+                {"ContractNo", "SubContractName", "SubContractCode", "vAddress", "vContactPerson"},
+                {"CON001", "Test Client 1", "SUB001", "123 Main St", "John Doe"},
+                {"CON002", "Test Client 2", "SUB002", "456 Park Ave", "Jane Smith"},
+                {"CON003", "Test Client 3", "SUB003", "789 Lake Rd", "Sam Lee"}
+        });
+        List<Integer> chunkSizes = new ArrayList<>();
+
+        // When
+        parserService.streamClients(file, 2, chunk -> chunkSizes.add(chunk.size()));
+
+        // Then
+        assertEquals(List.of(2, 1), chunkSizes);
+    }
+
+    private ClientParseResult parse(Path file) {
+        return parserService.streamClients(file, 1000, clients::addAll);
+    }
+
+    private String singleError(ClientParseResult result) {
+        assertTrue(clients.isEmpty());
+        assertEquals(1, result.getErrors().size());
+        return result.getErrors().get(0);
+    }
+
+    private Path createExcelFile(String[][] data) throws IOException {
         try (Workbook workbook = new XSSFWorkbook()) {
             Sheet sheet = workbook.createSheet("Clients");
-            
+
             for (int rowIdx = 0; rowIdx < data.length; rowIdx++) {
                 Row row = sheet.createRow(rowIdx);
                 for (int colIdx = 0; colIdx < data[rowIdx].length; colIdx++) {
                     row.createCell(colIdx).setCellValue(data[rowIdx][colIdx]);
                 }
             }
-            
-            ByteArrayOutputStream bos = new ByteArrayOutputStream();
-            workbook.write(bos);
-            return new MockMultipartFile("file", "test.xlsx", 
-                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", 
-                    bos.toByteArray());
+
+            return write(workbook);
+        }
+    }
+
+    private Path write(Workbook workbook) throws IOException {
+        Path file = Files.createTempFile(tempDir, "clients-", ".xlsx");
+        try (OutputStream out = Files.newOutputStream(file)) {
+            workbook.write(out);
         }
+        return file;
     }
 }
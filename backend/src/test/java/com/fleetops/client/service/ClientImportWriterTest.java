@@ -0,0 +1,65 @@
+package com.fleetops.client.service;
+
+import com.fleetops.client.dto.ClientDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ClientImportWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final ClientImportWriter writer = new ClientImportWriter(jdbcTemplate, transactionManager);
+
+    @Test
+    void upsertChunk_allRowsValid_writesOneBatch() {
+        ClientImportWriter.ChunkResult result = writer.upsertChunk(List.of(client("CON001"), client("CON002")));
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.clients()).hasSize(2);
+        assertThat(result.failures()).isEmpty();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyList());
+        verify(transactionManager, times(1)).commit(any());
+    }
+
+    @Test
+    void upsertChunk_oneBadRow_retriesRowByRowAndReportsOnlyThatRow() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(inv -> {
+            List<Object[]> rows = inv.getArgument(1);
+            for (Object[] row : rows) {
+                if ("BAD".equals(row[3])) {
+                    throw new DataIntegrityViolationException("value too long for type character varying(100)");
+                }
+            }
+            return new int[rows.size()];
+        });
+
+        ClientImportWriter.ChunkResult result = writer.upsertChunk(
+                List.of(client("CON001"), client("BAD"), client("CON003")));
+
+        assertThat(result.created()).isEqualTo(2);
+        assertThat(result.clients()).extracting(ClientDto::getContractNo).containsExactly("CON001", "CON003");
+        assertThat(result.failures()).singleElement()
+                .satisfies(message -> assertThat(message).startsWith("Client BAD / SUB-BAD:"));
+        // Whole chunk, then one attempt per row
+        verify(jdbcTemplate, times(4)).batchUpdate(anyString(), anyList());
+        verify(transactionManager, times(2)).rollback(any());
+    }
+
+    private static ClientDto client(String contractNo) {
+        ClientDto dto = new ClientDto();
+        dto.setContractNo(contractNo);
+        dto.setSubContractCode("SUB-" + contractNo);
+        dto.setSubContractName("Client " + contractNo);
+        return dto;
+    }
+}
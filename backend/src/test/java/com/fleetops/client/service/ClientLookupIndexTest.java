@@ -0,0 +1,55 @@
+package com.fleetops.client.service;
+
+import com.fleetops.client.dto.ClientSummaryDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ClientLookupIndexTest {
+
+    private ClientLookupIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ClientLookupIndex(mock(JdbcTemplate.class));
+        index.replaceAll(List.of(
+                new ClientSummaryDto(1L, "Acme Logistics", "CON001", "SUB-001", "John Doe", "Mumbai"),
+                new ClientSummaryDto(2L, "Blue Dart Partners", "CON002", "SUB-002", "Jane Smith", "Pune"),
+                new ClientSummaryDto(3L, "Mumbai Traders", "CON003", "MT-9", "Acme Shah", "Mumbai")));
+    }
+
+    @Test
+    void matchesTokenPrefixesAcrossFields() {
+        assertThat(ids(index.search("mum", 10))).containsExactly(3L, 1L);
+        assertThat(ids(index.search("jan", 10))).containsExactly(2L);
+        assertThat(ids(index.search("sub00", 10))).containsExactly(1L, 2L);
+        assertThat(ids(index.search("SUB-002", 10))).containsExactly(2L);
+    }
+
+    @Test
+    void requiresEveryQueryTokenAndRanksNamePrefixFirst() {
+        assertThat(ids(index.search("acme mum", 10))).containsExactly(1L, 3L);
+        assertThat(ids(index.search("acme pune", 10))).isEmpty();
+        assertThat(ids(index.search("mum", 1))).containsExactly(3L);
+    }
+
+    @Test
+    void appliesIncrementalChanges() {
+        index.put(new ClientSummaryDto(2L, "Blue Dart Express", "CON002", "SUB-002", "Jane Smith", "Nagpur"));
+        index.remove(1L);
+
+        assertThat(ids(index.search("pune", 10))).isEmpty();
+        assertThat(ids(index.search("nag", 10))).containsExactly(2L);
+        assertThat(ids(index.search("acme", 10))).containsExactly(3L);
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    private static List<Long> ids(List<ClientSummaryDto> results) {
+        return results.stream().map(ClientSummaryDto::getId).toList();
+    }
+}
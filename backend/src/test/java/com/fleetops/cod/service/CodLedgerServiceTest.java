@@ -0,0 +1,191 @@
+package com.fleetops.cod.service;
+
+import com.fleetops.cod.CodEntryType;
+import com.fleetops.cod.dto.CodDailyBalanceResponse;
+import com.fleetops.cod.dto.CodLedgerEntryResponse;
+import com.fleetops.cod.dto.CodSettlementRequest;
+import com.fleetops.user.entity.User;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CodLedgerServiceTest {
+
+    private static final Long AGENT_ID = 7L;
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CodLedgerService service = new CodLedgerService(jdbcTemplate);
+
+    @Test
+    void recordCollection_addsToCollectedAndOutstanding() {
+        service.recordCollection(AGENT_ID, new BigDecimal("250.00"), DAY, 5L, "DS-1", "staff");
+
+        verify(jdbcTemplate).queryForObject(startsWith("INSERT INTO cod_ledger_entries"), any(RowMapper.class),
+            eq(AGENT_ID), eq(Date.valueOf(DAY)), eq("COLLECTED"), eq(new BigDecimal("250.00")), eq(5L),
+            eq("DS-1"), eq(null), eq("staff"));
+        verifyDailyUpsert("250.00", "0", "0");
+        verifyAgentUpsert("250.00", "0", "0", "250.00");
+    }
+
+    @Test
+    void recordDeposit_subtractsFromOutstanding() {
+        outstanding("300.00");
+
+        service.recordDeposit(settlement("120.50", DAY), user());
+
+        verifyDailyUpsert("0", "120.50", "0");
+        verifyAgentUpsert("0", "120.50", "0", "-120.50");
+    }
+
+    @Test
+    void recordShortage_subtractsFromOutstanding() {
+        outstanding("300.00");
+
+        service.recordShortage(settlement("300.00", DAY), user());
+
+        verifyDailyUpsert("0", "0", "300.00");
+        verifyAgentUpsert("0", "0", "300.00", "-300.00");
+    }
+
+    @Test
+    void recordDeposit_moreThanOutstanding_isRejected() {
+        outstanding("100.00");
+
+        assertThatThrownBy(() -> service.recordDeposit(settlement("100.01", DAY), user()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Amount 100.01 exceeds outstanding COD 100.00 of agent 7");
+        verify(jdbcTemplate, never()).update(startsWith("INSERT INTO cod_daily_balances"), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void recordDeposit_agentWithoutBalance_hasNothingOutstanding() {
+        when(jdbcTemplate.queryForList(startsWith("SELECT outstanding_amount"), eq(BigDecimal.class), eq(AGENT_ID)))
+            .thenReturn(List.of());
+
+        assertThatThrownBy(() -> service.recordDeposit(settlement("1.00", DAY), user()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("outstanding COD 0 of agent 7");
+    }
+
+    @Test
+    void recordShortage_nonPositiveAmount_isRejectedBeforeLocking() {
+        assertThatThrownBy(() -> service.recordShortage(settlement("0", DAY), user()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("amount must be positive");
+        assertThatThrownBy(() -> service.recordShortage(settlement(null, DAY), user()))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(jdbcTemplate, never()).queryForList(any(String.class), eq(BigDecimal.class), any());
+    }
+
+    @Test
+    void recordDeposit_withoutDate_postsToday() {
+        outstanding("50.00");
+
+        service.recordDeposit(settlement("50.00", null), user());
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO cod_daily_balances"), eq(AGENT_ID),
+            eq(Date.valueOf(LocalDate.now())), any(), any(), any());
+    }
+
+    @Test
+    void appendedEntryIsReturned() {
+        CodLedgerEntryResponse expected = new CodLedgerEntryResponse(1L, AGENT_ID, DAY, CodEntryType.COLLECTED,
+            new BigDecimal("10.00"), 5L, "DS-1", null, "staff", Instant.now());
+        when(jdbcTemplate.queryForObject(startsWith("INSERT INTO cod_ledger_entries"), any(RowMapper.class),
+            any(), any(), any(), any(), any(), any(), any(), any())).thenReturn(expected);
+
+        assertThat(service.recordCollection(AGENT_ID, new BigDecimal("10.00"), DAY, 5L, "DS-1", "staff"))
+            .isSameAs(expected);
+    }
+
+    @Test
+    void getDailyBalances_runsClosingBalanceOverEarlierDaysBeforeFilteringTheRange() throws Exception {
+        LocalDate from = DAY.minusDays(6);
+
+        service.getDailyBalances(AGENT_ID, from, DAY);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<RowMapper<CodDailyBalanceResponse>> mapper = ArgumentCaptor.forClass(RowMapper.class);
+        verify(jdbcTemplate).query(sql.capture(), mapper.capture(), eq(AGENT_ID), eq(Date.valueOf(DAY)),
+            eq(Date.valueOf(from)));
+        // The window sums every day up to the end of the range; the start of the range only filters
+        // the outer query, so the first day's closing balance includes everything before it
+        String inner = sql.getValue().substring(sql.getValue().indexOf('(') + 1, sql.getValue().lastIndexOf(')'));
+        assertThat(inner).contains("OVER (ORDER BY balance_date)")
+            .contains("balance_date <= ?")
+            .doesNotContain("balance_date >= ?");
+        assertThat(sql.getValue()).endsWith("WHERE balance_date >= ? ORDER BY balance_date");
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getDate("balance_date")).thenReturn(Date.valueOf(DAY));
+        when(rs.getBigDecimal("collected_amount")).thenReturn(new BigDecimal("100.00"));
+        when(rs.getBigDecimal("deposited_amount")).thenReturn(new BigDecimal("40.00"));
+        when(rs.getBigDecimal("short_amount")).thenReturn(new BigDecimal("10.00"));
+        when(rs.getBigDecimal("closing_balance")).thenReturn(new BigDecimal("350.00"));
+        CodDailyBalanceResponse day = mapper.getValue().mapRow(rs, 0);
+        assertThat(day.date()).isEqualTo(DAY);
+        assertThat(day.closingBalance()).isEqualByComparingTo("350.00");
+    }
+
+    @Test
+    void getDailyBalances_rejectsInvertedAndOverlongRanges() {
+        assertThatThrownBy(() -> service.getDailyBalances(AGENT_ID, DAY, DAY.minusDays(1)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("to must not be before from");
+        assertThatThrownBy(() -> service.getDailyBalances(AGENT_ID, DAY, DAY.plusDays(367)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("at most 366 days");
+        assertThatThrownBy(() -> service.getEntries(AGENT_ID, null, DAY))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void outstanding(String amount) {
+        when(jdbcTemplate.queryForList(startsWith("SELECT outstanding_amount"), eq(BigDecimal.class), eq(AGENT_ID)))
+            .thenReturn(List.of(new BigDecimal(amount)));
+    }
+
+    private void verifyDailyUpsert(String collected, String deposited, String shortAmount) {
+        verify(jdbcTemplate).update(startsWith("INSERT INTO cod_daily_balances"), eq(AGENT_ID), any(Date.class),
+            eq(new BigDecimal(collected)), eq(new BigDecimal(deposited)), eq(new BigDecimal(shortAmount)));
+    }
+
+    private void verifyAgentUpsert(String collected, String deposited, String shortAmount, String outstanding) {
+        verify(jdbcTemplate).update(startsWith("INSERT INTO cod_agent_balances"), eq(AGENT_ID),
+            eq(new BigDecimal(collected)), eq(new BigDecimal(deposited)), eq(new BigDecimal(shortAmount)),
+            eq(new BigDecimal(outstanding)));
+    }
+
+    private static CodSettlementRequest settlement(String amount, LocalDate date) {
+        CodSettlementRequest request = new CodSettlementRequest();
+        request.setAgentId(AGENT_ID);
+        request.setAmount(amount != null ? new BigDecimal(amount) : null);
+        request.setEntryDate(date);
+        return request;
+    }
+
+    private static User user() {
+        User user = mock(User.class);
+        when(user.getUsername()).thenReturn("staff");
+        return user;
+    }
+}
@@ -0,0 +1,91 @@
+package com.fleetops.deliverysheet.controller;
+
+import com.fleetops.deliverysheet.dto.RunSheetBundle;
+import com.fleetops.deliverysheet.planner.DeliverySheetPlanningService;
+import com.fleetops.deliverysheet.planner.RouteSequencingService;
+import com.fleetops.deliverysheet.service.DeliverySheetService;
+import com.fleetops.deliverysheet.service.DeliverySheetSettlementService;
+import com.fleetops.deliverysheet.service.RunSheetBundleService;
+import com.fleetops.user.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeliverySheetControllerTest {
+
+    private static final String ETAG = "\"0123456789abcdef0123456789abcdef\"";
+
+    private final RunSheetBundleService runSheetBundleService = mock(RunSheetBundleService.class);
+    private final User agent = mock(User.class);
+    private DeliverySheetController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new DeliverySheetController(mock(DeliverySheetService.class),
+            mock(DeliverySheetPlanningService.class), mock(RouteSequencingService.class),
+            runSheetBundleService, mock(DeliverySheetSettlementService.class));
+        when(agent.getId()).thenReturn(7L);
+        when(runSheetBundleService.currentETag(7L)).thenReturn(ETAG);
+    }
+
+    @Test
+    void bundle_matchingETag_returns304WithoutLoadingBundle() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletWebRequest webRequest = bundleRequest(ETAG, response);
+
+        ResponseEntity<?> result = controller.getMyRunSheetBundle(null, agent, webRequest);
+
+        assertThat(result).isNull();
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        assertThat(response.getHeader("ETag")).isEqualTo(ETAG);
+        verify(runSheetBundleService, never()).getBundle(anyLong());
+    }
+
+    @Test
+    void bundle_staleETag_returnsBundleWithCurrentETag() {
+        RunSheetBundle bundle = new RunSheetBundle(7L, Instant.now(), List.of());
+        when(runSheetBundleService.getBundle(7L)).thenReturn(bundle);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        ServletWebRequest webRequest = bundleRequest("\"ffffffffffffffffffffffffffffffff\"", response);
+
+        ResponseEntity<?> result = controller.getMyRunSheetBundle(null, agent, webRequest);
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getHeaders().getETag()).isEqualTo(ETAG);
+        assertThat(result.getBody()).isSameAs(bundle);
+    }
+
+    @Test
+    void bundle_staffWithoutAgentId_isRejected() {
+        User staff = mock(User.class);
+        when(staff.hasRole("STAFF")).thenReturn(true);
+
+        ResponseEntity<?> result = controller.getMyRunSheetBundle(null, staff,
+            bundleRequest(null, new MockHttpServletResponse()));
+
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        verify(runSheetBundleService, never()).currentETag(anyLong());
+    }
+
+    private static ServletWebRequest bundleRequest(String ifNoneMatch, MockHttpServletResponse response) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/delivery-sheets/my/bundle");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
@@ -0,0 +1,100 @@
+package com.fleetops.deliverysheet.planner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeliverySheetPlannerTest {
+
+    @Test
+    void keepsSmallAreasTogetherOnOneAgent() {
+        // Two pincodes of 3 orders each, two agents
+        int[] areas = {0, 1, 0, 1, 0, 1};
+        DeliverySheetPlanner.Plan plan = new DeliverySheetPlanner(100, 1.0, 0.25, 10)
+                .plan(areas, 2, new int[]{0, 0, 0, 0, 0, 0}, new long[6], nan(6), nan(6), 2);
+
+        assertThat(plan.clusterCount).isEqualTo(2);
+        assertThat(plan.agentOfOrder[0]).isEqualTo(plan.agentOfOrder[2]).isEqualTo(plan.agentOfOrder[4]);
+        assertThat(plan.agentOfOrder[1]).isEqualTo(plan.agentOfOrder[3]).isEqualTo(plan.agentOfOrder[5]);
+        assertThat(plan.agentOfOrder[0]).isNotEqualTo(plan.agentOfOrder[1]);
+        assertThat(plan.agentOrders).containsExactly(3, 3);
+    }
+
+    @Test
+    void splitsOversizedAreaAcrossAgents() {
+        int n = 90;
+        int[] areas = new int[n];
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 19.0 + (i % 10) * 0.01;
+            lng[i] = 72.8 + (i / 10) * 0.01;
+        }
+        DeliverySheetPlanner.Plan plan = new DeliverySheetPlanner(100, 0, 0.25, 10)
+                .plan(areas, 1, new int[n], new long[n], lat, lng, 3);
+
+        assertThat(plan.clusterCount).isEqualTo(3);
+        assertThat(plan.agentOrders).containsExactly(30, 30, 30);
+        assertThat(plan.unassignedOrders).isZero();
+    }
+
+    @Test
+    void balancesOrderCountAndCodAcrossManyAgents() {
+        int n = 20_000;
+        int agents = 200;
+        Random random = new Random(42);
+        int[] areas = new int[n];
+        int[] cities = new int[n];
+        long[] cod = new long[n];
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        for (int i = 0; i < n; i++) {
+            areas[i] = random.nextInt(800);
+            cities[i] = areas[i] / 100;
+            cod[i] = random.nextInt(5) == 0 ? 0 : 10_000 + random.nextInt(200_000);
+            lat[i] = 18.9 + areas[i] % 40 * 0.01;
+            lng[i] = 72.8 + areas[i] / 40 * 0.01;
+        }
+
+        DeliverySheetPlanner.Plan plan = new DeliverySheetPlanner(250, 1.0, 0.25, 10)
+                .plan(areas, 800, cities, cod, lat, lng, agents);
+
+        assertThat(plan.unassignedOrders).isZero();
+        int max = Arrays.stream(plan.agentOrders).max().orElseThrow();
+        int min = Arrays.stream(plan.agentOrders).min().orElseThrow();
+        assertThat(max).isLessThanOrEqualTo(250);
+        assertThat(max - min).isLessThanOrEqualTo(n / agents / 2);
+        long maxCod = Arrays.stream(plan.agentCodCents).max().orElseThrow();
+        long avgCod = Arrays.stream(cod).sum() / agents;
+        assertThat(maxCod).isLessThan(avgCod * 3 / 2);
+    }
+
+    @Test
+    void leavesOrdersUnassignedWhenCapacityIsExhausted() {
+        int[] areas = {0, 0, 0, 1, 1, 1};
+        DeliverySheetPlanner.Plan plan = new DeliverySheetPlanner(2, 1.0, 0.25, 10)
+                .plan(areas, 2, new int[6], new long[6], nan(6), nan(6), 1);
+
+        assertThat(plan.agentOrders[0]).isLessThanOrEqualTo(2);
+        assertThat(plan.unassignedOrders).isEqualTo(6 - plan.agentOrders[0]);
+        assertThat(Arrays.stream(plan.agentOfOrder).filter(a -> a == DeliverySheetPlanner.UNASSIGNED).count())
+                .isEqualTo(plan.unassignedOrders);
+    }
+
+    @Test
+    void handlesNoAgents() {
+        DeliverySheetPlanner.Plan plan = new DeliverySheetPlanner(10, 1.0, 0.25, 10)
+                .plan(new int[]{0}, 1, new int[]{-1}, new long[]{100}, nan(1), nan(1), 0);
+
+        assertThat(plan.agentOfOrder).containsExactly(DeliverySheetPlanner.UNASSIGNED);
+    }
+
+    private static double[] nan(int n) {
+        double[] values = new double[n];
+        Arrays.fill(values, Double.NaN);
+        return values;
+    }
+}
@@ -0,0 +1,67 @@
+package com.fleetops.deliverysheet.planner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteSequencerTest {
+
+    @Test
+    void ordersCollinearStopsFromOneEndToTheOther() {
+        double[] lat = new double[6];
+        double[] lng = {0.05, 0.01, 0.04, 0.02, 0.00, 0.03};
+
+        int[] route = new RouteSequencer(RouteSequencer.haversineMatrix(lat, lng), 6, false)
+                .sequence(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(route).satisfiesAnyOf(
+                r -> assertThat(r).containsExactly(0, 2, 5, 3, 1, 4),
+                r -> assertThat(r).containsExactly(4, 1, 3, 5, 2, 0));
+    }
+
+    @Test
+    void keepsFixedStartFirst() {
+        double[] lat = {0, 0, 0, 0};
+        double[] lng = {0.02, 0.00, 0.03, 0.01};
+
+        int[] route = new RouteSequencer(RouteSequencer.haversineMatrix(lat, lng), 4, true)
+                .sequence(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(route[0]).isZero();
+        assertThat(route).containsExactlyInAnyOrder(0, 1, 2, 3);
+    }
+
+    @Test
+    void optimizesLargeSheetWithinBudget() {
+        int n = 150;
+        Random random = new Random(7);
+        double[] lat = new double[n];
+        double[] lng = new double[n];
+        for (int i = 0; i < n; i++) {
+            lat[i] = 19.0 + random.nextDouble() * 0.2;
+            lng[i] = 72.8 + random.nextDouble() * 0.2;
+        }
+        RouteSequencer sequencer = new RouteSequencer(RouteSequencer.haversineMatrix(lat, lng), n, false);
+        int[] unordered = new int[n];
+        Arrays.setAll(unordered, i -> i);
+
+        long start = System.nanoTime();
+        int[] route = sequencer.sequence(TimeUnit.MILLISECONDS.toNanos(100));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(route).containsExactlyInAnyOrder(unordered);
+        assertThat(sequencer.length(route)).isLessThan(sequencer.length(unordered) / 4);
+        // Budget plus slack for one in-flight pass on a slow CI machine
+        assertThat(elapsedMs).isLessThan(500);
+    }
+
+    @Test
+    void handlesTrivialSheets() {
+        assertThat(new RouteSequencer(new double[0], 0, false).sequence(1_000)).isEmpty();
+        assertThat(new RouteSequencer(new double[1], 1, true).sequence(1_000)).containsExactly(0);
+    }
+}
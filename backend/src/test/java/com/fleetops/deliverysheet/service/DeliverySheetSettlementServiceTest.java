@@ -0,0 +1,287 @@
+package com.fleetops.deliverysheet.service;
+
+import com.fleetops.cod.service.CodLedgerService;
+import com.fleetops.deliverysheet.DeliverySheet;
+import com.fleetops.deliverysheet.DeliverySheetRepository;
+import com.fleetops.deliverysheet.dto.DeliveryOutcome;
+import com.fleetops.deliverysheet.dto.DeliverySheetResponse;
+import com.fleetops.deliverysheet.dto.DeliverySheetSettlementResponse;
+import com.fleetops.deliverysheet.dto.SettleDeliverySheetRequest;
+import com.fleetops.deliverysheet.mapper.DeliverySheetMapper;
+import com.fleetops.order.Order.OrderStatus;
+import com.fleetops.order.service.OrderBatchWriter;
+import com.fleetops.order.service.OrderBatchWriter.StatusChange;
+import com.fleetops.order.service.OrderService;
+import com.fleetops.user.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class DeliverySheetSettlementServiceTest {
+
+    private static final Long SHEET_ID = 5L;
+    private static final Long AGENT_ID = 7L;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OrderBatchWriter orderBatchWriter = mock(OrderBatchWriter.class);
+    private final OrderService orderService = mock(OrderService.class);
+    private final CodLedgerService codLedgerService = mock(CodLedgerService.class);
+    private final DeliverySheetRepository deliverySheetRepository = mock(DeliverySheetRepository.class);
+    private final DeliverySheetMapper deliverySheetMapper = mock(DeliverySheetMapper.class);
+    private DeliverySheetSettlementService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DeliverySheetSettlementService(jdbcTemplate, orderBatchWriter, orderService,
+            codLedgerService, deliverySheetRepository, deliverySheetMapper);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void settle_agentOnUnassignedSheet_isNotFound() {
+        sheet("OPEN", null);
+
+        assertThatThrownBy(() -> service.settle(SHEET_ID, request(outcome(1L, "DELIVERED")), agent(AGENT_ID)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("not found");
+        verifyNoInteractions(orderBatchWriter);
+    }
+
+    @Test
+    void settle_staffOnUnassignedSheet_isRejectedBeforeAnyChange() {
+        sheet("OPEN", null);
+        User staff = agent(1L);
+        when(staff.hasRole("STAFF")).thenReturn(true);
+
+        assertThatThrownBy(() -> service.settle(SHEET_ID, request(outcome(1L, "DELIVERED")), staff))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("DS-1 has no assigned agent");
+        verify(jdbcTemplate, never()).query(anyString(), any(RowCallbackHandler.class), any());
+        verifyNoInteractions(orderBatchWriter, codLedgerService);
+    }
+
+    @Test
+    void settle_agentOnOtherAgentsSheet_isNotFound() {
+        sheet("OPEN", 8);
+
+        assertThatThrownBy(() -> service.settle(SHEET_ID, request(outcome(1L, "DELIVERED")), agent(AGENT_ID)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("not found");
+    }
+
+    @Test
+    void settle_closedSheet_isRejected() {
+        sheet("CLOSED", AGENT_ID);
+
+        assertThatThrownBy(() -> service.settle(SHEET_ID, request(outcome(1L, "DELIVERED")), agent(AGENT_ID)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("DS-1 is CLOSED");
+    }
+
+    @Test
+    void settle_outcomeForOrderNotOnSheet_isRejected() {
+        sheet("OPEN", AGENT_ID);
+        sheetOrders(row(1L, "ORD-1", "IN_TRANSIT"));
+
+        assertThatThrownBy(() -> service.settle(SHEET_ID,
+                request(outcome(1L, "DELIVERED"), outcome(99L, "DELIVERED")), agent(AGENT_ID)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Orders not on delivery sheet DS-1: [99]");
+        verifyNoInteractions(orderBatchWriter);
+    }
+
+    @Test
+    void settle_openOrderWithoutOutcome_isRejectedButTerminalOrdersAreSkipped() {
+        sheet("IN_PROGRESS", AGENT_ID);
+        sheetOrders(row(1L, "ORD-1", "IN_TRANSIT"), row(2L, "ORD-2", "IN_TRANSIT"), row(3L, "ORD-3", "CANCELLED"));
+
+        assertThatThrownBy(() -> service.settle(SHEET_ID, request(outcome(1L, "DELIVERED")), agent(AGENT_ID)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("1 orders on DS-1 have no outcome: [ORD-2]");
+        verifyNoInteractions(orderBatchWriter);
+    }
+
+    @Test
+    void settle_invalidTransitions_areReportedTogether() {
+        sheet("OPEN", AGENT_ID);
+        sheetOrders(row(1L, "ORD-1", "PICKED_UP"), row(2L, "ORD-2", "DELIVERED"));
+
+        assertThatThrownBy(() -> service.settle(SHEET_ID,
+                request(outcome(1L, "DELIVERED"), outcome(2L, "RETURNED")), agent(AGENT_ID)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("2 invalid status transitions: [ORD-1 (PICKED_UP -> DELIVERED), ORD-2 (DELIVERED -> RETURNED)]");
+        verifyNoInteractions(orderBatchWriter);
+    }
+
+    @Test
+    void settle_outcomeOtherThanDeliveredOrReturned_isRejected() {
+        assertThatThrownBy(() -> service.settle(SHEET_ID, request(outcome(1L, "CANCELLED")), agent(AGENT_ID)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("must be DELIVERED or RETURNED");
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void settle_shortUpdateCount_failsBeforeWritingHistory() {
+        sheet("OPEN", AGENT_ID);
+        sheetOrders(row(1L, "ORD-1", "IN_TRANSIT"), row(2L, "ORD-2", "PICKED_UP"));
+        when(orderBatchWriter.applyStatusChanges(anyList(), anyString(), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> service.settle(SHEET_ID,
+                request(outcome(1L, "DELIVERED"), outcome(2L, "RETURNED")), agent(AGENT_ID)))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessageContaining("changed during settlement");
+        verify(orderBatchWriter, never()).insertStatusHistory(anyList(), anyString(), any());
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE delivery_sheets"), any(), any(), any(), any());
+        verifyNoInteractions(codLedgerService);
+    }
+
+    @Test
+    void settle_appliesChangesClosesSheetAndPostsCollectedCod() {
+        sheet("OPEN", AGENT_ID);
+        sheetOrders(row(1L, "ORD-1", "IN_TRANSIT"), row(2L, "ORD-2", "PICKED_UP"), row(3L, "ORD-3", "CANCELLED"));
+        when(orderBatchWriter.applyStatusChanges(anyList(), anyString(), any())).thenReturn(2);
+        totals(1, 1, 1, new BigDecimal("250.00"), new BigDecimal("75.00"));
+        DeliverySheet entity = new DeliverySheet();
+        DeliverySheetResponse sheetResponse = new DeliverySheetResponse();
+        when(deliverySheetRepository.findById(SHEET_ID)).thenReturn(Optional.of(entity));
+        when(deliverySheetMapper.toResponse(entity, null)).thenReturn(sheetResponse);
+
+        DeliverySheetSettlementResponse response = service.settle(SHEET_ID,
+            request(outcome(1L, "delivered"), outcome(2L, "RETURNED")), agent(AGENT_ID));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<StatusChange>> changes = ArgumentCaptor.forClass(List.class);
+        verify(orderBatchWriter).applyStatusChanges(changes.capture(), eq("agent7"), any());
+        assertThat(changes.getValue()).containsExactly(
+            new StatusChange(1L, OrderStatus.IN_TRANSIT, OrderStatus.DELIVERED, null, null),
+            new StatusChange(2L, OrderStatus.PICKED_UP, OrderStatus.RETURNED, null, null));
+        verify(orderBatchWriter).insertStatusHistory(eq(changes.getValue()), eq("agent7"), any());
+        verify(jdbcTemplate).update(startsWith("UPDATE delivery_sheets SET status = 'CLOSED'"),
+            any(), eq(new BigDecimal("250.00")), any(), eq(SHEET_ID));
+        verify(codLedgerService).recordCollection(eq(AGENT_ID), eq(new BigDecimal("250.00")), any(),
+            eq(SHEET_ID), eq("DS-1"), eq("agent7"));
+        assertThat(response.sheet()).isSameAs(sheetResponse);
+        assertThat(response.deliveredOrders()).isEqualTo(1);
+        assertThat(response.returnedOrders()).isEqualTo(1);
+        assertThat(response.cancelledOrders()).isEqualTo(1);
+        assertThat(response.returnedCodAmount()).isEqualByComparingTo("75.00");
+
+        verify(orderService, never()).broadcastBulkStatusUpdate(any());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(orderService).broadcastBulkStatusUpdate(any());
+    }
+
+    @Test
+    void settle_withoutCollectedCod_skipsLedger() {
+        sheet("OPEN", AGENT_ID);
+        sheetOrders(row(1L, "ORD-1", "PICKED_UP"));
+        when(orderBatchWriter.applyStatusChanges(anyList(), anyString(), any())).thenReturn(1);
+        totals(0, 1, 0, BigDecimal.ZERO, new BigDecimal("75.00"));
+        DeliverySheet entity = new DeliverySheet();
+        when(deliverySheetRepository.findById(SHEET_ID)).thenReturn(Optional.of(entity));
+        when(deliverySheetMapper.toResponse(entity, null)).thenReturn(new DeliverySheetResponse());
+
+        service.settle(SHEET_ID, request(outcome(1L, "RETURNED")), agent(AGENT_ID));
+
+        verifyNoInteractions(codLedgerService);
+    }
+
+    private void sheet(String status, Number assignedAgentId) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("sheet_number", "DS-1");
+        row.put("status", status);
+        row.put("assigned_agent_id", assignedAgentId);
+        when(jdbcTemplate.queryForList(startsWith("SELECT sheet_number"), eq(SHEET_ID))).thenReturn(List.of(row));
+    }
+
+    private void sheetOrders(ResultSet... rows) {
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (ResultSet rs : rows) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT o.id, o.order_id"), any(RowCallbackHandler.class), eq(SHEET_ID));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void totals(int delivered, int returned, int cancelled, BigDecimal collected, BigDecimal returnedCod) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT count(*) FILTER"), any(RowMapper.class), eq(SHEET_ID)))
+            .thenAnswer(inv -> {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getInt(1)).thenReturn(delivered);
+                when(rs.getInt(2)).thenReturn(returned);
+                when(rs.getInt(3)).thenReturn(cancelled);
+                when(rs.getBigDecimal(4)).thenReturn(collected);
+                when(rs.getBigDecimal(5)).thenReturn(returnedCod);
+                return inv.getArgument(1, RowMapper.class).mapRow(rs, 0);
+            });
+    }
+
+    private static ResultSet row(long id, String orderId, String status) {
+        ResultSet rs = mock(ResultSet.class);
+        try {
+            when(rs.getLong("id")).thenReturn(id);
+            when(rs.getString("order_id")).thenReturn(orderId);
+            when(rs.getString("status")).thenReturn(status);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return rs;
+    }
+
+    private static User agent(Long id) {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(id);
+        when(user.getUsername()).thenReturn("agent" + id);
+        return user;
+    }
+
+    private static SettleDeliverySheetRequest request(DeliveryOutcome... outcomes) {
+        SettleDeliverySheetRequest request = new SettleDeliverySheetRequest();
+        request.setOutcomes(new ArrayList<>(List.of(outcomes)));
+        return request;
+    }
+
+    private static DeliveryOutcome outcome(Long orderId, String status) {
+        DeliveryOutcome outcome = new DeliveryOutcome();
+        outcome.setOrderId(orderId);
+        outcome.setStatus(status);
+        return outcome;
+    }
+}
@@ -0,0 +1,76 @@
+package com.fleetops.deliverysheet.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RunSheetBundleServiceTest {
+
+    private static final Timestamp SHEET_UPDATED = Timestamp.valueOf("2025-03-10 08:00:00");
+    private static final Timestamp ORDERS_UPDATED = Timestamp.valueOf("2025-03-10 09:00:00");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RunSheetBundleService service = new RunSheetBundleService(jdbcTemplate);
+
+    @Test
+    void eTagIsStableForUnchangedRows() throws SQLException {
+        versionRow(100L, 5000L);
+        String first = service.currentETag(7L);
+        versionRow(100L, 5000L);
+
+        assertThat(service.currentETag(7L)).isEqualTo(first).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void eTagChangesWhenOrderIsRewrittenWithoutNewerTimestamp() throws SQLException {
+        // An order written by a transaction that started before the last one but committed after it:
+        // max(updated_at) stays the same, only the row's xmin moves
+        versionRow(100L, 5000L);
+        String before = service.currentETag(7L);
+        versionRow(100L, 5003L);
+
+        assertThat(service.currentETag(7L)).isNotEqualTo(before);
+    }
+
+    @Test
+    void eTagChangesWhenSheetIsRewrittenWithoutNewerTimestamp() throws SQLException {
+        versionRow(100L, 5000L);
+        String before = service.currentETag(7L);
+        versionRow(101L, 5000L);
+
+        assertThat(service.currentETag(7L)).isNotEqualTo(before);
+    }
+
+    @Test
+    void eTagDependsOnAgent() {
+        assertThat(service.currentETag(7L)).isNotEqualTo(service.currentETag(8L));
+    }
+
+    private void versionRow(long sheetXmin, long ordersXminSum) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(1L);
+        when(rs.getTimestamp("updated_at")).thenReturn(SHEET_UPDATED);
+        when(rs.getLong("sheet_xmin")).thenReturn(sheetXmin);
+        when(rs.getLong("links")).thenReturn(3L);
+        when(rs.getLong("link_sum")).thenReturn(33L);
+        when(rs.getLong("sequence_sum")).thenReturn(140L);
+        when(rs.getTimestamp("orders_updated_at")).thenReturn(ORDERS_UPDATED);
+        when(rs.getLong("orders_xmin_sum")).thenReturn(ordersXminSum);
+        doAnswer(inv -> {
+            inv.getArgument(1, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(7L));
+    }
+}
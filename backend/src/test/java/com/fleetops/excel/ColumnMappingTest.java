@@ -0,0 +1,81 @@
+package com.fleetops.excel;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ColumnMapping Tests")
+class ColumnMappingTest {
+
+    static class Target {
+        String code;
+        String pincode;
+        Integer count;
+        BigDecimal amount;
+    }
+
+    private final ColumnMapping<Target> mapping = ColumnMapping.builder(Target::new)
+            .required("code", CellConverters.TRIMMED_STRING, (t, v) -> t.code = v)
+            .column("pincode", CellConverters.STRING, (t, v) -> t.pincode = v)
+            .column("count", CellConverters.INTEGER, (t, v) -> t.count = v)
+            .column("amount", CellConverters.decimal(2), (t, v) -> t.amount = v)
+            .required("owner", CellConverters.STRING, (t, v) -> { })
+            .build();
+
+    @Test
+    @DisplayName("Should bind columns by header regardless of sheet order")
+    void bindsByHeader() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet();
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("amount");
+            header.createCell(1).setCellValue(" code ");
+            header.createCell(2).setCellValue("pincode");
+            header.createCell(3).setCellValue("count");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("12.5");
+            row.createCell(1).setCellValue("  C-1 ");
+            row.createCell(2).setCellValue(560001);
+            row.createCell(3).setCellValue("not a number");
+
+            BoundColumns<Target> columns = mapping.bind(header);
+            Target target = columns.read(row);
+
+            assertThat(columns.missingRequired()).containsExactly("owner");
+            assertThat(target.code).isEqualTo("C-1");
+            assertThat(target.pincode).isEqualTo("560001");
+            assertThat(target.count).isNull();
+            assertThat(target.amount).isEqualTo(new BigDecimal("12.50"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should bind streamed cell texts by header position")
+    void bindsCellTexts() {
+        BoundColumns<Target> columns = mapping.bind(Arrays.asList("count", null, "code", "owner"));
+        Target target = columns.read(new String[]{"7", "ignored", " C-2 "});
+
+        assertThat(columns.missingRequired()).isEmpty();
+        assertThat(target.code).isEqualTo("C-2");
+        assertThat(target.count).isEqualTo(7);
+        assertThat(target.pincode).isNull();
+    }
+
+    @Test
+    @DisplayName("Should parse only plain decimal text")
+    void parsesPlainNumbers() {
+        assertThat(CellConverters.parseNumber(" -3.50 ")).isEqualTo(-3.5);
+        assertThat(CellConverters.parseNumber("12")).isEqualTo(12.0);
+        assertThat(CellConverters.parseNumber("1e5")).isNull();
+        assertThat(CellConverters.parseNumber(".")).isNull();
+        assertThat(CellConverters.parseNumber("")).isNull();
+    }
+}
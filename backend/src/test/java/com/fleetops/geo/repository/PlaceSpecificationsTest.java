@@ -0,0 +1,108 @@
+package com.fleetops.geo.repository;
+
+import com.fleetops.geo.entity.Place;
+import com.fleetops.geo.entity.Place.PlaceType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyChar;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PlaceSpecificationsTest {
+
+    @SuppressWarnings("unchecked")
+    private final Root<Place> root = mock(Root.class);
+    @SuppressWarnings("unchecked")
+    private final CriteriaQuery<Object> query = mock(CriteriaQuery.class);
+    private final CriteriaBuilder cb = mock(CriteriaBuilder.class);
+    @SuppressWarnings("unchecked")
+    private final Expression<String> lowered = mock(Expression.class);
+
+    @BeforeEach
+    void setUp() {
+        doReturn(mock(Path.class)).when(root).get(anyString());
+        when(cb.lower(any())).thenReturn(lowered);
+    }
+
+    @Test
+    void matchesText_escapesLikeWildcardsAndBackslash() {
+        assertThat(likePatterns(PlaceSpecifications.matchesText("  50%_Off\\Main  ")))
+            .containsOnly("%50\\%\\_off\\\\main%");
+        verify(cb, times(3)).like(any(), anyString(), eq('\\'));
+    }
+
+    @Test
+    void matchesText_searchesNameAndBothAddressColumns() {
+        PlaceSpecifications.matchesText("depot").toPredicate(root, query, cb);
+
+        verify(root).get("name");
+        verify(root).get("address");
+        verify(root).get("addressLine1");
+        verify(cb).or(any(), any(), any());
+    }
+
+    @Test
+    void blankFilters_areDropped() {
+        assertThat(PlaceSpecifications.matchesText(null)).isNull();
+        assertThat(PlaceSpecifications.matchesText("   ")).isNull();
+        assertThat(PlaceSpecifications.inCountry("")).isNull();
+        assertThat(PlaceSpecifications.inCity(" \t")).isNull();
+        assertThat(PlaceSpecifications.inOrganization(null)).isNull();
+        assertThat(PlaceSpecifications.hasType(null)).isNull();
+
+        Predicate predicate = PlaceSpecifications.from(null, null, " ", "", null).toPredicate(root, query, cb);
+
+        assertThat(predicate).isNull();
+        verifyNoInteractions(cb);
+    }
+
+    @Test
+    void countryAndCity_areComparedCaseInsensitively() {
+        PlaceSpecifications.inCountry(" India ").toPredicate(root, query, cb);
+        PlaceSpecifications.inCity("BENGALURU").toPredicate(root, query, cb);
+
+        verify(cb).equal(lowered, "india");
+        verify(cb).equal(lowered, "bengaluru");
+    }
+
+    @Test
+    void organizationAndType_useRawColumns() {
+        UUID organizationId = UUID.randomUUID();
+        when(cb.and(any(Predicate.class), any(Predicate.class))).thenReturn(mock(Predicate.class));
+        when(cb.equal(any(), any(Object.class))).thenReturn(mock(Predicate.class));
+
+        PlaceSpecifications.from(organizationId, PlaceType.WAREHOUSE, null, null, null).toPredicate(root, query, cb);
+
+        verify(cb).equal(any(), eq(organizationId));
+        verify(cb).equal(any(), eq(PlaceType.WAREHOUSE));
+        verify(cb, never()).lower(any());
+    }
+
+    private List<String> likePatterns(Specification<Place> spec) {
+        spec.toPredicate(root, query, cb);
+        ArgumentCaptor<String> patterns = ArgumentCaptor.forClass(String.class);
+        verify(cb, times(3)).like(any(), patterns.capture(), anyChar());
+        return patterns.getAllValues();
+    }
+}
@@ -12,6 +12,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.locationtech.jts.geom.Point;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -20,6 +21,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -213,16 +216,35 @@ class PlaceServiceTest {
         Page<Place> placePage = new PageImpl<>(places);
         Pageable pageable = PageRequest.of(0, 10);
         
-        when(placeRepository.findAll(pageable)).thenReturn(placePage);
+        when(placeRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(placePage);
 
         // When
-        Page<PlaceResponse> result = placeService.getPlaces(organizationId, null, null, null, null, pageable);
+        Page<PlaceResponse> result = placeService.getPlaces(organizationId, PlaceType.WAREHOUSE, "test", null, null, pageable);
 
         // Then
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals("Test Warehouse", result.getContent().get(0).getName());
-        verify(placeRepository).findAll(pageable);
+        verify(placeRepository).findAll(any(Specification.class), eq(PageRequest.of(0, 10,
+            Sort.by(Sort.Direction.DESC, "createdAt").and(Sort.by("id")))));
+        verify(placeRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getPlaces_ShouldKeepSupportedSortAndCapPageSize() {
+        // Given
+        Pageable pageable = PageRequest.of(1, 1000, Sort.by("name").and(Sort.by(Sort.Direction.DESC, "city")));
+        when(placeRepository.findAll(any(Specification.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        // When
+        placeService.getPlaces(organizationId, null, null, null, null, pageable);
+
+        // Then
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(placeRepository).findAll(any(Specification.class), captor.capture());
+        assertEquals(1, captor.getValue().getPageNumber());
+        assertEquals(200, captor.getValue().getPageSize());
+        assertEquals(Sort.by("name").and(Sort.by("id")), captor.getValue().getSort());
     }
 
     @Test
@@ -0,0 +1,183 @@
+package com.fleetops.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetops.bulkupload.util.HashUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class IdempotencyStoreTest {
+
+    private static final String CLAIM = "INSERT INTO idempotency_records";
+    private static final String FIND = "SELECT request_hash, response_body";
+    private static final String COMPLETE = "UPDATE idempotency_records SET response_body";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final Map<String, String> request = Map.of("name", "Acme");
+    private final AtomicInteger runs = new AtomicInteger();
+    private IdempotencyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(jdbcTemplate, transactionManager, objectMapper, 24, 100, 1000);
+    }
+
+    @Test
+    void firstRequestClaimsKeyRunsActionAndStoresResponse() {
+        when(jdbcTemplate.update(startsWith(CLAIM), any(), any(), any(), any())).thenReturn(1);
+
+        Created result = store.execute("order", "key-1", request, Created.class, this::create);
+
+        assertThat(result.id).isEqualTo(1L);
+        assertThat(runs).hasValue(1);
+        verify(jdbcTemplate).update(startsWith(COMPLETE), eq("{\"id\":1}"), eq("order"), eq("key-1"));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void retryOnSameInstanceIsReplayedFromCacheWithoutDatabase() {
+        when(jdbcTemplate.update(startsWith(CLAIM), any(), any(), any(), any())).thenReturn(1);
+        store.execute("order", "key-1", request, Created.class, this::create);
+
+        Created replayed = store.execute("order", "key-1", request, Created.class, this::create);
+
+        assertThat(replayed.id).isEqualTo(1L);
+        assertThat(runs).hasValue(1);
+        verify(jdbcTemplate, times(1)).update(startsWith(CLAIM), any(), any(), any(), any());
+    }
+
+    @Test
+    void completedRecordFromAnotherInstanceIsReplayed() {
+        when(jdbcTemplate.update(startsWith(CLAIM), any(), any(), any(), any())).thenReturn(0);
+        storedRecord(hash(request), "{\"id\":42}");
+
+        Created replayed = store.execute("order", "key-1", request, Created.class, this::create);
+
+        assertThat(replayed.id).isEqualTo(42L);
+        assertThat(runs).hasValue(0);
+        verify(jdbcTemplate, never()).update(startsWith(COMPLETE), any(), any(), any());
+    }
+
+    @Test
+    void reuseOfKeyWithDifferentRequestIsRejected() {
+        when(jdbcTemplate.update(startsWith(CLAIM), any(), any(), any(), any())).thenReturn(0);
+        storedRecord(hash(Map.of("name", "Other")), "{\"id\":42}");
+
+        assertThatThrownBy(() -> store.execute("order", "key-1", request, Created.class, this::create))
+                .isInstanceOf(IdempotencyKeyReuseException.class);
+        assertThat(runs).hasValue(0);
+    }
+
+    @Test
+    void claimedRecordWithoutResponseIsReportedInProgress() {
+        when(jdbcTemplate.update(startsWith(CLAIM), any(), any(), any(), any())).thenReturn(0);
+        storedRecord(hash(request), null);
+
+        assertThatThrownBy(() -> store.execute("order", "key-1", request, Created.class, this::create))
+                .isInstanceOf(IdempotencyInProgressException.class);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void expiredRecordIsReclaimedAndActionRunsAgain() {
+        // The claim upsert only overwrites a conflicting record once it has expired
+        when(jdbcTemplate.update(startsWith(CLAIM), any(), any(), any(), any())).thenReturn(1);
+        Instant before = Instant.now();
+
+        store.execute("order", "key-1", request, Created.class, this::create);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object> expiresAt = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(sql.capture(), eq("order"), eq("key-1"), eq(hash(request)), expiresAt.capture());
+        assertThat(sql.getValue()).contains("ON CONFLICT (scope, idem_key) DO UPDATE")
+                .endsWith("WHERE idempotency_records.expires_at < now()");
+        assertThat(((Timestamp) expiresAt.getValue()).toInstant())
+                .isBetween(before.plus(Duration.ofHours(24)), Instant.now().plus(Duration.ofHours(24)));
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void failedActionIsRolledBackAndNotCached() {
+        when(jdbcTemplate.update(startsWith(CLAIM), any(), any(), any(), any())).thenReturn(1);
+
+        assertThatThrownBy(() -> store.execute("order", "key-1", request, Created.class, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        store.execute("order", "key-1", request, Created.class, this::create);
+
+        verify(transactionManager).rollback(any());
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void withoutKeyActionRunsInTransactionWithoutRecord() {
+        Created result = store.execute("order", "  ", request, Created.class, this::create);
+
+        assertThat(result.id).isEqualTo(1L);
+        verify(transactionManager).commit(any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void overlongKeyIsRejected() {
+        String key = "k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1);
+
+        assertThatThrownBy(() -> store.execute("order", key, request, Created.class, this::create))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(jdbcTemplate, never()).update(anyString(), any(), any(), any(), any());
+    }
+
+    private Created create() {
+        Created created = new Created();
+        created.id = (long) runs.incrementAndGet();
+        return created;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void storedRecord(String requestHash, String body) {
+        when(jdbcTemplate.query(startsWith(FIND), any(RowMapper.class), eq("order"), eq("key-1"))).thenAnswer(inv -> {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getString("request_hash")).thenReturn(requestHash);
+            when(rs.getString("response_body")).thenReturn(body);
+            return List.of(((RowMapper<Object>) inv.getArgument(1)).mapRow(rs, 0));
+        });
+    }
+
+    private String hash(Object value) {
+        try {
+            return HashUtil.sha256Hex(objectMapper.writeValueAsBytes(value));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static class Created {
+        public Long id;
+    }
+}
@@ -0,0 +1,32 @@
+package com.fleetops.order;
+
+import com.fleetops.order.Order.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatusTransitionTest {
+
+    @Test
+    void inTransitOrdersCanBeSettledEitherWay() {
+        assertThat(OrderStatus.IN_TRANSIT.canTransitionTo(OrderStatus.DELIVERED)).isTrue();
+        assertThat(OrderStatus.IN_TRANSIT.canTransitionTo(OrderStatus.RETURNED)).isTrue();
+    }
+
+    @Test
+    void pickedUpOrdersCanBeReturnedButNotDelivered() {
+        assertThat(OrderStatus.PICKED_UP.canTransitionTo(OrderStatus.RETURNED)).isTrue();
+        assertThat(OrderStatus.PICKED_UP.canTransitionTo(OrderStatus.DELIVERED)).isFalse();
+    }
+
+    @Test
+    void terminalStatusesAllowNoTransitions() {
+        for (OrderStatus from : new OrderStatus[]{OrderStatus.DELIVERED, OrderStatus.CANCELLED, OrderStatus.RETURNED}) {
+            assertThat(from.isTerminal()).isTrue();
+            for (OrderStatus to : OrderStatus.values()) {
+                assertThat(from.canTransitionTo(to)).isFalse();
+            }
+        }
+        assertThat(OrderStatus.IN_TRANSIT.isTerminal()).isFalse();
+    }
+}
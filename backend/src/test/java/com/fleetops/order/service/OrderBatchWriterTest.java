@@ -0,0 +1,120 @@
+package com.fleetops.order.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetops.order.Order;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.Invocation;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderBatchWriterTest {
+
+    private static final Pattern INSERT = Pattern.compile("INSERT INTO orders \\((.*?)\\) VALUES \\((.*)\\)");
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final OrderBatchWriter writer = new OrderBatchWriter(jdbcTemplate, new ObjectMapper());
+
+    @Test
+    void insertOrders_bindsEveryColumnExactlyOnce() throws Exception {
+        List<Order> orders = List.of(order("ORD-1"), order("ORD-2"));
+        stubGeneratedIds(101L, 102L);
+
+        writer.insertOrders(orders);
+
+        ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+        ArgumentCaptor<BatchPreparedStatementSetter> setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(creator.capture(), setter.capture(), any(KeyHolder.class));
+
+        String sql = capturedSql(creator.getValue());
+        Matcher insert = INSERT.matcher(sql);
+        assertThat(insert.matches()).as("INSERT shape of %s", sql).isTrue();
+        int columns = insert.group(1).split(",").length;
+        int placeholders = insert.group(2).split(",").length;
+        assertThat(placeholders).isEqualTo(columns);
+        assertThat(sql.chars().filter(c -> c == '?').count()).isEqualTo(columns);
+
+        PreparedStatement ps = mock(PreparedStatement.class);
+        assertThat(setter.getValue().getBatchSize()).isEqualTo(2);
+        setter.getValue().setValues(ps, 0);
+        List<Integer> boundIndexes = new ArrayList<>();
+        for (Invocation invocation : mockingDetails(ps).getInvocations()) {
+            boundIndexes.add((Integer) invocation.getArgument(0));
+        }
+        assertThat(boundIndexes).hasSize(columns);
+        assertThat(boundIndexes).doesNotHaveDuplicates().allSatisfy(index -> assertThat(index).isBetween(1, columns));
+    }
+
+    @Test
+    void insertOrders_bindsMetadataAsJsonInLastColumn() throws Exception {
+        Order order = order("ORD-1");
+        order.setMetadata(Map.of("source", "pickup"));
+        stubGeneratedIds(101L);
+
+        writer.insertOrders(List.of(order));
+
+        ArgumentCaptor<BatchPreparedStatementSetter> setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class), setter.capture(), any(KeyHolder.class));
+        PreparedStatement ps = mock(PreparedStatement.class);
+        setter.getValue().setValues(ps, 0);
+        verify(ps).setString(1, "ORD-1");
+        verify(ps).setString(49, "{\"source\":\"pickup\"}");
+    }
+
+    @Test
+    void insertOrders_assignsGeneratedIdsAndTimestamps() {
+        List<Order> orders = List.of(order("ORD-1"), order("ORD-2"));
+        stubGeneratedIds(101L, 102L);
+
+        writer.insertOrders(orders);
+
+        assertThat(orders).extracting(Order::getId).containsExactly(101L, 102L);
+        assertThat(orders).allSatisfy(o -> assertThat(o.getCreatedAt()).isNotNull().isEqualTo(o.getUpdatedAt()));
+    }
+
+    private void stubGeneratedIds(Long... ids) {
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(inv -> {
+            GeneratedKeyHolder keys = inv.getArgument(2);
+            for (Long id : ids) {
+                keys.getKeyList().add(Map.<String, Object>of("id", id));
+            }
+            return new int[ids.length];
+        });
+    }
+
+    private static String capturedSql(PreparedStatementCreator creator) throws Exception {
+        Connection connection = mock(Connection.class);
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        when(connection.prepareStatement(anyString(), any(String[].class))).thenReturn(mock(PreparedStatement.class));
+        creator.createPreparedStatement(connection);
+        verify(connection).prepareStatement(sql.capture(), any(String[].class));
+        return sql.getValue();
+    }
+
+    private static Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setStatus(Order.OrderStatus.PENDING);
+        return order;
+    }
+}
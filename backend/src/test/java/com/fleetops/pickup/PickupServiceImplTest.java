@@ -0,0 +1,248 @@
+package com.fleetops.pickup;
+
+import com.fleetops.client.ClientRepository;
+import com.fleetops.idempotency.IdempotencyStore;
+import com.fleetops.order.OrderRepository;
+import com.fleetops.order.dto.CreateOrderDto;
+import com.fleetops.order.dto.OrderDto;
+import com.fleetops.order.service.OrderService;
+import com.fleetops.pickup.capacity.PickupCapacityEngine;
+import com.fleetops.pickup.dto.ConvertPickupToOrdersDto;
+import com.fleetops.pickup.dto.CreatePickupDto;
+import com.fleetops.pickup.dto.PickupConversionResultDto;
+import com.fleetops.pickup.dto.UpdatePickupStatusDto;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PickupServiceImplTest {
+
+    @Mock
+    private PickupRepository repository;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private PickupCapacityEngine capacityEngine;
+
+    @InjectMocks
+    private PickupServiceImpl service = new PickupServiceImpl(100, 30_000);
+
+    @BeforeEach
+    void setUp() {
+        // Run the guarded action directly, as the store does for a first request
+        lenient().when(idempotencyStore.execute(anyString(), any(), any(), any(), any()))
+                .thenAnswer(inv -> ((Supplier<?>) inv.getArgument(4)).get());
+    }
+
+    @Test
+    void convertToOrders_appliesPickupDefaultsAndCreatesOrdersInOneBatch() {
+        Pickup pickup = pickup("completed", 2);
+        when(repository.findWithClientById(7L)).thenReturn(Optional.of(pickup));
+        when(validator.validate(any(CreateOrderDto.class))).thenReturn(Set.of());
+        when(orderService.createOrders(anyList(), eq("agent-1"), anyString())).thenReturn(orders(2));
+        when(orderRepository.countBySourcePickupId("PU0001")).thenReturn(2L);
+
+        PickupConversionResultDto result = service.convertToOrders(7L, request(2, "agent-1"), "key-1");
+
+        assertThat(result.ordersCreated).isEqualTo(2);
+        assertThat(result.totalOrdersForPickup).isEqualTo(2);
+        assertThat(result.itemsReceived).isEqualTo(2);
+        assertThat(result.unconvertedItems).isEqualTo(0L);
+        assertThat(result.reconciled).isTrue();
+        verify(idempotencyStore).execute(eq("pickup-orders"), eq("key-1"), any(), eq(PickupConversionResultDto.class), any());
+        verify(orderService).createOrders(anyList(), eq("agent-1"), eq("Created from pickup PU0001"));
+    }
+
+    @Test
+    void convertToOrders_consignmentsInheritPickupDetails() {
+        Pickup pickup = pickup("completed", 1);
+        when(repository.findWithClientById(7L)).thenReturn(Optional.of(pickup));
+        when(validator.validate(any(CreateOrderDto.class))).thenReturn(Set.of());
+        when(orderService.createOrders(anyList(), anyString(), anyString())).thenReturn(orders(1));
+        when(orderRepository.countBySourcePickupId("PU0001")).thenReturn(1L);
+        ConvertPickupToOrdersDto request = request(1, null);
+
+        service.convertToOrders(7L, request, null);
+
+        CreateOrderDto consignment = request.consignments.get(0);
+        assertThat(consignment.getSourcePickupId()).isEqualTo("PU0001");
+        assertThat(consignment.getClientName()).isEqualTo("Acme");
+        assertThat(consignment.getSenderName()).isEqualTo("Acme");
+        assertThat(consignment.getSenderAddress()).isEqualTo("12 Dock Road");
+        assertThat(consignment.getSenderContact()).isEqualTo("9876543210");
+        verify(orderService).createOrders(anyList(), eq("System"), anyString());
+    }
+
+    @Test
+    void convertToOrders_withoutReceivedCountIsUnreconciledAndLeavesPickupUntouched() {
+        Pickup pickup = pickup("scheduled", null);
+        when(repository.findWithClientById(7L)).thenReturn(Optional.of(pickup));
+        when(validator.validate(any(CreateOrderDto.class))).thenReturn(Set.of());
+        when(orderService.createOrders(anyList(), anyString(), anyString())).thenReturn(orders(3));
+        when(orderRepository.countBySourcePickupId("PU0001")).thenReturn(3L);
+
+        PickupConversionResultDto result = service.convertToOrders(7L, request(3, null), null);
+
+        assertThat(result.ordersCreated).isEqualTo(3);
+        assertThat(result.itemsReceived).isNull();
+        assertThat(result.unconvertedItems).isNull();
+        assertThat(result.reconciled).isFalse();
+        assertThat(pickup.getItemsReceived()).isNull();
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void convertToOrders_reportsItemsWithoutOrders() {
+        Pickup pickup = pickup("completed", 5);
+        when(repository.findWithClientById(7L)).thenReturn(Optional.of(pickup));
+        when(validator.validate(any(CreateOrderDto.class))).thenReturn(Set.of());
+        when(orderService.createOrders(anyList(), anyString(), anyString())).thenReturn(orders(2));
+        when(orderRepository.countBySourcePickupId("PU0001")).thenReturn(3L);
+
+        PickupConversionResultDto result = service.convertToOrders(7L, request(2, null), null);
+
+        assertThat(result.totalOrdersForPickup).isEqualTo(3);
+        assertThat(result.unconvertedItems).isEqualTo(2L);
+        assertThat(result.reconciled).isFalse();
+    }
+
+    @Test
+    void convertToOrders_rejectsCancelledPickup() {
+        when(repository.findWithClientById(7L)).thenReturn(Optional.of(pickup("cancelled", null)));
+
+        assertThatThrownBy(() -> service.convertToOrders(7L, request(1, null), null))
+                .isInstanceOf(IllegalStateException.class);
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void convertToOrders_rejectsEmptyRequestBeforeTouchingTheStore() {
+        assertThatThrownBy(() -> service.convertToOrders(7L, request(0, null), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(idempotencyStore, orderService);
+    }
+
+    @Test
+    void updatePickupStatus_restoresBookingWhenTransactionRollsBack() {
+        Pickup pickup = pickup("scheduled", null);
+        PickupCapacityEngine.Reservation previous = new PickupCapacityEngine.Reservation(1L, 1L);
+        when(repository.findById(7L)).thenReturn(Optional.of(pickup));
+        when(capacityEngine.bookingOf(7L)).thenReturn(previous);
+        when(repository.save(pickup)).thenThrow(new IllegalStateException("connection lost"));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThatThrownBy(() -> service.updatePickupStatus(7L, new UpdatePickupStatusDto("cancelled")))
+                    .isInstanceOf(IllegalStateException.class);
+            verify(capacityEngine).release(7L);
+            verify(capacityEngine, never()).restore(any(), any());
+
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(capacityEngine).restore(7L, previous);
+    }
+
+    @Test
+    void updatePickup_keepsNewBookingOnCommit() {
+        Pickup pickup = pickup("scheduled", null);
+        when(repository.findById(7L)).thenReturn(Optional.of(pickup));
+        when(capacityEngine.bookingOf(7L)).thenReturn(new PickupCapacityEngine.Reservation(1L, 1L));
+        CreatePickupDto update = new CreatePickupDto();
+        update.assignedStaffId = 2L;
+        update.pickupDate = "2025-03-11";
+        update.pickupTime = "09:00";
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.updatePickup(7L, update);
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(capacityEngine).rebook(7L, 2L, LocalDate.of(2025, 3, 11), LocalTime.of(9, 0));
+        verify(repository).save(pickup);
+        verify(capacityEngine, never()).restore(any(), any());
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) synchronization.afterCommit();
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    private static Pickup pickup(String status, Integer itemsReceived) {
+        Pickup pickup = new Pickup();
+        pickup.setId(7L);
+        pickup.setPickupId("PU0001");
+        pickup.setStatus(status);
+        pickup.setClientName("Acme");
+        pickup.setContactNumber("9876543210");
+        pickup.setPickupAddress("12 Dock Road");
+        pickup.setItemsReceived(itemsReceived);
+        return pickup;
+    }
+
+    private static ConvertPickupToOrdersDto request(int consignments, String convertedBy) {
+        ConvertPickupToOrdersDto dto = new ConvertPickupToOrdersDto();
+        dto.consignments = new ArrayList<>();
+        for (int i = 0; i < consignments; i++) {
+            dto.consignments.add(new CreateOrderDto());
+        }
+        dto.convertedBy = convertedBy;
+        return dto;
+    }
+
+    private static List<OrderDto> orders(int count) {
+        List<OrderDto> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(new OrderDto());
+        }
+        return orders;
+    }
+}
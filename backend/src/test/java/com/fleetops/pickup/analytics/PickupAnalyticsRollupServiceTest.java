@@ -0,0 +1,93 @@
+package com.fleetops.pickup.analytics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PickupAnalyticsRollupServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PickupAnalyticsService analyticsService = mock(PickupAnalyticsService.class);
+    private PickupAnalyticsRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new PickupAnalyticsRollupService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                analyticsService, true, 45, 30);
+    }
+
+    @Test
+    void refreshRecent_replacesTrailingAndLeadingWindow() {
+        lockAvailable(true);
+        when(jdbcTemplate.update(startsWith("WITH src"), any(), any())).thenReturn(12);
+        LocalDate today = LocalDate.now();
+
+        assertThat(rollupService.refreshRecent()).isTrue();
+
+        Date from = Date.valueOf(today.minusDays(45));
+        Date to = Date.valueOf(today.plusDays(30));
+        verify(jdbcTemplate).update(startsWith("DELETE FROM pickup_analytics_rollup WHERE"), eq(from), eq(to));
+        verify(jdbcTemplate).update(startsWith("WITH src"), eq(from), eq(to));
+        verify(analyticsService).onRollupRefreshed(any());
+    }
+
+    @Test
+    void refreshRecent_skipsWhenAnotherInstanceHoldsTheLock() {
+        lockAvailable(false);
+
+        assertThat(rollupService.refreshRecent()).isFalse();
+
+        verify(jdbcTemplate, never()).update(anyString(), any(), any());
+        verify(analyticsService, never()).onRollupRefreshed(any());
+    }
+
+    @Test
+    void rebuildAll_coversFirstToLastPickupDate() {
+        LocalDate first = LocalDate.of(2024, 1, 5);
+        LocalDate last = LocalDate.of(2025, 6, 30);
+        when(jdbcTemplate.queryForObject(startsWith("SELECT min(pickup_date)"), any(RowMapper.class)))
+                .thenReturn(new LocalDate[]{first, last});
+        lockAvailable(true);
+        when(jdbcTemplate.update(startsWith("WITH src"), any(), any())).thenReturn(40);
+
+        assertThat(rollupService.rebuildAll()).isTrue();
+
+        verify(jdbcTemplate).update("DELETE FROM pickup_analytics_rollup");
+        verify(jdbcTemplate).update(startsWith("WITH src"), eq(Date.valueOf(first)), eq(Date.valueOf(last)));
+    }
+
+    @Test
+    void rebuildAll_withoutPickupsClearsTheRollup() {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT min(pickup_date)"), any(RowMapper.class)))
+                .thenReturn(new LocalDate[]{null, null});
+        lockAvailable(true);
+        when(jdbcTemplate.update(startsWith("WITH src"), any(), any())).thenReturn(0);
+
+        assertThat(rollupService.rebuildAll()).isTrue();
+
+        verify(jdbcTemplate).update("DELETE FROM pickup_analytics_rollup");
+        Date today = Date.valueOf(LocalDate.now());
+        verify(jdbcTemplate).update(startsWith("WITH src"), eq(today), eq(today));
+    }
+
+    private void lockAvailable(boolean available) {
+        when(jdbcTemplate.queryForObject(startsWith("SELECT pg_try_advisory_xact_lock"), eq(Boolean.class), anyLong()))
+                .thenReturn(available);
+    }
+}
@@ -0,0 +1,117 @@
+package com.fleetops.pickup.analytics;
+
+import com.fleetops.pickup.analytics.dto.ClientVolumeDto;
+import com.fleetops.pickup.analytics.dto.StatusCountDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PickupAnalyticsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PickupAnalyticsService service = new PickupAnalyticsService(jdbcTemplate, 60_000);
+
+    @Test
+    void resolveRange_defaultsToLastThirtyDaysEndingToday() {
+        LocalDate today = LocalDate.now();
+
+        LocalDate[] range = PickupAnalyticsService.resolveRange(null, null);
+
+        assertThat(range).containsExactly(today.minusDays(29), today);
+    }
+
+    @Test
+    void resolveRange_missingFromCountsBackThirtyDaysFromTo() {
+        assertThat(PickupAnalyticsService.resolveRange(null, DAY)).containsExactly(DAY.minusDays(29), DAY);
+    }
+
+    @Test
+    void resolveRange_singleDayIsAllowed() {
+        assertThat(PickupAnalyticsService.resolveRange(DAY, DAY)).containsExactly(DAY, DAY);
+    }
+
+    @Test
+    void resolveRange_rejectsFromAfterTo() {
+        assertThatThrownBy(() -> PickupAnalyticsService.resolveRange(DAY.plusDays(1), DAY))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("from must not be after to");
+    }
+
+    @Test
+    void resolveRange_acceptsExactlyMaxRangeDaysInclusive() {
+        LocalDate from = DAY.minusDays(PickupAnalyticsService.MAX_RANGE_DAYS - 1);
+
+        assertThat(PickupAnalyticsService.resolveRange(from, DAY)).containsExactly(from, DAY);
+    }
+
+    @Test
+    void resolveRange_rejectsOneDayOverMaxRange() {
+        LocalDate from = DAY.minusDays(PickupAnalyticsService.MAX_RANGE_DAYS);
+
+        assertThatThrownBy(() -> PickupAnalyticsService.resolveRange(from, DAY))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("366");
+    }
+
+    @Test
+    void getTopClients_clampsLimitToSupportedBounds() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any(), any())).thenReturn(List.of());
+
+        service.getTopClients(DAY, DAY, 0);
+        service.getTopClients(DAY, DAY, 10_000);
+
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class),
+                eq(Date.valueOf(DAY)), eq(Date.valueOf(DAY)), eq(1));
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class),
+                eq(Date.valueOf(DAY)), eq(Date.valueOf(DAY)), eq(PickupAnalyticsService.MAX_TOP_CLIENTS));
+    }
+
+    @Test
+    void getStatusDistribution_computesRoundedPercentages() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any()))
+                .thenReturn(List.of(status("completed", 2), status("pending", 1)));
+
+        List<StatusCountDto> rows = service.getStatusDistribution(DAY, DAY);
+
+        assertThat(rows).extracting(s -> s.percentage).containsExactly(66.67, 33.33);
+    }
+
+    @Test
+    void cachedAggregatesAreReloadedAfterRollupRefresh() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(), any(), any()))
+                .thenReturn(List.<ClientVolumeDto>of());
+
+        service.getTopClients(DAY, DAY, 10);
+        service.getTopClients(DAY, DAY, 10);
+        Instant refreshedAt = Instant.parse("2025-03-10T06:00:00Z");
+        service.onRollupRefreshed(refreshedAt);
+        service.getTopClients(DAY, DAY, 10);
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowMapper.class), any(), any(), any());
+        assertThat(service.getRefreshedAt()).isEqualTo(refreshedAt);
+    }
+
+    private static StatusCountDto status(String status, long count) {
+        StatusCountDto dto = new StatusCountDto();
+        dto.status = status;
+        dto.count = count;
+        return dto;
+    }
+}
@@ -0,0 +1,135 @@
+package com.fleetops.pickup.capacity;
+
+import com.fleetops.pickup.dto.AvailableSlotDto;
+import com.fleetops.user.dto.UserResponse;
+import com.fleetops.user.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PickupCapacityEngineTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 3, 10);
+    private static final LocalDate TOMORROW = TODAY.plusDays(1);
+
+    private PickupCapacityEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        UserService userService = mock(UserService.class);
+        when(userService.getActiveAgents()).thenReturn(List.of(agent(1L, "Asha"), agent(2L, "Ravi")));
+        Clock clock = Clock.fixed(LocalDateTime.of(TODAY, LocalTime.of(10, 15)).toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        // 08:00-10:00 in 30 minute slots: 4 slots per day
+        engine = new PickupCapacityEngine(null, userService, clock, 30, LocalTime.of(8, 0), LocalTime.of(10, 0), 1);
+        engine.refreshRoster();
+    }
+
+    @Test
+    void rejectsSecondBookingOfSameSlot() {
+        PickupCapacityEngine.Reservation first = engine.reserve(1L, TOMORROW, LocalTime.of(8, 10));
+        engine.bind(100L, first);
+
+        assertThatThrownBy(() -> engine.reserve(1L, TOMORROW, LocalTime.of(8, 29)))
+                .isInstanceOf(PickupSlotUnavailableException.class);
+        assertThat(engine.reserve(2L, TOMORROW, LocalTime.of(8, 10))).isNotNull();
+    }
+
+    @Test
+    void ignoresPickupsOutsideTheSlotGrid() {
+        assertThat(engine.reserve(1L, TOMORROW, LocalTime.of(7, 30))).isNull();
+        assertThat(engine.reserve(1L, TOMORROW, LocalTime.of(10, 0))).isNull();
+        assertThat(engine.reserve(null, TOMORROW, LocalTime.of(9, 0))).isNull();
+    }
+
+    @Test
+    void releaseFreesSlotAndCancelKeepsOtherBookings() {
+        engine.bind(100L, engine.reserve(1L, TOMORROW, LocalTime.of(8, 0)));
+        PickupCapacityEngine.Reservation pending = engine.reserve(1L, TOMORROW, LocalTime.of(8, 30));
+
+        engine.release(100L);
+        assertThat(engine.isFree(1L, TOMORROW, LocalTime.of(8, 0))).isTrue();
+        assertThat(engine.isFree(1L, TOMORROW, LocalTime.of(8, 30))).isFalse();
+
+        engine.cancel(pending);
+        assertThat(engine.isFree(1L, TOMORROW, LocalTime.of(8, 30))).isTrue();
+    }
+
+    @Test
+    void rebookKeepsOriginalSlotWhenTargetIsTaken() {
+        engine.bind(100L, engine.reserve(1L, TOMORROW, LocalTime.of(8, 0)));
+        engine.bind(101L, engine.reserve(1L, TOMORROW, LocalTime.of(9, 0)));
+
+        assertThatThrownBy(() -> engine.rebook(100L, 1L, TOMORROW, LocalTime.of(9, 0)))
+                .isInstanceOf(PickupSlotUnavailableException.class);
+        assertThat(engine.isFree(1L, TOMORROW, LocalTime.of(8, 0))).isFalse();
+
+        engine.rebook(100L, 2L, TOMORROW, LocalTime.of(9, 0));
+        assertThat(engine.isFree(1L, TOMORROW, LocalTime.of(8, 0))).isTrue();
+        assertThat(engine.isFree(2L, TOMORROW, LocalTime.of(9, 0))).isFalse();
+    }
+
+    @Test
+    void restorePutsBackPreviousBookingAfterRebook() {
+        engine.bind(100L, engine.reserve(1L, TOMORROW, LocalTime.of(8, 0)));
+        PickupCapacityEngine.Reservation previous = engine.bookingOf(100L);
+
+        engine.rebook(100L, 1L, TOMORROW, LocalTime.of(9, 0));
+        engine.restore(100L, previous);
+
+        assertThat(engine.bookingOf(100L)).isEqualTo(previous);
+        assertThat(engine.isFree(1L, TOMORROW, LocalTime.of(8, 0))).isFalse();
+        assertThat(engine.isFree(1L, TOMORROW, LocalTime.of(9, 0))).isTrue();
+    }
+
+    @Test
+    void restoreAfterReleaseRebooksAndRestoreOfNothingReleases() {
+        engine.bind(100L, engine.reserve(1L, TOMORROW, LocalTime.of(8, 0)));
+        PickupCapacityEngine.Reservation previous = engine.bookingOf(100L);
+
+        engine.release(100L);
+        engine.restore(100L, previous);
+        assertThat(engine.isFree(1L, TOMORROW, LocalTime.of(8, 0))).isFalse();
+
+        engine.restore(100L, null);
+        assertThat(engine.bookingOf(100L)).isNull();
+        assertThat(engine.isFree(1L, TOMORROW, LocalTime.of(8, 0))).isTrue();
+    }
+
+    @Test
+    void findsEarliestFreeSlotsSkippingStartedOnes() {
+        engine.bind(101L, engine.reserve(1L, TOMORROW, LocalTime.of(8, 0)));
+
+        List<AvailableSlotDto> slots = engine.findFreeSlots(TODAY, TOMORROW, List.of(), 3);
+
+        // Now is 10:15, after today's last slot, so results start tomorrow; Asha's 08:00 is booked
+        assertThat(slots).extracting(s -> s.date + " " + s.startTime + " " + s.staffId)
+                .containsExactly(
+                        TOMORROW + " 08:00 2",
+                        TOMORROW + " 08:30 1",
+                        TOMORROW + " 08:30 2");
+        assertThat(slots.get(0).staffName).isEqualTo("Ravi");
+        assertThat(slots.get(0).endTime).isEqualTo("08:30");
+    }
+
+    @Test
+    void filtersByRequestedStaff() {
+        List<AvailableSlotDto> slots = engine.findFreeSlots(TOMORROW, TOMORROW, List.of(2L, 99L), 10);
+
+        assertThat(slots).hasSize(4).allMatch(s -> s.staffId == 2L);
+    }
+
+    private static UserResponse agent(Long id, String name) {
+        return new UserResponse(id, name.toLowerCase(), null, name, null, List.of("AGENT"), true, null, null);
+    }
+}
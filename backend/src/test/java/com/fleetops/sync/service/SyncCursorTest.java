@@ -0,0 +1,63 @@
+package com.fleetops.sync.service;
+
+import com.fleetops.sync.service.SyncCursor.Stream;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyncCursorTest {
+
+    @Test
+    void initialCursorStartsEntityStreamsAtTheBeginningAndTombstonesAtTheGivenTime() {
+        Instant from = Instant.parse("2024-03-01T10:15:30.123456Z");
+
+        SyncCursor cursor = SyncCursor.initial(from);
+
+        assertThat(cursor.updatedAt(Stream.ORDERS)).isEqualTo(Instant.EPOCH);
+        assertThat(cursor.id(Stream.ORDERS)).isZero();
+        assertThat(cursor.updatedAt(Stream.TOMBSTONES)).isEqualTo(from);
+    }
+
+    @Test
+    void encodeDecodeRoundTripsEveryStreamAtMicrosecondPrecision() {
+        Instant at = Instant.parse("2024-03-01T10:15:30.123456Z");
+        SyncCursor cursor = SyncCursor.initial(Instant.EPOCH)
+            .advance(Stream.ORDERS, at, 42)
+            .advance(Stream.PICKUPS, at.plusSeconds(5), 7);
+
+        SyncCursor decoded = SyncCursor.decode(cursor.encode());
+
+        assertThat(decoded.updatedAt(Stream.ORDERS)).isEqualTo(at);
+        assertThat(decoded.id(Stream.ORDERS)).isEqualTo(42);
+        assertThat(decoded.updatedAt(Stream.PICKUPS)).isEqualTo(at.plusSeconds(5));
+        assertThat(decoded.id(Stream.PICKUPS)).isEqualTo(7);
+        assertThat(decoded.updatedAt(Stream.DELIVERY_SHEETS)).isEqualTo(Instant.EPOCH);
+    }
+
+    @Test
+    void advanceLeavesTheOriginalUnchanged() {
+        SyncCursor cursor = SyncCursor.initial(Instant.EPOCH);
+
+        cursor.advance(Stream.ORDERS, Instant.parse("2024-01-01T00:00:00Z"), 1);
+
+        assertThat(cursor.id(Stream.ORDERS)).isZero();
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = SyncCursor.initial(Instant.now()).advance(Stream.ORDERS, Instant.now(), Long.MAX_VALUE).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void decodeRejectsForeignValues() {
+        assertThatThrownBy(() -> SyncCursor.decode("not a cursor"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SyncCursor.decode("AAAA"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}